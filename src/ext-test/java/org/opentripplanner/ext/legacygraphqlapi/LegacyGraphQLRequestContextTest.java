@@ -0,0 +1,57 @@
+package org.opentripplanner.ext.legacygraphqlapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.TripPattern;
+import org.opentripplanner.routing.RoutingService;
+import org.opentripplanner.routing.graph.Graph;
+
+public class LegacyGraphQLRequestContextTest {
+
+    private static final Stop STOP_A = Stop.stopForTest("A", 60.0, 10.0);
+    private static final Stop STOP_B = Stop.stopForTest("B", 60.1, 10.0);
+
+    @Test
+    public void patternsForStopAreLookedUpOncePerRequest() {
+        CountingRoutingService routingService = new CountingRoutingService();
+        LegacyGraphQLRequestContext context = new LegacyGraphQLRequestContext(null, routingService);
+
+        Collection<TripPattern> first = context.getPatternsForStop(STOP_A);
+        assertSame(first, context.getPatternsForStop(STOP_A));
+        context.getPatternsForStop(STOP_B);
+        context.getPatternsForStop(STOP_B);
+
+        assertEquals(Map.of(STOP_A, 1, STOP_B, 1), routingService.lookupsByStop);
+    }
+
+    @Test
+    public void eachRequestHasItsOwnResults() {
+        CountingRoutingService routingService = new CountingRoutingService();
+
+        new LegacyGraphQLRequestContext(null, routingService).getPatternsForStop(STOP_A);
+        new LegacyGraphQLRequestContext(null, routingService).getPatternsForStop(STOP_A);
+
+        assertEquals(Map.of(STOP_A, 2), routingService.lookupsByStop);
+    }
+
+    private static class CountingRoutingService extends RoutingService {
+        private final Map<Stop, Integer> lookupsByStop = new HashMap<>();
+
+        CountingRoutingService() {
+            super(new Graph());
+        }
+
+        @Override
+        public Collection<TripPattern> getPatternsForStop(Stop stop, boolean includeRealtimeUpdates) {
+            lookupsByStop.merge(stop, 1, Integer::sum);
+            return List.of();
+        }
+    }
+}
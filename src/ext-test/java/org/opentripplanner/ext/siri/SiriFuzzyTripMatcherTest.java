@@ -0,0 +1,150 @@
+package org.opentripplanner.ext.siri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.model.Agency;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.Station;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.StopTransferPriority;
+import org.opentripplanner.model.Trip;
+import org.opentripplanner.model.WgsCoordinate;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.vertextype.TransitStopVertex;
+
+public class SiriFuzzyTripMatcherTest {
+
+    private static final WgsCoordinate COORDINATE = new WgsCoordinate(60.0, 10.0);
+
+    private Graph graph;
+
+    /** The feed of the first stop, preferred if an id exists in more than one feed. */
+    private String defaultFeed;
+    private String otherFeed;
+
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        for (String feed : List.of("A", "B")) {
+            graph.addAgency(feed, new Agency(new FeedScopedId(feed, "AGENCY"), "Agency", "Europe/Oslo"));
+            addStop(feed, "SHARED");
+            addStop(feed, "STOP_" + feed);
+        }
+        graph.index();
+
+        defaultFeed = graph.index.getAllStops().iterator().next().getId().getFeedId();
+        otherFeed = defaultFeed.equals("A") ? "B" : "A";
+
+        // Stations are not indexed by the graph index, so they can be added once the default feed is known
+        addStation(defaultFeed, "STOP_" + otherFeed);
+        addStation(otherFeed, "STOP_" + defaultFeed);
+        addStation(otherFeed, "STATION");
+    }
+
+    @Test
+    public void stopInTheDefaultFeedIsPreferred() {
+        SiriFuzzyTripMatcher matcher = SiriFuzzyTripMatcher.of(graph);
+
+        assertEquals(new FeedScopedId(defaultFeed, "SHARED"), matcher.getStop("SHARED"));
+        assertEquals(
+                new FeedScopedId(defaultFeed, "STOP_" + defaultFeed),
+                matcher.getStop("STOP_" + defaultFeed)
+        );
+    }
+
+    @Test
+    public void stationInTheDefaultFeedIsPreferredToStopInAnotherFeed() {
+        SiriFuzzyTripMatcher matcher = SiriFuzzyTripMatcher.of(graph);
+
+        assertEquals(
+                new FeedScopedId(defaultFeed, "STOP_" + otherFeed),
+                matcher.getStop("STOP_" + otherFeed)
+        );
+    }
+
+    @Test
+    public void stationInAnotherFeedIsFound() {
+        SiriFuzzyTripMatcher matcher = SiriFuzzyTripMatcher.of(graph);
+
+        assertEquals(new FeedScopedId(otherFeed, "STATION"), matcher.getStop("STATION"));
+        assertNull(matcher.getStop("UNKNOWN"));
+    }
+
+    @Test
+    public void oneMatcherIsSharedForEachGraph() {
+        SiriFuzzyTripMatcher matcher = SiriFuzzyTripMatcher.of(graph);
+
+        assertSame(matcher, SiriFuzzyTripMatcher.of(graph));
+    }
+
+    @Test
+    public void extraJourneysAreFoundByConcurrentLookups() throws Exception {
+        SiriFuzzyTripMatcher matcher = SiriFuzzyTripMatcher.of(graph);
+
+        // Extra journeys are added to the graph index after the matcher caches are built
+        int nJourneys = 200;
+        for (int i = 0; i < nJourneys; ++i) {
+            FeedScopedId id = new FeedScopedId(otherFeed, "EXTRA_" + i);
+            graph.index.getTripForId().put(id, new Trip(id));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                tasks.add(() -> {
+                    int found = 0;
+                    for (int i = 0; i < nJourneys; ++i) {
+                        if (new FeedScopedId(otherFeed, "EXTRA_" + i).equals(matcher.getTripId("EXTRA_" + i))
+                                && matcher.getStop("SHARED") != null) {
+                            ++found;
+                        }
+                    }
+                    return found;
+                });
+            }
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                assertEquals(nJourneys, (int) result.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void addStop(String feed, String id) {
+        Stop stop = new Stop(
+                new FeedScopedId(feed, id),
+                id,
+                null,
+                null,
+                COORDINATE,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+        new TransitStopVertex(graph, stop, null);
+    }
+
+    private void addStation(String feed, String id) {
+        FeedScopedId stationId = new FeedScopedId(feed, id);
+        graph.stationById.put(
+                stationId,
+                new Station(stationId, id, COORDINATE, null, null, null, null, StopTransferPriority.ALLOWED)
+        );
+    }
+}
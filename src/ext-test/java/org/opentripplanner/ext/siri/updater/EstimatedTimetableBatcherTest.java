@@ -0,0 +1,218 @@
+package org.opentripplanner.ext.siri.updater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.updater.GraphUpdater;
+import org.opentripplanner.updater.GraphUpdaterManager;
+import org.opentripplanner.updater.GraphWriterRunnable;
+import uk.org.siri.siri20.EstimatedCall;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
+import uk.org.siri.siri20.FramedVehicleJourneyRefStructure;
+
+public class EstimatedTimetableBatcherTest {
+
+    private static final String FEED_ID = "F";
+
+    private static final ZonedDateTime DAY_1 = ZonedDateTime.parse("2021-03-01T08:00:00+01:00");
+    private static final ZonedDateTime DAY_2 = DAY_1.plusDays(1);
+
+    private final BlockingQueue<List<EstimatedVehicleJourney>> applied = new LinkedBlockingQueue<>();
+
+    private Graph graph;
+    private StubUpdaterManager updaterManager;
+    private EstimatedTimetableBatcher batcher;
+
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        graph.index();
+        updaterManager = new StubUpdaterManager(graph);
+    }
+
+    @After
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.teardown();
+        }
+        updaterManager.stop();
+    }
+
+    @Test
+    public void eachMessageIsAppliedAtOnceWithoutWindow() {
+        batcher = batcher(0);
+        EstimatedVehicleJourney a = journey("A", DAY_1);
+        EstimatedVehicleJourney b = journey("B", DAY_1);
+
+        batcher.add(message(a), null);
+        assertEquals(List.of(a), applied.poll());
+
+        batcher.add(message(b), null);
+        assertEquals(List.of(b), applied.poll());
+        assertNull(applied.poll());
+    }
+
+    @Test
+    public void repeatedTripOnServiceDateIsReplacedInTheOrderOfTheLastUpdate() {
+        batcher = batcher(0);
+        EstimatedVehicleJourney a1 = journey("A", DAY_1);
+        EstimatedVehicleJourney b = journey("B", DAY_1);
+        EstimatedVehicleJourney aOnDay2 = journey("A", DAY_2);
+        EstimatedVehicleJourney a2 = journey("A", DAY_1);
+
+        batcher.add(message(a1, b, aOnDay2, a2), null);
+
+        List<EstimatedVehicleJourney> journeys = applied.poll();
+        assertEquals(3, journeys.size());
+        assertSame(b, journeys.get(0));
+        assertSame(aOnDay2, journeys.get(1));
+        assertSame(a2, journeys.get(2));
+    }
+
+    @Test
+    public void journeysWithoutIdOrAimedDepartureAreNeverReplaced() {
+        batcher = batcher(0);
+        EstimatedVehicleJourney noId1 = journey(null, DAY_1);
+        EstimatedVehicleJourney noId2 = journey(null, DAY_1);
+        EstimatedVehicleJourney noCalls1 = journey("A", null);
+        EstimatedVehicleJourney noCalls2 = journey("A", null);
+
+        batcher.add(message(noId1, noId2, noCalls1, noCalls2), null);
+
+        assertEquals(List.of(noId1, noId2, noCalls1, noCalls2), applied.poll());
+    }
+
+    @Test
+    public void messagesWithoutJourneysAreNotApplied() {
+        batcher = batcher(0);
+
+        batcher.add(message(), null);
+
+        assertEquals(0, updaterManager.nTasks);
+        assertNull(applied.poll());
+    }
+
+    @Test
+    public void messagesWithinTheWindowAreAppliedTogetherAndANewWindowIsStartedAfterwards()
+            throws InterruptedException {
+        batcher = batcher(200);
+        EstimatedVehicleJourney a1 = journey("A", DAY_1);
+        EstimatedVehicleJourney b = journey("B", DAY_1);
+        EstimatedVehicleJourney a2 = journey("A", DAY_1);
+
+        batcher.add(message(a1, b), ZonedDateTime.now());
+        batcher.add(message(a2), ZonedDateTime.now());
+
+        assertEquals(List.of(b, a2), applied.poll(10, TimeUnit.SECONDS));
+        assertEquals(1, updaterManager.nTasks);
+
+        // The flush is scheduled again after the queue is drained, so a later message is applied
+        EstimatedVehicleJourney c = journey("C", DAY_1);
+        batcher.add(message(c), ZonedDateTime.now());
+
+        assertEquals(List.of(c), applied.poll(10, TimeUnit.SECONDS));
+        assertEquals(2, updaterManager.nTasks);
+    }
+
+    private EstimatedTimetableBatcher batcher(long batchWindowMs) {
+        return new EstimatedTimetableBatcher(
+                new StubUpdater(),
+                updaterManager,
+                new RecordingSnapshotSource(graph, applied),
+                FEED_ID,
+                batchWindowMs
+        );
+    }
+
+    private static List<EstimatedTimetableDeliveryStructure> message(
+            EstimatedVehicleJourney... journeys
+    ) {
+        EstimatedVersionFrameStructure frame = new EstimatedVersionFrameStructure();
+        frame.getEstimatedVehicleJourneies().addAll(List.of(journeys));
+        EstimatedTimetableDeliveryStructure delivery = new EstimatedTimetableDeliveryStructure();
+        delivery.getEstimatedJourneyVersionFrames().add(frame);
+        return List.of(delivery);
+    }
+
+    private static EstimatedVehicleJourney journey(String id, ZonedDateTime aimedDeparture) {
+        EstimatedVehicleJourney journey = new EstimatedVehicleJourney();
+        if (id != null) {
+            FramedVehicleJourneyRefStructure ref = new FramedVehicleJourneyRefStructure();
+            ref.setDatedVehicleJourneyRef(id);
+            journey.setFramedVehicleJourneyRef(ref);
+        }
+        if (aimedDeparture != null) {
+            EstimatedCall call = new EstimatedCall();
+            call.setAimedDepartureTime(aimedDeparture);
+            EstimatedVehicleJourney.EstimatedCalls calls = new EstimatedVehicleJourney.EstimatedCalls();
+            calls.getEstimatedCalls().add(call);
+            journey.setEstimatedCalls(calls);
+        }
+        return journey;
+    }
+
+    /** Run the graph writer tasks at once, on the calling thread. */
+    private static class StubUpdaterManager extends GraphUpdaterManager {
+        private final Graph graph;
+        private volatile int nTasks = 0;
+
+        StubUpdaterManager(Graph graph) {
+            super(graph);
+            this.graph = graph;
+        }
+
+        @Override
+        public void execute(GraphUpdater updater, GraphWriterRunnable runnable) {
+            nTasks++;
+            runnable.run(graph);
+        }
+    }
+
+    /** Record the journeys applied by each task, instead of applying them. */
+    private static class RecordingSnapshotSource extends SiriTimetableSnapshotSource {
+        private final BlockingQueue<List<EstimatedVehicleJourney>> applied;
+
+        RecordingSnapshotSource(Graph graph, BlockingQueue<List<EstimatedVehicleJourney>> applied) {
+            super(graph);
+            this.applied = applied;
+        }
+
+        @Override
+        public void applyEstimatedTimetable(
+                Graph graph,
+                String feedId,
+                boolean fullDataset,
+                List<EstimatedTimetableDeliveryStructure> updates
+        ) {
+            List<EstimatedVehicleJourney> journeys = new ArrayList<>();
+            for (EstimatedTimetableDeliveryStructure delivery : updates) {
+                for (EstimatedVersionFrameStructure frame : delivery.getEstimatedJourneyVersionFrames()) {
+                    journeys.addAll(frame.getEstimatedVehicleJourneies());
+                }
+            }
+            applied.add(journeys);
+        }
+    }
+
+    private static class StubUpdater implements GraphUpdater {
+        @Override public void setGraphUpdaterManager(GraphUpdaterManager updaterManager) { }
+        @Override public void setup(Graph graph) { }
+        @Override public void run() { }
+        @Override public void teardown() { }
+        @Override public String getConfigRef() { return "test"; }
+    }
+}
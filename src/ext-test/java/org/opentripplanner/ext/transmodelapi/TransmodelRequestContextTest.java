@@ -0,0 +1,42 @@
+package org.opentripplanner.ext.transmodelapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.TripPattern;
+import org.opentripplanner.routing.RoutingService;
+import org.opentripplanner.routing.graph.Graph;
+
+public class TransmodelRequestContextTest {
+
+    private static final Stop STOP = Stop.stopForTest("A", 60.0, 10.0);
+
+    @Test
+    public void patternsForStopAreLookedUpOncePerRequest() {
+        CountingRoutingService routingService = new CountingRoutingService();
+        TransmodelRequestContext context = new TransmodelRequestContext(null, routingService);
+
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(context.getPatternsForStop(STOP).isEmpty());
+        }
+        assertEquals(1, routingService.nLookups);
+    }
+
+    private static class CountingRoutingService extends RoutingService {
+        private int nLookups = 0;
+
+        CountingRoutingService() {
+            super(new Graph());
+        }
+
+        @Override
+        public Collection<TripPattern> getPatternsForStop(Stop stop, boolean includeRealtimeUpdates) {
+            ++nLookups;
+            return List.of();
+        }
+    }
+}
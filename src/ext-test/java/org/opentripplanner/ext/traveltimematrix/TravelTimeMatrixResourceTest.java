@@ -0,0 +1,71 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.ws.rs.BadRequestException;
+import org.junit.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.config.JsonSupport;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.standalone.server.Router;
+
+public class TravelTimeMatrixResourceTest {
+
+    /** 400 x 1000 locations and 60 minutes are less than the limit of 50 million travel times. */
+    private static final String ORIGINS = locations(400);
+    private static final String DESTINATIONS = locations(1000);
+
+    @Test
+    public void departureTimesAreCountedByTheIterationStep() {
+        RouterConfig config = routerConfig(20);
+
+        assertEquals(
+                180,
+                TravelTimeMatrixService.nDepartureTimes(
+                        Duration.ofMinutes(60),
+                        config.raptorTuningParameters()
+                )
+        );
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void matrixIsTooLargeIfTheIterationStepIsShorterThanOneMinute() {
+        // 400 x 1000 x 180 departure times
+        resource(20).calculate(ORIGINS, DESTINATIONS, "2021-06-01", "08:00", 60);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void searchWindowShorterThanTheIterationStepIsRejected() {
+        resource(600).calculate(ORIGINS, DESTINATIONS, "2021-06-01", "08:00", 5);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void searchWindowMustBePositive() {
+        resource(60).calculate(ORIGINS, DESTINATIONS, "2021-06-01", "08:00", 0);
+    }
+
+    private static TravelTimeMatrixResource resource(int iterationStepSeconds) {
+        Router router = new Router(new Graph(), routerConfig(iterationStepSeconds));
+        router.defaultRoutingRequest = router.routerConfig.routingRequestDefaults();
+        return new TravelTimeMatrixResource(router);
+    }
+
+    private static RouterConfig routerConfig(int iterationStepSeconds) {
+        return new RouterConfig(
+                JsonSupport.jsonNodeForTest(
+                        "{ transit: { iterationDepartureStepInSeconds: " + iterationStepSeconds + " } }"
+                ),
+                "Test",
+                false
+        );
+    }
+
+    private static String locations(int n) {
+        return IntStream.range(0, n)
+                .mapToObj(i -> "59.9," + (10.0 + i / 10_000.0))
+                .collect(Collectors.joining(";"));
+    }
+}
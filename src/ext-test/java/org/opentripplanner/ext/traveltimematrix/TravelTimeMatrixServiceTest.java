@@ -0,0 +1,105 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.standalone.server.Router;
+
+/**
+ * Bus 764 leaves Hermann-Hesse-Straße at 06:05 and arrives at Furthmühle at 06:08 on weekdays.
+ */
+public class TravelTimeMatrixServiceTest {
+
+    private static final ZonedDateTime SIX_O_CLOCK = ZonedDateTime.of(
+            2020, 3, 3, 6, 0, 0, 0, ZoneId.of("Europe/Berlin")
+    );
+
+    private static final String HERMANN_HESSE_STRASSE = "de:08115:4778:0:3";
+    private static final String FURTHMUEHLE = "de:08115:4766:0:4";
+
+    private static Router router;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        Graph graph = ConstantsForTests.buildGtfsGraph(
+                ConstantsForTests.DEUFRINGEN_OSM,
+                ConstantsForTests.VVS_BUS_764_ONLY
+        );
+        graph.hasTransit = true;
+        graph.index();
+        router = new Router(graph, RouterConfig.DEFAULT);
+        router.startup();
+    }
+
+    @Test
+    public void travelTimeIsCalculatedForEachDepartureTime() {
+        TravelTimeMatrix matrix = service(1).calculate(
+                List.of(stop(HERMANN_HESSE_STRASSE)),
+                List.of(stop(FURTHMUEHLE))
+        );
+
+        assertEquals(1, matrix.nOrigins());
+        assertEquals(1, matrix.nDestinations());
+        assertEquals(10, matrix.departureTimes().length);
+        for (int t = 0; t < 10; ++t) {
+            assertEquals(
+                    SIX_O_CLOCK.plusMinutes(t).toInstant(),
+                    matrix.departureTimes()[t].toInstant()
+            );
+        }
+        // The bus arrives at 06:08 for all departures until it leaves at 06:05
+        assertEquals(8 * 60, matrix.travelTime(0, 0, 0));
+        assertEquals(3 * 60, matrix.travelTime(0, 0, 5));
+    }
+
+    @Test
+    public void parallelSearchesGiveTheSameMatrixAsASingleThread() {
+        List<GenericLocation> stops = router.graph.index.getAllStops().stream()
+                .map(it -> new GenericLocation(null, it.getId(), null, null))
+                .collect(Collectors.toList());
+
+        TravelTimeMatrix sequential = service(1).calculate(stops, stops);
+        TravelTimeMatrix parallel = service(4).calculate(stops, stops);
+
+        boolean reached = false;
+        for (int o = 0; o < stops.size(); ++o) {
+            for (int d = 0; d < stops.size(); ++d) {
+                for (int t = 0; t < sequential.departureTimes().length; ++t) {
+                    assertEquals(sequential.travelTime(o, d, t), parallel.travelTime(o, d, t));
+                    reached |= sequential.travelTime(o, d, t) != TravelTimeMatrix.UNREACHED;
+                }
+            }
+        }
+        assertTrue(reached);
+    }
+
+    private static TravelTimeMatrixService service(int nThreads) {
+        RoutingRequest request = router.defaultRoutingRequest.clone();
+        request.setDateTime(Date.from(SIX_O_CLOCK.toInstant()));
+        request.searchWindow = Duration.ofMinutes(10);
+        return new TravelTimeMatrixService(router, request, nThreads);
+    }
+
+    private static GenericLocation stop(String id) {
+        Stop stop = router.graph.index.getAllStops().stream()
+                .filter(it -> it.getId().getId().equals(id))
+                .findFirst()
+                .orElseThrow();
+        return new GenericLocation(null, stop.getId(), null, null);
+    }
+}
@@ -0,0 +1,109 @@
+package org.opentripplanner.ext.vectortiles;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.routing.bike_rental.BikeRentalStation;
+import org.opentripplanner.routing.bike_rental.BikeRentalStationService;
+import org.opentripplanner.routing.graph.Graph;
+
+public class VectorTileCacheTest {
+
+  /** Tile 14/9327/4742 covers Helsinki city centre */
+  private static final int Z = 14;
+  private static final int X = 9327;
+  private static final int Y = 4742;
+
+  private Graph graph;
+  private VectorTileCache subject;
+  private final AtomicInteger builds = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    graph = new Graph();
+    subject = VectorTileCache.forGraph(graph);
+  }
+
+  @Test
+  public void layersAreCachedPerGraph() {
+    VectorTile.Tile.Layer first = subject.get(layer("stops"), false, Z, X, Y, builder());
+    VectorTile.Tile.Layer second = subject.get(layer("stops"), false, Z, X, Y, builder());
+
+    assertSame(first, second);
+    assertEquals(1, builds.get());
+    assertSame(subject, VectorTileCache.forGraph(graph));
+    assertNotSame(subject, VectorTileCache.forGraph(new Graph()));
+  }
+
+  @Test
+  public void realtimeLayersAreInvalidatedWhenStationsChange() {
+    subject.get(layer("stops"), false, Z, X, Y, builder());
+    subject.get(layer("rentalStations"), true, Z, X, Y, builder());
+    assertEquals(2, builds.get());
+
+    BikeRentalStationService service = graph.getService(BikeRentalStationService.class);
+
+    // A station far away from the tile does not invalidate it
+    service.addBikeRentalStation(station(10.75, 59.91));
+    subject.get(layer("rentalStations"), true, Z, X, Y, builder());
+    assertEquals(2, builds.get());
+
+    // A station inside the tile only invalidates the realtime layer
+    service.addBikeRentalStation(station(24.94, 60.17));
+    subject.get(layer("stops"), false, Z, X, Y, builder());
+    subject.get(layer("rentalStations"), true, Z, X, Y, builder());
+    assertEquals(3, builds.get());
+  }
+
+  @Test
+  public void layerBuiltWhileAStationChangesIsNotCached() {
+    subject.get(layer("rentalStations"), true, Z, X, Y, builder());
+    subject.get(layer("rentalStations"), true, Z, X + 1, Y, () -> {
+      graph
+          .getService(BikeRentalStationService.class)
+          .addBikeRentalStation(station(10.75, 59.91));
+      return builder().get();
+    });
+    assertEquals(2, builds.get());
+
+    // The layer of the first tile was cached before the change, and is still valid
+    subject.get(layer("rentalStations"), true, Z, X, Y, builder());
+    assertEquals(2, builds.get());
+
+    subject.get(layer("rentalStations"), true, Z, X + 1, Y, builder());
+    assertEquals(3, builds.get());
+  }
+
+  private Supplier<VectorTile.Tile.Layer> builder() {
+    return () -> {
+      builds.incrementAndGet();
+      return VectorTile.Tile.Layer.newBuilder().setVersion(2).setName("layer").build();
+    };
+  }
+
+  private static BikeRentalStation station(double lon, double lat) {
+    BikeRentalStation station = new BikeRentalStation();
+    station.id = "station";
+    station.x = lon;
+    station.y = lat;
+    return station;
+  }
+
+  private static VectorTilesResource.LayerParameters layer(String name) {
+    return new VectorTilesResource.LayerParameters() {
+      @Override public String name() { return name; }
+      @Override public String type() { return null; }
+      @Override public String mapper() { return null; }
+      @Override public int maxZoom() { return 20; }
+      @Override public int minZoom() { return 9; }
+      @Override public int cacheMaxSeconds() { return -1; }
+      @Override public double expansionFactor() { return 0.25; }
+    };
+  }
+}
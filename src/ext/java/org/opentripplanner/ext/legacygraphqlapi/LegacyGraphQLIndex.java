@@ -13,6 +13,8 @@ import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.*;
 import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.standalone.server.Router;
@@ -26,8 +28,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -37,9 +40,26 @@ class LegacyGraphQLIndex {
 
   static private final GraphQLSchema indexSchema = buildSchema();
 
-  static final ExecutorService threadPool = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
-      .setNameFormat("GraphQLExecutor-%d")
-      .build());
+  private static final int MAX_QUEUED_QUERIES = 1000;
+
+  /**
+   * Queries in a batch request are executed in parallel, up to one thread per processor. When
+   * the queue is full the request thread executes the query itself, instead of creating more
+   * threads.
+   */
+  static final ExecutorService threadPool = ExecutorServiceMetrics.monitor(
+      Metrics.globalRegistry,
+      new ThreadPoolExecutor(
+          Runtime.getRuntime().availableProcessors(),
+          Runtime.getRuntime().availableProcessors(),
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(MAX_QUEUED_QUERIES),
+          new ThreadFactoryBuilder().setNameFormat("GraphQLExecutor-%d").setDaemon(true).build(),
+          new ThreadPoolExecutor.CallerRunsPolicy()
+      ),
+      "legacyGraphQL"
+  );
 
   static private GraphQLSchema buildSchema() {
     try {
@@ -1,12 +1,29 @@
 package org.opentripplanner.ext.legacygraphqlapi;
 
+import org.opentripplanner.model.Route;
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.standalone.server.Router;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The context of one GraphQL request. Some lookups are repeated for the same stop or pattern many
+ * times in a request, their results are memoized here for the rest of the request. The lookups
+ * run at once, they are not batched.
+ */
 public class LegacyGraphQLRequestContext {
   private final Router router;
   private final RoutingService routingService;
 
+  private final Map<Stop, Collection<TripPattern>> patternsForStop = new ConcurrentHashMap<>();
+  private final Map<Stop, Collection<Route>> routesForStop = new ConcurrentHashMap<>();
+  private final Map<TripPattern, Timetable> timetableForPattern = new ConcurrentHashMap<>();
+
   public LegacyGraphQLRequestContext(Router router, RoutingService routingService) {
     this.router = router;
     this.routingService = routingService;
@@ -19,4 +36,25 @@ public class LegacyGraphQLRequestContext {
   public RoutingService getRoutingService() {
     return routingService;
   }
+
+  /** All patterns for the stop, including patterns added by realtime updates. Memoized. */
+  public Collection<TripPattern> getPatternsForStop(Stop stop) {
+    return patternsForStop.computeIfAbsent(
+        stop,
+        it -> routingService.getPatternsForStop(it, true)
+    );
+  }
+
+  /** Memoized. */
+  public Collection<Route> getRoutesForStop(Stop stop) {
+    return routesForStop.computeIfAbsent(stop, routingService::getRoutesForStop);
+  }
+
+  /** The realtime updated timetable for today, see {@link RoutingService}. Memoized. */
+  public Timetable getTimetableForTripPattern(TripPattern pattern) {
+    return timetableForPattern.computeIfAbsent(
+        pattern,
+        routingService::getTimetableForTripPattern
+    );
+  }
 }
@@ -204,7 +204,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   public DataFetcher<Iterable<Route>> routes() {
     return environment -> getValue(
         environment,
-        stop -> getRoutingService(environment).getRoutesForStop(stop),
+        stop -> getContext(environment).getRoutesForStop(stop),
         station -> null
     );
   }
@@ -213,7 +213,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   public DataFetcher<Iterable<TripPattern>> patterns() {
     return environment -> getValue(
         environment,
-        stop -> getRoutingService(environment).getPatternsForStop(stop, true),
+        stop -> getContext(environment).getPatternsForStop(stop),
         station -> null
     );
   }
@@ -353,7 +353,11 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   }
 
   private RoutingService getRoutingService(DataFetchingEnvironment environment) {
-    return environment.<LegacyGraphQLRequestContext>getContext().getRoutingService();
+    return getContext(environment).getRoutingService();
+  }
+
+  private LegacyGraphQLRequestContext getContext(DataFetchingEnvironment environment) {
+    return environment.<LegacyGraphQLRequestContext>getContext();
   }
 
   private <T> T getValue(
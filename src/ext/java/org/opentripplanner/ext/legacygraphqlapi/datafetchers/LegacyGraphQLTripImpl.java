@@ -233,7 +233,8 @@ public class LegacyGraphQLTripImpl implements LegacyGraphQLDataFetchers.LegacyGr
         );
 
         //TODO: Pass serviceDate
-        Timetable timetable = routingService.getTimetableForTripPattern(tripPattern);
+        Timetable timetable = environment.<LegacyGraphQLRequestContext>getContext()
+            .getTimetableForTripPattern(tripPattern);
         return TripTimeShort.fromTripTimes(timetable, trip, serviceDay);
       } catch (ParseException e) {
         return null; // Invalid date format
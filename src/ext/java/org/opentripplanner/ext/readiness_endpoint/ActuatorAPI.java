@@ -1,5 +1,13 @@
 package org.opentripplanner.ext.readiness_endpoint;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.opentripplanner.standalone.server.OTPServer;
@@ -18,12 +26,34 @@ public class ActuatorAPI {
 
     private static final Logger LOG = LoggerFactory.getLogger(ActuatorAPI.class);
 
+    /**
+     * The registry exposed by the prometheus endpoint. It is added to the global meter registry
+     * used for all metrics in OTP, when the API is set up.
+     */
+    private static PrometheusMeterRegistry prometheusRegistry = null;
+
     private final Router router;
 
     public ActuatorAPI(@Context OTPServer otpServer) {
         this.router = otpServer.getRouter();
     }
 
+    /**
+     * Create the prometheus registry and add it to the global meter registry. Metrics recorded
+     * before this is called are not reported, so this should be called at startup. Calling this
+     * more than once has no effect.
+     */
+    public static synchronized void setUp() {
+        if (prometheusRegistry != null) { return; }
+
+        prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(prometheusRegistry);
+        new JvmGcMetrics().bindTo(prometheusRegistry);
+        new JvmThreadMetrics().bindTo(prometheusRegistry);
+        new ProcessorMetrics().bindTo(prometheusRegistry);
+        Metrics.addRegistry(prometheusRegistry);
+    }
+
     /**
      * List the actuator endpoints available
      */
@@ -38,6 +68,9 @@ public class ActuatorAPI {
             + "    },\n"
             + "    \"health\" : {\n"
             + "      \"href\" : \"/actuator/health\"\n"
+            + "    },\n"
+            + "    \"prometheus\" : {\n"
+            + "      \"href\" : \"/actuator/prometheus\"\n"
             + "    } "
             + "\n}" )
             .type("application/json").build();
@@ -68,4 +101,24 @@ public class ActuatorAPI {
             + "\n}" )
             .type("application/json").build();
     }
+
+    /**
+     * Return the metrics in the prometheus text format
+     */
+    @GET
+    @Path("/prometheus")
+    @Produces(TextFormat.CONTENT_TYPE_004)
+    public Response prometheus() {
+        if (prometheusRegistry == null) {
+            throw new WebApplicationException(Response
+                .status(Response.Status.NOT_FOUND)
+                .entity("Metrics are not set up\n")
+                .type("text/plain")
+                .build());
+        }
+        return Response.status(Response.Status.OK)
+            .entity(prometheusRegistry.scrape())
+            .type(TextFormat.CONTENT_TYPE_004)
+            .build();
+    }
 }
@@ -9,6 +9,7 @@ import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.DateMapper;
 import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.trippattern.TripTimes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +19,7 @@ import uk.org.siri.siri20.RecordedCall;
 import uk.org.siri.siri20.VehicleActivityStructure;
 import uk.org.siri.siri20.VehicleModesEnumeration;
 
+import java.lang.ref.WeakReference;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,6 +27,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is used for matching TripDescriptors without trip_ids to scheduled GTFS data and to
@@ -35,29 +39,57 @@ import java.util.Set;
  * and arrival times of the scheduled trip. The matching process will always be applied even in places where you have
  * good quality IDs in SIRI data and don't need it - we'd have to add a way to disable it.
  *
- * Several instances of this SiriFuzzyTripMatcher may appear in different SIRI updaters, but they all share a common
- * set of static Map fields. We generally don't advocate using static fields in this way, but as part of a sandbox
- * contribution we are maintaining this implementation.
+ * The caches are built for the graph of the given routing service when the matcher is created. Use
+ * {@link #of(Graph)} to get the matcher shared by all SIRI updaters of a graph, it is created when the first
+ * updater is set up for a new graph. The caches are not modified after they are built, except the vehicle
+ * journey cache, so the matcher can be used by several threads.
  */
 public class SiriFuzzyTripMatcher {
     private static final Logger LOG = LoggerFactory.getLogger(SiriFuzzyTripMatcher.class);
 
-    private RoutingService routingService;
+    /**
+     * The matcher of each graph, see {@link #of(Graph)}. The matchers reference their graph, so
+     * they are weakly referenced too, or an old graph would never be collected. The updaters
+     * keep the matcher alive while they use it.
+     */
+    private static final Map<Graph, WeakReference<SiriFuzzyTripMatcher>> MATCHERS_BY_GRAPH =
+            new WeakHashMap<>();
+
+    private final RoutingService routingService;
 
-    private static Map<String, Set<Trip>> mappedTripsCache = new HashMap<>();
-    private static Map<String, Set<Trip>> mappedVehicleRefCache = new HashMap<>();
-    private static Map<String, Set<Route>> mappedRoutesCache = new HashMap<>();
-    private static Map<String, Set<Trip>> start_stop_tripCache = new HashMap<>();
+    private final Map<String, Set<Trip>> mappedTripsCache = new HashMap<>();
+    private final Map<String, Set<Trip>> mappedVehicleRefCache = new HashMap<>();
+    private final Map<String, Set<Route>> mappedRoutesCache = new HashMap<>();
+    private final Map<String, Set<Trip>> start_stop_tripCache = new HashMap<>();
 
-    private static Map<String, Trip> vehicleJourneyTripCache = new HashMap<>();
+    /** Stop and station ids by the id without the feed id, see {@link #getStop(String)}. */
+    private final Map<String, FeedScopedId> stopIdCache = new HashMap<>();
+    private final Map<String, FeedScopedId> stationIdCache = new HashMap<>();
+    private String defaultFeedId;
 
-    private static Set<String> nonExistingStops = new HashSet<>();
+    private final Map<String, Trip> vehicleJourneyTripCache = new ConcurrentHashMap<>();
 
     public SiriFuzzyTripMatcher(RoutingService routingService) {
         this.routingService = routingService;
         initCache(this.routingService);
     }
 
+    /**
+     * Return the matcher of the given graph, shared by all SIRI updaters. The matcher is created
+     * the first time it is requested for a graph.
+     */
+    public static SiriFuzzyTripMatcher of(Graph graph) {
+        synchronized (MATCHERS_BY_GRAPH) {
+            WeakReference<SiriFuzzyTripMatcher> ref = MATCHERS_BY_GRAPH.get(graph);
+            SiriFuzzyTripMatcher matcher = ref == null ? null : ref.get();
+            if (matcher == null) {
+                matcher = new SiriFuzzyTripMatcher(new RoutingService(graph));
+                MATCHERS_BY_GRAPH.put(graph, new WeakReference<>(matcher));
+            }
+            return matcher;
+        }
+    }
+
     /**
      * Matches VehicleActivity to a set of possible Trips based on tripId
      */
@@ -182,7 +214,7 @@ public class SiriFuzzyTripMatcher {
                     Set<Trip> tripSet = start_stop_tripCache.get(createStartStopKey(quay.getId().getId(), secondsSinceMidnight));
                     if (tripSet != null) {
                         if (trips == null) {
-                            trips = tripSet;
+                            trips = new HashSet<>(tripSet);
                         } else {
                             trips.addAll(tripSet);
                         }
@@ -203,79 +235,95 @@ public class SiriFuzzyTripMatcher {
         return mappedTripsCache.getOrDefault(tripId, new HashSet<>());
     }
 
-    private static void initCache(RoutingService index) {
-        if (mappedTripsCache.isEmpty()) {
-
-            Set<Trip> trips = index.getPatternForTrip().keySet();
-            for (Trip trip : trips) {
+    private void initCache(RoutingService index) {
+        Set<Trip> trips = index.getPatternForTrip().keySet();
+        for (Trip trip : trips) {
 
-                TripPattern tripPattern = index.getPatternForTrip().get(trip);
+            TripPattern tripPattern = index.getPatternForTrip().get(trip);
 
-                    String currentTripId = getUnpaddedTripId(trip.getId().getId());
+                String currentTripId = getUnpaddedTripId(trip.getId().getId());
 
-                    if (mappedTripsCache.containsKey(currentTripId)) {
-                        mappedTripsCache.get(currentTripId).add(trip);
-                    } else {
-                        Set<Trip> initialSet = new HashSet<>();
-                        initialSet.add(trip);
-                        mappedTripsCache.put(currentTripId, initialSet);
-                    }
-
-                if (tripPattern != null &&
-                        (tripPattern.getMode().equals(TraverseMode.RAIL) /*||
-                                                    (trip.getTransportSubmode() != null &&
-                                                            trip.getTransportSubmode().equals(TransmodelTransportSubmode.RAIL_REPLACEMENT_BUS))*/)) {
-                    // TODO - SIRI: Add support for submode
-                    if (trip.getTripShortName() != null) {
-                        String tripShortName = trip.getTripShortName();
-                        if (mappedVehicleRefCache.containsKey(tripShortName)) {
-                            mappedVehicleRefCache.get(tripShortName).add(trip);
-                        } else {
-                            Set<Trip> initialSet = new HashSet<>();
-                            initialSet.add(trip);
-                            mappedVehicleRefCache.put(tripShortName, initialSet);
-                        }
-                    }
+                if (mappedTripsCache.containsKey(currentTripId)) {
+                    mappedTripsCache.get(currentTripId).add(trip);
+                } else {
+                    Set<Trip> initialSet = new HashSet<>();
+                    initialSet.add(trip);
+                    mappedTripsCache.put(currentTripId, initialSet);
                 }
-                String lastStopId = tripPattern.getStops().get(tripPattern.getStops().size()-1).getId().getId();
-
-                TripTimes tripTimes = tripPattern.scheduledTimetable.getTripTimes(trip);
-                if (tripTimes != null) {
-                    int arrivalTime = tripTimes.getArrivalTime(tripTimes.getNumStops() - 1);
 
-                    String key = createStartStopKey(lastStopId, arrivalTime);
-                    if (start_stop_tripCache.containsKey(key)) {
-                        start_stop_tripCache.get(key).add(trip);
+            if (tripPattern != null &&
+                    (tripPattern.getMode().equals(TraverseMode.RAIL) /*||
+                                                (trip.getTransportSubmode() != null &&
+                                                        trip.getTransportSubmode().equals(TransmodelTransportSubmode.RAIL_REPLACEMENT_BUS))*/)) {
+                // TODO - SIRI: Add support for submode
+                if (trip.getTripShortName() != null) {
+                    String tripShortName = trip.getTripShortName();
+                    if (mappedVehicleRefCache.containsKey(tripShortName)) {
+                        mappedVehicleRefCache.get(tripShortName).add(trip);
                     } else {
                         Set<Trip> initialSet = new HashSet<>();
                         initialSet.add(trip);
-                        start_stop_tripCache.put(key, initialSet);
+                        mappedVehicleRefCache.put(tripShortName, initialSet);
                     }
                 }
             }
-            Set<Route> routes = index.getPatternsForRoute().keySet();
-            for (Route route : routes) {
+            String lastStopId = tripPattern.getStops().get(tripPattern.getStops().size()-1).getId().getId();
+
+            TripTimes tripTimes = tripPattern.scheduledTimetable.getTripTimes(trip);
+            if (tripTimes != null) {
+                int arrivalTime = tripTimes.getArrivalTime(tripTimes.getNumStops() - 1);
 
-                String currentRouteId = getUnpaddedTripId(route.getId().getId());
-                if (mappedRoutesCache.containsKey(currentRouteId)) {
-                    mappedRoutesCache.get(currentRouteId).add(route);
+                String key = createStartStopKey(lastStopId, arrivalTime);
+                if (start_stop_tripCache.containsKey(key)) {
+                    start_stop_tripCache.get(key).add(trip);
                 } else {
-                    Set<Route> initialSet = new HashSet<>();
-                    initialSet.add(route);
-                    mappedRoutesCache.put(currentRouteId, initialSet);
+                    Set<Trip> initialSet = new HashSet<>();
+                    initialSet.add(trip);
+                    start_stop_tripCache.put(key, initialSet);
                 }
             }
+        }
+        Set<Route> routes = index.getPatternsForRoute().keySet();
+        for (Route route : routes) {
+
+            String currentRouteId = getUnpaddedTripId(route.getId().getId());
+            if (mappedRoutesCache.containsKey(currentRouteId)) {
+                mappedRoutesCache.get(currentRouteId).add(route);
+            } else {
+                Set<Route> initialSet = new HashSet<>();
+                initialSet.add(route);
+                mappedRoutesCache.put(currentRouteId, initialSet);
+            }
+        }
 
-            LOG.info("Built route-cache [{}].", mappedRoutesCache.size());
-            LOG.info("Built vehicleRef-cache [{}].", mappedVehicleRefCache.size());
-            LOG.info("Built trips-cache [{}].", mappedTripsCache.size());
-            LOG.info("Built start-stop-cache [{}].", start_stop_tripCache.size());
+        LOG.info("Built route-cache [{}].", mappedRoutesCache.size());
+        LOG.info("Built vehicleRef-cache [{}].", mappedVehicleRefCache.size());
+        LOG.info("Built trips-cache [{}].", mappedTripsCache.size());
+        LOG.info("Built start-stop-cache [{}].", start_stop_tripCache.size());
+
+        index
+            .getTripForId()
+            .values().forEach(trip -> vehicleJourneyTripCache.put(trip.getId().getId(), trip));
+
+        // Assume same agency as the first stop if an id exist in more than one feed
+        defaultFeedId = index.getAllStops().stream()
+            .findFirst()
+            .map(it -> it.getId().getFeedId())
+            .orElse(null);
+        for (Stop stop : index.getAllStops()) {
+            addStopId(stopIdCache, stop.getId(), defaultFeedId);
+        }
+        for (Station station : index.getStations()) {
+            addStopId(stationIdCache, station.getId(), defaultFeedId);
         }
+        LOG.info("Built stop-cache [{}].", stopIdCache.size());
+    }
 
-        if (vehicleJourneyTripCache.isEmpty()) {
-            index
-                .getTripForId()
-                .values().forEach(trip -> vehicleJourneyTripCache.put(trip.getId().getId(), trip));
+    private static void addStopId(Map<String, FeedScopedId> cache, FeedScopedId id, String defaultFeedId) {
+        if (id.getFeedId().equals(defaultFeedId)) {
+            cache.put(id.getId(), id);
+        } else {
+            cache.putIfAbsent(id.getId(), id);
         }
     }
 
@@ -298,39 +346,20 @@ public class SiriFuzzyTripMatcher {
 
     public FeedScopedId getStop(String siriStopId) {
 
-        if (nonExistingStops.contains(siriStopId)) {
-            return null;
-        }
-
         // TODO OTP2 #2838 - Guessing on the feedId is not a deterministic way to find a stop.
 
         //First, assume same agency
-
-        Stop firstStop = routingService.getAllStops().stream().findFirst().get();
-        FeedScopedId id = new FeedScopedId(firstStop.getId().getFeedId(), siriStopId);
-        if (routingService.getStopForId(id) != null) {
-            return id;
-        }
-        else if (routingService.getStationById(id) != null) {
-            return id;
+        FeedScopedId stopId = stopIdCache.get(siriStopId);
+        if (stopId != null && stopId.getFeedId().equals(defaultFeedId)) {
+            return stopId;
         }
-
-        //Not same agency - loop through all stops/Stations
-        Collection<Stop> stops = routingService.getAllStops();
-        for (Stop stop : stops) {
-            if (stop.getId().getId().equals(siriStopId)) {
-                return stop.getId();
-            }
-        }
-        //No match found in quays - check parent-stops (stopplace)
-        for (Station station : routingService.getStations()) {
-            if (station.getId().getId().equals(siriStopId)) {
-                return station.getId();
-            }
+        FeedScopedId stationId = stationIdCache.get(siriStopId);
+        if (stationId != null && stationId.getFeedId().equals(defaultFeedId)) {
+            return stationId;
         }
 
-        nonExistingStops.add(siriStopId);
-        return null;
+        //Not same agency - check quays, then parent-stops (stopplace)
+        return stopId != null ? stopId : stationId;
     }
 
     public Set<Route> getRoutes(String lineRefValue) {
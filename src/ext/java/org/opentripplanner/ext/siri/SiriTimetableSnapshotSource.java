@@ -1,6 +1,8 @@
 package org.opentripplanner.ext.siri;
 
 import com.google.common.base.Preconditions;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.opentripplanner.model.Agency;
 import org.opentripplanner.model.FeedScopedId;
 import org.opentripplanner.model.Operator;
@@ -59,6 +61,12 @@ import static org.opentripplanner.model.StopPattern.PICKDROP_SCHEDULED;
 public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     private static final Logger LOG = LoggerFactory.getLogger(SiriTimetableSnapshotSource.class);
 
+    private static final Timer COMMIT_TIMER = Timer.builder("timetableSnapshot.commit")
+            .description("Time to commit the timetable snapshot buffer, including the transit layer update")
+            .tag("source", "siri")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
     private static boolean keepLogging = true;
 
     public int logFrequency = 2000;
@@ -121,7 +129,7 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         timeZone = graph.getTimeZone();
         routingService = new RoutingService(graph);
         transitLayerUpdater = graph.transitLayerUpdater;
-        siriFuzzyTripMatcher = new SiriFuzzyTripMatcher(routingService);
+        siriFuzzyTripMatcher = SiriFuzzyTripMatcher.of(graph);
     }
 
     /**
@@ -155,7 +163,7 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         if (force || now - lastSnapshotTime > maxSnapshotFrequency) {
             if (force || buffer.isDirty()) {
                 LOG.debug("Committing {}", buffer.toString());
-                snapshot = buffer.commit(transitLayerUpdater, force);
+                snapshot = COMMIT_TIMER.record(() -> buffer.commit(transitLayerUpdater, force));
             } else {
                 LOG.debug("Buffer was unchanged, keeping old snapshot.");
             }
@@ -0,0 +1,207 @@
+package org.opentripplanner.ext.siri.updater;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
+import org.opentripplanner.updater.GraphUpdater;
+import org.opentripplanner.updater.GraphUpdaterManager;
+import uk.org.siri.siri20.EstimatedCall;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
+import uk.org.siri.siri20.RecordedCall;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collect the SIRI ET deliveries received within a time window, and apply them to the timetable
+ * snapshot in one graph writer task. Each task takes the snapshot buffer lock once and commits at
+ * most one snapshot, instead of once for every message.
+ * <p>
+ * If a trip is updated more than once on the same service date within the window, only the last
+ * update is applied. The updates replace the trip times of the trip, so the result is the same as
+ * applying all of them in order.
+ * <p>
+ * The number of messages waiting and the time from the SIRI response timestamp until the update is
+ * applied are published as metrics, tagged with the updater config ref.
+ */
+class EstimatedTimetableBatcher {
+
+    private final GraphUpdater updater;
+    private final GraphUpdaterManager updaterManager;
+    private final SiriTimetableSnapshotSource snapshotSource;
+    private final String feedId;
+    private final long batchWindowMs;
+
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private final Timer lagTimer;
+
+    EstimatedTimetableBatcher(
+            GraphUpdater updater,
+            GraphUpdaterManager updaterManager,
+            SiriTimetableSnapshotSource snapshotSource,
+            String feedId,
+            long batchWindowMs
+    ) {
+        this.updater = updater;
+        this.updaterManager = updaterManager;
+        this.snapshotSource = snapshotSource;
+        this.feedId = feedId;
+        this.batchWindowMs = batchWindowMs;
+        this.scheduler = batchWindowMs > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "siri-et-batcher");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+
+        String name = updater.getConfigRef() != null
+                ? updater.getConfigRef()
+                : updater.getClass().getSimpleName();
+
+        Gauge.builder("siriEtUpdater.queuedMessages", queueSize, AtomicInteger::get)
+                .description("Number of SIRI ET messages waiting to be applied")
+                .tag("updater", name)
+                .register(Metrics.globalRegistry);
+        this.lagTimer = Timer.builder("siriEtUpdater.lag")
+                .description("Time from the SIRI ET response timestamp until the update is applied")
+                .tag("updater", name)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Queue the deliveries of a message. They are applied when the batch window ends, or at once
+     * if the window is 0.
+     *
+     * @param responseTimestamp the SIRI response timestamp, used to measure the lag, may be null.
+     */
+    void add(
+            List<EstimatedTimetableDeliveryStructure> deliveries,
+            ZonedDateTime responseTimestamp
+    ) {
+        queue.add(new Message(deliveries, responseTimestamp));
+        queueSize.incrementAndGet();
+
+        if (scheduler == null) {
+            flush();
+        }
+        else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void teardown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void flush() {
+        // Reset the flag before the queue is drained, messages added after this are either
+        // drained now or by the next flush.
+        flushScheduled.set(false);
+
+        List<Long> responseTimestamps = new ArrayList<>();
+        Map<Object, EstimatedVehicleJourney> journeys = new LinkedHashMap<>();
+        Message message;
+
+        while ((message = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            if (message.responseTimestamp != null) {
+                responseTimestamps.add(message.responseTimestamp.toInstant().toEpochMilli());
+            }
+            for (EstimatedTimetableDeliveryStructure delivery : message.deliveries) {
+                for (EstimatedVersionFrameStructure frame : delivery.getEstimatedJourneyVersionFrames()) {
+                    for (EstimatedVehicleJourney journey : frame.getEstimatedVehicleJourneies()) {
+                        Object key = tripOnServiceDateKey(journey);
+                        // Remove first to keep the journeys in the order of the last update
+                        journeys.remove(key);
+                        journeys.put(key, journey);
+                    }
+                }
+            }
+        }
+        if (journeys.isEmpty()) {
+            return;
+        }
+
+        EstimatedVersionFrameStructure frame = new EstimatedVersionFrameStructure();
+        frame.getEstimatedVehicleJourneies().addAll(journeys.values());
+        EstimatedTimetableDeliveryStructure delivery = new EstimatedTimetableDeliveryStructure();
+        delivery.getEstimatedJourneyVersionFrames().add(frame);
+
+        updaterManager.execute(updater, graph -> {
+            snapshotSource.applyEstimatedTimetable(graph, feedId, false, List.of(delivery));
+
+            long now = System.currentTimeMillis();
+            for (long timestamp : responseTimestamps) {
+                lagTimer.record(now - timestamp, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * The journey id and the date of the first aimed departure. If the journey has no id or no
+     * aimed departure the journey itself is returned, so it is never replaced.
+     */
+    private static Object tripOnServiceDateKey(EstimatedVehicleJourney journey) {
+        String id = null;
+        if (journey.getFramedVehicleJourneyRef() != null) {
+            id = journey.getFramedVehicleJourneyRef().getDatedVehicleJourneyRef();
+        }
+        else if (journey.getDatedVehicleJourneyRef() != null) {
+            id = journey.getDatedVehicleJourneyRef().getValue();
+        }
+        else if (journey.getEstimatedVehicleJourneyCode() != null) {
+            id = journey.getEstimatedVehicleJourneyCode();
+        }
+
+        ZonedDateTime firstDeparture = null;
+        if (journey.getRecordedCalls() != null
+                && !journey.getRecordedCalls().getRecordedCalls().isEmpty()) {
+            RecordedCall firstCall = journey.getRecordedCalls().getRecordedCalls().get(0);
+            firstDeparture = firstCall.getAimedDepartureTime();
+        }
+        else if (journey.getEstimatedCalls() != null
+                && !journey.getEstimatedCalls().getEstimatedCalls().isEmpty()) {
+            EstimatedCall firstCall = journey.getEstimatedCalls().getEstimatedCalls().get(0);
+            firstDeparture = firstCall.getAimedDepartureTime();
+        }
+
+        if (id == null || firstDeparture == null) {
+            return journey;
+        }
+        return id + "_" + firstDeparture.toLocalDate();
+    }
+
+    private static class Message {
+        private final List<EstimatedTimetableDeliveryStructure> deliveries;
+        private final ZonedDateTime responseTimestamp;
+
+        private Message(
+                List<EstimatedTimetableDeliveryStructure> deliveries,
+                ZonedDateTime responseTimestamp
+        ) {
+            this.deliveries = deliveries;
+            this.responseTimestamp = responseTimestamp;
+        }
+    }
+}
@@ -56,7 +56,8 @@ import java.util.concurrent.atomic.AtomicLong;
  *   "type": "google-pubsub-siri-et-updater",
  *   "projectName":"project-1234",                                                      // Google Cloud project name
  *   "topicName": "protobuf.estimated_timetables",                                      // Google Cloud Pubsub topic
- *   "dataInitializationUrl": "http://server/realtime/protobuf/et"  // Optional URL used to initialize OTP with all existing data
+ *   "dataInitializationUrl": "http://server/realtime/protobuf/et", // Optional URL used to initialize OTP with all existing data
+ *   "batchWindowMs": 1000                                          // Optional, updates received within this window are applied together, default 0 applies each message at once
  * </pre>
  *
  */
@@ -90,6 +91,13 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
      */
     private final int reconnectPeriodSec;
 
+    /**
+     * The updates received within this number of milliseconds are applied together.
+     */
+    private final int batchWindowMs;
+
+    private EstimatedTimetableBatcher batcher;
+
     private final SubscriptionAdminClient subscriptionAdminClient;
     private final ProjectSubscriptionName subscriptionName;
     private final ProjectTopicName topic;
@@ -108,6 +116,7 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
         this.dataInitializationUrl = URI.create(config.getDataInitializationUrl());
         this.feedId = config.getFeedId();
         this.reconnectPeriodSec = config.getReconnectPeriodSec();
+        this.batchWindowMs = config.getBatchWindowMs();
 
         // set subscriber
         String subscriptionId = System.getenv("HOSTNAME");
@@ -195,6 +204,8 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
 
         startTime = now();
 
+        batcher = new EstimatedTimetableBatcher(this, updaterManager, snapshotSource, feedId, batchWindowMs);
+
         final EstimatedTimetableMessageReceiver receiver = new EstimatedTimetableMessageReceiver();
 
         int sleepPeriod = 1000;
@@ -244,6 +255,9 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
 
     @Override
     public void teardown() {
+        if (batcher != null) {
+            batcher.teardown();
+        }
         if (subscriptionAdminClient != null) {
             LOG.info("Deleting subscription {}", subscriptionName);
             subscriptionAdminClient.deleteSubscription(subscriptionName);
@@ -320,7 +334,6 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
             }
 
             if (siri.getServiceDelivery() != null) {
-                // Handle trip updates via graph writer runnable
                 List<EstimatedTimetableDeliveryStructure> estimatedTimetableDeliveries = siri.getServiceDelivery().getEstimatedTimetableDeliveries();
 
                 int numberOfUpdatedTrips = 0;
@@ -338,9 +351,8 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
                             getTimeSinceStartupString());
                 }
 
-                updaterManager.execute(graph -> {
-                    snapshotSource.applyEstimatedTimetable(graph, feedId, false, estimatedTimetableDeliveries);
-                });
+                // Handle trip updates in batches, via graph writer runnable
+                batcher.add(estimatedTimetableDeliveries, siri.getServiceDelivery().getResponseTimestamp());
             }
 
             // Ack only after all work for the message is complete.
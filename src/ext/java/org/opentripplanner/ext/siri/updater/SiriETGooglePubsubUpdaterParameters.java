@@ -9,6 +9,7 @@ public class SiriETGooglePubsubUpdaterParameters {
   private final String dataInitializationUrl;
   private final int reconnectPeriodSec;
   private final boolean purgeExpiredData;
+  private final int batchWindowMs;
 
   public SiriETGooglePubsubUpdaterParameters(
       String configRef,
@@ -18,7 +19,8 @@ public class SiriETGooglePubsubUpdaterParameters {
       String topicName,
       String dataInitializationUrl,
       int reconnectPeriodSec,
-      boolean purgeExpiredData
+      boolean purgeExpiredData,
+      int batchWindowMs
   ) {
     this.configRef = configRef;
     this.feedId = feedId;
@@ -28,6 +30,7 @@ public class SiriETGooglePubsubUpdaterParameters {
     this.dataInitializationUrl = dataInitializationUrl;
     this.reconnectPeriodSec = reconnectPeriodSec;
     this.purgeExpiredData = purgeExpiredData;
+    this.batchWindowMs = batchWindowMs;
   }
 
   String getConfigRef() { return configRef; }
@@ -38,4 +41,5 @@ public class SiriETGooglePubsubUpdaterParameters {
   String getDataInitializationUrl() { return this.dataInitializationUrl; }
   boolean purgeExpiredData() { return this.purgeExpiredData; }
   int getReconnectPeriodSec() { return this.reconnectPeriodSec; }
+  int getBatchWindowMs() { return this.batchWindowMs; }
 }
@@ -4,7 +4,6 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.opentripplanner.ext.siri.SiriAlertsUpdateHandler;
 import org.opentripplanner.ext.siri.SiriFuzzyTripMatcher;
 import org.opentripplanner.ext.siri.SiriHttpUtils;
-import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
 import org.opentripplanner.routing.services.TransitAlertService;
@@ -85,7 +84,7 @@ public class SiriSXUpdater extends PollingGraphUpdater {
     @Override
     public void setup(Graph graph) {
         this.transitAlertService = new TransitAlertServiceImpl(graph);
-        SiriFuzzyTripMatcher fuzzyTripMatcher = new SiriFuzzyTripMatcher(new RoutingService(graph));
+        SiriFuzzyTripMatcher fuzzyTripMatcher = SiriFuzzyTripMatcher.of(graph);
         if (updateHandler == null) {
             updateHandler = new SiriAlertsUpdateHandler(feedId, graph);
         }
@@ -107,7 +106,7 @@ public class SiriSXUpdater extends PollingGraphUpdater {
                     moreData = BooleanUtils.isTrue(serviceDelivery.isMoreData());
                     final boolean markPrimed = !moreData;
                     if (serviceDelivery.getSituationExchangeDeliveries() != null) {
-                        updaterManager.execute(graph -> {
+                        updaterManager.execute(this, graph -> {
                             updateHandler.update(serviceDelivery);
                             if (markPrimed) primed = true;
                         });
@@ -3,7 +3,6 @@ package org.opentripplanner.ext.siri.updater;
 import org.apache.commons.lang3.BooleanUtils;
 import org.opentripplanner.ext.siri.SiriFuzzyTripMatcher;
 import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
-import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.updater.GraphUpdaterManager;
 import org.opentripplanner.updater.PollingGraphUpdater;
@@ -106,7 +105,7 @@ public class SiriVMUpdater extends PollingGraphUpdater {
     @Override
     public void setup(Graph graph) {
         if (fuzzyTripMatching) {
-            this.siriFuzzyTripMatcher = new SiriFuzzyTripMatcher(new RoutingService(graph));
+            this.siriFuzzyTripMatcher = SiriFuzzyTripMatcher.of(graph);
         }
         // Only create a realtime data snapshot source if none exists already
         // TODO OTP2 - This is thread safe, but only because updater setup methods are called sequentially.
@@ -125,9 +124,6 @@ public class SiriVMUpdater extends PollingGraphUpdater {
         if (purgeExpiredData != null) {
             snapshotSource.purgeExpiredData = purgeExpiredData;
         }
-        if (siriFuzzyTripMatcher != null) {
-            siriFuzzyTripMatcher = new SiriFuzzyTripMatcher(new RoutingService(graph));
-        }
     }
 
     /**
@@ -149,7 +145,7 @@ public class SiriVMUpdater extends PollingGraphUpdater {
                 final boolean markPrimed = !moreData;
                 List<VehicleMonitoringDeliveryStructure> vmds = serviceDelivery.getVehicleMonitoringDeliveries();
                 if (vmds != null) {
-                    updaterManager.execute(graph -> {
+                    updaterManager.execute(this, graph -> {
                         snapshotSource.applyVehicleMonitoring(graph, feedId, fullDataset, vmds);
                         if (markPrimed) primed = true;
                     });
@@ -7,6 +7,8 @@ import graphql.GraphQL;
 import graphql.GraphQLError;
 import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.schema.GraphQLSchema;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.standalone.server.Router;
 import org.slf4j.Logger;
@@ -18,21 +20,40 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 class TransmodelGraph {
 
     static final Logger LOG = LoggerFactory.getLogger(TransmodelGraph.class);
 
+    private static final int MAX_QUEUED_QUERIES = 1000;
+
     private final GraphQLSchema indexSchema;
 
+    /** Executes the queries of a batch request, see the legacy GraphQL API for details. */
     final ExecutorService threadPool;
 
     TransmodelGraph(GraphQLSchema schema) {
-        this.threadPool = Executors.newCachedThreadPool(
-                new ThreadFactoryBuilder().setNameFormat("GraphQLExecutor-%d").build()
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        this.threadPool = ExecutorServiceMetrics.monitor(
+                Metrics.globalRegistry,
+                new ThreadPoolExecutor(
+                        nThreads,
+                        nThreads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(MAX_QUEUED_QUERIES),
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("TransmodelGraphQLExecutor-%d")
+                                .setDaemon(true)
+                                .build(),
+                        new ThreadPoolExecutor.CallerRunsPolicy()
+                ),
+                "transmodelGraphQL"
         );
         this.indexSchema = schema;
     }
@@ -478,8 +478,8 @@ public class TransmodelGraphQLSchema {
                   .filter(stop -> {
                     boolean filterByInUse = TRUE.equals(environment.getArgument("filterByInUse"));
                     boolean inUse = !GqlUtil
-                        .getRoutingService(environment)
-                        .getPatternsForStop(stop, true)
+                        .getRequestContext(environment)
+                        .getPatternsForStop(stop)
                         .isEmpty();
                     return !filterByInUse || inUse;
                   })
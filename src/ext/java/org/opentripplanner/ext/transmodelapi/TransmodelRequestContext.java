@@ -1,12 +1,24 @@
 package org.opentripplanner.ext.transmodelapi;
 
+import org.opentripplanner.model.Stop;
+import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.routing.RoutingService;
 import org.opentripplanner.standalone.server.Router;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The context of one GraphQL request. The patterns of a stop are looked up many times in a
+ * request by the "filterByInUse" filters, they are memoized here for the rest of the request.
+ */
 public class TransmodelRequestContext {
   private final Router router;
   private final RoutingService routingService;
 
+  private final Map<Stop, Collection<TripPattern>> patternsForStop = new ConcurrentHashMap<>();
+
   public TransmodelRequestContext(Router router, RoutingService routingService) {
     this.router = router;
     this.routingService = routingService;
@@ -19,4 +31,12 @@ public class TransmodelRequestContext {
   public RoutingService getRoutingService() {
     return routingService;
   }
+
+  /** All patterns for the stop, including patterns added by realtime updates. Memoized. */
+  public Collection<TripPattern> getPatternsForStop(Stop stop) {
+    return patternsForStop.computeIfAbsent(
+        stop,
+        it -> routingService.getPatternsForStop(it, true)
+    );
+  }
 }
@@ -97,8 +97,8 @@ public class QuayType {
                     .description("List of lines servicing this quay")
                     .type(new GraphQLNonNull(new GraphQLList(new GraphQLNonNull(lineType))))
                     .dataFetcher(environment -> {
-                      return GqlUtil.getRoutingService(environment)
-                          .getPatternsForStop(environment.getSource(),true)
+                      return GqlUtil.getRequestContext(environment)
+                          .getPatternsForStop(environment.getSource())
                               .stream()
                               .map(pattern -> pattern.route)
                               .distinct()
@@ -111,8 +111,8 @@ public class QuayType {
                     .type(new GraphQLNonNull(new GraphQLList(journeyPatternType)))
                     .dataFetcher(environment -> {
                       return GqlUtil
-                          .getRoutingService(environment)
-                          .getPatternsForStop(environment.getSource(), true);
+                          .getRequestContext(environment)
+                          .getPatternsForStop(environment.getSource());
                     })
                     .build())
             .field(GraphQLFieldDefinition.newFieldDefinition()
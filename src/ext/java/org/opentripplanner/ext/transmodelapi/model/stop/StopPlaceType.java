@@ -122,8 +122,8 @@ public class StopPlaceType {
               Collection<Stop> quays = ((MonoOrMultiModalStation) environment.getSource()).getChildStops();
               if (TRUE.equals(environment.getArgument("filterByInUse"))) {
                 quays=quays.stream().filter(stop -> {
-                  return !GqlUtil.getRoutingService(environment)
-                      .getPatternsForStop(stop,true).isEmpty();
+                  return !GqlUtil.getRequestContext(environment)
+                      .getPatternsForStop(stop).isEmpty();
                 }).collect(Collectors.toList());
               }
               return quays;
@@ -47,6 +47,10 @@ public class GqlUtil {
     return ((TransmodelRequestContext) environment.getContext()).getRoutingService();
   }
 
+  public static TransmodelRequestContext getRequestContext(DataFetchingEnvironment environment) {
+    return environment.getContext();
+  }
+
   public static GraphQLFieldDefinition newTransitIdField() {
     return GraphQLFieldDefinition
         .newFieldDefinition()
@@ -0,0 +1,114 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Travel times from each origin to each destination, for each departure time in the search
+ * window. The travel times are in seconds, and {@link #UNREACHED} if the destination is not
+ * reached.
+ * <p>
+ * The values are kept in one array ordered by origin, destination and departure time. Different
+ * origins can be set from different threads, since each origin has its own part of the array.
+ */
+public class TravelTimeMatrix {
+
+    public static final int UNREACHED = -1;
+
+    private static final char SEP = ';';
+    private static final char NEW_LINE = '\n';
+
+    private final int nOrigins;
+    private final int nDestinations;
+    private final ZonedDateTime[] departureTimes;
+    private final int[] travelTimes;
+
+    public TravelTimeMatrix(int nOrigins, int nDestinations, ZonedDateTime[] departureTimes) {
+        this.nOrigins = nOrigins;
+        this.nDestinations = nDestinations;
+        this.departureTimes = departureTimes;
+        this.travelTimes = new int[nOrigins * nDestinations * departureTimes.length];
+        Arrays.fill(travelTimes, UNREACHED);
+    }
+
+    public int nOrigins() {
+        return nOrigins;
+    }
+
+    public int nDestinations() {
+        return nDestinations;
+    }
+
+    public ZonedDateTime[] departureTimes() {
+        return departureTimes;
+    }
+
+    public int travelTime(int origin, int destination, int departureTime) {
+        return travelTimes[index(origin, destination, departureTime)];
+    }
+
+    void setTravelTime(int origin, int destination, int departureTime, int travelTime) {
+        travelTimes[index(origin, destination, departureTime)] = travelTime;
+    }
+
+    /**
+     * Write the matrix as CSV. There is one line for each origin and destination pair, with a
+     * column for each departure time. The travel time is empty if the destination is not reached.
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("origin");
+        out.write(SEP);
+        out.write("destination");
+        for (ZonedDateTime it : departureTimes) {
+            out.write(SEP);
+            out.write(it.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+        }
+        out.write(NEW_LINE);
+
+        int i = 0;
+        for (int o = 0; o < nOrigins; ++o) {
+            for (int d = 0; d < nDestinations; ++d) {
+                out.write(Integer.toString(o));
+                out.write(SEP);
+                out.write(Integer.toString(d));
+                for (int t = 0; t < departureTimes.length; ++t, ++i) {
+                    out.write(SEP);
+                    if (travelTimes[i] != UNREACHED) {
+                        out.write(Integer.toString(travelTimes[i]));
+                    }
+                }
+                out.write(NEW_LINE);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the matrix as big-endian binary: the number of origins, destinations and departure
+     * times as ints, the departure times as epoch seconds (longs), and then the travel times as
+     * ints ordered by origin, destination and departure time.
+     */
+    public void writeBinary(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(nOrigins);
+        data.writeInt(nDestinations);
+        data.writeInt(departureTimes.length);
+        for (ZonedDateTime it : departureTimes) {
+            data.writeLong(it.toEpochSecond());
+        }
+        for (int it : travelTimes) {
+            data.writeInt(it);
+        }
+        data.flush();
+    }
+
+    private int index(int origin, int destination, int departureTime) {
+        return (origin * nDestinations + destination) * departureTimes.length + departureTime;
+    }
+}
@@ -0,0 +1,137 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import org.opentripplanner.api.common.LocationStringParser;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.standalone.server.OTPServer;
+import org.opentripplanner.standalone.server.Router;
+
+/**
+ * Travel time matrix from many origins to many destinations, for each departure time in the
+ * search window. See {@link TravelTimeMatrixService} and the sandbox documentation.
+ */
+@Path("/traveltimematrix")
+public class TravelTimeMatrixResource {
+
+    /** Limit the size of the matrix, each cell is 4 bytes. */
+    private static final long MAX_CELLS = 50_000_000L;
+
+    private final Router router;
+
+    @SuppressWarnings("unused")
+    public TravelTimeMatrixResource(@Context OTPServer server) {
+        this(server.getRouter());
+    }
+
+    TravelTimeMatrixResource(Router router) {
+        this.router = router;
+    }
+
+    @GET
+    @Path("/matrix.csv")
+    @Produces("text/csv")
+    public StreamingOutput getMatrixAsCsv(
+            @QueryParam("origins") String origins,
+            @QueryParam("destinations") String destinations,
+            @QueryParam("date") String date,
+            @QueryParam("time") String time,
+            @QueryParam("searchWindow") @DefaultValue("60") int searchWindowMinutes
+    ) {
+        TravelTimeMatrix matrix = calculate(
+                origins, destinations, date, time, searchWindowMinutes
+        );
+        return out -> matrix.writeCsv(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))
+        );
+    }
+
+    @GET
+    @Path("/matrix.bin")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public StreamingOutput getMatrixAsBinary(
+            @QueryParam("origins") String origins,
+            @QueryParam("destinations") String destinations,
+            @QueryParam("date") String date,
+            @QueryParam("time") String time,
+            @QueryParam("searchWindow") @DefaultValue("60") int searchWindowMinutes
+    ) {
+        TravelTimeMatrix matrix = calculate(
+                origins, destinations, date, time, searchWindowMinutes
+        );
+        return matrix::writeBinary;
+    }
+
+    TravelTimeMatrix calculate(
+            String origins,
+            String destinations,
+            String date,
+            String time,
+            int searchWindowMinutes
+    ) {
+        List<GenericLocation> from = parseLocations("origins", origins);
+        List<GenericLocation> to = parseLocations("destinations", destinations);
+
+        if (searchWindowMinutes <= 0) {
+            throw new BadRequestException("The 'searchWindow' must be a positive number of minutes.");
+        }
+        Duration searchWindow = Duration.ofMinutes(searchWindowMinutes);
+
+        // There is a travel time for each Range Raptor iteration, not for each minute
+        int nDepartureTimes = TravelTimeMatrixService.nDepartureTimes(
+                searchWindow,
+                router.routerConfig.raptorTuningParameters()
+        );
+        if (nDepartureTimes == 0) {
+            throw new BadRequestException(
+                    "The 'searchWindow' is shorter than the departure time step of the router."
+            );
+        }
+        if ((long) from.size() * to.size() * nDepartureTimes > MAX_CELLS) {
+            throw new BadRequestException(
+                    "The matrix is too large, reduce the number of origins, destinations or "
+                            + "the search window."
+            );
+        }
+
+        RoutingRequest request = router.defaultRoutingRequest.clone();
+        request.setDateTime(date, time, router.graph.getTimeZone());
+        request.searchWindow = searchWindow;
+        request.arriveBy = false;
+
+        return new TravelTimeMatrixService(router, request).calculate(from, to);
+    }
+
+    /**
+     * Parse a list of locations separated by ';'. Each location is a "lat,lon" coordinate or a
+     * feed scoped stop id.
+     */
+    private static List<GenericLocation> parseLocations(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("The '" + name + "' parameter is required.");
+        }
+        List<GenericLocation> locations = new ArrayList<>();
+        for (String it : value.split(";")) {
+            GenericLocation location = LocationStringParser.fromOldStyleString(it.trim());
+            if (location == null || !location.isSpecified()) {
+                throw new BadRequestException("Unable to parse location in '" + name + "': " + it);
+            }
+            locations.add(location);
+        }
+        return locations;
+    }
+}
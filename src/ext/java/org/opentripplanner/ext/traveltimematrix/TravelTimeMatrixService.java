@@ -0,0 +1,283 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.raptor.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptor.transit.AccessEgress;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptor.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptor.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptor.transit.mappers.DateMapper;
+import org.opentripplanner.routing.algorithm.raptor.transit.mappers.RaptorRequestMapper;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.RoutingRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.view.StopArrivalTimes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculate the travel times from many origins to many destinations, for every departure time in
+ * the search window.
+ * <p>
+ * The transit data is filtered once, and the egress street search is done once for each
+ * destination. Then a best-time Range Raptor search is run for each origin, and the travel time to
+ * each destination is read from the best arrival times at the destination egress stops after each
+ * iteration. The street searches and the origins are run in parallel, on a fork-join pool owned
+ * by the calculation, which is shut down when the calculation is done.
+ * <p>
+ * Only transit journeys are included, a destination only reachable by walking all the way is not
+ * reached.
+ */
+public class TravelTimeMatrixService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TravelTimeMatrixService.class);
+
+    /** The same limit as the access and egress search in the plan API. */
+    private static final int MAX_ACCESS_EGRESS_DISTANCE_METERS = 2000;
+
+    private static final GenericLocation UNSPECIFIED = new GenericLocation(null, null);
+
+    private final Graph graph;
+    private final RoutingRequest request;
+    private final RaptorTuningParameters tuningParameters;
+    private final RaptorService<TripSchedule> raptorService;
+
+    /** The number of threads running the street and Raptor searches. */
+    private final int nThreads;
+
+    /**
+     * @param request the departure time, search window, street modes and transit filters are used,
+     *                the origin and destination are ignored.
+     */
+    public TravelTimeMatrixService(Router router, RoutingRequest request) {
+        this(router, request, Runtime.getRuntime().availableProcessors());
+    }
+
+    TravelTimeMatrixService(Router router, RoutingRequest request, int nThreads) {
+        this.graph = router.graph;
+        this.request = request;
+        this.tuningParameters = router.routerConfig.raptorTuningParameters();
+        this.raptorService = new RaptorService<>(router.raptorConfig);
+        this.nThreads = nThreads;
+    }
+
+    /**
+     * The number of departure times in the search window, one for each Range Raptor iteration.
+     * Each origin and destination pair has a travel time for each of them.
+     */
+    public static int nDepartureTimes(
+            Duration searchWindow,
+            RaptorTuningParameters tuningParameters
+    ) {
+        return (int) (searchWindow.getSeconds() / tuningParameters.iterationDepartureStepInSeconds());
+    }
+
+    public TravelTimeMatrix calculate(
+            List<GenericLocation> origins,
+            List<GenericLocation> destinations
+    ) {
+        ForkJoinPool pool = new ForkJoinPool(nThreads);
+        try {
+            return pool.submit(() -> calculateInPool(origins, destinations)).join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * This runs as a task in the pool of the calculation, so the parallel streams below use the
+     * pool threads instead of the common pool shared with the rest of the server.
+     */
+    private TravelTimeMatrix calculateInPool(
+            List<GenericLocation> origins,
+            List<GenericLocation> destinations
+    ) {
+        TransitLayer transitLayer = request.ignoreRealtimeUpdates
+                ? graph.getTransitLayer()
+                : graph.getRealtimeTransitLayer();
+
+        RaptorRoutingRequestTransitData transitData = new RaptorRoutingRequestTransitData(
+                transitLayer,
+                request.getDateTime().toInstant(),
+                request.additionalSearchDaysAfterToday,
+                new RoutingRequestTransitDataProviderFilter(request, graph.index),
+                request.walkSpeed,
+                graph.getTransitDataCache()
+        );
+        AccessEgressMapper accessEgressMapper = new AccessEgressMapper(transitLayer.getStopIndex());
+
+        ZonedDateTime startOfTime = transitData.getStartOfTime();
+        int step = tuningParameters.iterationDepartureStepInSeconds();
+        int earliestDepartureTime = DateMapper.secondsSinceStartOfTime(
+                startOfTime,
+                request.getDateTime().toInstant()
+        );
+        int searchWindow = (int) request.searchWindow.getSeconds();
+        int nDepartureTimes = nDepartureTimes(request.searchWindow, tuningParameters);
+        // Range Raptor iterates from (earliestDepartureTime + searchWindow - step) and down
+        int latestDepartureTime = earliestDepartureTime + searchWindow - step;
+
+        ZonedDateTime[] departureTimes = new ZonedDateTime[nDepartureTimes];
+        for (int i = 0; i < nDepartureTimes; ++i) {
+            departureTimes[i] = startOfTime.plusSeconds(
+                    latestDepartureTime - (nDepartureTimes - 1 - i) * step
+            );
+        }
+        TravelTimeMatrix matrix = new TravelTimeMatrix(
+                origins.size(),
+                destinations.size(),
+                departureTimes
+        );
+
+        // The egress is the same for all origins
+        List<List<AccessEgress>> egressByDestination = destinations.parallelStream()
+                .map(it -> streetSearch(accessEgressMapper, it, true))
+                .collect(Collectors.toList());
+        Collection<AccessEgress> egressPaths = bestEgressByStop(egressByDestination);
+
+        if (egressPaths.isEmpty()) {
+            LOG.info("No destination is close to a transit stop.");
+            return matrix;
+        }
+        int[][] egressStops = new int[destinations.size()][];
+        int[][] egressDurations = new int[destinations.size()][];
+        for (int d = 0; d < destinations.size(); ++d) {
+            List<AccessEgress> egress = egressByDestination.get(d);
+            egressStops[d] = egress.stream().mapToInt(AccessEgress::stop).toArray();
+            egressDurations[d] = egress.stream().mapToInt(AccessEgress::durationInSeconds).toArray();
+        }
+
+        IntStream.range(0, origins.size()).parallel().forEach(o -> {
+            List<AccessEgress> accessPaths = streetSearch(
+                    accessEgressMapper,
+                    origins.get(o),
+                    false
+            );
+            if (accessPaths.isEmpty()) { return; }
+
+            StopArrivalTimes.Listener listener = (departureTime, arrivalTimes) -> {
+                int t = nDepartureTimes - 1 - (latestDepartureTime - departureTime) / step;
+                for (int d = 0; d < egressStops.length; ++d) {
+                    int arrivalTime = bestArrivalTime(
+                            arrivalTimes,
+                            egressStops[d],
+                            egressDurations[d]
+                    );
+                    if (arrivalTime != Integer.MAX_VALUE) {
+                        matrix.setTravelTime(o, d, t, arrivalTime - departureTime);
+                    }
+                }
+            };
+            raptorService.routeStopArrivalTimes(
+                    raptorRequest(earliestDepartureTime, searchWindow, accessPaths, egressPaths),
+                    transitData,
+                    listener
+            );
+        });
+        return matrix;
+    }
+
+    private RaptorRequest<TripSchedule> raptorRequest(
+            int earliestDepartureTime,
+            int searchWindow,
+            Collection<AccessEgress> accessPaths,
+            Collection<AccessEgress> egressPaths
+    ) {
+        int maxNumberOfTransfers = request.maxTransfers != null
+                ? request.maxTransfers
+                : tuningParameters.maxNumberOfTransfers();
+
+        RaptorRequestBuilder<TripSchedule> builder = new RaptorRequestBuilder<>();
+        builder.profile(RaptorProfile.BEST_TIME)
+                .slackProvider(RaptorRequestMapper.mapSlackProvider(request));
+        builder.searchParams()
+                .earliestDepartureTime(earliestDepartureTime)
+                .searchWindowInSeconds(searchWindow)
+                .maxNumberOfTransfers(maxNumberOfTransfers)
+                // Do not stop when the first destination is reached
+                .numberOfAdditionalTransfers(maxNumberOfTransfers)
+                .addAccessPaths(accessPaths)
+                .addEgressPaths(egressPaths);
+        return builder.build();
+    }
+
+    private List<AccessEgress> streetSearch(
+            AccessEgressMapper accessEgressMapper,
+            GenericLocation location,
+            boolean isEgress
+    ) {
+        StreetMode mode = isEgress ? request.modes.egressMode : request.modes.accessMode;
+
+        try (RoutingRequest streetRequest = request.getStreetSearchRequest(mode)) {
+            streetRequest.arriveBy = false;
+            streetRequest.from = isEgress ? UNSPECIFIED : location;
+            streetRequest.to = isEgress ? location : UNSPECIFIED;
+            streetRequest.setRoutingContext(graph);
+
+            Collection<NearbyStop> nearbyStops = AccessEgressRouter.streetSearch(
+                    streetRequest,
+                    mode,
+                    isEgress,
+                    MAX_ACCESS_EGRESS_DISTANCE_METERS
+            );
+            return accessEgressMapper.mapNearbyStops(nearbyStops, isEgress);
+        }
+        catch (RoutingValidationException e) {
+            LOG.debug("Location not found: {}", location);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * The egress paths are only used by Raptor to know when the destination is reached, hence one
+     * egress per stop is enough.
+     */
+    private static Collection<AccessEgress> bestEgressByStop(List<List<AccessEgress>> egress) {
+        Map<Integer, AccessEgress> bestByStop = new HashMap<>();
+        for (List<AccessEgress> list : egress) {
+            for (AccessEgress it : list) {
+                bestByStop.merge(
+                        it.stop(),
+                        it,
+                        (a, b) -> a.durationInSeconds() <= b.durationInSeconds() ? a : b
+                );
+            }
+        }
+        return bestByStop.values();
+    }
+
+    /**
+     * Egress is only allowed after a transit leg, so the best transit arrival times are used.
+     * Return {@code Integer.MAX_VALUE} if none of the egress stops are reached.
+     */
+    private static int bestArrivalTime(StopArrivalTimes times, int[] stops, int[] durations) {
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < stops.length; ++i) {
+            if (times.reachedByTransit(stops[i])) {
+                best = Math.min(best, times.bestTransitArrivalTime(stops[i]) + durations[i]);
+            }
+        }
+        return best;
+    }
+}
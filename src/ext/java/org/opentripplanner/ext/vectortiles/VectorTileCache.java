@@ -0,0 +1,188 @@
+package org.opentripplanner.ext.vectortiles;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wdtinc.mapbox_vector_tile.VectorTile;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.routing.bike_rental.BikeRentalStation;
+import org.opentripplanner.routing.bike_rental.BikeRentalStationService;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.config.VectorTileConfig;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory cache of the encoded vector tile layers, keyed on layer name and tile
+ * coordinates. Each layer is cached separately, so requests combining the layers differently
+ * share the cached layers. The cache is bounded by the encoded size of the layers, the least
+ * recently used layers are evicted first.
+ * <p>
+ * The cache belongs to one graph, and is replaced when a new graph is loaded. The stop and
+ * station layers only depend on the graph, and are never invalidated. The bike rental layers are
+ * realtime layers: when a bike rental station is added, updated or removed, the cached tiles
+ * covering the station at each zoom level are invalidated.
+ */
+public class VectorTileCache implements BikeRentalStationService.BikeRentalStationListener {
+
+  /** The maximum total size of the encoded layers in the cache. */
+  private static final long MAX_SIZE_BYTES = 64 * 1024 * 1024;
+
+  private static VectorTileCache instance;
+
+  private final Cache<TileKey, VectorTile.Tile.Layer> layers = CacheBuilder.newBuilder()
+      .maximumWeight(MAX_SIZE_BYTES)
+      .<TileKey, VectorTile.Tile.Layer>weigher((key, layer) -> layer.getSerializedSize())
+      .build();
+
+  /** The expansion factor of each realtime layer, by layer name. */
+  private final Map<String, Double> realtimeLayers = new ConcurrentHashMap<>();
+
+  /**
+   * The last known position of each bike rental station, used to invalidate the tiles at the
+   * old position when a station is moved.
+   */
+  private final Map<String, Coordinate> stationPositions = new ConcurrentHashMap<>();
+
+  /**
+   * Incremented on each invalidation. A layer built while an invalidation happens may contain
+   * stale data, and is not cached.
+   */
+  private final AtomicLong invalidations = new AtomicLong();
+
+  private final Graph graph;
+
+  VectorTileCache(Graph graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Get the cache for the given graph, creating a new one if the graph has changed since the
+   * last call.
+   */
+  static synchronized VectorTileCache forGraph(Graph graph) {
+    if (instance == null || instance.graph != graph) {
+      instance = new VectorTileCache(graph);
+      graph
+          .getService(BikeRentalStationService.class, true)
+          .addBikeRentalStationListener(instance);
+    }
+    return instance;
+  }
+
+  /**
+   * Get the cached layer for the given tile, or build it and add it to the cache.
+   *
+   * @param realtime true if the layer should be invalidated when the bike rental stations change
+   */
+  VectorTile.Tile.Layer get(
+      VectorTilesResource.LayerParameters layerParameters,
+      boolean realtime,
+      int z,
+      int x,
+      int y,
+      Supplier<VectorTile.Tile.Layer> builder
+  ) {
+    TileKey key = new TileKey(layerParameters.name(), z, x, y);
+    VectorTile.Tile.Layer layer = layers.getIfPresent(key);
+    if (layer != null) {
+      return layer;
+    }
+
+    if (realtime) {
+      realtimeLayers.put(layerParameters.name(), layerParameters.expansionFactor());
+    }
+    long invalidationsBefore = invalidations.get();
+    layer = builder.get();
+    if (invalidations.get() == invalidationsBefore) {
+      layers.put(key, layer);
+      // An invalidation between the check and the put may have missed the new layer, so the
+      // counter is checked again. The counter is incremented before the tiles are invalidated,
+      // so any later invalidation removes the layer itself.
+      if (invalidations.get() != invalidationsBefore) {
+        layers.invalidate(key);
+      }
+    }
+    return layer;
+  }
+
+  @Override
+  public void bikeRentalStationChanged(BikeRentalStation station) {
+    Coordinate position = new Coordinate(station.x, station.y);
+    Coordinate oldPosition = stationPositions.put(station.id, position);
+    if (realtimeLayers.isEmpty()) {
+      return;
+    }
+
+    invalidations.incrementAndGet();
+    invalidate(position);
+    if (oldPosition != null && !oldPosition.equals2D(position)) {
+      invalidate(oldPosition);
+    }
+  }
+
+  long size() {
+    return layers.size();
+  }
+
+  /**
+   * Invalidate the tiles of all realtime layers containing the given position. The layers
+   * include features in an envelope expanded by the expansion factor, so the neighbouring tiles
+   * are invalidated as well.
+   */
+  private void invalidate(Coordinate position) {
+    for (Map.Entry<String, Double> it : realtimeLayers.entrySet()) {
+      int neighbours = (int) Math.ceil(it.getValue());
+      for (int z = VectorTileConfig.MIN_ZOOM; z <= VectorTileConfig.MAX_ZOOM; ++z) {
+        int x = lon2tile(position.x, z);
+        int y = lat2tile(position.y, z);
+        for (int dx = -neighbours; dx <= neighbours; ++dx) {
+          for (int dy = -neighbours; dy <= neighbours; ++dy) {
+            layers.invalidate(new TileKey(it.getKey(), z, x + dx, y + dy));
+          }
+        }
+      }
+    }
+  }
+
+  private static int lon2tile(double lon, int z) {
+    return (int) Math.floor((lon + 180) / 360 * (1 << z));
+  }
+
+  private static int lat2tile(double lat, int z) {
+    double latRad = Math.toRadians(lat);
+    return (int) Math.floor(
+        (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << z)
+    );
+  }
+
+  private static final class TileKey {
+    private final String layer;
+    private final int z;
+    private final int x;
+    private final int y;
+
+    private TileKey(String layer, int z, int x, int y) {
+      this.layer = layer;
+      this.z = z;
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      TileKey other = (TileKey) o;
+      return z == other.z && x == other.x && y == other.y && layer.equals(other.layer);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(layer, z, x, y);
+    }
+  }
+}
@@ -77,6 +77,7 @@ public class VectorTilesResource {
     List<String> layers = Arrays.asList(requestedLayers.split(","));
 
     Router router = otpServer.getRouter();
+    VectorTileCache cache = VectorTileCache.forGraph(router.graph);
     int cacheMaxSeconds = Integer.MAX_VALUE;
 
     for (LayerParameters layerParameters : router.routerConfig.vectorTileLayers().layers()) {
@@ -85,10 +86,18 @@ public class VectorTilesResource {
           && z <= layerParameters.maxZoom()
       ) {
         cacheMaxSeconds = Math.min(cacheMaxSeconds, layerParameters.cacheMaxSeconds());
-        mvtBuilder.addLayers(VectorTilesResource.layers
-            .get(LayerType.valueOf(layerParameters.type()))
-            .apply(router.graph, layerParameters)
-            .build(envelope, layerParameters));
+        LayerType layerType = LayerType.valueOf(layerParameters.type());
+        mvtBuilder.addLayers(cache.get(
+            layerParameters,
+            layerType == LayerType.BikeRental,
+            z,
+            x,
+            y,
+            () -> VectorTilesResource.layers
+                .get(layerType)
+                .apply(router.graph, layerParameters)
+                .build(envelope, layerParameters)
+        ));
       }
     }
 
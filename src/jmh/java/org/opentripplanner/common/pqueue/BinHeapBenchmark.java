@@ -0,0 +1,87 @@
+package org.opentripplanner.common.pqueue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark the {@link BinHeap} used as priority queue in the A* search, and the {@link IntBinHeap}
+ * with decrease-key. The access pattern is similar to a street search: elements are inserted in
+ * batches (the outgoing edges of a vertex) interleaved with removal of the minimum element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinHeapBenchmark {
+
+  private static final int BATCH_SIZE = 4;
+
+  @Param({ "1000", "100000" })
+  public int nElements;
+
+  private double[] priorities;
+  private Object[] elements;
+  private IntBinHeap intHeap;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    priorities = new double[nElements];
+    elements = new Object[nElements];
+    for (int i = 0; i < nElements; ++i) {
+      priorities[i] = random.nextDouble() * 10_000;
+      elements[i] = new Object();
+    }
+    intHeap = new IntBinHeap(nElements);
+  }
+
+  @Benchmark
+  public void insertAndExtract(Blackhole blackhole) {
+    BinHeap<Object> heap = new BinHeap<>();
+    double offset = 0;
+    int i = 0;
+
+    while (i < nElements) {
+      for (int j = 0; j < BATCH_SIZE && i < nElements; ++j, ++i) {
+        heap.insert(elements[i], offset + priorities[i]);
+      }
+      offset = heap.peek_min_key();
+      blackhole.consume(heap.extract_min());
+    }
+    while (!heap.empty()) {
+      blackhole.consume(heap.extract_min());
+    }
+  }
+
+  @Benchmark
+  public void insertAndExtractIntHeap(Blackhole blackhole) {
+    intHeap.reset();
+    double offset = 0;
+    int i = 0;
+
+    while (i < nElements) {
+      for (int j = 0; j < BATCH_SIZE && i < nElements; ++j, ++i) {
+        intHeap.insertOrDecreaseKey(i, offset + priorities[i]);
+      }
+      offset = intHeap.peekMinKey();
+      blackhole.consume(intHeap.extractMin());
+    }
+    while (!intHeap.empty()) {
+      blackhole.consume(intHeap.extractMin());
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.opentripplanner.routing.algorithm.astar;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.SimpleConcreteEdge;
+import org.opentripplanner.routing.graph.SimpleConcreteVertex;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.spt.ShortestPathTree;
+
+/**
+ * Benchmark {@link AStar#getShortestPathTree(RoutingRequest)} for a walk search on a synthetic
+ * street grid. The grid is a square of vertices connected to their four neighbours, the origin
+ * and destination of each request is picked from a fixed set of random vertex pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarBenchmark {
+
+  private static final int N_REQUESTS = 16;
+  private static final double LAT_0 = 59.9;
+  private static final double LON_0 = 10.7;
+  /** Approximately 100 meters between vertices. */
+  private static final double GRID_STEP_DEGREES = 0.001;
+
+  @Param({ "100" })
+  public int gridSize;
+
+  private RoutingRequest[] requests;
+  private int next = 0;
+  private final AStar reusedAStar = new AStar();
+
+  @Setup
+  public void setup() {
+    Graph graph = new Graph();
+    Vertex[][] grid = new Vertex[gridSize][gridSize];
+
+    for (int row = 0; row < gridSize; ++row) {
+      for (int col = 0; col < gridSize; ++col) {
+        grid[row][col] = new SimpleConcreteVertex(
+            graph,
+            "V" + row + "_" + col,
+            LAT_0 + row * GRID_STEP_DEGREES,
+            LON_0 + col * GRID_STEP_DEGREES
+        );
+        if (row > 0) { connect(grid[row - 1][col], grid[row][col]); }
+        if (col > 0) { connect(grid[row][col - 1], grid[row][col]); }
+      }
+    }
+
+    Random random = new Random(42);
+    requests = new RoutingRequest[N_REQUESTS];
+
+    for (int i = 0; i < N_REQUESTS; ++i) {
+      RoutingRequest request = new RoutingRequest();
+      request.walkSpeed = 1.3;
+      request.setRoutingContext(
+          graph,
+          grid[random.nextInt(gridSize)][random.nextInt(gridSize)],
+          grid[random.nextInt(gridSize)][random.nextInt(gridSize)]
+      );
+      requests[i] = request;
+    }
+  }
+
+  @Benchmark
+  public ShortestPathTree getShortestPathTree() {
+    RoutingRequest request = requests[next];
+    next = (next + 1) % N_REQUESTS;
+    return new AStar().getShortestPathTree(request);
+  }
+
+  /** Same as above, but reuse the AStar instance, like the NearbyStopFinder does. */
+  @Benchmark
+  public ShortestPathTree getShortestPathTreeReusingAStar() {
+    RoutingRequest request = requests[next];
+    next = (next + 1) % N_REQUESTS;
+    return reusedAStar.getShortestPathTree(request);
+  }
+
+  private static void connect(Vertex a, Vertex b) {
+    new SimpleConcreteEdge(a, b);
+    new SimpleConcreteEdge(b, a);
+  }
+}
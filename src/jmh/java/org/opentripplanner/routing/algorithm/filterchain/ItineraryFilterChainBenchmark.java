@@ -0,0 +1,85 @@
+package org.opentripplanner.routing.algorithm.filterchain;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.routing.algorithm.mapping.RoutingRequestToFilterChainMapper;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+
+/**
+ * Benchmark the default itinerary filter chain, as created for a plan request with the default
+ * parameters. The input is a fixed set of random walk-only, one-bus and two-bus itineraries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItineraryFilterChainBenchmark implements PlanTestConstants {
+
+  @Param({ "20", "200" })
+  public int nItineraries;
+
+  private ItineraryFilter filterChain;
+  private List<Itinerary> itineraries;
+
+  @Setup
+  public void setup() {
+    filterChain = RoutingRequestToFilterChainMapper.createFilterChain(
+        new RoutingRequest(), null, false, it -> {}
+    );
+
+    Random random = new Random(42);
+    itineraries = new ArrayList<>(nItineraries);
+
+    // One walk-all-the-way itinerary, the rest are transit itineraries
+    itineraries.add(newItinerary(A, T11_00).walk(D40m, E).build());
+
+    for (int i = 1; i < nItineraries; ++i) {
+      int start = T11_00 + random.nextInt(3600);
+      int busDuration = D5m + random.nextInt(D24m);
+
+      if (random.nextBoolean()) {
+        itineraries.add(
+            newItinerary(A, start)
+                .walk(D2m, B)
+                .bus(i, start + D3m, start + D3m + busDuration, E)
+                .build()
+        );
+      }
+      else {
+        int transfer = start + D3m + busDuration;
+        itineraries.add(
+            newItinerary(A, start)
+                .walk(D1m, B)
+                .bus(i, start + D2m, transfer, C)
+                .walk(D1m, D)
+                .bus(nItineraries + i, transfer + D3m, transfer + D3m + busDuration, E)
+                .build()
+        );
+      }
+    }
+  }
+
+  @Benchmark
+  public List<Itinerary> filter() {
+    return filterChain.filter(itineraries);
+  }
+}
@@ -0,0 +1,93 @@
+package org.opentripplanner.transit.raptor;
+
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+
+/**
+ * Benchmark a range raptor search on a {@link SyntheticTransitNetwork}, using the standard and
+ * the multi-criteria range raptor worker. The origin and destination of each request is picked
+ * from a fixed set of random stop pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RangeRaptorWorkerBenchmark {
+
+  private static final int N_REQUESTS = 64;
+  private static final int EARLIEST_DEPARTURE_TIME = 8 * 3600;
+  private static final int SEARCH_WINDOW = 3600;
+  private static final int ACCESS_EGRESS_DURATION = 120;
+
+  @Param({ "STANDARD", "MULTI_CRITERIA" })
+  public RaptorProfile profile;
+
+  @Param({ "20" })
+  public int gridSize;
+
+  @Param({ "600" })
+  public int headway;
+
+  private TestTransitData data;
+  private RaptorService<TestTripSchedule> service;
+  private RaptorRequest<TestTripSchedule>[] requests;
+  private int next = 0;
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    data = SyntheticTransitNetwork.generate(gridSize, headway, 42);
+    service = new RaptorService<>(RaptorConfig.defaultConfigForTest());
+    requests = new RaptorRequest[N_REQUESTS];
+
+    Random random = new Random(7);
+    int nStops = data.numberOfStops();
+
+    for (int i = 0; i < N_REQUESTS; ++i) {
+      var builder = new RaptorRequestBuilder<TestTripSchedule>().profile(profile);
+      builder.searchParams()
+          .earliestDepartureTime(EARLIEST_DEPARTURE_TIME)
+          .searchWindowInSeconds(SEARCH_WINDOW)
+          .timetableEnabled(true)
+          .addAccessPaths(walk(random.nextInt(nStops), ACCESS_EGRESS_DURATION))
+          .addEgressPaths(walk(random.nextInt(nStops), ACCESS_EGRESS_DURATION));
+      requests[i] = builder.build();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    service.shutdown();
+  }
+
+  @Benchmark
+  public void route(Blackhole blackhole) {
+    RaptorRequest<TestTripSchedule> request = requests[next];
+    next = (next + 1) % N_REQUESTS;
+    blackhole.consume(service.route(request, data));
+  }
+}
@@ -0,0 +1,113 @@
+package org.opentripplanner.transit.raptor;
+
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.opentripplanner.transit.raptor._data.transit.TestRoute;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+
+/**
+ * Generate a synthetic transit network for the Raptor benchmarks. The network is generated from
+ * a fixed seed, so all benchmark runs use the same network, and no data need to be downloaded.
+ * <p>
+ * The stops are placed in a square grid. There is a route along each row and each column, in
+ * both directions. Routes cross at the grid intersections, and there are walking transfers
+ * between diagonal neighbours. Each route has a trip every {@code headway} seconds through the
+ * service day, with a small random variation in the travel time between stops.
+ */
+public class SyntheticTransitNetwork {
+
+  private static final int SERVICE_START = 5 * 3600;
+  private static final int SERVICE_END = 23 * 3600;
+  private static final int MIN_TRAVEL_TIME = 90;
+  private static final int MAX_EXTRA_TRAVEL_TIME = 60;
+  private static final int DIAGONAL_WALK_DURATION = 6 * 60;
+
+  private final int gridSize;
+  private final int headway;
+  private final Random random;
+  private final TestTransitData data = new TestTransitData();
+
+  private SyntheticTransitNetwork(int gridSize, int headway, long seed) {
+    this.gridSize = gridSize;
+    this.headway = headway;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * @param gridSize the number of stops along each side of the grid.
+   * @param headway  the time between trips on each route in seconds.
+   */
+  public static TestTransitData generate(int gridSize, int headway, long seed) {
+    return new SyntheticTransitNetwork(gridSize, headway, seed).generate();
+  }
+
+  public static int stopIndex(int gridSize, int row, int col) {
+    return row * gridSize + col;
+  }
+
+  private TestTransitData generate() {
+    for (int i = 0; i < gridSize; ++i) {
+      int[] row = new int[gridSize];
+      int[] col = new int[gridSize];
+      for (int j = 0; j < gridSize; ++j) {
+        row[j] = stopIndex(gridSize, i, j);
+        col[j] = stopIndex(gridSize, j, i);
+      }
+      addRoute("R" + i, row);
+      addRoute("R" + i + "'", reverse(row));
+      addRoute("C" + i, col);
+      addRoute("C" + i + "'", reverse(col));
+    }
+    addDiagonalTransfers();
+    return data;
+  }
+
+  private void addRoute(String name, int[] stops) {
+    int[] hopTimes = new int[stops.length - 1];
+    for (int i = 0; i < hopTimes.length; ++i) {
+      hopTimes[i] = MIN_TRAVEL_TIME + random.nextInt(MAX_EXTRA_TRAVEL_TIME);
+    }
+
+    List<TestTripSchedule.Builder> trips = new ArrayList<>();
+    int offset = random.nextInt(headway);
+
+    for (int start = SERVICE_START + offset; start < SERVICE_END; start += headway) {
+      int[] times = new int[stops.length];
+      times[0] = start;
+      for (int i = 1; i < stops.length; ++i) {
+        times[i] = times[i - 1] + hopTimes[i - 1];
+      }
+      trips.add(TestTripSchedule.schedule().times(times));
+    }
+    data.withRoute(
+        TestRoute.route(name, stops).withTimetable(trips.toArray(new TestTripSchedule.Builder[0]))
+    );
+  }
+
+  private void addDiagonalTransfers() {
+    for (int row = 0; row < gridSize - 1; ++row) {
+      for (int col = 0; col < gridSize - 1; ++col) {
+        int a = stopIndex(gridSize, row, col);
+        int b = stopIndex(gridSize, row + 1, col + 1);
+        int c = stopIndex(gridSize, row, col + 1);
+        int d = stopIndex(gridSize, row + 1, col);
+        data.withTransfer(a, walk(b, DIAGONAL_WALK_DURATION));
+        data.withTransfer(b, walk(a, DIAGONAL_WALK_DURATION));
+        data.withTransfer(c, walk(d, DIAGONAL_WALK_DURATION));
+        data.withTransfer(d, walk(c, DIAGONAL_WALK_DURATION));
+      }
+    }
+  }
+
+  private static int[] reverse(int[] values) {
+    int[] result = new int[values.length];
+    for (int i = 0; i < values.length; ++i) {
+      result[i] = values[values.length - 1 - i];
+    }
+    return result;
+  }
+}
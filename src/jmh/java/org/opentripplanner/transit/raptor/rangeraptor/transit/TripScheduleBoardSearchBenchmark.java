@@ -0,0 +1,86 @@
+package org.opentripplanner.transit.raptor.rangeraptor.transit;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.transit.raptor._data.transit.TestRoute;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+
+/**
+ * Benchmark the trip search used when boarding a trip in range raptor. The number of trips in the
+ * time-table is varied to cover both the linear and the binary search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  /** Same as the default in RaptorTuningParameters. */
+  private static final int BINARY_SEARCH_THRESHOLD = 50;
+  private static final int N_STOPS = 20;
+  private static final int N_SEARCHES = 1024;
+  private static final int FIRST_DEPARTURE = 5 * 3600;
+
+  @Param({ "10", "100", "1000" })
+  public int nTrips;
+
+  private TripScheduleBoardSearch<TestTripSchedule> subject;
+  private int[] earliestBoardTimes;
+  private int[] stopPositions;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    int[] stops = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i;
+    }
+
+    int headway = 18 * 3600 / nTrips;
+    TestTripSchedule.Builder[] trips = new TestTripSchedule.Builder[nTrips];
+    for (int i = 0; i < nTrips; ++i) {
+      int[] times = new int[N_STOPS];
+      times[0] = FIRST_DEPARTURE + i * headway;
+      for (int s = 1; s < N_STOPS; ++s) {
+        times[s] = times[s - 1] + 60 + random.nextInt(60);
+      }
+      trips[i] = TestTripSchedule.schedule().times(times);
+    }
+    TestRoute route = TestRoute.route("R1", stops).withTimetable(trips);
+
+    subject = new TripScheduleBoardSearch<>(BINARY_SEARCH_THRESHOLD, route.timetable());
+
+    earliestBoardTimes = new int[N_SEARCHES];
+    stopPositions = new int[N_SEARCHES];
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      earliestBoardTimes[i] = FIRST_DEPARTURE + random.nextInt(18 * 3600);
+      stopPositions[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public int search() {
+    int i = next;
+    next = (next + 1) % N_SEARCHES;
+    var result = subject.search(
+        earliestBoardTimes[i],
+        stopPositions[i],
+        TripScheduleSearch.UNBOUNDED_TRIP_INDEX
+    );
+    return result == null ? -1 : result.getTripIndex();
+  }
+}
@@ -0,0 +1,70 @@
+package org.opentripplanner.transit.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark insertion into a {@link ParetoSet} with three criteria, similar to the stop arrivals
+ * in the multi-criteria range raptor (arrival time, number of transfers and cost).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+      l.time < r.time || l.transfers < r.transfers || l.cost < r.cost;
+
+  @Param({ "100", "1000" })
+  public int nElements;
+
+  private Vector[] elements;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    elements = new Vector[nElements];
+    for (int i = 0; i < nElements; ++i) {
+      elements[i] = new Vector(
+          random.nextInt(3600),
+          random.nextInt(6),
+          random.nextInt(10_000)
+      );
+    }
+  }
+
+  @Benchmark
+  public ParetoSet<Vector> add() {
+    ParetoSet<Vector> set = new ParetoSet<>(COMPARATOR);
+    for (Vector it : elements) {
+      set.add(it);
+    }
+    return set;
+  }
+
+  private static class Vector {
+    final int time;
+    final int transfers;
+    final int cost;
+
+    Vector(int time, int transfers, int cost) {
+      this.time = time;
+      this.transfers = transfers;
+      this.cost = cost;
+    }
+  }
+}
@@ -11,6 +11,7 @@ import static org.opentripplanner.util.OTPFeature.SandboxAPILegacyGraphQLApi;
 import static org.opentripplanner.util.OTPFeature.SandboxAPIMapboxVectorTilesApi;
 import static org.opentripplanner.util.OTPFeature.SandboxAPIParkAndRideApi;
 import static org.opentripplanner.util.OTPFeature.SandboxAPITransmodelApi;
+import static org.opentripplanner.util.OTPFeature.SandboxAPITravelTimeMatrix;
 import static org.opentripplanner.util.OTPFeature.SandboxExampleAPIGraphStatistics;
 
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLAPI;
 import org.opentripplanner.ext.parkAndRideApi.ParkAndRideResource;
 import org.opentripplanner.ext.readiness_endpoint.ActuatorAPI;
 import org.opentripplanner.ext.reportapi.resource.ReportResource;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixResource;
 import org.opentripplanner.ext.transmodelapi.TransmodelAPI;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.index.IndexAPI;
@@ -63,6 +65,7 @@ public class APIEndpoints {
         addIfEnabled(SandboxAPILegacyGraphQLApi, LegacyGraphQLAPI.class);
         addIfEnabled(SandboxAPIMapboxVectorTilesApi, VectorTilesResource.class);
         addIfEnabled(SandboxAPIParkAndRideApi, ParkAndRideResource.class);
+        addIfEnabled(SandboxAPITravelTimeMatrix, TravelTimeMatrixResource.class);
     }
 
     /**
@@ -39,6 +39,12 @@ public class DebugOutput {
      */
     public final long totalTime;
 
+    /**
+     * Time saved by running the direct, access and egress street searches in parallel, in
+     * milliseconds. This is {@code 0} if the street searches run sequentially.
+     */
+    public final long parallelStreetRoutingTimeSaved;
+
     /**
      * Detailed timing information of within the transit router.
      */
@@ -47,7 +53,7 @@ public class DebugOutput {
     public DebugOutput(
         long precalculationTime, long directStreetRouterTime, long transitRouterTime,
         long filteringTime, long renderingTime, long totalTime,
-        TransitTimingOutput transitRouterTimes
+        long parallelStreetRoutingTimeSaved, TransitTimingOutput transitRouterTimes
     ) {
         this.precalculationTime = precalculationTime;
         this.directStreetRouterTime = directStreetRouterTime;
@@ -55,6 +61,7 @@ public class DebugOutput {
         this.filteringTime = filteringTime;
         this.renderingTime = renderingTime;
         this.totalTime = totalTime;
+        this.parallelStreetRoutingTimeSaved = parallelStreetRoutingTimeSaved;
         this.transitRouterTimes = transitRouterTimes;
     }
 
@@ -100,9 +100,10 @@ public class BinHeap<T> {
     }
     
     public void reset() {
-    	// empties the queue in one operation
-    	size=0;
-    } 
+        // empties the queue, releasing the element references so the heap can be reused
+        Arrays.fill(elem, 1, size + 1, null);
+        size = 0;
+    }
 
     public void insert(T e, double p) {
         int i;
@@ -125,6 +126,7 @@ public class BinHeap<T> {
         if (size <= 0) {
             return null;
         }
+    	elem[size] = null; // release the reference, the last element is moved below
     	size -= 1;
         for (i=1; i*2 <= size; i=child) {
             child = i*2;
@@ -135,8 +137,10 @@ public class BinHeap<T> {
                 prio[i] = prio[child];
             } else break;
         }
-        elem[i] = lastElem;
-        prio[i] = lastPrio;
+        if (size > 0) {
+            elem[i] = lastElem;
+            prio[i] = lastPrio;
+        }
         return minElem;
     }
     
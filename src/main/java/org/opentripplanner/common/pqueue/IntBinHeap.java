@@ -0,0 +1,141 @@
+package org.opentripplanner.common.pqueue;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int elements with primitive double keys, supporting decrease-key.
+ * <p>
+ * The elements must be in the range {@code [0, nElements)}, typically a vertex or stop index. The
+ * position of each element in the heap is kept in an array indexed by the element, so each
+ * element is in the heap at most once and the key can be decreased in O(log n) time. Unlike
+ * {@link BinHeap} no objects are allocated when elements are inserted or removed.
+ * <p>
+ * The heap can be reused for several searches; {@link #reset()} only clears the elements left
+ * in the heap.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class IntBinHeap {
+
+    private static final int NOT_IN_HEAP = -1;
+
+    /** The heap elements, 1-based indexing. */
+    private final int[] elem;
+    /** The key of the element at the same heap position. */
+    private final double[] prio;
+    /** The heap position for each element, or {@link #NOT_IN_HEAP}. */
+    private final int[] pos;
+    private int size = 0;
+
+    public IntBinHeap(int nElements) {
+        this.elem = new int[nElements + 1];
+        this.prio = new double[nElements + 1];
+        this.pos = new int[nElements];
+        Arrays.fill(pos, NOT_IN_HEAP);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean empty() {
+        return size == 0;
+    }
+
+    public boolean contains(int e) {
+        return pos[e] != NOT_IN_HEAP;
+    }
+
+    public double peekMinKey() {
+        if (size == 0) {
+            throw new IllegalStateException("An empty queue does not have a minimum key.");
+        }
+        return prio[1];
+    }
+
+    public int peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("An empty queue does not have a minimum element.");
+        }
+        return elem[1];
+    }
+
+    /**
+     * Insert the element with the given key, or decrease the key if the element is already in the
+     * heap with a higher key.
+     *
+     * @return {@code true} if the element is inserted or the key is decreased.
+     */
+    public boolean insertOrDecreaseKey(int e, double p) {
+        int i = pos[e];
+        if (i == NOT_IN_HEAP) {
+            i = ++size;
+        }
+        else if (p >= prio[i]) {
+            return false;
+        }
+        siftUp(i, e, p);
+        return true;
+    }
+
+    /** Remove and return the element with the lowest key. */
+    public int extractMin() {
+        if (size == 0) {
+            throw new IllegalStateException("An empty queue does not have a minimum element.");
+        }
+        int minElem = elem[1];
+        pos[minElem] = NOT_IN_HEAP;
+
+        int lastElem = elem[size];
+        double lastPrio = prio[size];
+        size -= 1;
+
+        if (size > 0) {
+            siftDown(1, lastElem, lastPrio);
+        }
+        return minElem;
+    }
+
+    /** Remove all elements, in O(size) time. */
+    public void reset() {
+        for (int i = 1; i <= size; ++i) {
+            pos[elem[i]] = NOT_IN_HEAP;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i, int e, double p) {
+        while (i > 1 && prio[i / 2] > p) {
+            move(i / 2, i);
+            i /= 2;
+        }
+        set(i, e, p);
+    }
+
+    private void siftDown(int i, int e, double p) {
+        while (i * 2 <= size) {
+            int child = i * 2;
+            if (child != size && prio[child + 1] < prio[child]) {
+                child++;
+            }
+            if (p > prio[child]) {
+                move(child, i);
+                i = child;
+            }
+            else {
+                break;
+            }
+        }
+        set(i, e, p);
+    }
+
+    private void move(int from, int to) {
+        set(to, elem[from], prio[from]);
+    }
+
+    private void set(int i, int e, double p) {
+        elem[i] = e;
+        prio[i] = p;
+        pos[e] = i;
+    }
+}
@@ -22,6 +22,13 @@ public class FileDataSource extends AbstractFileDataSource {
         super(file, type);
     }
 
+    /**
+     * The local file, used to memory-map data stored next to it.
+     */
+    public File file() {
+        return file;
+    }
+
     @Override
     public InputStream asInputStream() {
         try {
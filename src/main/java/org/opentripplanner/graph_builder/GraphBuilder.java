@@ -9,6 +9,7 @@ import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.GtfsModule;
 import org.opentripplanner.ext.flex.FlexLocationsToStreetEdgesMapper;
 import org.opentripplanner.graph_builder.module.PruneFloatingIslands;
+import org.opentripplanner.graph_builder.module.StreetLandmarkModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.TransitToTaggedStopsModule;
 import org.opentripplanner.graph_builder.module.map.BusRouteStreetMatcher;
@@ -224,6 +225,11 @@ public class GraphBuilder implements Runnable {
             }
         }
 
+        // The landmarks must be computed after all street and link edges are added
+        if (config.streetLandmarks > 0 && (hasOsm || graphBuilder.graph.hasStreets)) {
+            graphBuilder.addModule(new StreetLandmarkModule(config.streetLandmarks));
+        }
+
         if (config.dataImportReport) {
             graphBuilder.addModule(
                     new DataImportIssuesToHTML(
@@ -1,6 +1,5 @@
 package org.opentripplanner.graph_builder.module;
 
-import com.google.common.collect.Iterables;
 import org.opentripplanner.graph_builder.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.services.GraphBuilderModule;
@@ -15,9 +14,13 @@ import org.opentripplanner.util.ProgressTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * {@link org.opentripplanner.graph_builder.services.GraphBuilderModule} module that links up the stops of a transit
@@ -26,6 +29,10 @@ import java.util.List;
  * It will use the street network if OSM data has already been loaded into the graph.
  * Otherwise it will use straight-line distance between stops.
  *
+ * The nearby stop searches run in parallel on a fork-join pool owned by this module, which is shut
+ * down when the module is done. The transfers are added to the graph afterwards in the order of
+ * the stops, so the result does not depend on the scheduling of the searches.
+ *
  * TODO make tests for this that are sensitive to the presence of trip patterns
  */
 public class DirectTransferGenerator implements GraphBuilderModule {
@@ -34,6 +41,9 @@ public class DirectTransferGenerator implements GraphBuilderModule {
 
     final double radiusMeters;
 
+    /** The number of threads running the nearby stop searches. */
+    private final int nThreads;
+
     public List<String> provides() {
         return Arrays.asList("linking");
     }
@@ -43,7 +53,12 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     }
 
     public DirectTransferGenerator (double radiusMeters) {
+        this(radiusMeters, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DirectTransferGenerator (double radiusMeters, int nThreads) {
         this.radiusMeters = radiusMeters;
+        this.nThreads = nThreads;
     }
 
     @Override
@@ -65,57 +80,91 @@ public class DirectTransferGenerator implements GraphBuilderModule {
             LOG.info("Creating direct transfer edges between stops using straight line distance (not streets)...");
         }
 
-        Iterable<TransitStopVertex> stops = graph.getVerticesOfType(TransitStopVertex.class);
+        List<TransitStopVertex> stops = new ArrayList<>(graph.getVerticesOfType(TransitStopVertex.class));
 
         ProgressTracker progress = ProgressTracker.track(
-                "Create transfer edges", 1000, Iterables.size(stops)
+                "Create transfer edges", 1000, stops.size()
         );
-        int nTransfersTotal = 0;
-        int nLinkableStops = 0;
 
-        // This could be multi-threaded, in which case we'd need to be careful about the lifecycle of NearbyStopFinder instances.
-        for (TransitStopVertex ts0 : stops) {
-            Stop stop = ts0.getStop();
-            LOG.debug("Linking stop '{}' {}", stop, ts0);
+        // The street searches are independent, and run in parallel. A NearbyStopFinder holds the
+        // state of the search, so each thread gets its own instance. The pool is shut down when
+        // the searches are done, so the threads and their finders do not outlive this module.
+        ThreadLocal<NearbyStopFinder> nearbyStopFinders = ThreadLocal.withInitial(
+                () -> new NearbyStopFinder(graph, radiusMeters)
+        );
+        ForkJoinPool pool = new ForkJoinPool(nThreads);
+        List<List<SimpleTransfer>> transfersByStopIndex;
+        try {
+            transfersByStopIndex = pool.submit(() -> IntStream
+                    .range(0, stops.size())
+                    .parallel()
+                    .mapToObj(i -> {
+                        List<SimpleTransfer> transfers = findTransfers(stops.get(i), nearbyStopFinders.get());
+                        //Keep lambda! A method-ref would causes incorrect class and line number to be logged
+                        //noinspection Convert2MethodRef
+                        progress.step(m -> LOG.info(m));
+                        return transfers;
+                    })
+                    .collect(Collectors.toList())
+            ).join();
+        }
+        finally {
+            pool.shutdown();
+        }
 
-            /* Make transfers to each nearby stop that is the closest stop on some trip pattern. */
-            int n = 0;
-            for (NearbyStop sd : nearbyStopFinder.findNearbyStopsConsideringPatterns(ts0, false)) {
-                // Skip the origin stop, loop transfers are not needed.
-                if (sd.stop == stop) { continue; }
-                graph.transfersByStop.put(
-                    stop,
-                    new SimpleTransfer(stop, sd.stop, sd.distance, sd.distanceIndependentTime, sd.edges)
-                );
-                n += 1;
-            }
-            if (OTPFeature.FlexRouting.isOn()) {
-                // This code is for finding transfers from FlexStopLocations to Stops, transfers
-                // from Stops to FlexStopLocations and between Stops are already covered above.
-                for (NearbyStop sd : nearbyStopFinder.findNearbyStopsConsideringPatterns(ts0,  true)) {
-                    // Skip the origin stop, loop transfers are not needed.
-                    if (sd.stop == ts0.getStop()) { continue; }
-                    if (sd.stop instanceof Stop) { continue; }
-                    graph.transfersByStop.put(sd.stop,
-                        new SimpleTransfer(sd.stop, ts0.getStop(), sd.distance, sd.distanceIndependentTime, sd.edges)
-                    );
-                    n += 1;
-                }
+        // Add the transfers to the graph in stop order on this thread, the multimap is not thread-safe
+        int nTransfersTotal = 0;
+        for (int i = 0; i < stops.size(); ++i) {
+            List<SimpleTransfer> transfers = transfersByStopIndex.get(i);
+            if (transfers.isEmpty()) {
+                issueStore.add(new StopNotLinkedForTransfers(stops.get(i)));
             }
-            LOG.debug("Linked stop {} to {} nearby stops on other patterns.", stop, n);
-            if (n == 0) {
-                issueStore.add(new StopNotLinkedForTransfers(ts0));
+            for (SimpleTransfer transfer : transfers) {
+                graph.transfersByStop.put(transfer.from, transfer);
             }
-            //Keep lambda! A method-ref would causes incorrect class and line number to be logged
-            //noinspection Convert2MethodRef
-            progress.step(m -> LOG.info(m));
-            nTransfersTotal += n;
+            nTransfersTotal += transfers.size();
         }
         LOG.info(progress.completeMessage());
-        LOG.info("Done connecting stops to one another. Created a total of {} transfers from {} stops.", nTransfersTotal, nLinkableStops);
+        LOG.info("Done connecting stops to one another. Created a total of {} transfers from {} stops.", nTransfersTotal, stops.size());
         graph.hasDirectTransfers = true;
     }
 
+    /**
+     * Find the transfers from the given stop, and the transfers from flex stop locations to the
+     * given stop. Only the graph is read, so this may be called from several threads at once.
+     */
+    private static List<SimpleTransfer> findTransfers(
+            TransitStopVertex ts0,
+            NearbyStopFinder nearbyStopFinder
+    ) {
+        Stop stop = ts0.getStop();
+        LOG.debug("Linking stop '{}' {}", stop, ts0);
+        List<SimpleTransfer> transfers = new ArrayList<>();
+
+        /* Make transfers to each nearby stop that is the closest stop on some trip pattern. */
+        for (NearbyStop sd : nearbyStopFinder.findNearbyStopsConsideringPatterns(ts0, false)) {
+            // Skip the origin stop, loop transfers are not needed.
+            if (sd.stop == stop) { continue; }
+            transfers.add(
+                new SimpleTransfer(stop, sd.stop, sd.distance, sd.distanceIndependentTime, sd.edges)
+            );
+        }
+        if (OTPFeature.FlexRouting.isOn()) {
+            // This code is for finding transfers from FlexStopLocations to Stops, transfers
+            // from Stops to FlexStopLocations and between Stops are already covered above.
+            for (NearbyStop sd : nearbyStopFinder.findNearbyStopsConsideringPatterns(ts0,  true)) {
+                // Skip the origin stop, loop transfers are not needed.
+                if (sd.stop == ts0.getStop()) { continue; }
+                if (sd.stop instanceof Stop) { continue; }
+                transfers.add(
+                    new SimpleTransfer(sd.stop, ts0.getStop(), sd.distance, sd.distanceIndependentTime, sd.edges)
+                );
+            }
+        }
+        LOG.debug("Linked stop {} to {} nearby stops on other patterns.", stop, transfers.size());
+        return transfers;
+    }
+
     @Override
     public void checkInputs() {
         // No inputs
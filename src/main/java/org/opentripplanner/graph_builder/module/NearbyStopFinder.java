@@ -84,6 +84,17 @@ public class NearbyStopFinder {
         }
     }
 
+    /**
+     * Construct a NearbyStopFinder searching via the street network with the given AStar instance,
+     * so the A* run state can be kept between finders.
+     */
+    public NearbyStopFinder(Graph graph, double radiusMeters, AStar astar) {
+        this.graph = graph;
+        this.useStreets = true;
+        this.radiusMeters = radiusMeters;
+        this.astar = astar;
+    }
+
     /**
      * Find all unique nearby stops that are the closest stop on some trip pattern or flex trip.
      * Note that the result will include the origin vertex if it is an instance of StopVertex.
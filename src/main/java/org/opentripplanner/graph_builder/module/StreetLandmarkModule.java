@@ -0,0 +1,212 @@
+package org.opentripplanner.graph_builder.module;
+
+import gnu.trove.list.array.TFloatArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.opentripplanner.common.pqueue.IntBinHeap;
+import org.opentripplanner.graph_builder.DataImportIssueStore;
+import org.opentripplanner.graph_builder.services.GraphBuilderModule;
+import org.opentripplanner.routing.algorithm.astar.landmarks.StreetLandmarks;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link GraphBuilderModule} that selects a set of landmark vertices and computes the network
+ * distance from each landmark to every vertex in the graph and back. The result is stored in the
+ * graph as a {@link StreetLandmarks} service, and used by the ALT remaining weight heuristic for
+ * long street searches.
+ * <p>
+ * The landmarks are picked with the "farthest" strategy: the first landmark is the vertex farthest
+ * away from a random vertex, each following landmark is the vertex farthest away from all
+ * landmarks picked so far. This places the landmarks at the edges of the network, which gives
+ * the best bounds.
+ * <p>
+ * The memory used is {@code 2 * 4 bytes * number of landmarks * number of vertices}.
+ */
+public class StreetLandmarkModule implements GraphBuilderModule {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreetLandmarkModule.class);
+
+    private static final long RANDOM_SEED = 42;
+
+    private final int numberOfLandmarks;
+
+    public StreetLandmarkModule(int numberOfLandmarks) {
+        this.numberOfLandmarks = numberOfLandmarks;
+    }
+
+    public List<String> provides() {
+        return Collections.emptyList();
+    }
+
+    public List<String> getPrerequisites() {
+        return Arrays.asList("streets");
+    }
+
+    @Override
+    public void buildGraph(
+            Graph graph,
+            HashMap<Class<?>, Object> extra,
+            DataImportIssueStore issueStore
+    ) {
+        List<Vertex> vertices = new ArrayList<>(graph.getVertices());
+        if (vertices.isEmpty() || numberOfLandmarks <= 0) { return; }
+
+        LOG.info("Computing {} street landmarks for {} vertices...", numberOfLandmarks, vertices.size());
+
+        Network network = new Network(vertices);
+        int nLandmarks = Math.min(numberOfLandmarks, vertices.size());
+        List<Vertex> landmarks = new ArrayList<>(nLandmarks);
+        float[][] fromLandmark = new float[nLandmarks][];
+        float[][] toLandmark = new float[nLandmarks][];
+
+        // Distance to the closest landmark picked so far, used to pick the next landmark
+        float[] minDistance = network.distancesFrom(
+                new Random(RANDOM_SEED).nextInt(vertices.size()),
+                network.forward
+        );
+
+        for (int i = 0; i < nLandmarks; ++i) {
+            int landmark = farthest(minDistance);
+            landmarks.add(vertices.get(landmark));
+            fromLandmark[i] = network.distancesFrom(landmark, network.forward);
+            toLandmark[i] = network.distancesFrom(landmark, network.reverse);
+
+            if (i == 0) {
+                minDistance = fromLandmark[0].clone();
+            }
+            else {
+                for (int v = 0; v < minDistance.length; ++v) {
+                    // Keep the distance to the closest landmark the vertex is reachable from
+                    float d = fromLandmark[i][v];
+                    if (d < minDistance[v] || Float.isNaN(minDistance[v])) {
+                        minDistance[v] = d;
+                    }
+                }
+            }
+            LOG.info("Street landmark {}/{}: {}", i + 1, nLandmarks, vertices.get(landmark));
+        }
+
+        graph.putService(
+                StreetLandmarks.class,
+                new StreetLandmarks(vertices, landmarks, fromLandmark, toLandmark)
+        );
+        LOG.info("Done computing street landmarks.");
+    }
+
+    @Override
+    public void checkInputs() {
+        // No inputs
+    }
+
+    /** @return the index of the vertex with the largest reachable distance */
+    private static int farthest(float[] distance) {
+        int farthest = 0;
+        float max = -1;
+        for (int i = 0; i < distance.length; ++i) {
+            // NaN (not reachable) is never larger than max
+            if (distance[i] > max) {
+                max = distance[i];
+                farthest = i;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * A compact adjacency representation of the graph, with vertices identified by their index
+     * in the vertex list. All edges are included, with their length in meters.
+     */
+    private static class Network {
+
+        final Adjacency forward;
+        final Adjacency reverse;
+        final IntBinHeap queue;
+
+        Network(List<Vertex> vertices) {
+            Map<Vertex, Integer> indexByVertex = new IdentityHashMap<>(vertices.size());
+            for (int i = 0; i < vertices.size(); ++i) {
+                indexByVertex.put(vertices.get(i), i);
+            }
+            this.forward = new Adjacency(vertices, indexByVertex, false);
+            this.reverse = new Adjacency(vertices, indexByVertex, true);
+            this.queue = new IntBinHeap(vertices.size());
+        }
+
+        /**
+         * A plain Dijkstra search from the given vertex, returning the distance to each vertex,
+         * or {@code NaN} if not reachable.
+         */
+        float[] distancesFrom(int origin, Adjacency adjacency) {
+            float[] distance = new float[adjacency.first.length - 1];
+            Arrays.fill(distance, Float.NaN);
+            double[] best = new double[distance.length];
+            Arrays.fill(best, Double.POSITIVE_INFINITY);
+
+            queue.reset();
+            best[origin] = 0;
+            queue.insertOrDecreaseKey(origin, 0);
+
+            while (!queue.empty()) {
+                double d = queue.peekMinKey();
+                int u = queue.extractMin();
+                distance[u] = (float) d;
+
+                for (int e = adjacency.first[u]; e < adjacency.first[u + 1]; ++e) {
+                    int v = adjacency.target[e];
+                    double dv = d + adjacency.length[e];
+                    // Vertices already settled have a lower or equal distance
+                    if (dv < best[v]) {
+                        best[v] = dv;
+                        queue.insertOrDecreaseKey(v, dv);
+                    }
+                }
+            }
+            return distance;
+        }
+    }
+
+    /** Edges in compressed sparse row format. */
+    private static class Adjacency {
+
+        /** The edges of vertex i are in the range [first[i], first[i + 1]) */
+        final int[] first;
+        final int[] target;
+        final float[] length;
+
+        Adjacency(List<Vertex> vertices, Map<Vertex, Integer> indexByVertex, boolean reverse) {
+            int n = vertices.size();
+            first = new int[n + 1];
+
+            TIntArrayList targets = new TIntArrayList();
+            TFloatArrayList lengths = new TFloatArrayList();
+
+            for (int i = 0; i < n; ++i) {
+                first[i] = targets.size();
+                Vertex v = vertices.get(i);
+                for (Edge edge : reverse ? v.getIncoming() : v.getOutgoing()) {
+                    Integer other = indexByVertex.get(reverse ? edge.getFromVertex() : edge.getToVertex());
+                    if (other == null) { continue; }
+                    targets.add(other);
+                    // Guard against bad data, a negative length would break the search
+                    double d = edge.getDistanceMeters();
+                    lengths.add(d > 0 ? (float) d : 0f);
+                }
+            }
+            first[n] = targets.size();
+
+            target = targets.toArray();
+            length = lengths.toArray();
+        }
+    }
+}
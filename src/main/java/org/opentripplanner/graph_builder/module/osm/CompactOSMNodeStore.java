@@ -0,0 +1,79 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A node store keeping the nodes without tags in primitive arrays sorted by id. Most nodes in
+ * an OSM extract only carry the geometry of a way, and are stored using 24 bytes each instead of
+ * an object and a hash map entry. A new {@link OSMNode} is created each time such a node is
+ * retrieved.
+ * <p>
+ * The nodes in a PBF file are sorted by id, so the untagged nodes are appended to the arrays.
+ * Nodes with tags, and nodes added out of id order (like the virtual nodes created by the
+ * {@link OSMDatabase}, with negative ids), are kept as objects in a hash map. The tag keys and
+ * values are already shared between the nodes by the parser.
+ */
+public class CompactOSMNodeStore implements OSMNodeStore {
+
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] lats = new double[INITIAL_CAPACITY];
+    private double[] lons = new double[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final TLongObjectMap<OSMNode> otherNodes = new TLongObjectHashMap<>();
+
+    @Override
+    public void put(OSMNode node) {
+        long id = node.getId();
+        if (!isEmpty(node.getTags()) || (size > 0 && id <= ids[size - 1])) {
+            otherNodes.put(id, node);
+            return;
+        }
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lons = Arrays.copyOf(lons, capacity);
+        }
+        ids[size] = id;
+        lats[size] = node.lat;
+        lons[size] = node.lon;
+        ++size;
+    }
+
+    @Override
+    public OSMNode get(long id) {
+        OSMNode node = otherNodes.get(id);
+        if (node != null) { return node; }
+
+        int i = Arrays.binarySearch(ids, 0, size, id);
+        if (i < 0) { return null; }
+
+        node = new OSMNode();
+        node.setId(id);
+        node.lat = lats[i];
+        node.lon = lons[i];
+        return node;
+    }
+
+    @Override
+    public boolean containsKey(long id) {
+        return otherNodes.containsKey(id) || Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size + otherNodes.size();
+    }
+
+    private static boolean isEmpty(Map<String, String> tags) {
+        return tags == null || tags.isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * Keeps all nodes as {@link OSMNode} objects in a hash map.
+ */
+public class HashOSMNodeStore implements OSMNodeStore {
+
+    private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
+
+    @Override
+    public void put(OSMNode node) {
+        nodesById.put(node.getId(), node);
+    }
+
+    @Override
+    public OSMNode get(long id) {
+        return nodesById.get(id);
+    }
+
+    @Override
+    public boolean containsKey(long id) {
+        return nodesById.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return nodesById.size();
+    }
+}
@@ -59,8 +59,8 @@ public class OSMDatabase {
 
     private DataImportIssueStore issueStore;
 
-    /* Map of all nodes used in ways/areas keyed by their OSM ID */
-    private TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
+    /* All nodes used in ways/areas keyed by their OSM ID */
+    private final OSMNodeStore nodesById;
 
     /* Map of all bike-rental nodes, keyed by their OSM ID */
     private TLongObjectMap<OSMNode> bikeRentalNodes = new TLongObjectHashMap<>();
@@ -132,7 +132,12 @@ public class OSMDatabase {
     public boolean noZeroLevels = true;
 
     public OSMDatabase(DataImportIssueStore issueStore) {
+        this(issueStore, new CompactOSMNodeStore());
+    }
+
+    public OSMDatabase(DataImportIssueStore issueStore, OSMNodeStore nodeStore) {
         this.issueStore = issueStore;
+        this.nodesById = nodeStore;
     }
 
     public OSMNode getNode(Long nodeId) {
@@ -224,7 +229,7 @@ public class OSMDatabase {
             return;
         }
 
-        nodesById.put(node.getId(), node);
+        nodesById.put(node);
 
         if (nodesById.size() % 100000 == 0) {
             LOG.debug("nodes=" + nodesById.size());
@@ -615,7 +620,7 @@ public class OSMDatabase {
         node.setId(virtualNodeId);
         virtualNodeId--;
         waysNodeIds.add(node.getId());
-        nodesById.put(node.getId(), node);
+        nodesById.put(node);
         return node;
     }
 
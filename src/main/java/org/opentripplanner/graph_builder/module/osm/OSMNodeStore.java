@@ -0,0 +1,28 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * Stores the OSM nodes used by ways and areas while the OSM data is loaded, keyed by OSM id.
+ * The node store is the largest part of the {@link OSMDatabase} for big extracts, so the
+ * implementations differ in how the nodes are kept in memory.
+ * <p>
+ * An implementation may return a new {@link OSMNode} instance from each call to {@link #get(long)},
+ * nodes are equal if they have the same id.
+ */
+public interface OSMNodeStore {
+
+    /**
+     * Add a node. Each node id is added at most once.
+     */
+    void put(OSMNode node);
+
+    /**
+     * @return the node with the given id, or {@code null} if not found.
+     */
+    OSMNode get(long id);
+
+    boolean containsKey(long id);
+
+    int size();
+}
@@ -0,0 +1,73 @@
+package org.opentripplanner.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.IOException;
+import org.opentripplanner.routing.graph.FloatColumn;
+import org.opentripplanner.routing.graph.MappedGraphData;
+
+
+/**
+ * Serialize a {@link FloatColumn} inside the graph file, or - if a {@link MappedGraphData.Writer}
+ * is put in the Kryo context - write the values to the memory-mapped data file and only the file
+ * offset to the graph file. When reading, the mapped values are accessed through the
+ * {@link MappedGraphData} in the Kryo context.
+ */
+public class FloatColumnSerializer extends Serializer<FloatColumn> {
+
+    private static final byte INLINE = 0;
+    private static final byte MAPPED = 1;
+
+    @Override
+    public void write(Kryo kryo, Output output, FloatColumn column) {
+        MappedGraphData.Writer writer = (MappedGraphData.Writer) kryo.getContext()
+                .get(MappedGraphData.Writer.class);
+
+        output.writeInt(column.size(), true);
+        if (writer == null) {
+            output.writeByte(INLINE);
+            for (int i = 0; i < column.size(); ++i) {
+                output.writeFloat(column.get(i));
+            }
+        }
+        else {
+            try {
+                output.writeByte(MAPPED);
+                output.writeLong(writer.write(column));
+            }
+            catch (IOException e) {
+                throw new KryoException(e);
+            }
+        }
+    }
+
+    @Override
+    public FloatColumn read(Kryo kryo, Input input, Class<FloatColumn> type) {
+        int size = input.readInt(true);
+        byte storage = input.readByte();
+
+        if (storage == INLINE) {
+            float[] values = new float[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = input.readFloat();
+            }
+            return FloatColumn.of(values);
+        }
+        MappedGraphData data = (MappedGraphData) kryo.getContext().get(MappedGraphData.class);
+        if (data == null) {
+            throw new KryoException(
+                    "The graph is saved with a memory-mapped data file ("
+                    + MappedGraphData.FILE_SUFFIX + "), but the data file is not found."
+            );
+        }
+        try {
+            return data.floats(input.readLong(), size);
+        }
+        catch (IOException e) {
+            throw new KryoException(e);
+        }
+    }
+}
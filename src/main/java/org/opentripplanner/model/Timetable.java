@@ -14,10 +14,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.stream.IntStream;
 
 
 /**
@@ -70,6 +72,13 @@ public class Timetable implements Serializable {
      * Helps determine whether a particular pattern is worth searching for departures at a given time. 
      */
     private transient int minTime, maxTime;
+
+    /**
+     * For each stop, the trip indexes sorted on departure time from the stop. Created when the
+     * timetable is finished, which for realtime updated timetables happens when the
+     * {@link TimetableSnapshot} is committed. See {@link #getTripIndexesByDeparture(int)}.
+     */
+    private transient volatile DepartureIndex departureIndex;
     
     /** Construct an empty Timetable. */
     public Timetable(TripPattern pattern) {
@@ -152,6 +161,44 @@ public class Timetable implements Serializable {
             minTime = Math.min(minTime, freq.getMinDeparture());
             maxTime = Math.max(maxTime, freq.getMaxArrival());
         }
+        departureIndex = new DepartureIndex(tripTimes, nStops);
+    }
+
+    /**
+     * The indexes of the trips in {@link #tripTimes}, sorted on (realtime) departure time from the
+     * given stop. Use {@link #findFirstDeparture(int, int[], int)} to find the next departures
+     * after a given time with a binary search, instead of scanning all trips.
+     */
+    public int[] getTripIndexesByDeparture(int stopIndex) {
+        DepartureIndex index = departureIndex;
+        // Trips may be added or removed after the timetable is finished, then the index is
+        // created again
+        if (index == null || index.numberOfTrips != tripTimes.size()) {
+            index = new DepartureIndex(tripTimes, pattern.stopPattern.size);
+            departureIndex = index;
+        }
+        return index.tripIndexesByDeparture[stopIndex];
+    }
+
+    /**
+     * @param tripIndexesByDeparture the trip indexes returned by
+     *                               {@link #getTripIndexesByDeparture(int)} for the stop
+     * @return the position in {@code tripIndexesByDeparture} of the first trip departing from the
+     *         stop at or after the given time, or the array length if there is none.
+     */
+    public int findFirstDeparture(int stopIndex, int[] tripIndexesByDeparture, int time) {
+        int low = 0;
+        int high = tripIndexesByDeparture.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tripTimes.get(tripIndexesByDeparture[mid]).getDepartureTime(stopIndex) < time) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /** @return the index of TripTimes for this trip ID in this particular Timetable */
@@ -432,4 +479,47 @@ public class Timetable implements Serializable {
             tt.serviceCode = serviceCodes.get(tt.trip.getServiceId());
         }
     }
+
+    /**
+     * The trips sorted on departure time at each stop. In most timetables trips do not overtake
+     * each other, so the order is the same at all stops; the array is then shared between the
+     * stops to save memory.
+     */
+    private static final class DepartureIndex {
+
+        private final int numberOfTrips;
+        private final int[][] tripIndexesByDeparture;
+
+        private DepartureIndex(List<TripTimes> tripTimes, int nStops) {
+            this.numberOfTrips = tripTimes.size();
+            this.tripIndexesByDeparture = new int[nStops][];
+
+            int[] previous = null;
+
+            for (int s = 0; s < nStops; ++s) {
+                // The order at the previous stop is usually still sorted, then it is reused
+                if (previous != null && isSorted(tripTimes, previous, s)) {
+                    tripIndexesByDeparture[s] = previous;
+                    continue;
+                }
+                final int stop = s;
+                previous = IntStream.range(0, numberOfTrips)
+                        .boxed()
+                        .sorted(Comparator.comparingInt(i -> tripTimes.get(i).getDepartureTime(stop)))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                tripIndexesByDeparture[s] = previous;
+            }
+        }
+
+        private static boolean isSorted(List<TripTimes> tripTimes, int[] order, int stop) {
+            for (int i = 1; i < order.length; ++i) {
+                if (tripTimes.get(order[i - 1]).getDepartureTime(stop)
+                        > tripTimes.get(order[i]).getDepartureTime(stop)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
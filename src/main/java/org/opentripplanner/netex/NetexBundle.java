@@ -2,8 +2,6 @@ package org.opentripplanner.netex;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.List;
-import javax.xml.bind.JAXBException;
 import org.opentripplanner.datastore.CompositeDataSource;
 import org.opentripplanner.datastore.DataSource;
 import org.opentripplanner.graph_builder.DataImportIssueStore;
@@ -11,7 +9,7 @@ import org.opentripplanner.model.impl.OtpTransitServiceBuilder;
 import org.opentripplanner.netex.index.NetexEntityIndex;
 import org.opentripplanner.netex.loader.GroupEntries;
 import org.opentripplanner.netex.loader.NetexDataSourceHierarchy;
-import org.opentripplanner.netex.loader.NetexXmlParser;
+import org.opentripplanner.netex.loader.ParallelNetexXmlParser;
 import org.opentripplanner.netex.loader.parser.NetexDocumentParser;
 import org.opentripplanner.netex.mapping.NetexMapper;
 import org.opentripplanner.netex.validation.Validator;
@@ -41,6 +39,8 @@ public class NetexBundle implements Closeable {
 
     private final String netexFeedId;
 
+    private final int parserThreadPoolSize;
+
     /** The NeTEx entities loaded from the input files and passed on to the mapper. */
     private NetexEntityIndex index = new NetexEntityIndex();
 
@@ -50,17 +50,18 @@ public class NetexBundle implements Closeable {
     /** maps the NeTEx XML document to OTP transit model. */
     private NetexMapper mapper;
 
-    private NetexXmlParser xmlParser;
+    private ParallelNetexXmlParser xmlParser;
 
     public NetexBundle(
             String netexFeedId,
             CompositeDataSource source,
-            NetexDataSourceHierarchy hierarchy
-
+            NetexDataSourceHierarchy hierarchy,
+            int parserThreadPoolSize
     ) {
         this.netexFeedId = netexFeedId;
         this.source = source;
         this.hierarchy = hierarchy;
+        this.parserThreadPoolSize = parserThreadPoolSize;
     }
 
     /** load the bundle, map it to the OTP transit model and return */
@@ -76,11 +77,16 @@ public class NetexBundle implements Closeable {
         OtpTransitServiceBuilder transitBuilder = new OtpTransitServiceBuilder();
 
         // init parser and mapper
-        xmlParser = new NetexXmlParser();
         mapper = new NetexMapper(transitBuilder, netexFeedId, deduplicator, issueStore);
 
         // Load data
-        loadFileEntries();
+        try (ParallelNetexXmlParser parser = new ParallelNetexXmlParser(parserThreadPoolSize)) {
+            xmlParser = parser;
+            loadFileEntries();
+        }
+        finally {
+            xmlParser = null;
+        }
 
         return transitBuilder;
     }
@@ -109,12 +115,15 @@ public class NetexBundle implements Closeable {
                         group.sharedEntries()
                 );
 
-                for (DataSource entry : group.independentEntries()) {
-                    scopeInputData(() -> {
-                        // Load each independent file in group
-                        loadFilesThenMapToOtpTransitModel("group file", List.of(entry));
-                    });
-                }
+                // Parse the independent files in group in parallel, but index and map them
+                // one by one in the original order
+                xmlParser.parse(group.independentEntries(), (entry, doc) ->
+                        scopeInputData(() -> {
+                            LOG.info("reading entity group file: {}", entry.name());
+                            NetexDocumentParser.parseAndPopulateIndex(index, doc);
+                            validateThenMapToOtpTransitModel();
+                        })
+                );
             });
         }
         mapper.finnishUp();
@@ -146,7 +155,10 @@ public class NetexBundle implements Closeable {
             // Load entry and store it in the index
             loadSingeFileEntry(fileDescription, entry);
         }
+        validateThenMapToOtpTransitModel();
+    }
 
+    private void validateThenMapToOtpTransitModel() {
         // Validate input data, and remove invalid data
         Validator.validate(index, issueStore);
 
@@ -156,15 +168,10 @@ public class NetexBundle implements Closeable {
 
     /** Load a single entry and store it in the index for later */
     private void loadSingeFileEntry(String fileDescription, DataSource entry) {
-        try {
-            LOG.info("reading entity {}: {}", fileDescription, entry.name());
+        LOG.info("reading entity {}: {}", fileDescription, entry.name());
 
-            PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
-            NetexDocumentParser.parseAndPopulateIndex(index, doc);
-
-        } catch (JAXBException e) {
-            throw new RuntimeException(e.getMessage(), e);
-        }
+        PublicationDeliveryStructure doc = xmlParser.parse(entry);
+        NetexDocumentParser.parseAndPopulateIndex(index, doc);
     }
 
     @Override
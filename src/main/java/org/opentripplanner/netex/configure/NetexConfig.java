@@ -64,7 +64,12 @@ public class NetexConfig {
 
     /** public to enable testing */
     private NetexBundle netexBundle(CompositeDataSource source) {
-        return new NetexBundle(buildParams.netex.netexFeedId, source, hierarchy(source));
+        return new NetexBundle(
+                buildParams.netex.netexFeedId,
+                source,
+                hierarchy(source),
+                buildParams.netex.parserThreadPoolSize
+        );
     }
 
     private NetexDataSourceHierarchy hierarchy(CompositeDataSource source){
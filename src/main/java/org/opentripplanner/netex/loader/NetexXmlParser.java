@@ -8,7 +8,12 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import java.io.InputStream;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * The parser is NOT thread-safe, create one parser for each thread. The JAXB context is
+ * thread-safe and expensive to create, so it is shared by all parsers.
+ */
 public class NetexXmlParser {
     /** used to parse the XML. */
     private final Unmarshaller unmarshaller;
@@ -32,9 +37,7 @@ public class NetexXmlParser {
     /** factory method for unmarshaller */
     private static Unmarshaller createUnmarshaller() {
         try {
-            return JAXBContext
-                    .newInstance(PublicationDeliveryStructure.class)
-                    .createUnmarshaller();
+            return JaxbContextHolder.CONTEXT.createUnmarshaller();
         } catch (JAXBException e) {
             // This is a programming error - not expected!
             // We abort early and also allow for this to happen in the constructor;
@@ -42,4 +45,17 @@ public class NetexXmlParser {
             throw new RuntimeException(e);
         }
     }
+
+    /** Lazy create the JAXB context the first time a parser is created. */
+    private static class JaxbContextHolder {
+        private static final JAXBContext CONTEXT = createContext();
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(PublicationDeliveryStructure.class);
+            } catch (JAXBException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package org.opentripplanner.netex.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import javax.xml.bind.JAXBException;
+import org.opentripplanner.datastore.DataSource;
+import org.rutebanken.netex.model.PublicationDeliveryStructure;
+
+/**
+ * Parse NeTEx XML files in parallel, and pass the documents on to a consumer one by one, in the
+ * same order as the files are given. The consumer is called in the caller thread, so indexing and
+ * mapping the documents stay sequential and deterministic.
+ * <p>
+ * Only a few documents are parsed ahead of the consumer, to keep the memory usage down. If the
+ * number of threads is 1, the files are parsed in the caller thread.
+ */
+public class ParallelNetexXmlParser implements Closeable {
+
+    /** The number of documents parsed ahead of the consumer, for each thread */
+    private static final int DOCUMENTS_AHEAD_PER_THREAD = 2;
+
+    private final ExecutorService threadPool;
+    private final int maxDocumentsAhead;
+    private final ThreadLocal<NetexXmlParser> parser = ThreadLocal.withInitial(NetexXmlParser::new);
+
+    public ParallelNetexXmlParser(int nThreads) {
+        if (nThreads > 1) {
+            this.threadPool = Executors.newFixedThreadPool(nThreads, r -> {
+                Thread thread = new Thread(r, "netex-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.maxDocumentsAhead = nThreads * DOCUMENTS_AHEAD_PER_THREAD;
+        }
+        else {
+            this.threadPool = null;
+            this.maxDocumentsAhead = 0;
+        }
+    }
+
+    /** Parse a single file in the caller thread. */
+    public PublicationDeliveryStructure parse(DataSource entry) {
+        try (InputStream stream = entry.asInputStream()) {
+            return parser.get().parseXmlDoc(stream);
+        }
+        catch (JAXBException | IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse all entries and call the consumer with each entry and its document, in the same order
+     * as the entries are given.
+     */
+    public void parse(
+            Collection<DataSource> entries,
+            BiConsumer<DataSource, PublicationDeliveryStructure> consumer
+    ) {
+        if (threadPool == null) {
+            for (DataSource entry : entries) {
+                consumer.accept(entry, parse(entry));
+            }
+            return;
+        }
+
+        List<DataSource> list = new ArrayList<>(entries);
+        Deque<Future<PublicationDeliveryStructure>> ahead = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (DataSource entry : list) {
+                while (next < list.size() && ahead.size() < maxDocumentsAhead) {
+                    DataSource it = list.get(next++);
+                    ahead.add(threadPool.submit(() -> parse(it)));
+                }
+                consumer.accept(entry, get(ahead.poll()));
+            }
+        }
+        finally {
+            ahead.forEach(it -> it.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (threadPool != null) {
+            threadPool.shutdownNow();
+        }
+    }
+
+    private static PublicationDeliveryStructure get(Future<PublicationDeliveryStructure> doc) {
+        try {
+            return doc.get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while parsing NeTEx files.", e);
+        }
+    }
+}
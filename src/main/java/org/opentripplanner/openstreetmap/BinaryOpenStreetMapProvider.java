@@ -1,6 +1,6 @@
 package org.opentripplanner.openstreetmap;
 
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.opentripplanner.datastore.DataSource;
 import org.opentripplanner.datastore.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -9,18 +9,28 @@ import org.opentripplanner.util.ProgressTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes:
  * First the relations, then the ways, then the nodes are also loaded.
+ * <p>
+ * The blocks of the file are inflated and decoded in parallel, see {@link PbfBlockReader}. The
+ * first pass records which entities each block contains, the following passes only read the
+ * blocks with ways or nodes.
  */
 public class BinaryOpenStreetMapProvider {
     private static final Logger LOG = LoggerFactory.getLogger(BinaryOpenStreetMapProvider.class);
 
+    /** The number of blocks decoded ahead of the parser, for each decoding thread. */
+    private static final int MAX_BLOCKS_IN_FLIGHT_PER_THREAD = 2;
+
     private final DataSource source;
     private final boolean cacheDataImMem;
     private byte[] cachedBytes = null;
@@ -37,34 +47,52 @@ public class BinaryOpenStreetMapProvider {
     }
 
     public void readOSM(OSMDatabase osmdb) {
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                nThreads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("osm-pbf-%d").build()
+        );
         try {
             BinaryOpenStreetMapParser parser = new BinaryOpenStreetMapParser(osmdb);
+            PbfBlockReader reader = new PbfBlockReader(executor, MAX_BLOCKS_IN_FLIGHT_PER_THREAD * nThreads);
+            PbfBlockReader.BlockIndex index = new PbfBlockReader.BlockIndex();
 
-            parsePhase(parser, OsmParserPhase.Relations);
+            // The first pass reads all blocks, and records which entities each block contains
+            parser.setPhase(OsmParserPhase.Relations);
+            try (InputStream in = createInputStream(OsmParserPhase.Relations)) {
+                reader.readAll(in, parser, index);
+            }
             osmdb.doneFirstPhaseRelations();
-
-            parsePhase(parser, OsmParserPhase.Ways);
+            LOG.info(
+                    "OSM file has {} blocks, {} with ways and {} with nodes.",
+                    index.size(),
+                    index.size(OsmParserPhase.Ways),
+                    index.size(OsmParserPhase.Nodes)
+            );
+
+            parsePhase(reader, index, parser, OsmParserPhase.Ways);
             osmdb.doneSecondPhaseWays();
 
-            parsePhase(parser, OsmParserPhase.Nodes);
+            parsePhase(reader, index, parser, OsmParserPhase.Nodes);
             osmdb.doneThirdPhaseNodes();
         }
         catch (Exception ex) {
             throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
         }
+        finally {
+            executor.shutdownNow();
+        }
     }
 
-    private void parsePhase(BinaryOpenStreetMapParser parser, OsmParserPhase phase) throws IOException {
+    private void parsePhase(
+            PbfBlockReader reader,
+            PbfBlockReader.BlockIndex index,
+            BinaryOpenStreetMapParser parser,
+            OsmParserPhase phase
+    ) throws IOException {
         parser.setPhase(phase);
-        BlockInputStream in = null;
-        try {
-            in = new BlockInputStream(createInputStream(phase), parser);
-            in.process();
-        }
-        finally {
-            // Close
-            try { if(in != null) { in.close(); } }
-            catch (Exception e) { LOG.error(e.getMessage(), e); }
+        try (InputStream in = createInputStream(phase)) {
+            reader.readIndexed(in, parser, index, phase);
         }
     }
 
@@ -75,7 +103,7 @@ public class BinaryOpenStreetMapProvider {
             }
             return track(phase, cachedBytes.length, new ByteArrayInputStream(cachedBytes));
         }
-        return track(phase, source.size(), source.asInputStream());
+        return track(phase, source.size(), new BufferedInputStream(source.asInputStream()));
     }
 
     @SuppressWarnings("Convert2MethodRef")
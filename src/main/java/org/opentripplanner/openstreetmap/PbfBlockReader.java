@@ -0,0 +1,322 @@
+package org.opentripplanner.openstreetmap;
+
+import org.openstreetmap.osmosis.osmbinary.BinaryParser;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the blocks of an OpenStreetMap PBF file, and passes them on to a
+ * {@link BinaryOpenStreetMapParser} in file order. Reading the file is done on the calling thread,
+ * while inflating and decoding the blocks is done by the given executor. The parser is only called
+ * from the calling thread, so it does not need to be thread-safe.
+ * <p>
+ * The first time a file is read, the offset and the entity types of each data block are recorded
+ * in a {@link BlockIndex}. When the file is read again with the index, blocks without entities of
+ * the wanted type are skipped without being inflated or decoded.
+ */
+class PbfBlockReader {
+
+    private static final String HEADER_BLOCK = "OSMHeader";
+    private static final String DATA_BLOCK = "OSMData";
+
+    /** The PBF specification limits the size of the blob header to 64 KiB. */
+    private static final int MAX_BLOB_HEADER_SIZE = 64 * 1024;
+
+    /** The PBF specification limits the size of a blob to 32 MiB. */
+    private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+    private final ExecutorService executor;
+
+    /** Limits the number of blocks read ahead of the parser, and the memory used by them. */
+    private final int maxBlocksInFlight;
+
+    PbfBlockReader(ExecutorService executor, int maxBlocksInFlight) {
+        this.executor = executor;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+    }
+
+    /**
+     * Read all the blocks in the stream, and record each data block in the given index.
+     */
+    void readAll(
+            InputStream in,
+            BinaryOpenStreetMapParser parser,
+            BlockIndex index
+    ) throws IOException {
+        Deque<Future<DecodedBlock>> inFlight = new ArrayDeque<>();
+        long offset = 0;
+        try {
+            while (true) {
+                BlockHeader header = readBlockHeader(in);
+                if (header == null) { break; }
+                submit(inFlight, offset, header, readFully(in, header.dataSize));
+                offset += header.size;
+                while (inFlight.size() >= maxBlocksInFlight) {
+                    consume(inFlight.poll(), parser, index);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                consume(inFlight.poll(), parser, index);
+            }
+        }
+        finally {
+            inFlight.forEach(it -> it.cancel(true));
+        }
+        parser.complete();
+    }
+
+    /**
+     * Read the header block, and the data blocks in the index containing entities of the given
+     * type, skipping all other blocks.
+     */
+    void readIndexed(
+            InputStream in,
+            BinaryOpenStreetMapParser parser,
+            BlockIndex index,
+            OsmParserPhase phase
+    ) throws IOException {
+        Deque<Future<DecodedBlock>> inFlight = new ArrayDeque<>();
+        long position = 0;
+        try {
+            for (Block block : index.blocks) {
+                if (!block.isHeader() && !block.contains(phase)) { continue; }
+                skipFully(in, block.offset - position);
+
+                BlockHeader header = readBlockHeader(in);
+                if (header == null) {
+                    throw new EOFException("Block at offset " + block.offset + " not found.");
+                }
+                submit(inFlight, block.offset, header, readFully(in, header.dataSize));
+                position = block.offset + header.size;
+
+                while (inFlight.size() >= maxBlocksInFlight) {
+                    consume(inFlight.poll(), parser, null);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                consume(inFlight.poll(), parser, null);
+            }
+        }
+        finally {
+            inFlight.forEach(it -> it.cancel(true));
+        }
+        parser.complete();
+    }
+
+    private void submit(
+            Deque<Future<DecodedBlock>> inFlight,
+            long offset,
+            BlockHeader header,
+            byte[] blob
+    ) {
+        inFlight.add(executor.submit(() -> decode(offset, header.type, blob)));
+    }
+
+    private static void consume(
+            Future<DecodedBlock> future,
+            BinaryOpenStreetMapParser parser,
+            BlockIndex index
+    ) throws IOException {
+        DecodedBlock decoded;
+        try {
+            decoded = future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading OSM blocks", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) { throw (IOException) e.getCause(); }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (decoded.header != null) {
+            parser.parse(decoded.header);
+        }
+        else if (decoded.data != null) {
+            parser.parse(decoded.data);
+        }
+        if (index != null) {
+            index.blocks.add(decoded.block);
+        }
+    }
+
+    /**
+     * Inflate and decode a blob. Blocks of unknown types are returned without content, and
+     * ignored, in the same way as the {@link BinaryParser} does.
+     */
+    private static DecodedBlock decode(long offset, String type, byte[] blob)
+            throws IOException {
+        if (!HEADER_BLOCK.equals(type) && !DATA_BLOCK.equals(type)) {
+            return new DecodedBlock(new Block(offset, false, 0), null, null);
+        }
+        byte[] raw = inflate(Fileformat.Blob.parseFrom(blob));
+
+        if (HEADER_BLOCK.equals(type)) {
+            return new DecodedBlock(
+                    new Block(offset, true, 0),
+                    Osmformat.HeaderBlock.parseFrom(raw),
+                    null
+            );
+        }
+        Osmformat.PrimitiveBlock data = Osmformat.PrimitiveBlock.parseFrom(raw);
+        int phases = 0;
+        for (Osmformat.PrimitiveGroup group : data.getPrimitivegroupList()) {
+            if (group.getNodesCount() > 0 || group.hasDense()) {
+                phases |= Block.bit(OsmParserPhase.Nodes);
+            }
+            if (group.getWaysCount() > 0) {
+                phases |= Block.bit(OsmParserPhase.Ways);
+            }
+            if (group.getRelationsCount() > 0) {
+                phases |= Block.bit(OsmParserPhase.Relations);
+            }
+        }
+        return new DecodedBlock(new Block(offset, false, phases), null, data);
+    }
+
+    private static byte[] inflate(Fileformat.Blob blob) throws IOException {
+        if (blob.hasRaw()) {
+            return blob.getRaw().toByteArray();
+        }
+        if (!blob.hasZlibData()) {
+            throw new IOException("Unsupported PBF blob compression, only zlib is supported.");
+        }
+        byte[] raw = new byte[blob.getRawSize()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(blob.getZlibData().toByteArray());
+            int n = inflater.inflate(raw);
+            if (n != raw.length || !inflater.finished()) {
+                throw new IOException("PBF blob size does not match its raw size.");
+            }
+        }
+        catch (DataFormatException e) {
+            throw new IOException("Unable to inflate PBF blob", e);
+        }
+        finally {
+            inflater.end();
+        }
+        return raw;
+    }
+
+    /** @return the next block header, or {@code null} at the end of the stream */
+    private static BlockHeader readBlockHeader(InputStream in) throws IOException {
+        int b0 = in.read();
+        if (b0 == -1) { return null; }
+        int b1 = in.read(), b2 = in.read(), b3 = in.read();
+        if ((b1 | b2 | b3) < 0) { throw new EOFException("Truncated PBF block header"); }
+
+        int headerSize = (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+        if (headerSize < 0 || headerSize > MAX_BLOB_HEADER_SIZE) {
+            throw new IOException("Invalid PBF block header size: " + headerSize);
+        }
+        Fileformat.BlobHeader header = Fileformat.BlobHeader.parseFrom(readFully(in, headerSize));
+        if (header.getDatasize() < 0 || header.getDatasize() > MAX_BLOB_SIZE) {
+            throw new IOException("Invalid PBF blob size: " + header.getDatasize());
+        }
+        return new BlockHeader(header.getType(), headerSize, header.getDatasize());
+    }
+
+    private static byte[] readFully(InputStream in, int size) throws IOException {
+        byte[] bytes = in.readNBytes(size);
+        if (bytes.length != size) { throw new EOFException("Truncated PBF block"); }
+        return bytes;
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                // Some streams can not skip, fall back to reading
+                if (in.read() == -1) { throw new EOFException("Truncated PBF file"); }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /**
+     * The blocks of a PBF file, with the entity types in each block. Created by the first pass
+     * over the file, and used to skip blocks in the following passes.
+     */
+    static class BlockIndex {
+        private final List<Block> blocks = new ArrayList<>();
+
+        int size() {
+            return blocks.size();
+        }
+
+        /** @return the number of blocks containing entities of the given type */
+        int size(OsmParserPhase phase) {
+            return (int) blocks.stream().filter(it -> it.contains(phase)).count();
+        }
+    }
+
+    private static class Block {
+        private final long offset;
+        private final boolean header;
+        /** The phases with entities in this block, as a bit set of {@link OsmParserPhase} */
+        private final int phases;
+
+        private Block(long offset, boolean header, int phases) {
+            this.offset = offset;
+            this.header = header;
+            this.phases = phases;
+        }
+
+        boolean isHeader() {
+            return header;
+        }
+
+        boolean contains(OsmParserPhase phase) {
+            return (phases & bit(phase)) != 0;
+        }
+
+        static int bit(OsmParserPhase phase) {
+            return 1 << phase.ordinal();
+        }
+    }
+
+    private static class BlockHeader {
+        private final String type;
+        private final int dataSize;
+        /** The size of the whole block: the header size, the header and the blob */
+        private final long size;
+
+        private BlockHeader(String type, int headerSize, int dataSize) {
+            this.type = type;
+            this.dataSize = dataSize;
+            this.size = 4L + headerSize + dataSize;
+        }
+    }
+
+    private static class DecodedBlock {
+        private final Block block;
+        private final Osmformat.HeaderBlock header;
+        private final Osmformat.PrimitiveBlock data;
+
+        private DecodedBlock(
+                Block block,
+                Osmformat.HeaderBlock header,
+                Osmformat.PrimitiveBlock data
+        ) {
+            this.block = block;
+            this.header = header;
+            this.data = data;
+        }
+    }
+}
@@ -9,6 +9,22 @@ public class OSMNode extends OSMWithTags {
         return "osm node " + id;
     }
 
+    /**
+     * Nodes are equal if they have the same id. A node store may create a new instance each time
+     * a node is retrieved, see {@link org.opentripplanner.graph_builder.module.osm.OSMNodeStore}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof OSMNode)) { return false; }
+        return id == ((OSMNode) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+
     /**
      * Returns the capacity of this node if defined, or 0.
      * 
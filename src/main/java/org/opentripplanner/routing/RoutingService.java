@@ -49,6 +49,13 @@ public class RoutingService {
 
     // TODO We should probably not have the Router as a parameter here
     public RoutingResponse route(RoutingRequest request, Router router) {
+        if (router.routingResponseCache != null) {
+            return router.routingResponseCache.route(
+                    request,
+                    graph,
+                    () -> new RoutingWorker(router.raptorConfig, request).route(router)
+            );
+        }
         RoutingWorker worker = new RoutingWorker(router.raptorConfig, request);
         return worker.route(router);
     }
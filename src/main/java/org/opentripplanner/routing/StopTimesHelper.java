@@ -195,8 +195,7 @@ public class StopTimesHelper {
     //
     // The {@link MinMaxPriorityQueue} is marked beta, but we do not have a god alternative.
     MinMaxPriorityQueue<TripTimeShort> pq = MinMaxPriorityQueue
-            .orderedBy(Comparator.comparing((TripTimeShort tts) -> tts.getServiceDay()
-                + tts.getRealtimeDeparture()))
+            .orderedBy(Comparator.comparing(StopTimesHelper::departureTime))
             .maximumSize(numberOfDepartures)
             .create();
 
@@ -217,10 +216,18 @@ public class StopTimesHelper {
       for (Stop currStop : pattern.stopPattern.stops) {
         if (currStop == stop) {
           if (omitNonPickups && pattern.stopPattern.pickups[sidx] == StopPattern.PICKDROP_NONE) continue;
-          for (TripTimes t : tt.tripTimes) {
+          // The trips are visited in departure order, starting with the first departure after
+          // the start time, until the queue is full with earlier departures.
+          int[] tripIndexes = tt.getTripIndexesByDeparture(sidx);
+          int first = tt.findFirstDeparture(sidx, tripIndexes, secondsSinceMidnight);
+          for (int i = first; i < tripIndexes.length; ++i) {
+            TripTimes t = tt.getTripTimes(tripIndexes[i]);
+            if (pq.size() == numberOfDepartures
+                && sd.time(t.getDepartureTime(sidx)) > departureTime(pq.peekLast())) {
+              break;
+            }
             if (!sd.serviceRunning(t.serviceCode)) continue;
-            if (t.getDepartureTime(sidx) != -1 &&
-                    t.getDepartureTime(sidx) >= secondsSinceMidnight) {
+            if (t.getDepartureTime(sidx) != -1) {
               pq.add(new TripTimeShort(t, sidx, stop, sd));
             }
           }
@@ -252,4 +259,9 @@ public class StopTimesHelper {
     }
     return pq;
   }
+
+  /** The departure time in seconds since the epoch. */
+  private static long departureTime(TripTimeShort tripTimeShort) {
+    return tripTimeShort.getServiceDay() + tripTimeShort.getRealtimeDeparture();
+  }
 }
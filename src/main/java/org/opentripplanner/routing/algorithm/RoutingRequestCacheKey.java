@@ -0,0 +1,269 @@
+package org.opentripplanner.routing.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.transferoptimization.api.TransferOptimizationParameters;
+import org.opentripplanner.routing.api.request.BannedStopSet;
+import org.opentripplanner.routing.api.request.ItineraryFilterParameters;
+import org.opentripplanner.routing.api.request.RequestFunctions;
+import org.opentripplanner.routing.api.request.RequestModes;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+
+/**
+ * The key of a routing request in the {@link RoutingResponseCache}. Two requests get equal keys if
+ * all the request parameters that affect the response are equal, except that the coordinates of
+ * the from, to and intermediate places are rounded to a given number of decimals, and the
+ * requested date-time is rounded down to a time bucket.
+ * <p>
+ * The parameters are listed explicitly in {@link #of(RoutingRequest, int, int)}. A new parameter
+ * in {@link RoutingRequest} must be added there, or to the fields ignored by the
+ * {@code RoutingRequestCacheKeyTest}, which fails for fields in neither list. The routing context
+ * and the other state created while routing are not part of the key.
+ * <p>
+ * The key is only used in memory, and only compared with keys created in the same JVM.
+ */
+final class RoutingRequestCacheKey {
+
+    /** Used in place of a banned stop set which bans all stops, it is equal to an empty set. */
+    private static final String ALL_STOPS = "<all>";
+
+    /** Used in place of the bike walking options of a request, if they are the request itself. */
+    private static final String SAME_REQUEST = "<same>";
+
+    private final List<Object> values;
+    private final int hashCode;
+
+    private RoutingRequestCacheKey(List<Object> values) {
+        this.values = values;
+        this.hashCode = values.hashCode();
+    }
+
+    /**
+     * @param coordinatePrecision the number of decimals to keep in the coordinates
+     * @param timeBucketSeconds   the requested date-time is rounded down to a multiple of this
+     * @throws IllegalArgumentException if the request has a parameter value which can not be
+     *                                  compared, like an unknown itinerary filter function.
+     */
+    static RoutingRequestCacheKey of(
+            RoutingRequest request,
+            int coordinatePrecision,
+            int timeBucketSeconds
+    ) {
+        double coordinateFactor = Math.pow(10, coordinatePrecision);
+        return new RoutingRequestCacheKey(Arrays.asList(
+                // Places and time
+                location(request.from, coordinateFactor),
+                location(request.to, coordinateFactor),
+                locations(request.intermediatePlaces, coordinateFactor),
+                Math.floorDiv(request.dateTime, timeBucketSeconds),
+                request.arriveBy,
+                request.searchWindow,
+                request.timetableView,
+                request.additionalSearchDaysBeforeToday,
+                request.additionalSearchDaysAfterToday,
+                request.startingTransitStopId,
+                request.startingTransitTripId,
+                request.oneToMany,
+                // Modes
+                modes(request.modes),
+                request.streetSubRequestModes,
+                request.onlyTransitTrips,
+                request.walkingBike,
+                request.bikeRental,
+                request.bikeParkAndRide,
+                request.parkAndRide,
+                request.carPickup,
+                // Limits
+                request.maxWalkDistance,
+                request.maxTransferWalkDistance,
+                request.maxPreTransitTime,
+                request.worstTime,
+                request.maxWeight,
+                request.maxHours,
+                request.useRequestedDateTimeInMaxHours,
+                request.maxTransfers,
+                request.numItineraries,
+                request.wheelchairAccessible,
+                request.maxWheelchairSlope,
+                // Speeds and street costs
+                request.walkSpeed,
+                request.bikeSpeed,
+                request.carSpeed,
+                request.carDecelerationSpeed,
+                request.carAccelerationSpeed,
+                request.optimize,
+                request.bikeTriangleTimeFactor,
+                request.bikeTriangleSlopeFactor,
+                request.bikeTriangleSafetyFactor,
+                bikeWalkingOptions(request),
+                request.walkReluctance,
+                request.stairsReluctance,
+                request.turnReluctance,
+                request.elevatorBoardTime,
+                request.elevatorBoardCost,
+                request.elevatorHopTime,
+                request.elevatorHopCost,
+                request.bikeSwitchTime,
+                request.bikeSwitchCost,
+                request.bikeRentalPickupTime,
+                request.bikeRentalPickupCost,
+                request.bikeRentalDropoffTime,
+                request.bikeRentalDropoffCost,
+                request.bikeParkTime,
+                request.bikeParkCost,
+                request.carDropoffTime,
+                request.useBikeRentalAvailabilityInformation,
+                request.allowKeepingRentedBicycleAtDestination,
+                request.keepingRentedBicycleAtDestinationCost,
+                // Transit costs and slack
+                request.waitReluctance,
+                request.waitAtBeginningFactor,
+                request.walkBoardCost,
+                request.bikeBoardCost,
+                request.transferCost,
+                request.nonpreferredTransferCost,
+                new HashMap<>(request.transitReluctanceForMode()),
+                transferOptimization(request.transferOptimization),
+                request.transferSlack,
+                request.boardSlack,
+                new HashMap<>(request.boardSlackForMode),
+                request.alightSlack,
+                new HashMap<>(request.alightSlackForMode),
+                // Filters and preferences
+                request.getBannedAgencies(),
+                request.getWhiteListedAgencies(),
+                request.getPreferredAgencies(),
+                request.getUnpreferredAgencies(),
+                request.getBannedRoutes(),
+                request.getWhiteListedRoutes(),
+                request.getPreferredRoutes(),
+                request.getUnpreferredRoutes(),
+                request.otherThanPreferredRoutesPenalty,
+                request.useUnpreferredRoutesPenalty,
+                bannedTrips(request.bannedTrips),
+                request.ignoreRealtimeUpdates,
+                request.includePlannedCancellations,
+                request.disableAlertFiltering,
+                // Search and response
+                request.disableRemainingWeightHeuristic,
+                request.dominanceFunction == null ? null : request.dominanceFunction.getClass(),
+                request.pathComparator,
+                itineraryFilters(request.itineraryFilters),
+                request.showIntermediateStops,
+                request.geoidElevation,
+                request.locale
+        ));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        RoutingRequestCacheKey other = (RoutingRequestCacheKey) o;
+        return hashCode == other.hashCode && values.equals(other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private static List<Object> location(GenericLocation location, double coordinateFactor) {
+        if (location == null) { return null; }
+        return Arrays.asList(
+                location.label,
+                location.stopId,
+                round(location.lat, coordinateFactor),
+                round(location.lng, coordinateFactor)
+        );
+    }
+
+    private static List<Object> locations(List<GenericLocation> locations, double coordinateFactor) {
+        if (locations == null) { return null; }
+        List<Object> result = new ArrayList<>(locations.size());
+        for (GenericLocation location : locations) {
+            result.add(location(location, coordinateFactor));
+        }
+        return result;
+    }
+
+    private static Long round(Double coordinate, double coordinateFactor) {
+        return coordinate == null ? null : Math.round(coordinate * coordinateFactor);
+    }
+
+    private static List<Object> modes(RequestModes modes) {
+        if (modes == null) { return null; }
+        return Arrays.asList(
+                modes.accessMode,
+                modes.egressMode,
+                modes.directMode,
+                modes.transitModes == null ? null : new HashSet<>(modes.transitModes)
+        );
+    }
+
+    /**
+     * The bike walking options are derived from the request by its setters, but the values depend
+     * on the order the setters are called in, so they are part of the key.
+     */
+    private static Object bikeWalkingOptions(RoutingRequest request) {
+        RoutingRequest options = request.bikeWalkingOptions;
+        if (options == null || options == request) {
+            return options == null ? null : SAME_REQUEST;
+        }
+        return Arrays.asList(
+                options.arriveBy,
+                options.streetSubRequestModes,
+                options.walkingBike,
+                options.maxWalkDistance,
+                options.maxPreTransitTime,
+                options.walkSpeed,
+                options.walkReluctance,
+                options.stairsReluctance,
+                options.optimize,
+                options.bikeSwitchTime,
+                options.bikeSwitchCost,
+                options.bikeTriangleTimeFactor,
+                options.bikeTriangleSlopeFactor,
+                options.bikeTriangleSafetyFactor
+        );
+    }
+
+    private static List<Object> transferOptimization(TransferOptimizationParameters parameters) {
+        if (parameters == null) { return null; }
+        return Arrays.asList(
+                parameters.useOptimizeTransferCostFunction(),
+                parameters.waitReluctanceRouting(),
+                parameters.inverseWaitReluctance(),
+                parameters.minSafeWaitTimeFactor()
+        );
+    }
+
+    private static Map<FeedScopedId, Object> bannedTrips(Map<FeedScopedId, BannedStopSet> trips) {
+        if (trips == null) { return null; }
+        Map<FeedScopedId, Object> result = new HashMap<>();
+        trips.forEach((trip, stops) -> result.put(
+                trip,
+                stops == BannedStopSet.ALL ? ALL_STOPS : new HashSet<>(stops)
+        ));
+        return result;
+    }
+
+    private static List<Object> itineraryFilters(ItineraryFilterParameters filters) {
+        if (filters == null) { return null; }
+        return Arrays.asList(
+                filters.debug,
+                filters.groupSimilarityKeepOne,
+                filters.groupSimilarityKeepNumOfItineraries,
+                filters.minSafeTransferTimeFactor,
+                RequestFunctions.serialize(filters.transitGeneralizedCostLimit),
+                RequestFunctions.serialize(filters.nonTransitGeneralizedCostLimit),
+                filters.bikeRentalDistanceRatio
+        );
+    }
+}
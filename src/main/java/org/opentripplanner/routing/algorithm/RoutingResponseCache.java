@@ -0,0 +1,137 @@
+package org.opentripplanner.routing.algorithm;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.graph.Graph;
+
+/**
+ * An in-memory cache of routing responses, used to avoid routing the same request again when
+ * clients send identical requests within a short time. The cache is bounded by the number of
+ * responses, and each response expires a fixed time after it was added.
+ * <p>
+ * Requests are matched by the parameters that affect the response, with the coordinates rounded
+ * and the requested date-time bucketed, see {@link RoutingRequestCacheKey}. A cached response is
+ * returned as it was created for the first of the matching requests, so the coordinate precision
+ * and time bucket should be small enough for the difference not to matter.
+ * <p>
+ * A response depends on the realtime data at the time it was created. All cached responses are
+ * dropped when a new timetable snapshot is committed or a new realtime transit layer is published,
+ * and a response created while this happens is not cached.
+ */
+public class RoutingResponseCache {
+
+    private static final Counter HITS = counter("hit");
+    private static final Counter MISSES = counter("miss");
+
+    private final Parameters parameters;
+
+    private final Cache<RoutingRequestCacheKey, RoutingResponse> responses;
+
+    /** The realtime data the cached responses were created with. */
+    private TimetableSnapshot timetableSnapshot;
+    private TransitLayer realtimeTransitLayer;
+
+    /** The number of realtime data changes seen, used to detect changes during routing. */
+    private long realtimeVersion;
+
+    public RoutingResponseCache(Parameters parameters) {
+        this(parameters, Ticker.systemTicker());
+    }
+
+    /** Create a cache measuring the time to live with the given ticker, used in tests. */
+    RoutingResponseCache(Parameters parameters, Ticker ticker) {
+        this.parameters = parameters;
+        this.responses = CacheBuilder.newBuilder()
+                .maximumSize(parameters.maxSize())
+                .expireAfterWrite(parameters.ttlSeconds(), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Get the cached response for the request, or route the request and add the response to the
+     * cache. This must be called before the request is used for routing, the routing changes
+     * the request.
+     */
+    public RoutingResponse route(
+            RoutingRequest request,
+            Graph graph,
+            Supplier<RoutingResponse> router
+    ) {
+        RoutingRequestCacheKey key = RoutingRequestCacheKey.of(
+                request,
+                parameters.coordinatePrecision(),
+                parameters.timeBucketSeconds()
+        );
+        long version = checkRealtimeVersion(graph);
+        RoutingResponse response = responses.getIfPresent(key);
+        if (response != null) {
+            HITS.increment();
+            DebugTimingAggregator debugTimingAggregator = new DebugTimingAggregator();
+            debugTimingAggregator.servedFromCache();
+            return new RoutingResponse(
+                    response.getTripPlan(),
+                    response.getMetadata(),
+                    response.getRoutingErrors(),
+                    debugTimingAggregator
+            );
+        }
+
+        MISSES.increment();
+        response = router.get();
+        if (checkRealtimeVersion(graph) == version) {
+            responses.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Drop all cached responses if the realtime data has changed since the last call.
+     *
+     * @return the current realtime version
+     */
+    private synchronized long checkRealtimeVersion(Graph graph) {
+        TimetableSnapshot snapshot = graph.getTimetableSnapshot();
+        TransitLayer transitLayer = graph.getRealtimeTransitLayer();
+        if (snapshot != timetableSnapshot || transitLayer != realtimeTransitLayer) {
+            timetableSnapshot = snapshot;
+            realtimeTransitLayer = transitLayer;
+            ++realtimeVersion;
+            responses.invalidateAll();
+        }
+        return realtimeVersion;
+    }
+
+    private static Counter counter(String result) {
+        return Counter.builder("routing.responseCache")
+                .description("Routing requests looked up in the routing response cache")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    /** The configuration of the cache, see the router configuration documentation. */
+    public interface Parameters {
+
+        /** The maximum number of responses in the cache. The cache is disabled if zero. */
+        int maxSize();
+
+        /** The number of seconds a response is kept in the cache. */
+        int ttlSeconds();
+
+        /** The number of decimals of the coordinates used to match requests. */
+        int coordinatePrecision();
+
+        /** The size of the time buckets, in seconds, used to match the requested date-time. */
+        int timeBucketSeconds();
+    }
+}
@@ -5,6 +5,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.flex.FlexAccessEgress;
 import org.opentripplanner.model.plan.Itinerary;
@@ -33,8 +38,10 @@ import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.api.response.RoutingResponse;
 import org.opentripplanner.routing.api.response.TripSearchMetadata;
+import org.opentripplanner.routing.core.Fare;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.GraphIndex;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.routing.services.FareService;
@@ -45,12 +52,19 @@ import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.response.RaptorResponse;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.util.OTPFeature;
+import org.opentripplanner.util.OtpAppException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Does a complete transit search, including access and egress legs.
  * <p>
+ * The direct street search runs at the same time as the transit search, and the access and egress
+ * searches run at the same time as each other, if the router is configured with a street search
+ * thread pool (see {@link Router#streetSearchExecutor}). Each street search creates and disposes
+ * its own {@link RoutingRequest} clone and routing context, so the searches share no mutable
+ * state except the graph.
+ * <p>
  * This class has a request scope, hence the "Worker" name.
  */
 public class RoutingWorker {
@@ -69,6 +83,13 @@ public class RoutingWorker {
     private int searchWindowUsedInSeconds = NOT_SET;
     private Itinerary firstRemovedItinerary = null;
 
+    /** Time spent in the direct street and flex searches, measured in the search threads. */
+    private final AtomicLong directStreetRouterNanos = new AtomicLong();
+    /** Time spent in the access and egress searches, measured in the search threads. */
+    private final AtomicLong accessEgressNanos = new AtomicLong();
+    /** Time the request thread spent waiting for street searches to complete. */
+    private long streetSearchWaitNanos = 0;
+
     public RoutingWorker(RaptorConfig<TripSchedule> config, RoutingRequest request) {
         this.debugTimingAggregator.startedCalculating();
         this.raptorService = new RaptorService<>(config);
@@ -86,34 +107,58 @@ public class RoutingWorker {
 
         this.debugTimingAggregator.finishedPrecalculating();
 
-        // Direct street routing
+        // Direct street and flex routing, in parallel with the transit routing if enabled
+        long startDirect = System.nanoTime();
+        Future<List<Itinerary>> directStreet = submitStreetSearch(
+            router, directStreetRouterNanos, () -> DirectStreetRouter.route(router, request)
+        );
+        Future<List<Itinerary>> directFlex = OTPFeature.FlexRouting.isOn()
+            ? submitStreetSearch(
+                router, directStreetRouterNanos, () -> DirectFlexRouter.route(router, request)
+            )
+            : null;
+        streetSearchWaitNanos += System.nanoTime() - startDirect;
+
+        this.debugTimingAggregator.startedTransitRouter();
+
+        // Transit routing
+        Collection<Itinerary> transitItineraries = Collections.emptyList();
+        List<RoutingError> transitRoutingErrors = Collections.emptyList();
         try {
-            itineraries.addAll(DirectStreetRouter.route(router, request));
+            transitItineraries = routeTransit(router);
         } catch (RoutingValidationException e) {
-            routingErrors.addAll(e.getRoutingErrors());
+            transitRoutingErrors = e.getRoutingErrors();
         }
 
-        // Direct flex routing
-        if (OTPFeature.FlexRouting.isOn()) {
+        this.debugTimingAggregator.finishedTransitRouter();
+
+        // Keep the direct results first, as when the searches run sequentially
+        long startJoinDirect = System.nanoTime();
+        try {
+            itineraries.addAll(join(directStreet));
+        } catch (RoutingValidationException e) {
+            routingErrors.addAll(e.getRoutingErrors());
+        }
+        if (directFlex != null) {
             try {
-                itineraries.addAll(DirectFlexRouter.route(router, request));
+                itineraries.addAll(join(directFlex));
             }
             catch (RoutingValidationException e) {
                 routingErrors.addAll(e.getRoutingErrors());
             }
         }
-
-        this.debugTimingAggregator.finishedDirectStreetRouter();
-
-        // Transit routing
-        try {
-            itineraries.addAll(routeTransit(router));
-        } catch (RoutingValidationException e) {
-            routingErrors.addAll(e.getRoutingErrors());
+        streetSearchWaitNanos += System.nanoTime() - startJoinDirect;
+        itineraries.addAll(transitItineraries);
+        routingErrors.addAll(transitRoutingErrors);
+
+        this.debugTimingAggregator.finishedDirectStreetRouter(directStreetRouterNanos.get());
+        if (router.streetSearchExecutor != null) {
+            this.debugTimingAggregator.finishedParallelStreetSearches(
+                directStreetRouterNanos.get() + accessEgressNanos.get(),
+                streetSearchWaitNanos
+            );
         }
 
-        this.debugTimingAggregator.finishedTransitRouter();
-
         // Filter itineraries
         itineraries = filterItineraries(itineraries);
         LOG.debug("Return TripPlan with {} itineraries", itineraries.size());
@@ -144,65 +189,25 @@ public class RoutingWorker {
             ? router.graph.getTransitLayer()
             : router.graph.getRealtimeTransitLayer();
 
-        RaptorRoutingRequestTransitData requestTransitDataProvider = createRequestTransitDataProvider(transitLayer, router.graph.index);
+        RaptorRoutingRequestTransitData requestTransitDataProvider = createRequestTransitDataProvider(
+                transitLayer,
+                router.graph
+        );
 
         this.debugTimingAggregator.finishedPatternFiltering();
 
         AccessEgressMapper accessEgressMapper = new AccessEgressMapper(transitLayer.getStopIndex());
-        Collection<AccessEgress> accessList;
-        Collection<AccessEgress> egressList;
-
-        // Prepare access/egress lists
-        try (RoutingRequest accessRequest = request.getStreetSearchRequest(request.modes.accessMode)) {
-            accessRequest.setRoutingContext(router.graph);
-            accessRequest.allowKeepingRentedBicycleAtDestination = false;
-
-            // Special handling of flex accesses
-            if (OTPFeature.FlexRouting.isOn() && request.modes.accessMode.equals(
-                    StreetMode.FLEXIBLE)) {
-                Collection<FlexAccessEgress> flexAccessList =
-                        FlexAccessEgressRouter.routeAccessEgress(
-                                accessRequest,
-                                false
-                        );
-                accessList = accessEgressMapper.mapFlexAccessEgresses(flexAccessList, false);
-            }
-            // Regular access routing
-            else {
-                Collection<NearbyStop> accessStops = AccessEgressRouter.streetSearch(
-                        accessRequest,
-                        request.modes.accessMode,
-                        false,
-                        2000
-                );
-                accessList = accessEgressMapper.mapNearbyStops(accessStops, false);
-            }
-        }
-
-        try (RoutingRequest egressRequest = request.getStreetSearchRequest(request.modes.egressMode)) {
-            egressRequest.setRoutingContext(router.graph);
 
-            // Special handling of flex egresses
-            if (OTPFeature.FlexRouting.isOn() && request.modes.egressMode.equals(
-                    StreetMode.FLEXIBLE)) {
-                Collection<FlexAccessEgress> flexEgressList =
-                        FlexAccessEgressRouter.routeAccessEgress(
-                                egressRequest,
-                                true
-                        );
-                egressList = accessEgressMapper.mapFlexAccessEgresses(flexEgressList, true);
-            }
-            // Regular egress routing
-            else {
-                Collection<NearbyStop> egressStops = AccessEgressRouter.streetSearch(
-                        egressRequest,
-                        request.modes.egressMode,
-                        true,
-                        2000
-                );
-                egressList = accessEgressMapper.mapNearbyStops(egressStops, true);
-            }
-        }
+        // Prepare access/egress lists, the egress search runs in parallel if enabled
+        long startAccessEgress = System.nanoTime();
+        Future<Collection<AccessEgress>> egress = submitStreetSearch(
+            router, accessEgressNanos, () -> routeAccessEgress(router, accessEgressMapper, true)
+        );
+        Collection<AccessEgress> accessList = join(runStreetSearch(
+            accessEgressNanos, () -> routeAccessEgress(router, accessEgressMapper, false)
+        ));
+        Collection<AccessEgress> egressList = join(egress);
+        streetSearchWaitNanos += System.nanoTime() - startAccessEgress;
 
         verifyEgressAccess(accessList, egressList);
 
@@ -250,17 +255,22 @@ public class RoutingWorker {
         );
         FareService fareService = router.graph.getService(FareService.class);
 
+        // Itinerary and Leg are API model classes, lacking internal object references needed for effective
+        // fare calculation. We derive the fares from the internal Path objects, all at once so the fare
+        // service can reuse the fares of rides the paths have in common.
+        List<Fare> fares = fareService != null ? fareService.getCosts(paths, transitLayer) : null;
+
         // TODO
+        int i = 0;
         for (Path<TripSchedule> path : paths) {
             // Convert the Raptor/Astar paths to OTP API Itineraries
             Itinerary itinerary = itineraryMapper.createItinerary(path);
             // Decorate the Itineraries with fare information.
-            // Itinerary and Leg are API model classes, lacking internal object references needed for effective
-            // fare calculation. We derive the fares from the internal Path objects and add them to the itinerary.
-            if (fareService != null) {
-                itinerary.fare = fareService.getCost(path, transitLayer);
+            if (fares != null) {
+                itinerary.fare = fares.get(i);
             }
             itineraries.add(itinerary);
+            ++i;
         }
 
         checkIfTransitConnectionExists(transitResponse);
@@ -279,16 +289,109 @@ public class RoutingWorker {
         return itineraries;
     }
 
+    private Collection<AccessEgress> routeAccessEgress(
+            Router router,
+            AccessEgressMapper accessEgressMapper,
+            boolean isEgress
+    ) {
+        StreetMode mode = isEgress ? request.modes.egressMode : request.modes.accessMode;
+
+        try (RoutingRequest streetRequest = request.getStreetSearchRequest(mode)) {
+            streetRequest.setRoutingContext(router.graph);
+            if (!isEgress) {
+                streetRequest.allowKeepingRentedBicycleAtDestination = false;
+            }
+
+            // Special handling of flex accesses and egresses
+            if (OTPFeature.FlexRouting.isOn() && mode.equals(StreetMode.FLEXIBLE)) {
+                Collection<FlexAccessEgress> flexAccessEgressList =
+                        FlexAccessEgressRouter.routeAccessEgress(
+                                streetRequest,
+                                isEgress
+                        );
+                return accessEgressMapper.mapFlexAccessEgresses(flexAccessEgressList, isEgress);
+            }
+            // Regular access and egress routing
+            else {
+                Collection<NearbyStop> nearbyStops = AccessEgressRouter.streetSearch(
+                        streetRequest,
+                        mode,
+                        isEgress,
+                        2000
+                );
+                return accessEgressMapper.mapNearbyStops(nearbyStops, isEgress);
+            }
+        }
+    }
+
+    /**
+     * Run the given street search on the router street search thread pool, or in the request
+     * thread if the street searches should not run in parallel. The time spent in the search is
+     * added to the given {@code timer}.
+     */
+    private static <T> Future<T> submitStreetSearch(
+            Router router,
+            AtomicLong timer,
+            Callable<T> search
+    ) {
+        if (router.streetSearchExecutor == null) {
+            return runStreetSearch(timer, search);
+        }
+        FutureTask<T> task = timedTask(timer, search);
+        router.streetSearchExecutor.execute(task);
+        return task;
+    }
+
+    /** Run the given street search in the request thread. */
+    private static <T> Future<T> runStreetSearch(AtomicLong timer, Callable<T> search) {
+        FutureTask<T> task = timedTask(timer, search);
+        task.run();
+        return task;
+    }
+
+    private static <T> FutureTask<T> timedTask(AtomicLong timer, Callable<T> search) {
+        return new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            try {
+                return search.call();
+            }
+            finally {
+                timer.addAndGet(System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Wait for the street search to complete and return the result. Exceptions thrown by the
+     * search, like {@link RoutingValidationException}, are rethrown in the request thread.
+     */
+    private static <T> T join(Future<T> search) {
+        try {
+            return search.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new OtpAppException("Street search failed. Details: " + e.getMessage());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OtpAppException("Street search interrupted.");
+        }
+    }
+
     private RaptorRoutingRequestTransitData createRequestTransitDataProvider(
             TransitLayer transitLayer,
-            GraphIndex graphIndex
+            Graph graph
     ) {
         return new RaptorRoutingRequestTransitData(
                 transitLayer,
                 request.getDateTime().toInstant(),
                 request.additionalSearchDaysAfterToday,
-                createRequestTransitDataProviderFilter(graphIndex),
-                request.walkSpeed
+                createRequestTransitDataProviderFilter(graph.index),
+                request.walkSpeed,
+                graph.getTransitDataCache()
         );
     }
 
@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.algorithm.astar;
 
-import com.beust.jcommander.internal.Lists;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
 import org.opentripplanner.common.pqueue.BinHeap;
 import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
 import org.opentripplanner.routing.algorithm.astar.strategies.SearchTerminationStrategy;
@@ -13,11 +14,10 @@ import org.opentripplanner.routing.graph.Vertex;
 import org.opentripplanner.routing.spt.GraphPath;
 import org.opentripplanner.routing.spt.ShortestPathTree;
 import org.opentripplanner.util.time.DateUtils;
-import org.opentripplanner.util.monitoring.MonitoringStore;
-import org.opentripplanner.util.monitoring.MonitoringStoreFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -29,12 +29,19 @@ import java.util.List;
  *
  * NOTE this is now per-request scoped, which has caused some threading problems in the past.
  * Always make one new instance of this class per request, it contains a lot of state fields.
+ * An instance may be reused for several searches in the same thread, this avoids allocating a
+ * new priority queue for each search.
  */
 public class AStar {
 
     private static final Logger LOG = LoggerFactory.getLogger(AStar.class);
-    // FIXME this is not really a factory, it's a way to fake a global variable. This should be stored at the OTPServer level.
-    private static final MonitoringStore store = MonitoringStoreFactory.getStore();
+
+    private static final DistributionSummary VISITED_STATES = DistributionSummary
+            .builder("astar.visitedStates")
+            .description("Number of states visited (dequeued) per A* search")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
     private static final double OVERSEARCH_MULTIPLIER = 4.0;
 
     private boolean verbose = false;
@@ -47,7 +54,11 @@ public class AStar {
 
     private SkipEdgeStrategy skipEdgeStrategy;
 
-    /* TODO instead of having a separate class for search state, we should just make one GenericAStar per request. */
+    /**
+     * The search state. The run state, including the priority queue and the list of accepted
+     * target states, is reused if the same AStar instance is used for several searches, like when
+     * finding the nearby stops for each stop in the graph.
+     */
     class RunState {
 
         public State u;
@@ -56,22 +67,50 @@ public class AStar {
         RemainingWeightHeuristic heuristic;
         public RoutingContext rctx;
         public int nVisited;
-        public List<State> targetAcceptedStates;
+        public final List<State> targetAcceptedStates = new ArrayList<>();
         public RunStatus status;
         private RoutingRequest options;
         private SearchTerminationStrategy terminationStrategy;
         public Vertex u_vertex;
         Double foundPathWeight = null;
 
-        public RunState(RoutingRequest options, SearchTerminationStrategy terminationStrategy) {
+        /**
+         * Prepare the run state for a new search, releasing all references to the states of the
+         * previous search.
+         */
+        void reset(RoutingRequest options, SearchTerminationStrategy terminationStrategy) {
             this.options = options;
             this.terminationStrategy = terminationStrategy;
+            this.rctx = options == null ? null : options.getRoutingContext();
+            this.u = null;
+            this.u_vertex = null;
+            this.spt = null;
+            this.heuristic = null;
+            this.nVisited = 0;
+            this.foundPathWeight = null;
+            this.targetAcceptedStates.clear();
+            this.status = RunStatus.RUNNING;
+            if (pq != null) {
+                pq.reset();
+            }
         }
-
     }
-    
+
+    /** The state of the current or last search, {@code null} until the first search is started. */
     private RunState runState;
-    
+
+    /**
+     * Release the references to the request and the states of the last search. The queue is kept,
+     * with its grown capacity, for the next search. Call this when an instance is kept for later
+     * searches, so it does not keep the last search alive while it is idle.
+     */
+    public void releaseLastSearch() {
+        if (runState != null) {
+            runState.reset(null, null);
+            runState.status = RunStatus.STOPPED;
+        }
+    }
+
     /**
      * Compute SPT using default timeout and termination strategy.
      */
@@ -96,8 +135,10 @@ public class AStar {
     private void startSearch(RoutingRequest options,
             SearchTerminationStrategy terminationStrategy, long abortTime, boolean addToQueue) {
 
-        runState = new RunState( options, terminationStrategy );
-        runState.rctx = options.getRoutingContext();
+        if (runState == null) {
+            runState = new RunState();
+        }
+        runState.reset(options, terminationStrategy);
         runState.spt = options.getNewShortestPathTree();
 
         // We want to reuse the heuristic instance in a series of requests for the same target to avoid repeated work.
@@ -109,19 +150,19 @@ public class AStar {
         runState.heuristic.initialize(runState.options, abortTime);
         if (abortTime < Long.MAX_VALUE  && System.currentTimeMillis() > abortTime) {
             LOG.warn("Timeout during initialization of goal direction heuristic.");
-            runState = null; // Search timed out
+            runState.status = RunStatus.STOPPED; // Search timed out
             return;
         }
 
         // Priority Queue.
         // The queue is self-resizing, so we initialize it to have size = O(sqrt(|V|)) << |V|.
         // For reference, a random, undirected search on a uniform 2d grid will examine roughly sqrt(|V|) vertices
-        // before reaching its target.
-        int initialSize = runState.rctx.graph.getVertices().size();
-        initialSize = (int) Math.ceil(2 * (Math.sqrt((double) initialSize + 1)));
-        runState.pq = new BinHeap<>(initialSize);
-        runState.nVisited = 0;
-        runState.targetAcceptedStates = Lists.newArrayList();
+        // before reaching its target. The queue is kept, with its grown capacity, for the next search.
+        if (runState.pq == null) {
+            int initialSize = runState.rctx.graph.getVertices().size();
+            initialSize = (int) Math.ceil(2 * (Math.sqrt((double) initialSize + 1)));
+            runState.pq = new BinHeap<>(initialSize);
+        }
         
         if (addToQueue) {
             for (State initialState : State.getInitialStates(options)) {
@@ -291,12 +332,11 @@ public class AStar {
 
         startSearch (options, terminationStrategy, abortTime);
 
-        if (runState != null) {
+        if (isSearchStarted()) {
             runSearch(abortTime);
             spt = runState.spt;
+            VISITED_STATES.record(runState.nVisited);
         }
-        
-        storeMemory();
         return spt;
     }
     
@@ -309,7 +349,7 @@ public class AStar {
 
         startSearch (options, terminationStrategy, abortTime, false);
         
-        if (runState != null) {
+        if (isSearchStarted()) {
             for (State state : initialStates) {
                 runState.spt.add(state);
                 // TODO: hardwired for earliest arrival
@@ -319,18 +359,15 @@ public class AStar {
             
             runSearch(abortTime);
             spt = runState.spt;
+            VISITED_STATES.record(runState.nVisited);
         }
         
         return spt;
     }
 
-    private void storeMemory() {
-        if (store.isMonitoring("memoryUsed")) {
-            System.gc();
-            long memoryUsed = Runtime.getRuntime().totalMemory() -
-                    Runtime.getRuntime().freeMemory();
-            store.setLongMax("memoryUsed", memoryUsed);
-        }
+    /** @return false if no search is started, or if the search timed out during initialization */
+    private boolean isSearchStarted() {
+        return runState != null && runState.status == RunStatus.RUNNING;
     }
 
     private boolean isWorstTimeExceeded(State v, RoutingRequest opt) {
@@ -347,7 +384,7 @@ public class AStar {
     }
 
     public List<GraphPath> getPathsToTarget() {
-        if (runState == null) {
+        if (!isSearchStarted()) {
             return Collections.emptyList();
         }
 
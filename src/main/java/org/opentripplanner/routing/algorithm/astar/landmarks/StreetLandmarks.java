@@ -0,0 +1,118 @@
+package org.opentripplanner.routing.algorithm.astar.landmarks;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.Serializable;
+import java.util.List;
+import org.opentripplanner.routing.graph.FloatColumn;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * Precomputed network distances between a small set of landmark vertices and all vertices in the
+ * graph, used by the ALT (A*, Landmarks and Triangle inequality) remaining weight heuristic.
+ * <p>
+ * The distances are the shortest path distance in meters along all edges in the graph, ignoring
+ * which modes are allowed to traverse each edge. For every pair of vertices the triangle
+ * inequality gives a lower bound on the distance between them, which is valid for any mode:
+ * <pre>
+ *   d(v, t) >= d(L, t) - d(L, v)
+ *   d(v, t) >= d(v, L) - d(t, L)
+ * </pre>
+ * Vertices added to the graph after the landmarks were computed, like temporary vertices and
+ * vertices created when splitting edges, are not indexed.
+ * <p>
+ * The distances are stored as floats. A distance is {@link Float#NaN} if the vertex cannot be
+ * reached from the landmark (or the landmark from the vertex); any bound computed from it is then
+ * {@code NaN} and ignored. The distance tables are the largest part of the landmarks, they are
+ * stored as {@link FloatColumn}s and may be memory-mapped, see
+ * {@link org.opentripplanner.routing.graph.MappedGraphData}.
+ * <p>
+ * This class is immutable and thread-safe, except for the lazy creation of the transient vertex
+ * index, which is idempotent.
+ */
+public class StreetLandmarks implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int NOT_INDEXED = -1;
+
+    private final Vertex[] vertices;
+    private final Vertex[] landmarks;
+
+    /** Distance in meters from each landmark to each vertex: {@code [landmark][vertexIndex]}. */
+    private final FloatColumn[] fromLandmark;
+
+    /** Distance in meters from each vertex to each landmark: {@code [landmark][vertexIndex]}. */
+    private final FloatColumn[] toLandmark;
+
+    /**
+     * The vertex index is not serialized, the vertex hash codes are not stable across
+     * serialization. It is created from the vertex array on first use.
+     */
+    private transient volatile TObjectIntMap<Vertex> indexByVertex;
+
+    public StreetLandmarks(
+            List<Vertex> vertices,
+            List<Vertex> landmarks,
+            float[][] fromLandmark,
+            float[][] toLandmark
+    ) {
+        this.vertices = vertices.toArray(new Vertex[0]);
+        this.landmarks = landmarks.toArray(new Vertex[0]);
+        this.fromLandmark = toColumns(fromLandmark);
+        this.toLandmark = toColumns(toLandmark);
+    }
+
+    public int numberOfLandmarks() {
+        return landmarks.length;
+    }
+
+    public int numberOfVertices() {
+        return vertices.length;
+    }
+
+    public Vertex landmark(int landmark) {
+        return landmarks[landmark];
+    }
+
+    /** @return the index of the given vertex, or {@link #NOT_INDEXED} */
+    public int index(Vertex vertex) {
+        TObjectIntMap<Vertex> index = indexByVertex;
+        if (index == null) {
+            index = createIndex();
+            indexByVertex = index;
+        }
+        return index.get(vertex);
+    }
+
+    /** Distance in meters from the landmark to the vertex, or {@code NaN} if not reachable. */
+    public float distanceFromLandmark(int landmark, int vertexIndex) {
+        return fromLandmark[landmark].get(vertexIndex);
+    }
+
+    /** Distance in meters from the vertex to the landmark, or {@code NaN} if not reachable. */
+    public float distanceToLandmark(int landmark, int vertexIndex) {
+        return toLandmark[landmark].get(vertexIndex);
+    }
+
+    private static FloatColumn[] toColumns(float[][] distances) {
+        FloatColumn[] columns = new FloatColumn[distances.length];
+        for (int i = 0; i < distances.length; ++i) {
+            columns[i] = FloatColumn.of(distances[i]);
+        }
+        return columns;
+    }
+
+    private TObjectIntMap<Vertex> createIndex() {
+        TObjectIntMap<Vertex> index = new TObjectIntHashMap<>(
+                vertices.length,
+                Constants.DEFAULT_LOAD_FACTOR,
+                NOT_INDEXED
+        );
+        for (int i = 0; i < vertices.length; ++i) {
+            index.put(vertices[i], i);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,172 @@
+package org.opentripplanner.routing.algorithm.astar.strategies;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.routing.algorithm.astar.landmarks.StreetLandmarks;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * An ALT (A*, Landmarks and Triangle inequality) remaining weight heuristic, using the landmark
+ * distances precomputed at graph build time, see {@link StreetLandmarks}.
+ * <p>
+ * The lower bound on the network distance to the target is divided by the maximum street speed,
+ * in the same way as the {@link EuclideanRemainingWeightHeuristic} does with the straight line
+ * distance. The network distance is never shorter than the straight line distance, so the
+ * estimate is much closer to the actual weight for long searches, and fewer states are explored.
+ * The heuristic returns the largest of the two estimates, the Euclidean estimate is used alone
+ * for vertices not covered by the landmarks, like temporary vertices.
+ * <p>
+ * The target vertices are usually temporary vertices not covered by the landmarks. Instead the
+ * bound is computed to the closest covered vertices that lead to a target using temporary
+ * vertices only, the "target anchors". Every path to the target passes through one of them.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The distances are stored as floats, subtract a small margin to make sure rounding never
+     * makes the estimate larger than the actual distance.
+     */
+    private static final double ROUNDING_MARGIN_METERS = 1.0;
+
+    /** Give up finding the target anchors if the temporary part of the graph is this large. */
+    private static final int MAX_TEMPORARY_VERTICES = 1000;
+
+    private final StreetLandmarks landmarks;
+    private final EuclideanRemainingWeightHeuristic euclidean = new EuclideanRemainingWeightHeuristic();
+
+    private boolean arriveBy;
+    private double maxStreetSpeed;
+
+    /**
+     * The landmark distances of each target anchor: {@code [anchor][landmark]}, or {@code null}
+     * if the landmarks can not be used for this search.
+     */
+    private float[][] anchorFromLandmark;
+    private float[][] anchorToLandmark;
+
+    public LandmarkRemainingWeightHeuristic(StreetLandmarks landmarks) {
+        this.landmarks = landmarks;
+    }
+
+    @Override
+    public void initialize(RoutingRequest options, long abortTime) {
+        euclidean.initialize(options, abortTime);
+        arriveBy = options.arriveBy;
+        maxStreetSpeed = options.getStreetSpeedUpperBound();
+
+        List<Integer> anchors = findTargetAnchors(options.rctx.toVertices);
+        if (anchors == null || anchors.isEmpty()) {
+            anchorFromLandmark = null;
+            anchorToLandmark = null;
+            return;
+        }
+
+        int nLandmarks = landmarks.numberOfLandmarks();
+        anchorFromLandmark = new float[anchors.size()][nLandmarks];
+        anchorToLandmark = new float[anchors.size()][nLandmarks];
+
+        for (int a = 0; a < anchors.size(); ++a) {
+            for (int l = 0; l < nLandmarks; ++l) {
+                anchorFromLandmark[a][l] = landmarks.distanceFromLandmark(l, anchors.get(a));
+                anchorToLandmark[a][l] = landmarks.distanceToLandmark(l, anchors.get(a));
+            }
+        }
+    }
+
+    @Override
+    public double estimateRemainingWeight(State s) {
+        double euclideanEstimate = euclidean.estimateRemainingWeight(s);
+        if (anchorFromLandmark == null) { return euclideanEstimate; }
+
+        int v = landmarks.index(s.getVertex());
+        if (v == StreetLandmarks.NOT_INDEXED) { return euclideanEstimate; }
+
+        double distance = Double.POSITIVE_INFINITY;
+        for (int a = 0; a < anchorFromLandmark.length; ++a) {
+            distance = Math.min(distance, lowerBoundToAnchor(v, a));
+        }
+        distance -= ROUNDING_MARGIN_METERS;
+
+        return Math.max(euclideanEstimate, distance / maxStreetSpeed);
+    }
+
+    @Override
+    public void reset() {}
+
+    @Override
+    public void doSomeWork() {}
+
+    /**
+     * The largest lower bound from any landmark on the distance from the vertex to the anchor, or
+     * from the anchor to the vertex if searching backwards. Bounds involving unreachable vertices
+     * are {@code NaN} and ignored, since no comparison with {@code NaN} is true.
+     */
+    private double lowerBoundToAnchor(int v, int anchor) {
+        float[] anchorFrom = anchorFromLandmark[anchor];
+        float[] anchorTo = anchorToLandmark[anchor];
+        double bound = 0;
+
+        for (int l = 0; l < anchorFrom.length; ++l) {
+            float vFrom = landmarks.distanceFromLandmark(l, v);
+            float vTo = landmarks.distanceToLandmark(l, v);
+            double b1, b2;
+            if (arriveBy) {
+                // d(t, v) >= d(L, v) - d(L, t) and d(t, v) >= d(t, L) - d(v, L)
+                b1 = vFrom - anchorFrom[l];
+                b2 = anchorTo[l] - vTo;
+            }
+            else {
+                // d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L)
+                b1 = anchorFrom[l] - vFrom;
+                b2 = vTo - anchorTo[l];
+            }
+            if (b1 > bound) { bound = b1; }
+            if (b2 > bound) { bound = b2; }
+        }
+        return bound;
+    }
+
+    /**
+     * Find the indexed vertices connected to the target vertices through temporary (not indexed)
+     * vertices only. For a forward search these are the vertices a path enters the target
+     * vertices from, for a backward search the vertices a path leaves the target vertices to.
+     *
+     * @return the anchor vertex indexes, or {@code null} if the temporary part of the graph is
+     *         unexpectedly large.
+     */
+    private List<Integer> findTargetAnchors(Collection<Vertex> targets) {
+        if (targets == null) { return null; }
+
+        List<Integer> anchors = new ArrayList<>();
+        Set<Vertex> visited = new HashSet<>(targets);
+        Deque<Vertex> queue = new ArrayDeque<>(targets);
+
+        while (!queue.isEmpty()) {
+            Vertex v = queue.poll();
+            int index = landmarks.index(v);
+            if (index != StreetLandmarks.NOT_INDEXED) {
+                anchors.add(index);
+                continue;
+            }
+            if (visited.size() > MAX_TEMPORARY_VERTICES) { return null; }
+
+            for (Edge e : arriveBy ? v.getOutgoing() : v.getIncoming()) {
+                Vertex next = arriveBy ? e.getToVertex() : e.getFromVertex();
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return anchors;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import org.opentripplanner.graph_builder.module.NearbyStopFinder;
+import org.opentripplanner.routing.algorithm.astar.AStar;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.Vertex;
@@ -17,6 +18,12 @@ import org.slf4j.LoggerFactory;
 public class AccessEgressRouter {
     private static Logger LOG = LoggerFactory.getLogger(AccessEgressRouter.class);
 
+    /**
+     * The A* search of each request thread is reused, so the priority queue is not allocated
+     * again for every access and egress search.
+     */
+    private static final ThreadLocal<AStar> ASTAR = ThreadLocal.withInitial(AStar::new);
+
     private AccessEgressRouter() {}
 
     /**
@@ -45,13 +52,20 @@ public class AccessEgressRouter {
         // findNearbyStopsViaStreets() will call cleanup() on the created routing request.
         RoutingRequest nearbyRequest = rr.getStreetSearchRequest(streetMode);
 
-        NearbyStopFinder nearbyStopFinder = new NearbyStopFinder(rr.rctx.graph, distanceMeters, true);
-        List<NearbyStop> nearbyStopList = nearbyStopFinder.findNearbyStopsViaStreets(
-            vertices,
-            fromTarget,
-            true,
-            nearbyRequest
-        );
+        AStar astar = ASTAR.get();
+        List<NearbyStop> nearbyStopList;
+        try {
+            NearbyStopFinder nearbyStopFinder = new NearbyStopFinder(rr.rctx.graph, distanceMeters, astar);
+            nearbyStopList = nearbyStopFinder.findNearbyStopsViaStreets(
+                vertices,
+                fromTarget,
+                true,
+                nearbyRequest
+            );
+        }
+        finally {
+            astar.releaseLastSearch();
+        }
 
         LOG.debug("Found {} {} stops", nearbyStopList.size(), fromTarget ? "egress" : "access");
 
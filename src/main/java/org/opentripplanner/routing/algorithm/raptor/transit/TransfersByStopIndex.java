@@ -0,0 +1,79 @@
+package org.opentripplanner.routing.algorithm.raptor.transit;
+
+import java.util.List;
+
+/**
+ * A compact representation of the simple transfers in the {@link TransitLayer}. The transfers
+ * are stored in parallel primitive arrays, grouped by the stop they start from. This makes it
+ * cheap to calculate the transfer durations for a given walk speed, without following object
+ * references for each transfer.
+ * <p>
+ * The transfers for a given stop are stored in the same order as in the list of {@link Transfer}s
+ * the index is created from, so the {@code i}th transfer from a stop in this index and in the
+ * list is the same transfer.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class TransfersByStopIndex {
+
+  /**
+   * The index of the first transfer for each stop in the transfer arrays. The transfers from
+   * stop {@code s} are in the range {@code [firstTransferByStop[s], firstTransferByStop[s+1])},
+   * so the size of this array is the number of stops plus one.
+   */
+  private final int[] firstTransferByStop;
+
+  private final int[] toStops;
+
+  private final int[] effectiveWalkDistanceMeters;
+
+  private final int[] distanceIndependentTimes;
+
+  public TransfersByStopIndex(List<List<Transfer>> transfersByStopIndex) {
+    int nStops = transfersByStopIndex.size();
+    int nTransfers = transfersByStopIndex.stream().mapToInt(List::size).sum();
+
+    this.firstTransferByStop = new int[nStops + 1];
+    this.toStops = new int[nTransfers];
+    this.effectiveWalkDistanceMeters = new int[nTransfers];
+    this.distanceIndependentTimes = new int[nTransfers];
+
+    int index = 0;
+    for (int stop = 0; stop < nStops; ++stop) {
+      firstTransferByStop[stop] = index;
+      for (Transfer it : transfersByStopIndex.get(stop)) {
+        toStops[index] = it.getToStop();
+        effectiveWalkDistanceMeters[index] = it.getEffectiveWalkDistanceMeters();
+        distanceIndependentTimes[index] = it.getDistanceIndependentTime();
+        ++index;
+      }
+    }
+    firstTransferByStop[nStops] = index;
+  }
+
+  public int numberOfStops() {
+    return firstTransferByStop.length - 1;
+  }
+
+  public int numberOfTransfers(int fromStop) {
+    return firstTransferByStop[fromStop + 1] - firstTransferByStop[fromStop];
+  }
+
+  /**
+   * @param i the index of the transfer among the transfers starting at the given stop.
+   */
+  public int toStop(int fromStop, int i) {
+    return toStops[firstTransferByStop[fromStop] + i];
+  }
+
+  /**
+   * Calculate the transfer duration in seconds for the given walk speed.
+   *
+   * @param i the index of the transfer among the transfers starting at the given stop.
+   */
+  public int durationInSeconds(int fromStop, int i, double walkSpeed) {
+    int index = firstTransferByStop[fromStop] + i;
+    return (int) Math.round(effectiveWalkDistanceMeters[index] / walkSpeed)
+        + distanceIndependentTimes[index];
+  }
+}
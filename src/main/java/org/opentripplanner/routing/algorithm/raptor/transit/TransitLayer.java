@@ -2,7 +2,6 @@ package org.opentripplanner.routing.algorithm.raptor.transit;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -11,14 +10,17 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.Stop;
 import org.opentripplanner.model.transfer.TransferService;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.TransferWithDurationCache;
 
 public class TransitLayer {
 
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
+   * The sets are immutable, realtime updates replace the set for a date with a new version
+   * sharing structure with the old one.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternForDateSet> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -26,6 +28,17 @@ public class TransitLayer {
    */
   private final List<List<Transfer>> simpleTransfersByStopIndex;
 
+  /**
+   * The simple transfers in a compact primitive form, used to calculate the transfer durations.
+   */
+  private final TransfersByStopIndex simpleTransferIndex;
+
+  /**
+   * Transfers with duration for each walk speed in use. This is shared with all copies of this
+   * transit layer, since the transfers are not changed by realtime updates.
+   */
+  private final TransferWithDurationCache transferWithDurationCache;
+
   /**
    * Trip to trip transfers like with properties like guaranteedTransfer, staySeated and priority.
    */
@@ -44,13 +57,13 @@ public class TransitLayer {
    * entire keys and their values in the map.
    */
   public TransitLayer(TransitLayer transitLayer) {
-    this(
-        transitLayer.tripPatternsRunningOnDate,
-        transitLayer.simpleTransfersByStopIndex,
-        transitLayer.transferService,
-        transitLayer.stopIndex,
-        transitLayer.transitDataZoneId
-    );
+    this.tripPatternsRunningOnDate = new HashMap<>(transitLayer.tripPatternsRunningOnDate);
+    this.simpleTransfersByStopIndex = transitLayer.simpleTransfersByStopIndex;
+    this.simpleTransferIndex = transitLayer.simpleTransferIndex;
+    this.transferWithDurationCache = transitLayer.transferWithDurationCache;
+    this.transferService = transitLayer.transferService;
+    this.stopIndex = transitLayer.stopIndex;
+    this.transitDataZoneId = transitLayer.transitDataZoneId;
   }
 
   public TransitLayer(
@@ -60,8 +73,16 @@ public class TransitLayer {
       StopIndexForRaptor stopIndex,
       ZoneId transitDataZoneId
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this.tripPatternsRunningOnDate = new HashMap<>();
+    tripPatternsRunningOnDate.forEach(
+        (date, list) -> this.tripPatternsRunningOnDate.put(date, TripPatternForDateSet.of(list))
+    );
     this.simpleTransfersByStopIndex = simpleTransfers;
+    this.simpleTransferIndex = new TransfersByStopIndex(simpleTransfers);
+    this.transferWithDurationCache = new TransferWithDurationCache(
+        simpleTransfers,
+        simpleTransferIndex
+    );
     this.transferService = transferService;
     this.stopIndex = stopIndex;
     this.transitDataZoneId = transitDataZoneId;
@@ -81,7 +102,7 @@ public class TransitLayer {
   }
 
   public Collection<TripPatternForDate> getTripPatternsForDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return tripPatternsRunningOnDate.getOrDefault(date, TripPatternForDateSet.empty());
   }
 
   /**
@@ -99,37 +120,50 @@ public class TransitLayer {
     return stopIndex.stopsByIndex.size();
   }
 
-  @Nullable
-  public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : null;
-  }
-
-  @Nullable
-  public List<TripPatternForDate> getTripPatternsStartingOnDateCopy(LocalDate date) {
-    List<TripPatternForDate> tripPatternsRunningOnDate = getTripPatternsRunningOnDateCopy(date);
-    return tripPatternsRunningOnDate != null ? tripPatternsRunningOnDate
+  public List<TripPatternForDate> getTripPatternsStartingOnDate(LocalDate date) {
+    return getTripPatternsForDate(date)
         .stream()
         .filter(t -> t.getLocalDate().equals(date))
-        .collect(Collectors.toList()) : null;
+        .collect(Collectors.toList());
+  }
+
+  public int getNumberOfRunningDates() {
+    return tripPatternsRunningOnDate.size();
   }
 
   public List<List<Transfer>> getSimpleTransferByStopIndex() {
     return simpleTransfersByStopIndex;
   }
 
+  public TransfersByStopIndex getSimpleTransferIndex() {
+    return simpleTransferIndex;
+  }
+
+  public TransferWithDurationCache getTransferWithDurationCache() {
+    return transferWithDurationCache;
+  }
+
   public TransferService getTransferService() {
     return transferService;
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Removes and adds TripPatternForDates for a single date, creating a new version of the set of
+   * trip patterns running on the date. Nothing is changed if no trip patterns are running on the
+   * date. This should only be called on a copy of the transit layer, before it is published.
+   *
+   * @return the number of object references copied to create the new version.
    */
-  public void replaceTripPatternsForDate(
+  public int updateTripPatternsForDate(
       LocalDate date,
-      List<TripPatternForDate> tripPatternForDates
+      Collection<TripPatternForDate> removed,
+      Collection<TripPatternForDate> added
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    TripPatternForDateSet current = tripPatternsRunningOnDate.get(date);
+    if (current == null) { return 0; }
+
+    TripPatternForDateSet updated = current.withChanges(removed, added);
+    tripPatternsRunningOnDate.put(date, updated);
+    return updated == current ? 0 : updated.copiedReferences();
   }
 }
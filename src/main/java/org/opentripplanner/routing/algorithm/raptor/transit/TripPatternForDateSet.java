@@ -0,0 +1,194 @@
+package org.opentripplanner.routing.algorithm.raptor.transit;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of {@link TripPatternForDate}s, used to hold the trip patterns running on a
+ * given date in the {@link TransitLayer}. Realtime updates create a new version of the set with
+ * {@link #withChanges(Collection, Collection)}. The new version shares structure with the old
+ * version, so the cost of an update is proportional to the number of changed elements, not to
+ * the number of trip patterns running on the date.
+ * <p>
+ * The elements are distributed into buckets based on their identity hash code. The number of
+ * buckets is approximately the square root of the number of elements when the set is created. An
+ * update copies the array of buckets and the buckets that are changed, all other buckets are
+ * shared with the previous version. Elements are compared by identity, the realtime updater
+ * always removes the same instance as it previously added.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class TripPatternForDateSet extends AbstractCollection<TripPatternForDate> {
+
+  private static final TripPatternForDate[] EMPTY_BUCKET = new TripPatternForDate[0];
+
+  private static final TripPatternForDateSet EMPTY = new TripPatternForDateSet(
+      new TripPatternForDate[][] { EMPTY_BUCKET }, 0, 0
+  );
+
+  private final TripPatternForDate[][] buckets;
+
+  private final int size;
+
+  /**
+   * The number of object references copied when this version of the set was created, this is
+   * used to report the cost of realtime updates.
+   */
+  private final int copiedReferences;
+
+  private TripPatternForDateSet(TripPatternForDate[][] buckets, int size, int copiedReferences) {
+    this.buckets = buckets;
+    this.size = size;
+    this.copiedReferences = copiedReferences;
+  }
+
+  public static TripPatternForDateSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Create a new set with the given elements. The elements must be unique.
+   */
+  public static TripPatternForDateSet of(Collection<TripPatternForDate> elements) {
+    if (elements.isEmpty()) { return EMPTY; }
+
+    int nBuckets = numberOfBuckets(elements.size());
+    int[] bucketSizes = new int[nBuckets];
+
+    for (TripPatternForDate it : elements) {
+      ++bucketSizes[bucketIndex(it, nBuckets)];
+    }
+
+    TripPatternForDate[][] buckets = new TripPatternForDate[nBuckets][];
+    for (int i = 0; i < nBuckets; ++i) {
+      buckets[i] = bucketSizes[i] == 0 ? EMPTY_BUCKET : new TripPatternForDate[bucketSizes[i]];
+      bucketSizes[i] = 0;
+    }
+
+    for (TripPatternForDate it : elements) {
+      int b = bucketIndex(it, nBuckets);
+      buckets[b][bucketSizes[b]++] = it;
+    }
+    return new TripPatternForDateSet(buckets, elements.size(), elements.size() + nBuckets);
+  }
+
+  /**
+   * Create a new version of this set, with the given elements removed and added. Elements to
+   * remove which are not in the set, and elements to add which already are in the set, are
+   * ignored. This set is not changed.
+   */
+  public TripPatternForDateSet withChanges(
+      Collection<TripPatternForDate> removed,
+      Collection<TripPatternForDate> added
+  ) {
+    if (removed.isEmpty() && added.isEmpty()) { return this; }
+
+    final int nBuckets = buckets.length;
+    TripPatternForDate[][] newBuckets = Arrays.copyOf(buckets, nBuckets);
+    int newSize = size;
+    int copied = nBuckets;
+
+    for (TripPatternForDate it : removed) {
+      int b = bucketIndex(it, nBuckets);
+      TripPatternForDate[] bucket = newBuckets[b];
+      int index = indexOf(bucket, it);
+
+      if (index < 0) { continue; }
+
+      if (bucket.length == 1) {
+        newBuckets[b] = EMPTY_BUCKET;
+      }
+      else {
+        TripPatternForDate[] newBucket = new TripPatternForDate[bucket.length - 1];
+        System.arraycopy(bucket, 0, newBucket, 0, index);
+        System.arraycopy(bucket, index + 1, newBucket, index, bucket.length - index - 1);
+        newBuckets[b] = newBucket;
+        copied += newBucket.length;
+      }
+      --newSize;
+    }
+
+    for (TripPatternForDate it : added) {
+      int b = bucketIndex(it, nBuckets);
+      TripPatternForDate[] bucket = newBuckets[b];
+
+      if (indexOf(bucket, it) >= 0) { continue; }
+
+      TripPatternForDate[] newBucket = Arrays.copyOf(bucket, bucket.length + 1);
+      newBucket[bucket.length] = it;
+      newBuckets[b] = newBucket;
+      copied += newBucket.length;
+      ++newSize;
+    }
+
+    TripPatternForDateSet result = new TripPatternForDateSet(newBuckets, newSize, copied);
+
+    // Rebuild the set if it has grown so much that the buckets are too big
+    if (numberOfBuckets(newSize) > 2 * nBuckets) {
+      return of(result);
+    }
+    return result;
+  }
+
+  public int copiedReferences() {
+    return copiedReferences;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof TripPatternForDate)) { return false; }
+    TripPatternForDate it = (TripPatternForDate) o;
+    return indexOf(buckets[bucketIndex(it, buckets.length)], it) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int bucket = 0;
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        while (bucket < buckets.length) {
+          if (index < buckets[bucket].length) { return true; }
+          ++bucket;
+          index = 0;
+        }
+        return false;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (!hasNext()) { throw new NoSuchElementException(); }
+        return buckets[bucket][index++];
+      }
+    };
+  }
+
+  /** Return a power of two greater or equals to the square root of the given size. */
+  private static int numberOfBuckets(int size) {
+    int n = 1;
+    while ((long) n * n < size) { n <<= 1; }
+    return n;
+  }
+
+  private static int bucketIndex(TripPatternForDate element, int nBuckets) {
+    int h = System.identityHashCode(element);
+    return (h ^ (h >>> 16)) & (nBuckets - 1);
+  }
+
+  private static int indexOf(TripPatternForDate[] bucket, TripPatternForDate element) {
+    for (int i = 0; i < bucket.length; ++i) {
+      if (bucket[i] == element) { return i; }
+    }
+    return -1;
+  }
+}
@@ -45,13 +45,8 @@ public class RaptorRequestMapper {
         builder
                 .profile(RaptorProfile.MULTI_CRITERIA)
                 .enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION)
-                .slackProvider(new SlackProvider(
-                        request.transferSlack,
-                        request.boardSlack,
-                        request.boardSlackForMode,
-                        request.alightSlack,
-                        request.alightSlackForMode
-                ));
+                .enableOptimization(Optimization.PARALLEL)
+                .slackProvider(mapSlackProvider(request));
 
         builder
                 .searchParams()
@@ -86,6 +81,16 @@ public class RaptorRequestMapper {
         return builder.build();
     }
 
+    public static SlackProvider mapSlackProvider(RoutingRequest request) {
+        return new SlackProvider(
+                request.transferSlack,
+                request.boardSlack,
+                request.boardSlackForMode,
+                request.alightSlack,
+                request.alightSlackForMode
+        );
+    }
+
     public static double[] mapTransitReluctance(Map<TransitMode, Double> map) {
 
         if(map.isEmpty()) { return null; }
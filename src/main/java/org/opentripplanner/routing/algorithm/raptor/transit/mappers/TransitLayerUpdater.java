@@ -1,6 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptor.transit.mappers;
 
 import gnu.trove.set.TIntSet;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.model.calendar.ServiceDate;
@@ -15,8 +18,10 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.opentripplanner.routing.algorithm.raptor.transit.mappers.TripPatternMapper.mapOldTripPatternToRaptorTripPattern;
@@ -24,14 +29,37 @@ import static org.opentripplanner.routing.algorithm.raptor.transit.mappers.TripP
 /**
  * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
  * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
- * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
- * from the Graph is never changed.
+ * id and replaced by their updated versions. The set of trip patterns running on each affected
+ * date is replaced by a new version, sharing structure with the old version, so the cost of an
+ * update is proportional to the number of updated timetables. The realtime TransitLayer is then
+ * switched out with the updated copy in an atomic operation. This ensures that any TransitLayer
+ * that is referenced from the Graph is never changed.
+ * <p>
+ * The update duration and an estimate of the number of bytes copied is reported to the global
+ * meter registry.
  */
 public class TransitLayerUpdater {
 
   private static final Logger LOG = LoggerFactory.getLogger(TransitLayerUpdater.class);
 
+  private static final Timer UPDATE_TIMER = Timer
+      .builder("transitLayer.update")
+      .description("Time to apply a set of updated timetables to the realtime transit layer")
+      .publishPercentileHistogram()
+      .register(Metrics.globalRegistry);
+
+  private static final DistributionSummary BYTES_COPIED = DistributionSummary
+      .builder("transitLayer.update.bytesCopied")
+      .description("Estimated number of bytes copied per realtime transit layer update")
+      .baseUnit("bytes")
+      .register(Metrics.globalRegistry);
+
+  /**
+   * Used to estimate the number of bytes copied in an update, assuming uncompressed object
+   * references. Object headers are not included.
+   */
+  private static final int BYTES_PER_REFERENCE = 8;
+
   private final Graph graph;
 
   private final Map<ServiceDate, TIntSet> serviceCodesRunningForDate;
@@ -42,8 +70,6 @@ public class TransitLayerUpdater {
    */
   private final Map<LocalDate, Map<TripPattern, TripPatternForDate>> tripPatternsStartingOnDateMapCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(
       Graph graph,
       Map<ServiceDate, TIntSet> serviceCodesRunningForDate
@@ -60,6 +86,7 @@ public class TransitLayerUpdater {
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
     TransitLayer realtimeTransitLayer = new TransitLayer(graph.getRealtimeTransitLayer());
+    long copiedReferences = 2L * realtimeTransitLayer.getNumberOfRunningDates();
 
     // Map TripPatterns for this update to Raptor TripPatterns
     final Map<TripPattern, TripPatternWithRaptorStopIndexes> newTripPatternForOld =
@@ -75,31 +102,33 @@ public class TransitLayerUpdater {
         newTripPatternForOld
     );
 
-    Set<LocalDate> datesToBeUpdated = new HashSet<>();
-    Map<TripPattern, TripPatternForDate> newTripPatternsForDate = new HashMap<>();
-    Map<TripPattern, TripPatternForDate> oldTripPatternsForDate = new HashMap<>();
+    Map<LocalDate, List<TripPatternForDate>> removedByRunningDate = new HashMap<>();
+    Map<LocalDate, List<TripPatternForDate>> addedByRunningDate = new HashMap<>();
 
-    // Map new TriPatternForDate and index for old and new TripPatternsForDate on service date
+    // Map new TriPatternForDate and index the old and new TripPatternsForDate on running date
     for (Timetable timetable : updatedTimetables) {
       @SuppressWarnings("ConstantConditions")
       LocalDate date = ServiceCalendarMapper.localDateFromServiceDate(timetable.serviceDate);
 
-      if(!tripPatternsStartingOnDateMapCache.containsKey(date)) {
-        Map<TripPattern, TripPatternForDate> map = realtimeTransitLayer
-            .getTripPatternsStartingOnDateCopy(date)
-            .stream()
-            .collect(Collectors.toMap(t -> t.getTripPattern().getPattern(), t -> t));
-        tripPatternsStartingOnDateMapCache.put(date, map);
-      }
-
-      TripPatternForDate oldTripPatternForDate = tripPatternsStartingOnDateMapCache
-          .get(date)
-          .get(timetable.pattern);
+      Map<TripPattern, TripPatternForDate> tripPatternsStartingOnDate =
+          tripPatternsStartingOnDateMapCache.computeIfAbsent(
+              date,
+              d -> realtimeTransitLayer
+                  .getTripPatternsStartingOnDate(d)
+                  .stream()
+                  .collect(Collectors.toMap(t -> t.getTripPattern().getPattern(), t -> t))
+          );
+
+      TripPatternForDate oldTripPatternForDate = tripPatternsStartingOnDate.remove(
+          timetable.pattern
+      );
 
       if (oldTripPatternForDate != null) {
-        tripPatternsStartingOnDateMapCache.get(date).remove(timetable.pattern, oldTripPatternForDate);
-        oldTripPatternsForDate.put(timetable.pattern, oldTripPatternForDate);
-        datesToBeUpdated.addAll(oldTripPatternForDate.getRunningPeriodDates());
+        for (LocalDate runningDate : oldTripPatternForDate.getRunningPeriodDates()) {
+          removedByRunningDate
+              .computeIfAbsent(runningDate, d -> new ArrayList<>())
+              .add(oldTripPatternForDate);
+        }
       }
 
       TripPatternForDate newTripPatternForDate = tripPatternForDateMapper.map(
@@ -108,55 +137,43 @@ public class TransitLayerUpdater {
       );
 
       if (newTripPatternForDate != null) {
-        tripPatternsStartingOnDateMapCache.get(date).put(timetable.pattern, newTripPatternForDate);
-        newTripPatternsForDate.put(timetable.pattern, newTripPatternForDate);
-        datesToBeUpdated.addAll(newTripPatternForDate.getRunningPeriodDates());
+        tripPatternsStartingOnDate.put(timetable.pattern, newTripPatternForDate);
+        for (LocalDate runningDate : newTripPatternForDate.getRunningPeriodDates()) {
+          addedByRunningDate
+              .computeIfAbsent(runningDate, d -> new ArrayList<>())
+              .add(newTripPatternForDate);
+        }
       }
     }
 
     // Now loop through all running period dates of old and new TripPatternsForDate and update
-    // the tripPatternsByRunningPeriodDate accordingly
+    // the trip patterns running on each date accordingly
+    Set<LocalDate> datesToBeUpdated = new HashSet<>(removedByRunningDate.keySet());
+    datesToBeUpdated.addAll(addedByRunningDate.keySet());
+
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(date,
-          p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
+      copiedReferences += realtimeTransitLayer.updateTripPatternsForDate(
+          date,
+          removedByRunningDate.getOrDefault(date, List.of()),
+          addedByRunningDate.getOrDefault(date, List.of())
       );
-
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, TripPatternForDate> entry : oldTripPatternsForDate.entrySet()) {
-        TripPattern tripPattern = entry.getKey();
-        TripPatternForDate oldTripPatternForDate = oldTripPatternsForDate.get(tripPattern);
-
-        // Remove old TripPatternForDate for this date if it was valid on this date
-        if (oldTripPatternForDate != null) {
-          if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.remove(oldTripPatternForDate);
-          }
-        }
-      }
-
-      for (Map.Entry<TripPattern, TripPatternForDate> entry : newTripPatternsForDate.entrySet()) {
-        TripPatternForDate newTripPatternForDate = entry.getValue();
-
-        // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-        if (newTripPatternForDate != null) {
-          if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.add(newTripPatternForDate);
-          }
-        }
-      }
-
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
     }
 
     // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
     // guarantee that the reference is set after all the fields have been updated.
     graph.setRealtimeTransitLayer(realtimeTransitLayer);
 
+    long duration = System.currentTimeMillis() - startTime;
+    long bytesCopied = copiedReferences * BYTES_PER_REFERENCE;
+
+    UPDATE_TIMER.record(duration, TimeUnit.MILLISECONDS);
+    BYTES_COPIED.record(bytesCopied);
+
     LOG.debug(
-        "UPDATING {} tripPatterns took {} ms",
+        "UPDATING {} tripPatterns took {} ms, ~{} bytes copied",
         updatedTimetables.size(),
-        System.currentTimeMillis() - startTime
+        duration,
+        bytesCopied
     );
   }
 }
@@ -13,12 +13,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 
 /**
  * This is the data provider for the Range Raptor search engine. It uses data from the TransitLayer,
- * but filters it by dates and modes per request. Transfers durations are pre-calculated per request
- * based on walk speed.
+ * but filters it by dates and modes per request. Transfers durations are pre-calculated based on
+ * walk speed, and shared between requests with the same walk speed.
  */
 public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvider<TripSchedule> {
 
@@ -43,6 +44,21 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       int additionalFutureSearchDays,
       TransitDataProviderFilter filter,
       double walkSpeed
+  ) {
+    this(transitLayer, departureTime, additionalFutureSearchDays, filter, walkSpeed, null);
+  }
+
+  /**
+   * @param cache if not {@code null} the active trip patterns per stop is fetched from the
+   *              cache, and only calculated if not already present.
+   */
+  public RaptorRoutingRequestTransitData(
+      TransitLayer transitLayer,
+      Instant departureTime,
+      int additionalFutureSearchDays,
+      TransitDataProviderFilter filter,
+      double walkSpeed,
+      @Nullable RaptorRoutingRequestTransitDataCache cache
   ) {
     // Delegate to the creator to construct the needed data structures. The code is messy so
     // it is nice to NOT have it in the class. It isolate this code to only be available at
@@ -54,10 +70,15 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
     this.transitLayer = transitLayer;
     this.startOfTime = creator.getSearchStartTime();
-    this.activeTripPatternsPerStop = creator.createTripPatternsPerStop(
-        additionalFutureSearchDays,
-        filter
-    );
+    this.activeTripPatternsPerStop = cache == null
+        ? creator.createTripPatternsPerStop(additionalFutureSearchDays, filter)
+        : cache.get(
+            transitLayer,
+            creator.getDepartureDate(),
+            additionalFutureSearchDays,
+            filter,
+            () -> creator.createTripPatternsPerStop(additionalFutureSearchDays, filter)
+        );
     this.transfers = creator.calculateTransferDuration(walkSpeed);
   }
 
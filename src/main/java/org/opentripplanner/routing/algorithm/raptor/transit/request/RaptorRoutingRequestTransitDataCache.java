@@ -0,0 +1,139 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+
+/**
+ * Cache the active trip patterns per stop created for a {@link RaptorRoutingRequestTransitData}.
+ * Many requests share the same service day and filter, and there is no need to group, sort and
+ * index the {@link org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate}s
+ * for each of them.
+ * <p>
+ * The cache is keyed on the {@link TransitLayer} instance, the search date, the number of
+ * additional search days and the {@link TransitDataProviderFilter}. The filter must implement
+ * {@code equals()} and {@code hashCode()} for the cache to be effective - filters without it
+ * are only equal to themselves and will never produce a cache hit.
+ * <p>
+ * The cache is versioned. Calling {@link #invalidate()} clears the cache and bumps the version,
+ * so that a result calculated for an old transit layer, while another thread invalidated the
+ * cache, is not added to the cache. The cache is bounded, the least recently used entry is
+ * evicted when the cache is full.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RaptorRoutingRequestTransitDataCache {
+
+  private static final int DEFAULT_MAX_SIZE = 50;
+
+  private final int maxSize;
+
+  private final Map<CacheKey, List<List<TripPatternForDates>>> cache;
+
+  private long version = 0;
+
+  public RaptorRoutingRequestTransitDataCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public RaptorRoutingRequestTransitDataCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(
+          Map.Entry<CacheKey, List<List<TripPatternForDates>>> eldest
+      ) {
+        return size() > RaptorRoutingRequestTransitDataCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Return the cached trip patterns per stop, or create them using the given supplier if no
+   * entry exist for the given key. The supplier is called outside the lock, so two threads
+   * may calculate the same value at the same time - the last one wins.
+   */
+  List<List<TripPatternForDates>> get(
+      TransitLayer transitLayer,
+      LocalDate searchDate,
+      int additionalFutureSearchDays,
+      TransitDataProviderFilter filter,
+      Supplier<List<List<TripPatternForDates>>> tripPatternsPerStopSupplier
+  ) {
+    CacheKey key = new CacheKey(transitLayer, searchDate, additionalFutureSearchDays, filter);
+    long versionBeforeCalculation;
+
+    synchronized (this) {
+      List<List<TripPatternForDates>> value = cache.get(key);
+      if (value != null) { return value; }
+      versionBeforeCalculation = version;
+    }
+
+    List<List<TripPatternForDates>> value = tripPatternsPerStopSupplier.get();
+
+    synchronized (this) {
+      if (versionBeforeCalculation == version) {
+        cache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Remove all entries from the cache. This should be called every time a new transit layer is
+   * published, so the cache does not hold on to obsolete transit layers.
+   */
+  public synchronized void invalidate() {
+    cache.clear();
+    ++version;
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  private static class CacheKey {
+    private final TransitLayer transitLayer;
+    private final LocalDate searchDate;
+    private final int additionalFutureSearchDays;
+    private final TransitDataProviderFilter filter;
+
+    private CacheKey(
+        TransitLayer transitLayer,
+        LocalDate searchDate,
+        int additionalFutureSearchDays,
+        TransitDataProviderFilter filter
+    ) {
+      this.transitLayer = transitLayer;
+      this.searchDate = searchDate;
+      this.additionalFutureSearchDays = additionalFutureSearchDays;
+      this.filter = filter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      CacheKey that = (CacheKey) o;
+      // The transit layer is compared by identity, a new instance is created for each update
+      return transitLayer == that.transitLayer
+          && additionalFutureSearchDays == that.additionalFutureSearchDays
+          && searchDate.equals(that.searchDate)
+          && filter.equals(that.filter);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          System.identityHashCode(transitLayer),
+          searchDate,
+          additionalFutureSearchDays,
+          filter
+      );
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptor.transit.request;
 
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 import static org.opentripplanner.routing.algorithm.raptor.transit.mappers.DateMapper.secondsSinceStartOfTime;
 
 import java.time.Instant;
@@ -44,6 +43,10 @@ class RaptorRoutingRequestTransitDataCreator {
     return searchStartTime;
   }
 
+  LocalDate getDepartureDate() {
+    return departureDate;
+  }
+
   List<List<TripPatternForDates>> createTripPatternsPerStop(
       int additionalFutureSearchDays,
       TransitDataProviderFilter filter
@@ -158,14 +161,11 @@ class RaptorRoutingRequestTransitDataCreator {
         .collect(Collectors.toList());
   }
 
+  /**
+   * The transfers with duration are shared between all requests with the same walk speed, and
+   * is only calculated the first time a walk speed is used.
+   */
   List<List<RaptorTransfer>> calculateTransferDuration(double walkSpeed) {
-    return transitLayer
-        .getSimpleTransferByStopIndex()
-        .stream()
-        .map(t -> t
-            .stream()
-            .map(s -> new TransferWithDuration(s, walkSpeed))
-            .collect(Collectors.<RaptorTransfer>toList()))
-        .collect(toList());
+    return transitLayer.getTransferWithDurationCache().get(walkSpeed);
   }
 }
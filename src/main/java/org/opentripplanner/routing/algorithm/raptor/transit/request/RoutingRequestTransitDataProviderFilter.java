@@ -11,6 +11,7 @@ import org.opentripplanner.routing.graph.GraphIndex;
 import org.opentripplanner.routing.trippattern.TripTimes;
 
 import java.util.EnumSet;
+import java.util.Objects;
 import java.util.Set;
 
 public class RoutingRequestTransitDataProviderFilter implements TransitDataProviderFilter {
@@ -86,6 +87,33 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
     return transitModes.contains(transitMode);
   }
 
+  /**
+   * Two filters are equal if they filter the same trip patterns and trip times. This is used
+   * as part of the key in the {@link RaptorRoutingRequestTransitDataCache}.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) { return true; }
+    if (o == null || getClass() != o.getClass()) { return false; }
+    RoutingRequestTransitDataProviderFilter that = (RoutingRequestTransitDataProviderFilter) o;
+    return requireBikesAllowed == that.requireBikesAllowed
+        && requireWheelchairAccessible == that.requireWheelchairAccessible
+        && includePlannedCancellations == that.includePlannedCancellations
+        && transitModes.equals(that.transitModes)
+        && bannedRoutes.equals(that.bannedRoutes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        requireBikesAllowed,
+        requireWheelchairAccessible,
+        includePlannedCancellations,
+        transitModes,
+        bannedRoutes
+    );
+  }
+
   public static BikeAccess bikeAccessForTrip(Trip trip) {
     if (trip.getBikesAllowed() != BikeAccess.UNKNOWN) {
       return trip.getBikesAllowed();
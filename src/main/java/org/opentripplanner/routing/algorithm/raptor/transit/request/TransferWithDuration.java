@@ -10,9 +10,16 @@ public class TransferWithDuration implements RaptorTransfer {
     private final Transfer transfer;
 
     public TransferWithDuration(Transfer transfer, double walkSpeed) {
+        this(
+            transfer,
+            (int) Math.round(transfer.getEffectiveWalkDistanceMeters() / walkSpeed)
+                + transfer.getDistanceIndependentTime()
+        );
+    }
+
+    public TransferWithDuration(Transfer transfer, int durationSeconds) {
         this.transfer = transfer;
-        this.durationSeconds = (int) Math.round(transfer.getEffectiveWalkDistanceMeters() / walkSpeed)
-            + transfer.getDistanceIndependentTime();
+        this.durationSeconds = durationSeconds;
     }
 
     public Transfer transfer() {
@@ -0,0 +1,92 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransfersByStopIndex;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+/**
+ * The Raptor transfers with the duration calculated for a given walk speed. The transfer
+ * duration only depends on the walk speed, so the transfers can be shared between all requests
+ * with the same walk speed. Most requests use the default walk speed, hence a small cache is
+ * sufficient. The least recently used entry is evicted when the cache is full.
+ * <p>
+ * The cache is created by the {@link org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer}
+ * and shared between the scheduled and the realtime transit layer, the transfers are not
+ * affected by realtime updates.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class TransferWithDurationCache {
+
+  private static final int MAX_SIZE = 20;
+
+  private final List<List<Transfer>> transfersByStopIndex;
+
+  private final TransfersByStopIndex transferIndex;
+
+  private final Map<Double, List<List<RaptorTransfer>>> cache = new LinkedHashMap<>(
+      16, 0.75f, true
+  ) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Double, List<List<RaptorTransfer>>> eldest) {
+      return size() > MAX_SIZE;
+    }
+  };
+
+  public TransferWithDurationCache(
+      List<List<Transfer>> transfersByStopIndex,
+      TransfersByStopIndex transferIndex
+  ) {
+    this.transfersByStopIndex = transfersByStopIndex;
+    this.transferIndex = transferIndex;
+  }
+
+  /**
+   * Get the transfers by stop index for the given walk speed. The returned lists must not be
+   * modified.
+   */
+  public List<List<RaptorTransfer>> get(double walkSpeed) {
+    synchronized (cache) {
+      List<List<RaptorTransfer>> value = cache.get(walkSpeed);
+      if (value != null) { return value; }
+    }
+    // Calculate outside the lock, another thread may do the same for the same walk speed, but
+    // the result is the same.
+    List<List<RaptorTransfer>> value = calculateTransferDuration(walkSpeed);
+
+    synchronized (cache) {
+      cache.put(walkSpeed, value);
+    }
+    return value;
+  }
+
+  private List<List<RaptorTransfer>> calculateTransferDuration(double walkSpeed) {
+    int nStops = transferIndex.numberOfStops();
+    List<List<RaptorTransfer>> result = new ArrayList<>(nStops);
+
+    for (int stop = 0; stop < nStops; ++stop) {
+      int nTransfers = transferIndex.numberOfTransfers(stop);
+
+      if (nTransfers == 0) {
+        result.add(List.of());
+        continue;
+      }
+
+      List<Transfer> transfers = transfersByStopIndex.get(stop);
+      RaptorTransfer[] list = new RaptorTransfer[nTransfers];
+
+      for (int i = 0; i < nTransfers; ++i) {
+        list[i] = new TransferWithDuration(
+            transfers.get(i),
+            transferIndex.durationInSeconds(stop, i, walkSpeed)
+        );
+      }
+      result.add(List.of(list));
+    }
+    return List.copyOf(result);
+  }
+}
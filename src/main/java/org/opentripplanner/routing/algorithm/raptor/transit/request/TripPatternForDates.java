@@ -6,6 +6,7 @@ import org.opentripplanner.model.base.ToStringBuilder;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripPatternWithRaptorStopIndexes;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripSchedule;
+import org.opentripplanner.routing.trippattern.TripTimes;
 import org.opentripplanner.transit.raptor.api.transit.RaptorGuaranteedTransferProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorRoute;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTimeTable;
@@ -30,6 +31,19 @@ public class TripPatternForDates
 
     private final int numberOfTripSchedules;
 
+    /**
+     * The departure and arrival times for all trips, with the day offset applied, stored in one
+     * array. The times are laid out stop-major: all departures for the first stop position, then
+     * all arrivals for the first stop position, then the departures for the second stop position
+     * and so on. This way the trip search read the times for a given stop position from a
+     * contiguous block of memory, without creating the trip schedules.
+     * <p>
+     * The array is created the first time it is used, only a small subset of the patterns are
+     * searched in a Raptor search. This is thread-safe, the times are always the same, so if two
+     * threads create the array at the same time, it does not matter which one is kept.
+     */
+    private volatile int[] times = null;
+
     TripPatternForDates(
             TripPatternWithRaptorStopIndexes tripPattern,
             List<TripPatternForDate> tripPatternForDates,
@@ -113,6 +127,47 @@ public class TripPatternForDates
         return numberOfTripSchedules;
     }
 
+    @Override
+    public int departure(int tripIndex, int stopPositionInPattern) {
+        return times()[2 * stopPositionInPattern * numberOfTripSchedules + tripIndex];
+    }
+
+    @Override
+    public int arrival(int tripIndex, int stopPositionInPattern) {
+        return times()[(2 * stopPositionInPattern + 1) * numberOfTripSchedules + tripIndex];
+    }
+
+    private int[] times() {
+        int[] times = this.times;
+        if (times == null) {
+            times = createTimes();
+            this.times = times;
+        }
+        return times;
+    }
+
+    private int[] createTimes() {
+        final int nStops = numberOfStopsInPattern();
+        final int nTrips = numberOfTripSchedules;
+        final int[] times = new int[2 * nStops * nTrips];
+
+        int tripIndex = 0;
+        for (int i = 0; i < tripPatternForDates.length; i++) {
+            TripPatternForDate tripPatternForDate = tripPatternForDates[i];
+            int offset = offsets[i];
+
+            for (TripTimes tripTimes : tripPatternForDate.tripTimes()) {
+                for (int stopPos = 0; stopPos < nStops; ++stopPos) {
+                    int departureIndex = 2 * stopPos * nTrips + tripIndex;
+                    times[departureIndex] = tripTimes.getDepartureTime(stopPos) + offset;
+                    times[departureIndex + nTrips] = tripTimes.getArrivalTime(stopPos) + offset;
+                }
+                ++tripIndex;
+            }
+        }
+        return times;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.of(TripPatternForDates.class)
@@ -985,6 +985,42 @@ public class RoutingRequest implements AutoCloseable, Cloneable, Serializable {
         whiteListedRoutes = RouteMatcher.idMatcher(routeIds);
     }
 
+    public Set<FeedScopedId> getBannedAgencies() {
+        return bannedAgencies;
+    }
+
+    public Set<FeedScopedId> getWhiteListedAgencies() {
+        return whiteListedAgencies;
+    }
+
+    @Deprecated
+    public Set<FeedScopedId> getPreferredAgencies() {
+        return preferredAgencies;
+    }
+
+    @Deprecated
+    public Set<FeedScopedId> getUnpreferredAgencies() {
+        return unpreferredAgencies;
+    }
+
+    public RouteMatcher getBannedRoutes() {
+        return bannedRoutes;
+    }
+
+    public RouteMatcher getWhiteListedRoutes() {
+        return whiteListedRoutes;
+    }
+
+    @Deprecated
+    public RouteMatcher getPreferredRoutes() {
+        return preferredRoutes;
+    }
+
+    @Deprecated
+    public RouteMatcher getUnpreferredRoutes() {
+        return unpreferredRoutes;
+    }
+
 
     public void setFromString(String from) {
         this.from = LocationStringParser.fromOldStyleString(from);
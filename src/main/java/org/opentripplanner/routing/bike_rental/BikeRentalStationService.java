@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import org.locationtech.jts.geom.Coordinate;
@@ -18,6 +19,12 @@ public class BikeRentalStationService implements Serializable {
 
     private Set<BikePark> bikeParks = new HashSet<>();
 
+    /**
+     * Listeners are registered by the API layer at startup, they are not part of the graph and
+     * not serialized.
+     */
+    private transient List<BikeRentalStationListener> listeners;
+
     public Collection<BikeRentalStation> getBikeRentalStations() {
         return bikeRentalStations;
     }
@@ -26,10 +33,23 @@ public class BikeRentalStationService implements Serializable {
         // Remove old reference first, as adding will be a no-op if already present
         bikeRentalStations.remove(bikeRentalStation);
         bikeRentalStations.add(bikeRentalStation);
+        notifyListeners(bikeRentalStation);
     }
 
     public void removeBikeRentalStation(BikeRentalStation bikeRentalStation) {
-        bikeRentalStations.remove(bikeRentalStation);
+        if (bikeRentalStations.remove(bikeRentalStation)) {
+            notifyListeners(bikeRentalStation);
+        }
+    }
+
+    /**
+     * Register a listener notified each time a bike rental station is added, updated or removed.
+     */
+    public synchronized void addBikeRentalStationListener(BikeRentalStationListener listener) {
+        if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
+        }
+        listeners.add(listener);
     }
 
     public Collection<BikePark> getBikeParks() {
@@ -64,4 +84,21 @@ public class BikeRentalStationService implements Serializable {
             .filter(b -> envelope.contains(new Coordinate(b.x, b.y)))
             .collect(Collectors.toList());
     }
+
+    private void notifyListeners(BikeRentalStation bikeRentalStation) {
+        List<BikeRentalStationListener> listeners = this.listeners;
+        if (listeners == null) { return; }
+        for (BikeRentalStationListener listener : listeners) {
+            listener.bikeRentalStationChanged(bikeRentalStation);
+        }
+    }
+
+    public interface BikeRentalStationListener {
+
+        /**
+         * Called with the new version of an added or updated station, or the removed station.
+         * Called on the thread updating the graph, so the listener should return quickly.
+         */
+        void bikeRentalStationChanged(BikeRentalStation bikeRentalStation);
+    }
 }
@@ -58,6 +58,14 @@ public class FareRuleSet implements Serializable {
     	return trips;
     }
     
+    /**
+     * Return true if this rule set has zone, route or trip restrictions, in addition to the origin
+     * and destination zones.
+     */
+    public boolean hasZoneRouteOrTripRestrictions() {
+        return !contains.isEmpty() || !routes.isEmpty() || !trips.isEmpty();
+    }
+
     public boolean matches(String startZone, String endZone, Set<String> zonesVisited,
                            Set<FeedScopedId> routesVisited, Set<FeedScopedId> tripsVisited) {
         //check for matching origin/destination, if this ruleset has any origin/destination restrictions
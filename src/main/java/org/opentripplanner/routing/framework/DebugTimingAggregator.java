@@ -1,7 +1,10 @@
 package org.opentripplanner.routing.framework;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.opentripplanner.api.resource.DebugOutput;
 import org.opentripplanner.api.resource.TransitTimingOutput;
@@ -11,12 +14,55 @@ import org.slf4j.LoggerFactory;
 /**
  * Keeps account of timing information within the different parts of the routing process, and is
  * responsible of logging that information.
+ * <p>
+ * The time spent in each phase is always reported to a timer in the global meter registry, the
+ * debug log and the {@link DebugOutput} is only created if debug logging is enabled.
  */
 public class DebugTimingAggregator {
   private static final Logger LOG = LoggerFactory.getLogger(DebugTimingAggregator.class);
 
+  private static final Timer PRECALCULATION_TIMER = timer(
+      "routing.precalculation", "Routing initialization"
+  );
+  private static final Timer DIRECT_STREET_ROUTER_TIMER = timer(
+      "routing.directStreet", "Direct street (and flex) routing"
+  );
+  private static final Timer TRIP_PATTERN_FILTER_TIMER = timer(
+      "routing.transit.tripPatternFiltering", "Creating the Raptor transit data for the request"
+  );
+  private static final Timer ACCESS_EGRESS_TIMER = timer(
+      "routing.transit.accessEgress", "Access and egress street routing"
+  );
+  private static final Timer RAPTOR_SEARCH_TIMER = timer(
+      "routing.transit.raptor", "Raptor transit search"
+  );
+  private static final Timer ITINERARY_CREATION_TIMER = timer(
+      "routing.transit.itineraryCreation", "Mapping Raptor paths to itineraries"
+  );
+  private static final Timer TRANSIT_ROUTER_TIMER = timer(
+      "routing.transit", "Transit routing total"
+  );
+  private static final Timer PARALLEL_STREET_TIME_SAVED_TIMER = timer(
+      "routing.parallelStreet.timeSaved",
+      "Time saved by running the direct, access and egress street searches in parallel"
+  );
+  private static final Timer FILTERING_TIMER = timer(
+      "routing.filtering", "Filtering itineraries"
+  );
+  private static final Timer RENDERING_TIMER = timer(
+      "routing.rendering", "Converting model objects to the API model"
+  );
+  private static final Timer REQUEST_TOTAL_TIMER = timer(
+      "routing.total", "Request total, excluding network and request queue time"
+  );
+
+  private static final long NANOS_PER_MILLI = 1_000_000;
+
+  // All times are in nanoseconds, from System.nanoTime()
+
   private long startedCalculating;
   private long finishedPrecalculating;
+  private long startedTransitRouter;
   private long finishedDirectStreetRouter;
 
   private long finishedPatternFiltering;
@@ -27,6 +73,9 @@ public class DebugTimingAggregator {
   private long finishedFiltering;
   private long finishedRendering;
 
+  /** Set if the transit router got as far as filtering the trip patterns. */
+  private boolean patternFilteringFinished = false;
+
   private long precalculationTime;
   private long directStreetRouterTime;
   private long tripPatternFilterTime;
@@ -34,6 +83,7 @@ public class DebugTimingAggregator {
   private long raptorSearchTime;
   private long itineraryCreationTime;
   private long transitRouterTime;
+  private long parallelStreetTimeSaved;
   private long filteringTime;
   private long renderingTime;
 
@@ -46,97 +96,127 @@ public class DebugTimingAggregator {
    * include network and server request queue overhead, which is what we want.
    */
   public void startedCalculating() {
-    if(notEnabled) { return; }
-    startedCalculating = System.currentTimeMillis();
+    startedCalculating = System.nanoTime();
   }
 
   /**
    * Record the time when the worker initialization is done, and the direct street router starts.
    */
   public void finishedPrecalculating() {
-    if(notEnabled) { return; }
-    finishedPrecalculating = System.currentTimeMillis();
+    finishedPrecalculating = System.nanoTime();
     precalculationTime = finishedPrecalculating - startedCalculating;
-    log("┌  Routing initialization", directStreetRouterTime);
+    record(PRECALCULATION_TIMER, "┌  Routing initialization", precalculationTime);
   }
 
-  /** Record the time when we finished the direct street router search. */
-  public void finishedDirectStreetRouter() {
-    if(notEnabled) { return; }
-    finishedDirectStreetRouter = System.currentTimeMillis();
-    directStreetRouterTime = finishedDirectStreetRouter - finishedPrecalculating;
-    log("├  Direct street routing", directStreetRouterTime);
+  /**
+   * Record the time when the transit router starts. If the street searches run in parallel, the
+   * direct street router is still running at this point.
+   */
+  public void startedTransitRouter() {
+    startedTransitRouter = System.nanoTime();
   }
 
   /**
    * Record the time when we are finished with the creation of the raptor data models.
    */
   public void finishedPatternFiltering() {
-    if(notEnabled) { return; }
-    finishedPatternFiltering = System.currentTimeMillis();
-    tripPatternFilterTime = finishedPatternFiltering - finishedDirectStreetRouter;
-    log("│┌ Filtering tripPatterns", tripPatternFilterTime);
+    finishedPatternFiltering = System.nanoTime();
+    patternFilteringFinished = true;
+    tripPatternFilterTime = finishedPatternFiltering - startedTransitRouter;
+    record(TRIP_PATTERN_FILTER_TIMER, "│┌ Filtering tripPatterns", tripPatternFilterTime);
   }
 
   /**
    * Record the time when we are finished with the access and egress routing.
    */
   public void finishedAccessEgress() {
-    if(notEnabled) { return; }
-    finishedAccessEgress = System.currentTimeMillis();
+    finishedAccessEgress = System.nanoTime();
     accessEgressTime = finishedAccessEgress - finishedPatternFiltering;
-    log("│├ Access/egress routing", accessEgressTime);
+    record(ACCESS_EGRESS_TIMER, "│├ Access/egress routing", accessEgressTime);
   }
 
   /**
    * Record the time when we are finished with the raptor search.
    */
   public void finishedRaptorSearch() {
-    if(notEnabled) { return; }
-    finishedRaptorSearch = System.currentTimeMillis();
+    finishedRaptorSearch = System.nanoTime();
     raptorSearchTime = finishedRaptorSearch - finishedAccessEgress;
-    log("│├ Main routing", raptorSearchTime);
+    record(RAPTOR_SEARCH_TIMER, "│├ Main routing", raptorSearchTime);
   }
 
   /**
    * Record the time when we have created internal itinerary objects from the raptor responses.
    */
   public void finishedItineraryCreation() {
-    if(notEnabled) { return; }
-    itineraryCreationTime = System.currentTimeMillis() - finishedRaptorSearch;
-    log("│├ Creating itineraries", itineraryCreationTime);
+    itineraryCreationTime = System.nanoTime() - finishedRaptorSearch;
+    record(ITINERARY_CREATION_TIMER, "│├ Creating itineraries", itineraryCreationTime);
   }
 
   /** Record the time when we finished the tranist router search */
   public void finishedTransitRouter() {
-    if(notEnabled) { return; }
-    finishedTransitRouter = System.currentTimeMillis();
-    transitRouterTime = finishedTransitRouter - finishedDirectStreetRouter;
+    finishedTransitRouter = System.nanoTime();
+    transitRouterTime = finishedTransitRouter - startedTransitRouter;
 
-    if (finishedPatternFiltering > 0) {
-      log("├┴ Transit routing total", transitRouterTime);
+    if (patternFilteringFinished) {
+      record(TRANSIT_ROUTER_TIMER, "├┴ Transit routing total", transitRouterTime);
     } else {
-      log("├─ Transit routing total", transitRouterTime);
+      record(TRANSIT_ROUTER_TIMER, "├─ Transit routing total", transitRouterTime);
     }
   }
 
+  /**
+   * Record the time spent in the direct street router, called when the direct street router
+   * result is collected after the transit router is done. The time is measured by the caller,
+   * since the search may run in another thread.
+   */
+  public void finishedDirectStreetRouter(long nanos) {
+    finishedDirectStreetRouter = System.nanoTime();
+    directStreetRouterTime = nanos;
+    record(DIRECT_STREET_ROUTER_TIMER, "├  Direct street routing", directStreetRouterTime);
+  }
+
+  /**
+   * Record the time saved by running the street searches in parallel. This is the total time spent
+   * in the direct, access and egress searches minus the time the request thread spent waiting for
+   * them.
+   */
+  public void finishedParallelStreetSearches(long streetSearchNanos, long waitNanos) {
+    parallelStreetTimeSaved = Math.max(0, streetSearchNanos - waitNanos);
+    record(
+        PARALLEL_STREET_TIME_SAVED_TIMER,
+        "├  Parallel street routing saved",
+        parallelStreetTimeSaved
+    );
+  }
+
   /** Record the time when we finished filtering the paths for this request. */
   public void finishedFiltering() {
+    finishedFiltering = System.nanoTime();
+    filteringTime = finishedFiltering - finishedDirectStreetRouter;
+    record(FILTERING_TIMER, "├  Filtering itineraries", filteringTime);
+  }
+
+  /**
+   * Record that the response was found in the routing response cache. No routing is done, so
+   * only the rendering and the request total are recorded for this request.
+   */
+  public void servedFromCache() {
+    startedCalculating = System.nanoTime();
+    finishedFiltering = startedCalculating;
     if(notEnabled) { return; }
-    finishedFiltering = System.currentTimeMillis();
-    filteringTime = finishedFiltering - finishedTransitRouter;
-    log("├  Filtering itineraries", filteringTime);
+    messages.add("┌  Served from the routing response cache");
   }
 
   /** Record the time when we finished converting the internal model to API classes */
   @SuppressWarnings("Convert2MethodRef")
   @Nullable
   public DebugOutput finishedRendering() {
-    if(notEnabled) { return null; }
-    finishedRendering = System.currentTimeMillis();
+    finishedRendering = System.nanoTime();
     renderingTime = finishedRendering - finishedFiltering;
-    log("├  Converting model objects", renderingTime);
-    log("┴  Request total", finishedRendering - startedCalculating);
+    record(RENDERING_TIMER, "├  Converting model objects", renderingTime);
+    record(REQUEST_TOTAL_TIMER, "┴  Request total", finishedRendering - startedCalculating);
+
+    if(notEnabled) { return null; }
     messages.forEach(m -> LOG.debug(m));
     return getDebugOutput();
   }
@@ -146,22 +226,36 @@ public class DebugTimingAggregator {
     long totalTime = finishedRendering - startedCalculating;
 
     return new DebugOutput(
-        precalculationTime,
-        directStreetRouterTime,
-        transitRouterTime,
-        filteringTime,
-        renderingTime,
-        totalTime,
+        millis(precalculationTime),
+        millis(directStreetRouterTime),
+        millis(transitRouterTime),
+        millis(filteringTime),
+        millis(renderingTime),
+        millis(totalTime),
+        millis(parallelStreetTimeSaved),
         new TransitTimingOutput(
-            tripPatternFilterTime,
-            accessEgressTime,
-            raptorSearchTime,
-            itineraryCreationTime
+            millis(tripPatternFilterTime),
+            millis(accessEgressTime),
+            millis(raptorSearchTime),
+            millis(itineraryCreationTime)
         )
     );
   }
 
-  private void log(String msg, long millis) {
-    messages.add(String.format("%-30s: %5s ms", msg, millis));
+  private void record(Timer timer, String msg, long nanos) {
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+    if(notEnabled) { return; }
+    messages.add(String.format("%-30s: %5s ms", msg, millis(nanos)));
+  }
+
+  private static long millis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  private static Timer timer(String name, String description) {
+    return Timer.builder(name)
+        .description(description)
+        .publishPercentileHistogram()
+        .register(Metrics.globalRegistry);
   }
 }
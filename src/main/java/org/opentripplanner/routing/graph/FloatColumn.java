@@ -0,0 +1,49 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.Serializable;
+import java.nio.FloatBuffer;
+
+/**
+ * A read-only array of floats. The values are either on the heap, or in a memory-mapped graph
+ * data file (see {@link MappedGraphData}), in which case this is a flyweight reading directly
+ * from the OS page cache. Reading a value is the same absolute {@link FloatBuffer#get(int)} in
+ * both cases.
+ * <p>
+ * This is serialized with the {@link org.opentripplanner.kryo.FloatColumnSerializer}, which
+ * decides if the values are stored inside the graph file or in the memory-mapped data file.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class FloatColumn implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FloatBuffer values;
+
+    private FloatColumn(FloatBuffer values) {
+        this.values = values;
+    }
+
+    /** Create a column on the heap, the array is not copied, do not change it. */
+    public static FloatColumn of(float[] values) {
+        return new FloatColumn(FloatBuffer.wrap(values));
+    }
+
+    /** Create a column reading from a buffer, usually a memory-mapped file region. */
+    public static FloatColumn of(FloatBuffer values) {
+        return new FloatColumn(values.asReadOnlyBuffer());
+    }
+
+    public float get(int index) {
+        return values.get(index);
+    }
+
+    public int size() {
+        return values.limit();
+    }
+
+    /** {@code true} if the values are read from a memory-mapped file. */
+    public boolean isMapped() {
+        return values.isDirect();
+    }
+}
@@ -78,6 +78,7 @@ import org.opentripplanner.model.projectinfo.OtpProjectInfo;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.TransitLayerUpdater;
+import org.opentripplanner.routing.algorithm.raptor.transit.request.RaptorRoutingRequestTransitDataCache;
 import org.opentripplanner.routing.bike_rental.BikeRentalStationService;
 import org.opentripplanner.routing.core.intersection_model.IntersectionTraversalCostModel;
 import org.opentripplanner.routing.core.intersection_model.SimpleIntersectionTraversalCostModel;
@@ -265,6 +266,13 @@ public class Graph implements Serializable {
     private final transient ConcurrentPublished<TransitLayer> realtimeTransitLayer =
         new ConcurrentPublished<>();
 
+    /**
+     * Cache of the per request Raptor transit data, shared between requests. The cache is
+     * invalidated every time a new realtime transit layer is published.
+     */
+    private final transient RaptorRoutingRequestTransitDataCache transitDataCache =
+        new RaptorRoutingRequestTransitDataCache();
+
     public transient TransitLayerUpdater transitLayerUpdater;
 
     private transient TransitAlertService transitAlertService;
@@ -471,6 +479,7 @@ public class Graph implements Serializable {
         TransitLayer transitLayer
     ) {
         this.transitLayer = transitLayer;
+        this.transitDataCache.invalidate();
     }
 
     public TransitLayer getRealtimeTransitLayer() {
@@ -485,6 +494,11 @@ public class Graph implements Serializable {
         TransitLayer realtimeTransitLayer
     ) {
         this.realtimeTransitLayer.publish(realtimeTransitLayer);
+        this.transitDataCache.invalidate();
+    }
+
+    public RaptorRoutingRequestTransitDataCache getTransitDataCache() {
+        return transitDataCache;
     }
 
     public boolean containsVertex(Vertex v) {
@@ -0,0 +1,178 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.opentripplanner.util.OtpAppException;
+
+/**
+ * A data file stored next to the graph file, containing large primitive arrays of the graph. The
+ * file is memory-mapped read-only when the graph is loaded, the arrays are not read or copied,
+ * they are accessed through {@link FloatColumn} flyweights. This makes loading them O(1), the
+ * pages are read by the OS on first access, and the OS page cache is shared by all JVMs on the
+ * same host serving the same graph.
+ * <p>
+ * The file layout is a 24 bytes header (magic number, format version and graph data id) followed
+ * by the arrays, little-endian. The graph data id is also stored in the graph file, ahead of the
+ * graph, and is used to verify that the data file belongs to the graph before the graph is read.
+ * <p>
+ * Only the street landmark distance tables are stored in the data file. The street network and
+ * the other graph data are read into the heap.
+ */
+public class MappedGraphData implements Closeable {
+
+    /** The data file name is the graph file name with this suffix, like {@code graph.obj.mmap}. */
+    public static final String FILE_SUFFIX = ".mmap";
+
+    private static final long MAGIC = 0x4F54504D4D415044L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long id;
+
+    private MappedGraphData(File file, FileChannel channel, long id) {
+        this.file = file;
+        this.channel = channel;
+        this.id = id;
+    }
+
+    public static File dataFileFor(File graphFile) {
+        return new File(graphFile.getPath() + FILE_SUFFIX);
+    }
+
+    /**
+     * Open the data file for mapping. The channel is only needed while the graph is read, the
+     * mapped regions stay valid after it is closed.
+     */
+    public static MappedGraphData open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+            while (header.hasRemaining() && channel.read(header) >= 0) { }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getLong() != MAGIC) {
+                throw new OtpAppException("Not an OTP graph data file: " + file);
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new OtpAppException(
+                    "Unsupported graph data file version %d, expected %d: %s",
+                    version, FORMAT_VERSION, file
+                );
+            }
+            header.getInt();
+            return new MappedGraphData(file, channel, header.getLong());
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** The id written to both the graph file and the data file. */
+    public long id() {
+        return id;
+    }
+
+    /** Map {@code length} floats starting at the given file offset. */
+    public FloatColumn floats(long offset, int length) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, 4L * length);
+        return FloatColumn.of(buffer.order(BYTE_ORDER).asFloatBuffer());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+
+    /**
+     * Writes the data file. The data is written to a temporary file, which is moved in place
+     * when the writer is committed. JVMs which have mapped the old file keep reading the old
+     * file, the file is never changed while it is mapped.
+     */
+    public static class Writer implements Closeable {
+
+        private final File target;
+        private final Path tempFile;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(BYTE_ORDER);
+        private final long id = new Random().nextLong() | 1L;
+        private long position;
+        private boolean committed = false;
+
+        public Writer(File target) throws IOException {
+            this.target = target;
+            this.tempFile = Files.createTempFile(
+                target.getAbsoluteFile().getParentFile().toPath(),
+                target.getName(),
+                ".tmp"
+            );
+            this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+            buffer.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(0).putLong(id);
+            position = HEADER_SIZE;
+        }
+
+        /** The id to store in the graph file. Never 0, which means "no data file". */
+        public long id() {
+            return id;
+        }
+
+        /** Append the column to the file and return the file offset. */
+        public long write(FloatColumn column) throws IOException {
+            long offset = position;
+            for (int i = 0; i < column.size(); ++i) {
+                if (buffer.remaining() < 4) { flush(); }
+                buffer.putFloat(column.get(i));
+            }
+            position += 4L * column.size();
+            return offset;
+        }
+
+        /** Flush the data and move the file in place. */
+        public void commit() throws IOException {
+            flush();
+            channel.force(false);
+            channel.close();
+            Files.move(
+                tempFile,
+                target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            committed = true;
+        }
+
+        /** Close the writer, a data file not committed is deleted. */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(tempFile);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
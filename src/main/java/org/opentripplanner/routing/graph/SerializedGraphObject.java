@@ -19,7 +19,9 @@ import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntIntHashMap;
 import org.objenesis.strategy.SerializingInstantiatorStrategy;
 import org.opentripplanner.datastore.DataSource;
+import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.kryo.BuildConfigSerializer;
+import org.opentripplanner.kryo.FloatColumnSerializer;
 import org.opentripplanner.kryo.HashBiMapSerializer;
 import org.opentripplanner.kryo.RouterConfigSerializer;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
@@ -90,14 +92,15 @@ public class SerializedGraphObject implements Serializable {
     }
 
     public static SerializedGraphObject load(DataSource source) {
-        return load(source.asInputStream(), source.path());
+        return load(source.asInputStream(), source.path(), localGraphFile(source));
     }
 
     public static Graph load(File file) {
         try {
             SerializedGraphObject serObj = load(
                     new FileInputStream(file),
-                    file.getAbsolutePath()
+                    file.getAbsolutePath(),
+                    file
             );
             return serObj == null ? null : serObj.graph;
         } catch (FileNotFoundException e) {
@@ -128,7 +131,7 @@ public class SerializedGraphObject implements Serializable {
      */
     public void save(@Nullable DataSource target) {
         if (target != null) {
-            save(target.asOutputStream(), target.name(), target.size());
+            save(target.asOutputStream(), target.name(), target.size(), mappedDataFile(target));
         } else {
             LOG.info("Not saving graph to disk, as requested.");
         }
@@ -140,7 +143,7 @@ public class SerializedGraphObject implements Serializable {
      */
     public void saveToFile(File file) throws IOException {
         try {
-            save(new FileOutputStream(file), file.getName(), file.length());
+            save(new FileOutputStream(file), file.getName(), file.length(), null);
         } catch (Exception e) {
             // remove half-written file
             file.deleteOnExit();
@@ -184,6 +187,9 @@ public class SerializedGraphObject implements Serializable {
         kryo.register(RouterConfig.class, new RouterConfigSerializer());
         kryo.register(BuildConfig.class, new BuildConfigSerializer());
 
+        // Large primitive arrays which may be stored in the memory-mapped data file
+        kryo.register(FloatColumn.class, new FloatColumnSerializer());
+
         // OBA uses unmodifiable collections, but those classes have package-private visibility. Workaround.
         // FIXME we're importing all the contributed kryo-serializers just for this one serializer
         try {
@@ -203,7 +209,11 @@ public class SerializedGraphObject implements Serializable {
 
     /* private methods */
 
-    private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
+    private static SerializedGraphObject load(
+            InputStream inputStream,
+            String sourceDescription,
+            @Nullable File graphFile
+    ) {
         // TODO store version information, halt load if versions mismatch
         try(inputStream) {
             LOG.info("Reading graph from '{}'", sourceDescription);
@@ -213,9 +223,20 @@ public class SerializedGraphObject implements Serializable {
                 input.readBytes(GraphFileHeader.headerLength()),
                 sourceDescription
             );
+            long mappedDataId = input.readLong();
 
             Kryo kryo = makeKryo();
-            SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+            SerializedGraphObject serObj;
+            try (MappedGraphData mappedData = openMappedData(
+                    mappedDataId,
+                    graphFile,
+                    sourceDescription
+            )) {
+                if (mappedData != null) {
+                    kryo.getContext().put(MappedGraphData.class, mappedData);
+                }
+                serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+            }
             Graph graph = serObj.graph;
             LOG.debug("Graph read.");
             serObj.reconstructEdgeLists();
@@ -234,13 +255,38 @@ public class SerializedGraphObject implements Serializable {
         }
     }
 
-    private void save(OutputStream outputStream, String graphName, long size) {
+    private void save(
+            OutputStream outputStream,
+            String graphName,
+            long size,
+            @Nullable File mappedDataFile
+    ) {
         LOG.info("Writing graph " + graphName + " ...");
         outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
         Kryo kryo = makeKryo();
         Output output = new Output(outputStream);
         output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-        kryo.writeClassAndObject(output, this);
+
+        // The id of the data file is written ahead of the graph, so it can be checked before the
+        // graph is read. The id is 0 if all data is stored in the graph file.
+        if (mappedDataFile == null) {
+            output.writeLong(0);
+            kryo.writeClassAndObject(output, this);
+        }
+        else {
+            try (MappedGraphData.Writer writer = new MappedGraphData.Writer(mappedDataFile)) {
+                kryo.getContext().put(MappedGraphData.Writer.class, writer);
+                output.writeLong(writer.id());
+                kryo.writeClassAndObject(output, this);
+                writer.commit();
+                LOG.info("Graph data file written: {}", mappedDataFile);
+            }
+            catch (IOException e) {
+                throw new OtpAppException(
+                        "Unable to write graph data file " + mappedDataFile + ": " + e.getMessage()
+                );
+            }
+        }
         output.close();
         LOG.info("Graph written: {}", graphName);
         // Summarize serialized classes and associated serializers to stdout:
@@ -259,6 +305,65 @@ public class SerializedGraphObject implements Serializable {
         );
     }
 
+    /**
+     * The memory-mapped data file is only written if requested in the build config, and only if
+     * the graph is saved to an uncompressed local file.
+     */
+    @Nullable
+    private File mappedDataFile(DataSource target) {
+        if (buildConfig == null || !buildConfig.memoryMappedGraphData) { return null; }
+
+        File graphFile = localGraphFile(target);
+        if (graphFile == null || graphFile.getName().endsWith(".gz")) {
+            LOG.warn(
+                    "The graph data can only be memory-mapped if the graph is saved to an "
+                    + "uncompressed local file, storing all data in: {}", target.path()
+            );
+            return null;
+        }
+        return MappedGraphData.dataFileFor(graphFile);
+    }
+
+    @Nullable
+    private static File localGraphFile(DataSource source) {
+        return source instanceof FileDataSource ? ((FileDataSource) source).file() : null;
+    }
+
+    /**
+     * Open the memory-mapped data file of a graph saved with one. The data file header is checked
+     * before the graph is read, so a missing data file, or a data file left behind by another
+     * graph, fails fast.
+     */
+    @Nullable
+    private static MappedGraphData openMappedData(
+            long mappedDataId,
+            @Nullable File graphFile,
+            String sourceName
+    ) throws IOException {
+        if (mappedDataId == 0) { return null; }
+
+        File dataFile = graphFile == null ? null : MappedGraphData.dataFileFor(graphFile);
+        if (dataFile == null || !dataFile.exists()) {
+            throw new OtpAppException(
+                    "The graph '%s' is saved with a memory-mapped data file, but the data file "
+                    + "is not found. The graph and the data file must be copied together.",
+                    sourceName
+            );
+        }
+        MappedGraphData mappedData = MappedGraphData.open(dataFile);
+        if (mappedData.id() != mappedDataId) {
+            mappedData.close();
+            throw new OtpAppException(
+                    "The graph data file '%s' does not belong to the graph '%s'. The graph "
+                    + "and the data file must be copied together.",
+                    dataFile,
+                    sourceName
+            );
+        }
+        LOG.info("Graph data memory-mapped from '{}'", mappedData);
+        return mappedData;
+    }
+
     private static void validateGraphSerializationId(byte[] header, String sourceName) {
         var expFileHeader = projectInfo().graphFileHeaderInfo;
         var graphFileHeader = GraphFileHeader.parse(header);
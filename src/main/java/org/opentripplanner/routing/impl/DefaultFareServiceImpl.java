@@ -23,7 +23,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Holds information for doing the graph search on fares */
 class FareSearch {
@@ -80,17 +82,47 @@ public class DefaultFareServiceImpl implements FareService {
     /** For each fare type (regular, student, etc...) the collection of rules that apply. */
     protected Map<FareType, Collection<FareRuleSet>> fareRulesPerType;
 
+    /** The index of the fare rules for each fare type, created when first used. */
+    private transient volatile Map<FareType, FareRuleSetIndex> fareRuleIndexPerType;
+
     public DefaultFareServiceImpl() {
         fareRulesPerType = new HashMap<>();
     }
 
     public void addFareRules(FareType fareType, Collection<FareRuleSet> fareRules) {
         fareRulesPerType.put(fareType, new ArrayList<>(fareRules));
+        fareRuleIndexPerType = null;
+    }
+
+    /**
+     * The paths of a routing request often share ride sequences, the best fare of each ride
+     * sequence is computed once for all the paths.
+     */
+    @Override
+    public List<Fare> getCosts(Collection<Path<TripSchedule>> paths, TransitLayer transitLayer) {
+        RideSequenceFares cache = new RideSequenceFares();
+        List<Fare> fares = new ArrayList<>(paths.size());
+        for (Path<TripSchedule> path : paths) {
+            fares.add(getCost(path, transitLayer, cache));
+        }
+        return fares;
     }
 
     @Override
     public Fare getCost(Path<TripSchedule> path, TransitLayer transitLayer) {
+        return getCost(path, transitLayer, new RideSequenceFares());
+    }
 
+    /**
+     * Compute the fare of a path, reusing the fares of the ride sequences in the given cache.
+     * Subclasses should override this method rather than {@link #getCost(Path, TransitLayer)},
+     * it is used by both {@link #getCost(Path, TransitLayer)} and {@link #getCosts}.
+     */
+    protected Fare getCost(
+            Path<TripSchedule> path,
+            TransitLayer transitLayer,
+            RideSequenceFares cache
+    ) {
         List<Ride> rides = RideMapper.ridesForRaptorPath(path, transitLayer);
 
         // If there are no rides, there's no fare.
@@ -108,7 +140,7 @@ public class DefaultFareServiceImpl implements FareService {
             if (fareRules.size() > 0) {
                 currency = Currency.getInstance(fareRules.iterator().next().getFareAttribute().getCurrencyType());
             }
-            hasFare = populateFare(fare, currency, fareType, rides, fareRules);
+            hasFare = populateFare(fare, currency, fareType, rides, fareRules, cache);
         }
         return hasFare ? fare : null;
     }
@@ -123,7 +155,7 @@ public class DefaultFareServiceImpl implements FareService {
     }
 
     private FareSearch performSearch(FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
         FareSearch r = new FareSearch(rides.size());
 
         // Dynamic algorithm to calculate fare cost.
@@ -133,7 +165,12 @@ public class DefaultFareServiceImpl implements FareService {
         for (int i = 0; i < rides.size(); i++) {
             // each diagonal
             for (int j = 0; j < rides.size() - i; j++) {
-                FareAndId best = getBestFareAndId(fareType, rides.subList(j, j + i + 1), fareRules);
+                FareAndId best = getBestFareAndId(
+                        fareType,
+                        rides.subList(j, j + i + 1),
+                        fareRules,
+                        cache
+                );
                 float cost = best.fare;
                 if (cost < 0) {
                     LOG.error("negative cost for a ride sequence");
@@ -164,8 +201,8 @@ public class DefaultFareServiceImpl implements FareService {
     }
 
     protected float getLowestCost(FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
-        FareSearch r = performSearch(fareType, rides, fareRules);
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        FareSearch r = performSearch(fareType, rides, fareRules, cache);
         return r.resultTable[0][rides.size()-1];
     }
 
@@ -189,8 +226,8 @@ public class DefaultFareServiceImpl implements FareService {
      * just not be listed at all.
      */
     protected boolean populateFare(Fare fare, Currency currency, FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
-        FareSearch r = performSearch(fareType, rides, fareRules);
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        FareSearch r = performSearch(fareType, rides, fareRules, cache);
 
         List<FareComponent> details = new ArrayList<FareComponent>();
         int count = 0;
@@ -224,15 +261,20 @@ public class DefaultFareServiceImpl implements FareService {
     }
 
     protected float calculateCost(FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
-        return getBestFareAndId(fareType, rides, fareRules).fare;
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        return getBestFareAndId(fareType, rides, fareRules, cache).fare;
     }
 
     private FareAndId getBestFareAndId(FareType fareType, List<Ride> rides,
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        return cache.fares.computeIfAbsent(
+                new RideSequenceKey(fareType, fareRules, rides),
+                it -> findBestFareAndId(fareType, rides, fareRules)
+        );
+    }
+
+    private FareAndId findBestFareAndId(FareType fareType, List<Ride> rides,
             Collection<FareRuleSet> fareRules) {
-        Set<String> zones = new HashSet<>();
-        Set<FeedScopedId> routes = new HashSet<>();
-        Set<FeedScopedId> trips = new HashSet<>();
         int transfersUsed = -1;
         
         Ride firstRide = rides.get(0);
@@ -251,26 +293,47 @@ public class DefaultFareServiceImpl implements FareService {
             lastRideStartTime = ride.startTime;
             lastRideEndTime = ride.endTime;
             endZone = ride.endZone;
-            routes.add(ride.route);
-            zones.addAll(ride.zones);
-            trips.add(ride.trip);
             transfersUsed += 1;
         }
-        
+
+        // The zones, routes and trips are only needed by rule sets with such restrictions
+        Set<String> zones = null;
+        Set<FeedScopedId> routes = null;
+        Set<FeedScopedId> trips = null;
+
         FareAttribute bestAttribute = null;
+        int bestPosition = -1;
         float bestFare = Float.POSITIVE_INFINITY;
         long tripTime = lastRideStartTime - startTime;
         long journeyTime = lastRideEndTime - startTime;
+        FareRuleSetIndex index = fareRuleIndex(fareType, fareRules);
         	
-        // find the best fare that matches this set of rides
-        for (FareRuleSet ruleSet : fareRules) {
-            FareAttribute attribute = ruleSet.getFareAttribute();
-            // fares also don't really have an agency id, they will have the per-feed default id
-            // check only if the fare is not mapped to an agency
-            if (!attribute.getId().getFeedId().equals(feedId))
-                continue;
-            
-            if (ruleSet.matches(startZone, endZone, zones, routes, trips)) {
+        // find the best fare that matches this set of rides, among the rule sets that may match
+        for (int[] positions : index.candidates(startZone, endZone, firstRide.route)) {
+            for (int position : positions) {
+                FareRuleSet ruleSet = index.ruleSet(position);
+                FareAttribute attribute = ruleSet.getFareAttribute();
+                // fares also don't really have an agency id, they will have the per-feed default id
+                // check only if the fare is not mapped to an agency
+                if (!attribute.getId().getFeedId().equals(feedId))
+                    continue;
+
+                // The origin and destination is already matched by the index
+                if (ruleSet.hasZoneRouteOrTripRestrictions()) {
+                    if (zones == null) {
+                        zones = new HashSet<>();
+                        routes = new HashSet<>();
+                        trips = new HashSet<>();
+                        for (Ride ride : rides) {
+                            routes.add(ride.route);
+                            zones.addAll(ride.zones);
+                            trips.add(ride.trip);
+                        }
+                    }
+                    if (!ruleSet.matches(startZone, endZone, zones, routes, trips)) {
+                        continue;
+                    }
+                }
                 // TODO Maybe move the code below in FareRuleSet::matches() ?
                 if (attribute.isTransfersSet() && attribute.getTransfers() < transfersUsed) {
                     continue;
@@ -286,8 +349,11 @@ public class DefaultFareServiceImpl implements FareService {
                     continue;
                 }
                 float newFare = getFarePrice(attribute, fareType);
-                if (newFare < bestFare) {
+                // Pick the first of the rule sets with the same fare, in the original order
+                if (newFare < bestFare
+                        || (newFare == bestFare && bestAttribute != null && position < bestPosition)) {
                     bestAttribute = attribute;
+                    bestPosition = position;
                     bestFare = newFare;
                 }
             }
@@ -298,6 +364,24 @@ public class DefaultFareServiceImpl implements FareService {
         }
         return new FareAndId(bestFare, bestAttribute == null ? null : bestAttribute.getId());
     }
+
+    private FareRuleSetIndex fareRuleIndex(FareType fareType, Collection<FareRuleSet> fareRules) {
+        Map<FareType, FareRuleSetIndex> indexes = fareRuleIndexPerType;
+        if (indexes == null) {
+            indexes = new ConcurrentHashMap<>();
+            fareRuleIndexPerType = indexes;
+        }
+        FareRuleSetIndex index = indexes.get(fareType);
+        if (index != null && index.isIndexOf(fareRules)) {
+            return index;
+        }
+        index = new FareRuleSetIndex(fareRules);
+        // Only the rules added to this service are kept, subclasses may pass in other rules
+        if (fareRules == fareRulesPerType.get(fareType)) {
+            indexes.put(fareType, index);
+        }
+        return index;
+    }
     
     private float getFarePrice(FareAttribute fare, FareType type) {
     	switch(type) {
@@ -318,4 +402,70 @@ public class DefaultFareServiceImpl implements FareService {
     	return fare.getPrice();
     }
 
-}
\ No newline at end of file
+    /**
+     * The best fare of each ride sequence, computed while the fares of one or more paths are
+     * computed. The cache is created for each call to {@link #getCost} or {@link #getCosts}, and
+     * is only used by the calling thread.
+     */
+    protected static final class RideSequenceFares {
+        private final Map<RideSequenceKey, FareAndId> fares = new HashMap<>();
+    }
+
+    /**
+     * Identify a sequence of rides by the fields used to find the best fare for it, so the fare
+     * can be reused for paths with the same rides.
+     */
+    private static final class RideSequenceKey {
+        private final FareType fareType;
+        private final Collection<FareRuleSet> fareRules;
+        private final List<Ride> rides;
+        private final int hashCode;
+
+        private RideSequenceKey(FareType fareType, Collection<FareRuleSet> fareRules, List<Ride> rides) {
+            this.fareType = fareType;
+            this.fareRules = fareRules;
+            this.rides = rides;
+            int hash = fareType.hashCode();
+            for (Ride ride : rides) {
+                hash = 31 * hash + Objects.hashCode(ride.trip);
+                hash = 31 * hash + Long.hashCode(ride.startTime);
+                hash = 31 * hash + Long.hashCode(ride.endTime);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof RideSequenceKey)) { return false; }
+            RideSequenceKey other = (RideSequenceKey) o;
+            if (hashCode != other.hashCode
+                    || fareType != other.fareType
+                    || fareRules != other.fareRules
+                    || rides.size() != other.rides.size()) {
+                return false;
+            }
+            for (int i = 0; i < rides.size(); ++i) {
+                if (!sameFareInput(rides.get(i), other.rides.get(i))) { return false; }
+            }
+            return true;
+        }
+
+        private static boolean sameFareInput(Ride a, Ride b) {
+            return a.startTime == b.startTime
+                    && a.endTime == b.endTime
+                    && a.firstStop == b.firstStop
+                    && a.lastStop == b.lastStop
+                    && Objects.equals(a.trip, b.trip)
+                    && Objects.equals(a.route, b.route)
+                    && Objects.equals(a.startZone, b.startZone)
+                    && Objects.equals(a.endZone, b.endZone)
+                    && a.zones.equals(b.zones);
+        }
+    }
+}
@@ -41,8 +41,8 @@ public class DutchFareServiceImpl extends DefaultFareServiceImpl {
      */
     @Override
     protected boolean populateFare(Fare fare, Currency currency, FareType fareType, List<Ride> rides,
-                                   Collection<FareRuleSet> fareRules) {
-        float lowestCost = getLowestCost(fareType, rides, fareRules);
+                                   Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        float lowestCost = getLowestCost(fareType, rides, fareRules, cache);
         if(lowestCost != Float.POSITIVE_INFINITY) {
             fare.addFare(fareType, getMoney(euros, lowestCost));
             return true;
@@ -193,13 +193,17 @@ public class DutchFareServiceImpl extends DefaultFareServiceImpl {
     }
 
     @Override
-    public Fare getCost(Path<TripSchedule> path, TransitLayer transitLayer) {
+    protected Fare getCost(
+            Path<TripSchedule> path,
+            TransitLayer transitLayer,
+            RideSequenceFares cache
+    ) {
         Currency euros = Currency.getInstance("EUR");
         // Use the usual process from the default fare service, but force the currency to Euros.
         // The default process assumes there is only one currency per set of fare rules and looks at any old rule to
         // guess what the currency is. This doesn't work on the Dutch data which has distances mixed in with Euros to
         // account for distance-derived fares.
-        Fare fare = super.getCost(path, transitLayer);
+        Fare fare = super.getCost(path, transitLayer, cache);
         if (fare != null) {
             for (Money money : fare.fare.values()) {
                 money.setCurrency(euros);
@@ -209,7 +213,8 @@ public class DutchFareServiceImpl extends DefaultFareServiceImpl {
     }
 
     @Override
-    protected float getLowestCost(FareType fareType, List<Ride> rides, Collection<FareRuleSet> fareRules) {
+    protected float getLowestCost(FareType fareType, List<Ride> rides, Collection<FareRuleSet> fareRules,
+                                  RideSequenceFares cache) {
 
         float cost = 0f;
 
@@ -0,0 +1,126 @@
+package org.opentripplanner.routing.impl;
+
+import org.opentripplanner.common.model.P2;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fare rule sets of one fare type, indexed by origin/destination zones and route. Used to find
+ * the rule sets that may match a sequence of rides, without testing all of them.
+ * <p>
+ * A rule set is a candidate if its origin/destination restriction matches the ride sequence, or it
+ * has none, and if it has a route restriction that includes the route of the first ride, or none.
+ * The candidates must still be checked with {@link FareRuleSet#matches}, unless the rule set only
+ * has an origin/destination restriction. The candidates are returned as positions in the
+ * original collection, so the caller can resolve ties in the same order as before.
+ */
+class FareRuleSetIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Collection<FareRuleSet> source;
+    private final FareRuleSet[] ruleSets;
+
+    private final RouteIndex anyOriginDestination;
+    private final Map<P2<String>, RouteIndex> byOriginDestination = new HashMap<>();
+
+    FareRuleSetIndex(Collection<FareRuleSet> fareRules) {
+        this.source = fareRules;
+        this.ruleSets = fareRules.toArray(new FareRuleSet[0]);
+
+        RouteIndex.Builder any = new RouteIndex.Builder();
+        Map<P2<String>, RouteIndex.Builder> byOd = new HashMap<>();
+
+        for (int i = 0; i < ruleSets.length; ++i) {
+            FareRuleSet ruleSet = ruleSets[i];
+            if (ruleSet.getOriginDestinations().isEmpty()) {
+                any.add(i, ruleSet);
+            }
+            else {
+                for (P2<String> od : ruleSet.getOriginDestinations()) {
+                    byOd.computeIfAbsent(od, it -> new RouteIndex.Builder()).add(i, ruleSet);
+                }
+            }
+        }
+        this.anyOriginDestination = any.build();
+        byOd.forEach((od, builder) -> byOriginDestination.put(od, builder.build()));
+    }
+
+    /** Return true if this index is created for the given collection of rule sets. */
+    boolean isIndexOf(Collection<FareRuleSet> fareRules) {
+        return source == fareRules;
+    }
+
+    FareRuleSet ruleSet(int position) {
+        return ruleSets[position];
+    }
+
+    /**
+     * Return the positions of the candidate rule sets, in groups. A position may appear in more
+     * than one group.
+     * <p>
+     * The origin/destination pairs matched are the same as in {@link FareRuleSet#matches}.
+     */
+    int[][] candidates(String startZone, String endZone, FeedScopedId firstRoute) {
+        RouteIndex od = byOriginDestination.get(new P2<>(startZone, endZone));
+        RouteIndex originOnly = byOriginDestination.get(new P2<>(startZone, null));
+        RouteIndex reversed = byOriginDestination.get(new P2<>(null, startZone));
+
+        return new int[][] {
+                anyOriginDestination.anyRoute,
+                anyOriginDestination.forRoute(firstRoute),
+                od == null ? EMPTY : od.anyRoute,
+                od == null ? EMPTY : od.forRoute(firstRoute),
+                originOnly == null ? EMPTY : originOnly.anyRoute,
+                originOnly == null ? EMPTY : originOnly.forRoute(firstRoute),
+                reversed == null ? EMPTY : reversed.anyRoute,
+                reversed == null ? EMPTY : reversed.forRoute(firstRoute)
+        };
+    }
+
+    private static class RouteIndex {
+        private final int[] anyRoute;
+        private final Map<FeedScopedId, int[]> byRoute;
+
+        private RouteIndex(int[] anyRoute, Map<FeedScopedId, int[]> byRoute) {
+            this.anyRoute = anyRoute;
+            this.byRoute = byRoute;
+        }
+
+        int[] forRoute(FeedScopedId route) {
+            return byRoute.getOrDefault(route, EMPTY);
+        }
+
+        private static class Builder {
+            private final List<Integer> anyRoute = new ArrayList<>();
+            private final Map<FeedScopedId, List<Integer>> byRoute = new HashMap<>();
+
+            void add(int position, FareRuleSet ruleSet) {
+                if (ruleSet.getRoutes().isEmpty()) {
+                    anyRoute.add(position);
+                }
+                else {
+                    for (FeedScopedId route : ruleSet.getRoutes()) {
+                        byRoute.computeIfAbsent(route, it -> new ArrayList<>()).add(position);
+                    }
+                }
+            }
+
+            RouteIndex build() {
+                Map<FeedScopedId, int[]> routes = new HashMap<>();
+                byRoute.forEach((route, positions) -> routes.put(route, toArray(positions)));
+                return new RouteIndex(toArray(anyRoute), routes);
+            }
+
+            private static int[] toArray(List<Integer> positions) {
+                return positions.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+}
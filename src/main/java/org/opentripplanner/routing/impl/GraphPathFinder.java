@@ -1,11 +1,14 @@
 package org.opentripplanner.routing.impl;
 
 import org.opentripplanner.routing.algorithm.astar.AStar;
+import org.opentripplanner.routing.algorithm.astar.landmarks.StreetLandmarks;
 import org.opentripplanner.routing.algorithm.astar.strategies.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.LandmarkRemainingWeightHeuristic;
 import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
 import org.opentripplanner.routing.algorithm.astar.strategies.TrivialRemainingWeightHeuristic;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
+import org.opentripplanner.routing.core.TraverseMode;
 import org.opentripplanner.routing.error.PathNotFoundException;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.spt.DominanceFunction;
@@ -82,8 +85,11 @@ public class GraphPathFinder {
 
         // Choose an appropriate heuristic for goal direction.
         RemainingWeightHeuristic heuristic;
+        StreetLandmarks landmarks = router.graph.getService(StreetLandmarks.class);
         if (options.disableRemainingWeightHeuristic || options.oneToMany) {
             heuristic = new TrivialRemainingWeightHeuristic();
+        } else if (landmarks != null && useLandmarkHeuristic(options)) {
+            heuristic = new LandmarkRemainingWeightHeuristic(landmarks);
         } else {
             heuristic = new EuclideanRemainingWeightHeuristic();
         }
@@ -187,4 +193,15 @@ public class GraphPathFinder {
 
         return paths;
     }
+
+    /**
+     * Use the landmark heuristic if it is enabled for the fastest street mode of the request,
+     * the same mode used to find the street speed upper bound of the heuristic.
+     */
+    private boolean useLandmarkHeuristic(RoutingRequest options) {
+        TraverseMode mode = options.streetSubRequestModes.getCar()
+            ? TraverseMode.CAR
+            : options.streetSubRequestModes.getBicycle() ? TraverseMode.BICYCLE : TraverseMode.WALK;
+        return router.routerConfig.landmarkHeuristicModes().contains(mode);
+    }
 }
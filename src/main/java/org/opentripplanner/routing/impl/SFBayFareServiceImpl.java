@@ -37,8 +37,8 @@ public class SFBayFareServiceImpl extends DefaultFareServiceImpl {
     
     @Override
     protected boolean populateFare(Fare fare, Currency currency, FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
-        float lowestCost = getLowestCost(fareType, rides, fareRules);
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
+        float lowestCost = getLowestCost(fareType, rides, fareRules, cache);
         if(lowestCost != Float.POSITIVE_INFINITY) {
             fare.addFare(fareType, getMoney(currency, lowestCost));
             return true;
@@ -48,7 +48,7 @@ public class SFBayFareServiceImpl extends DefaultFareServiceImpl {
 
     @Override
     protected float getLowestCost(FareType fareType, List<Ride> rides,
-            Collection<FareRuleSet> fareRules) {
+            Collection<FareRuleSet> fareRules, RideSequenceFares cache) {
         List<Ride> bartBlock = null;
         Long sfmtaTransferIssued = null;
         Long alightedBart = null;
@@ -67,7 +67,7 @@ public class SFBayFareServiceImpl extends DefaultFareServiceImpl {
             } else { // non-BART agency
                 if (bartBlock != null) {
                     // finalize outstanding bart block, if any
-                    cost += calculateCost(fareType, bartBlock, fareRules);
+                    cost += calculateCost(fareType, bartBlock, fareRules, cache);
                     bartBlock = null;
                 }
                 if (agencyId.equals("SFMTA")) {
@@ -100,7 +100,7 @@ public class SFBayFareServiceImpl extends DefaultFareServiceImpl {
         }
         if (bartBlock != null) {
             // finalize outstanding bart block, if any
-            cost += calculateCost(fareType, bartBlock, fareRules);
+            cost += calculateCost(fareType, bartBlock, fareRules, cache);
         }        
         return cost;
     }
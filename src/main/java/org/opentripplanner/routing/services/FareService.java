@@ -6,6 +6,9 @@ import org.opentripplanner.routing.core.Fare;
 import org.opentripplanner.transit.raptor.api.path.Path;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Computes a fare for a given sequence of Rides. The FareService is serialized
@@ -17,4 +20,16 @@ public interface FareService extends Serializable {
 	 * @param transitLayer the TransitLayer that this Path references for stop numbers etc.
 	 */
 	Fare getCost(Path<TripSchedule> path, TransitLayer transitLayer);
+
+	/**
+	 * Compute the fares for all paths of a routing request, in the same order as the paths. Fare
+	 * services may override this to reuse results between paths with rides in common.
+	 */
+	default List<Fare> getCosts(Collection<Path<TripSchedule>> paths, TransitLayer transitLayer) {
+		List<Fare> fares = new ArrayList<>(paths.size());
+		for (Path<TripSchedule> path : paths) {
+			fares.add(getCost(path, transitLayer));
+		}
+		return fares;
+	}
 }
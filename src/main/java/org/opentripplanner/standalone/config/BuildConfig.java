@@ -101,6 +101,20 @@ public class BuildConfig {
      */
     public final boolean streets;
 
+    /**
+     * The number of landmarks to compute for the ALT street routing heuristic. The landmark
+     * distances are computed at the end of the graph build and stored in the graph. The default
+     * is 0, no landmarks.
+     */
+    public final int streetLandmarks;
+
+    /**
+     * Store the large primitive arrays of the graph, like the street landmark distances, in a
+     * separate data file next to the graph file, which is memory-mapped when the graph is
+     * loaded. The default is false, all data is stored in the graph file.
+     */
+    public final boolean memoryMappedGraphData;
+
     /**
      * Embed the Router config in the graph, which allows it to be sent to a server fully configured over the wire.
      */
@@ -330,6 +344,7 @@ public class BuildConfig {
         maxDataImportIssuesPerFile = c.asInt("maxDataImportIssuesPerFile", 1000);
         maxInterlineDistance = c.asInt("maxInterlineDistance", 200);
         maxTransferDistance = c.asDouble("maxTransferDistance", 2000d);
+        memoryMappedGraphData = c.asBoolean("memoryMappedGraphData", false);
         multiThreadElevationCalculations = c.asBoolean("multiThreadElevationCalculations", false);
         osmCacheDataInMem = c.asBoolean("osmCacheDataInMem", false);
         osmWayPropertySet = WayPropertySetSource.fromConfig(c.asText("osmWayPropertySet", "default"));
@@ -341,6 +356,7 @@ public class BuildConfig {
         staticParkAndRide = c.asBoolean("staticParkAndRide", true);
         stationTransfers = c.asBoolean("stationTransfers", false);
         streets = c.asBoolean("streets", true);
+        streetLandmarks = c.asInt("streetLandmarks", 0);
         subwayAccessTime = c.asDouble("subwayAccessTime", DEFAULT_SUBWAY_ACCESS_TIME_MINUTES);
         transit = c.asBoolean("transit", true);
         transitServiceStart = c.asDateOrRelativePeriod("transitServiceStart", "-P1Y");
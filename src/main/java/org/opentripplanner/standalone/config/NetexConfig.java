@@ -82,11 +82,26 @@ public class NetexConfig {
      */
     public final Pattern groupFilePattern;
 
+    /**
+     * The number of threads used to parse the NeTEx XML <em>group files</em>. The files are parsed
+     * in parallel, but the entities are indexed and mapped one file at the time in the same order
+     * as before, so the result does not depend on this parameter. Only a few files are parsed
+     * ahead of the mapping, to limit the memory used. Set it to 1 to parse all files in the main
+     * thread.
+     * <p>
+     * Default value is the number of available processors.
+     */
+    public final int parserThreadPoolSize;
+
     NetexConfig(NodeAdapter config) {
         ignoreFilePattern = config.asPattern("ignoreFilePattern", IGNORE_FILE_PATTERN);
         sharedFilePattern = config.asPattern("sharedFilePattern", SHARED_FILE_PATTERN);
         sharedGroupFilePattern = config.asPattern("sharedGroupFilePattern", SHARED_GROUP_FILE_PATTERN);
         groupFilePattern = config.asPattern("groupFilePattern", GROUP_FILE_PATTERN);
         netexFeedId = config.asText("netexFeedId", NETEX_FEED_ID);
+        parserThreadPoolSize = config.asInt(
+                "parserThreadPoolSize",
+                Runtime.getRuntime().availableProcessors()
+        );
     }
 }
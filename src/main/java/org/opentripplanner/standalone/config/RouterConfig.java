@@ -4,12 +4,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitTuningParameters;
 import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.TraverseMode;
 import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.updater.UpdatersParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.Set;
 
 import static org.opentripplanner.standalone.config.RoutingRequestMapper.mapRoutingRequest;
 
@@ -33,10 +36,13 @@ public class RouterConfig implements Serializable {
     private final String requestLogFile;
     private final boolean transmodelApiHideFeedId;
     private final double streetRoutingTimeoutSeconds;
+    private final int streetRoutingThreadPoolSize;
+    private final Set<TraverseMode> landmarkHeuristicModes;
     private final RoutingRequest routingRequestDefaults;
     private final TransitRoutingConfig transitConfig;
     private final UpdatersParameters updatersParameters;
     private final VectorTileConfig vectorTileLayers;
+    private final RoutingResponseCacheConfig routingResponseCache;
 
     public RouterConfig(JsonNode node, String source, boolean logUnusedParams) {
         NodeAdapter adapter = new NodeAdapter(node, source);
@@ -47,10 +53,17 @@ public class RouterConfig implements Serializable {
         this.streetRoutingTimeoutSeconds = adapter.asDouble(
                 "streetRoutingTimeout", DEFAULT_STREET_ROUTING_TIMEOUT
         );
+        this.streetRoutingThreadPoolSize = adapter.asInt("streetRoutingThreadPoolSize", 0);
+        this.landmarkHeuristicModes = adapter.exist("landmarkHeuristicModes")
+                ? adapter.asEnumSet("landmarkHeuristicModes", TraverseMode.class)
+                : EnumSet.of(TraverseMode.BICYCLE, TraverseMode.CAR);
         this.transitConfig = new TransitRoutingConfig(adapter.path("transit"));
         this.routingRequestDefaults = mapRoutingRequest(adapter.path("routingDefaults"));
         this.updatersParameters = new UpdatersConfig(adapter);
         this.vectorTileLayers = new VectorTileConfig(adapter.path("vectorTileLayers").asList());
+        this.routingResponseCache = new RoutingResponseCacheConfig(
+                adapter.path("routingResponseCache")
+        );
 
         if(logUnusedParams) {
             adapter.logAllUnusedParameters(LOG);
@@ -88,6 +101,25 @@ public class RouterConfig implements Serializable {
         return streetRoutingTimeoutSeconds;
     }
 
+    /**
+     * The number of threads used to run the direct, access and egress street searches of a
+     * routing request in parallel. The pool is shared by all requests, so a request may have to
+     * wait for a free thread when the server is busy. The default is {@code 0}, in which case the
+     * street searches run sequentially in the request thread.
+     */
+    public int streetRoutingThreadPoolSize() {
+        return streetRoutingThreadPoolSize;
+    }
+
+    /**
+     * The street modes to use the landmark (ALT) heuristic for in direct street searches, if the
+     * graph is built with street landmarks. The default is {@code BICYCLE} and {@code CAR}, the
+     * modes with long direct searches. For other modes the Euclidean heuristic is used.
+     */
+    public Set<TraverseMode> landmarkHeuristicModes() {
+        return landmarkHeuristicModes;
+    }
+
     public boolean transmodelApiHideFeedId() { return transmodelApiHideFeedId; }
 
     public RoutingRequest routingRequestDefaults() {
@@ -106,6 +138,8 @@ public class RouterConfig implements Serializable {
 
     public VectorTileConfig vectorTileLayers() { return vectorTileLayers; }
 
+    public RoutingResponseCacheConfig routingResponseCache() { return routingResponseCache; }
+
     /**
      * If {@code true} the config is loaded from file, in not the DEFAULT config is used.
      */
@@ -0,0 +1,41 @@
+package org.opentripplanner.standalone.config;
+
+import org.opentripplanner.routing.algorithm.RoutingResponseCache;
+
+/**
+ * @see RoutingResponseCache.Parameters for documentation of the parameters.
+ */
+public class RoutingResponseCacheConfig implements RoutingResponseCache.Parameters {
+
+    private final int maxSize;
+    private final int ttlSeconds;
+    private final int coordinatePrecision;
+    private final int timeBucketSeconds;
+
+    public RoutingResponseCacheConfig(NodeAdapter c) {
+        this.maxSize = c.asInt("maxSize", 0);
+        this.ttlSeconds = c.asInt("ttlSeconds", 60);
+        this.coordinatePrecision = c.asInt("coordinatePrecision", 4);
+        this.timeBucketSeconds = Math.max(1, c.asInt("timeBucketSeconds", 60));
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int ttlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Override
+    public int coordinatePrecision() {
+        return coordinatePrecision;
+    }
+
+    @Override
+    public int timeBucketSeconds() {
+        return timeBucketSeconds;
+    }
+}
@@ -13,7 +13,8 @@ public class SiriETGooglePubsubUpdaterConfig {
         c.asText("topicName"),
         c.asText("dataInitializationUrl", null),
         c.asInt("reconnectPeriodSec", 30),
-        c.asBoolean("purgeExpiredData", false)
+        c.asBoolean("purgeExpiredData", false),
+        c.asInt("batchWindowMs", 0)
     );
   }
 }
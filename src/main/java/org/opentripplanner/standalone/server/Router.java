@@ -5,8 +5,16 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.FileAppender;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.readiness_endpoint.ActuatorAPI;
 import org.opentripplanner.ext.transmodelapi.TransmodelAPI;
 import org.opentripplanner.inspector.TileRendererManager;
+import org.opentripplanner.routing.algorithm.RoutingResponseCache;
 import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptor.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptor.transit.mappers.TransitLayerMapper;
@@ -33,6 +41,20 @@ public class Router {
     public final RouterConfig routerConfig;
     public final RaptorConfig<TripSchedule> raptorConfig;
 
+    /**
+     * Thread pool used to run the street searches of a routing request in parallel, shared by
+     * all requests. This is {@code null} if the street searches should run in the request thread.
+     */
+    @Nullable
+    public final ExecutorService streetSearchExecutor;
+
+    /**
+     * Cache of routing responses, shared by all requests. This is {@code null} if the cache is
+     * disabled.
+     */
+    @Nullable
+    public final RoutingResponseCache routingResponseCache;
+
     /**
      *  Separate logger for incoming requests. This should be handled with a Logback logger
      *  rather than something simple like a PrintStream because requests come in multi-threaded.
@@ -58,6 +80,12 @@ public class Router {
         this.graph = graph;
         this.routerConfig = routerConfig;
         this.raptorConfig = new RaptorConfig<>(routerConfig.raptorTuningParameters());
+        this.streetSearchExecutor = createStreetSearchExecutor(
+            routerConfig.streetRoutingThreadPoolSize()
+        );
+        this.routingResponseCache = routerConfig.routingResponseCache().maxSize() > 0
+            ? new RoutingResponseCache(routerConfig.routingResponseCache())
+            : null;
     }
 
     /*
@@ -70,6 +98,10 @@ public class Router {
      * Start up a new router once it has been created.
      */
     public void startup() {
+        if (OTPFeature.ActuatorAPI.isOn()) {
+            ActuatorAPI.setUp();
+        }
+
         this.tileRendererManager = new TileRendererManager(this.graph);
         this.defaultRoutingRequest = routerConfig.routingRequestDefaults();
 
@@ -123,6 +155,26 @@ public class Router {
     /** Shut down this router when evicted or (auto-)reloaded. Stop any real-time updater threads. */
     public void shutdown() {
         GraphUpdaterConfigurator.shutdownGraph(this.graph);
+        if (streetSearchExecutor != null) {
+            streetSearchExecutor.shutdown();
+        }
+    }
+
+    @Nullable
+    private static ExecutorService createStreetSearchExecutor(int size) {
+        if (size <= 0) { return null; }
+        LOG.info("Street searches run in parallel using {} threads.", size);
+        return ExecutorServiceMetrics.monitor(
+            Metrics.globalRegistry,
+            Executors.newFixedThreadPool(
+                size,
+                new ThreadFactoryBuilder()
+                    .setNameFormat("street-search-%d")
+                    .setDaemon(true)
+                    .build()
+            ),
+            "streetSearch"
+        );
     }
 
     /**
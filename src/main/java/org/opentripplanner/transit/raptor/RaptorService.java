@@ -5,6 +5,7 @@ import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.response.RaptorResponse;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.StopArrivalTimes;
 import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
 import org.opentripplanner.transit.raptor.service.HeuristicSearchTask;
 import org.opentripplanner.transit.raptor.service.RangeRaptorDynamicSearch;
@@ -36,6 +37,25 @@ public class RaptorService<T extends RaptorTripSchedule> {
         return routeUsingStdWorker(transitData, request);
     }
 
+    /**
+     * Run a {@link org.opentripplanner.transit.raptor.api.request.RaptorProfile#BEST_TIME} Range
+     * Raptor search and notify the listener with the best arrival times at all stops after each
+     * iteration. No paths are created, so this can be used to compute the travel times to many
+     * destinations.
+     * <p>
+     * Note! The search stop exploring new rounds {@code numberOfAdditionalTransfers} rounds after
+     * the first egress stop is reached, set it to the {@code maxNumberOfTransfers} to reach all
+     * stops.
+     */
+    public void routeStopArrivalTimes(
+            RaptorRequest<T> request,
+            RaptorTransitDataProvider<T> transitData,
+            StopArrivalTimes.Listener listener
+    ) {
+        LOG.debug("Run stop arrival times query: {}", request);
+        config.createStopArrivalTimesSearch(transitData, request, listener).route();
+    }
+
     public void compareHeuristics(
             RaptorRequest<T> r1,
             RaptorRequest<T> r2,
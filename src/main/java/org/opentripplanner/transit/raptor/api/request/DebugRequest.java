@@ -119,6 +119,15 @@ public class DebugRequest {
         return logger;
     }
 
+    /**
+     * TRUE if any of the debug listeners are set.
+     */
+    public boolean isDebug() {
+        return stopArrivalListener != null
+                || patternRideDebugListener != null
+                || pathFilteringListener != null;
+    }
+
     @Override
     public String toString() {
         return "DebugRequest{" +
@@ -13,6 +13,10 @@ public enum Optimization {
      * Run part of the search in parallel. This uses more resources and may degrade the overall
      * performance, but each individual travel search should be faster.
      * <p>
+     * The heuristic searches run in parallel with the main search, and the search-window of the
+     * main search is split into slices searched in parallel, see
+     * {@link RaptorTuningParameters#minSearchWindowSliceInSeconds()}.
+     * <p>
      * This only apply to: multi-criteria search.
      */
     PARALLEL,
@@ -58,6 +58,21 @@ public interface RaptorTuningParameters {
         return 0;
     }
 
+    /**
+     * The minimum size of each slice when the search-window of a multi-criteria search is split
+     * into slices searched in parallel. The search-window is split into at most
+     * {@link #searchThreadPoolSize()} slices, and only if it is at least twice this size. This
+     * only apply to requests with the {@link Optimization#PARALLEL} optimization enabled.
+     * <p/>
+     * Each slice search have some overhead, and prune less than one search over the whole
+     * search-window, so the slices should not be too small.
+     * <p/>
+     * Default value is 1800 seconds(30 minutes).
+     */
+    default int minSearchWindowSliceInSeconds() {
+        return 30 * 60;
+    }
+
 
     /**
      * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
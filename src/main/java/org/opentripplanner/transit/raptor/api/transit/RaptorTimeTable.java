@@ -24,4 +24,26 @@ public interface RaptorTimeTable<T extends RaptorTripSchedule> {
      * Number of trips in time-table.
      */
     int numberOfTripSchedules();
+
+    /**
+     * The departure time for the trip with the given index at the given stop position. This is
+     * used by the trip search to find the trip to board, and the trip schedule is only fetched
+     * for the trip found.
+     * <p/>
+     * This method needs to be FAST - it is in the most critical line of execution in Raptor. The
+     * default implementation fetch the trip schedule, override this if the times can be accessed
+     * without creating the trip schedule.
+     */
+    default int departure(int tripIndex, int stopPositionInPattern) {
+        return getTripSchedule(tripIndex).departure(stopPositionInPattern);
+    }
+
+    /**
+     * The arrival time for the trip with the given index at the given stop position.
+     *
+     * @see #departure(int, int)
+     */
+    default int arrival(int tripIndex, int stopPositionInPattern) {
+        return getTripSchedule(tripIndex).arrival(stopPositionInPattern);
+    }
 }
@@ -0,0 +1,46 @@
+package org.opentripplanner.transit.raptor.api.view;
+
+
+/**
+ * The best arrival times at all stops found by a standard Range Raptor search. The times are the
+ * best times found in the current and all later iterations; Hence it is the best arrival time for
+ * a traveler leaving the origin at the iteration departure time, waiting if needed.
+ * <p>
+ * This is used to compute travel times from one origin to many destinations without creating
+ * paths, see {@link Listener}.
+ */
+public interface StopArrivalTimes {
+
+    /**
+     * Is the stop reached by transit or by a transfer?
+     */
+    boolean reached(int stop);
+
+    /**
+     * The best arrival time at the given stop, by transit or by a transfer. Only defined if
+     * {@link #reached(int)} returns {@code true}.
+     */
+    int bestArrivalTime(int stop);
+
+    /**
+     * Is the stop reached by transit? A path may only end with an egress after a transit leg, so
+     * use this together with {@link #bestTransitArrivalTime(int)} when adding egress.
+     */
+    boolean reachedByTransit(int stop);
+
+    /**
+     * The best arrival time at the given stop by transit. Only defined if
+     * {@link #reachedByTransit(int)} returns {@code true}.
+     */
+    int bestTransitArrivalTime(int stop);
+
+    /**
+     * The listener is notified each time a Range Raptor iteration completes. The
+     * {@link StopArrivalTimes} is only valid during the callback, the times are updated by the next
+     * iteration.
+     */
+    @FunctionalInterface
+    interface Listener {
+        void iterationComplete(int iterationDepartureTime, StopArrivalTimes arrivalTimes);
+    }
+}
@@ -103,6 +103,10 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
 
     private int iterationDepartureTime;
 
+    /** Number of iterations and rounds in the current search, reported to the timers */
+    private int numberOfIterations;
+    private int numberOfRounds;
+
     private int earliestBoardTime;
 
 
@@ -149,6 +153,8 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
     final public Collection<Path<T>> route() {
         timerRoute().time(() -> {
             transitData.setup();
+            numberOfIterations = 0;
+            numberOfRounds = 0;
 
             // The main outer loop iterates backward over all minutes in the departure times window.
             // Ergo, we re-use the arrival times found in searches that have already occurred that
@@ -161,7 +167,10 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
                 lifeCycle.setupIteration(iterationDepartureTime);
                 runRaptorForMinute();
                 inFirstIteration = false;
+                ++numberOfIterations;
             }
+            timers.numberOfIterations().record(numberOfIterations);
+            timers.numberOfRounds().record(numberOfRounds);
         });
         return state.extractPaths();
     }
@@ -174,6 +183,7 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
 
         while (hasMoreRounds()) {
             lifeCycle.prepareForNextRound(roundTracker.nextRound());
+            ++numberOfRounds;
 
             // NB since we have transfer limiting not bothering to cut off search when there are no
             // more transfers as that will be rare and complicates the code
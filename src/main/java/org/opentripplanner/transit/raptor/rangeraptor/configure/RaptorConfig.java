@@ -1,22 +1,29 @@
 package org.opentripplanner.transit.raptor.rangeraptor.configure;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.view.Heuristics;
+import org.opentripplanner.transit.raptor.api.view.StopArrivalTimes;
 import org.opentripplanner.transit.raptor.api.view.Worker;
 import org.opentripplanner.transit.raptor.rangeraptor.RangeRaptorWorker;
 import org.opentripplanner.transit.raptor.rangeraptor.RoutingStrategy;
 import org.opentripplanner.transit.raptor.rangeraptor.WorkerState;
 import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
+import org.opentripplanner.transit.raptor.rangeraptor.path.configure.PathConfig;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.heuristics.HeuristicSearch;
 import org.opentripplanner.transit.raptor.rangeraptor.transit.SearchContext;
 import org.opentripplanner.transit.raptor.service.RaptorSearchWindowCalculator;
+import org.opentripplanner.transit.raptor.service.SlicedSearchWindowWorker;
 import org.opentripplanner.transit.raptor.service.WorkerPerformanceTimersCache;
 
 
@@ -54,9 +61,25 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
         return new StdRangeRaptorConfig<>(context).createSearch((s, w) -> createWorker(context, s, w));
     }
 
+    /**
+     * Create a multi-criteria worker. If the search-window is large, and the request allow it, the
+     * search-window is split into slices searched in parallel, see
+     * {@link SlicedSearchWindowWorker}.
+     */
     public Worker<T> createMcWorker(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request, Heuristics heuristics) {
-        final SearchContext<T> context = context(transitData, request);
-        return new McRangeRaptorConfig<>(context).createWorker(heuristics, (s, w) -> createWorker(context, s, w));
+        if (isMultiThreaded()) {
+            List<RaptorRequest<T>> slices = SlicedSearchWindowWorker.slice(request, tuningParameters);
+            if (!slices.isEmpty()) {
+                return new SlicedSearchWindowWorker<>(
+                        threadPool,
+                        slices.stream()
+                                .map(it -> createSingleThreadedMcWorker(transitData, it, heuristics))
+                                .collect(Collectors.toList()),
+                        new PathConfig<>(context(transitData, request)).paretoComparator(true)
+                );
+            }
+        }
+        return createSingleThreadedMcWorker(transitData, request, heuristics);
     }
 
     public HeuristicSearch<T> createHeuristicSearch(
@@ -68,6 +91,16 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
                 .createHeuristicSearch((s, w) -> createWorker(context, s, w));
     }
 
+    public Worker<T> createStopArrivalTimesSearch(
+            RaptorTransitDataProvider<T> transitData,
+            RaptorRequest<T> request,
+            StopArrivalTimes.Listener listener
+    ) {
+        SearchContext<T> context = context(transitData, request);
+        return new StdRangeRaptorConfig<>(context)
+                .createStopArrivalTimesSearch(listener, (s, w) -> createWorker(context, s, w));
+    }
+
     public boolean isMultiThreaded() {
         return threadPool != null;
     }
@@ -88,6 +121,11 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
     /* private factory methods */
 
+    private Worker<T> createSingleThreadedMcWorker(RaptorTransitDataProvider<T> transitData, RaptorRequest<T> request, Heuristics heuristics) {
+        final SearchContext<T> context = context(transitData, request);
+        return new McRangeRaptorConfig<>(context).createWorker(heuristics, (s, w) -> createWorker(context, s, w));
+    }
+
     private Worker<T> createWorker(
             SearchContext<T> ctx,
             WorkerState<T> workerState,
@@ -107,9 +145,19 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
         );
     }
 
+    /**
+     * The thread pool is monitored, the pool size, active threads, queued tasks and task
+     * execution times are reported to the global meter registry as "executor.*" metrics with the
+     * tag {@code name=raptor}.
+     */
     @Nullable
     private ExecutorService createNewThreadPool(int size) {
-        return size > 0 ? Executors.newFixedThreadPool(size) : null;
+        if (size <= 0) { return null; }
+        return ExecutorServiceMetrics.monitor(
+                Metrics.globalRegistry,
+                Executors.newFixedThreadPool(size),
+                "raptor"
+        );
     }
 
 }
@@ -1,20 +1,47 @@
 package org.opentripplanner.transit.raptor.rangeraptor.debug;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import org.opentripplanner.transit.raptor.util.AvgTimer;
 
 public class WorkerPerformanceTimers {
-    /** The NOOP timers are used when the timer is turned off */
-    public static final WorkerPerformanceTimers NOOP = new WorkerPerformanceTimers("NOOP");
+    /**
+     * The NOOP timers are used when the timer is turned off. A composite registry without any
+     * child registries does not record anything.
+     */
+    public static final WorkerPerformanceTimers NOOP = new WorkerPerformanceTimers(
+            "NOOP", new CompositeMeterRegistry()
+    );
 
     // Variables to track time spent
     private final AvgTimer timerRoute;
     private final AvgTimer timerByMinuteScheduleSearch;
     private final AvgTimer timerByMinuteTransfers;
 
-    public WorkerPerformanceTimers(String namePrefix) {
+    // Distribution of the number of iterations and rounds per search
+    private final DistributionSummary numberOfIterations;
+    private final DistributionSummary numberOfRounds;
+
+    /**
+     * @param namePrefix the request alias, used as prefix for the timers and as the "alias" tag
+     *                   for the metrics reported to the meter registry.
+     */
+    public WorkerPerformanceTimers(String namePrefix, MeterRegistry registry) {
         timerRoute = AvgTimer.timerMilliSec(namePrefix + ":route");
         timerByMinuteScheduleSearch = AvgTimer.timerMicroSec(namePrefix + ":runRaptorForMinute Transit");
         timerByMinuteTransfers = AvgTimer.timerMicroSec(namePrefix + ":runRaptorForMinute Transfers");
+
+        numberOfIterations = DistributionSummary.builder("raptor.iterations")
+                .description("Number of range raptor iterations (departure minutes) per search")
+                .tag("alias", namePrefix)
+                .publishPercentileHistogram()
+                .register(registry);
+        numberOfRounds = DistributionSummary.builder("raptor.rounds")
+                .description("Total number of raptor rounds, for all iterations, per search")
+                .tag("alias", namePrefix)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
     public AvgTimer timerRoute() {
@@ -28,4 +55,12 @@ public class WorkerPerformanceTimers {
     public AvgTimer timerByMinuteTransfers() {
         return timerByMinuteTransfers;
     }
+
+    public DistributionSummary numberOfIterations() {
+        return numberOfIterations;
+    }
+
+    public DistributionSummary numberOfRounds() {
+        return numberOfRounds;
+    }
 }
@@ -50,7 +50,11 @@ public class PathConfig<T extends RaptorTripSchedule> {
         );
     }
 
-    private ParetoComparator<Path<T>> paretoComparator(boolean includeCost) {
+    /**
+     * The pareto comparator used to collect the paths at the destination. The given
+     * {@code includeCost} decide if the cost should be included in the pareto set criteria or not.
+     */
+    public ParetoComparator<Path<T>> paretoComparator(boolean includeCost) {
         double relaxedCost = ctx.searchParams().relaxCostAtDestination();
         boolean includeRelaxedCost = includeCost && relaxedCost > 0.0;
         boolean includeTimetable = ctx.searchParams().timetableEnabled();
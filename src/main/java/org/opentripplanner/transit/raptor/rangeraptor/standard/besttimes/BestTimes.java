@@ -130,6 +130,13 @@ public final class BestTimes {
         return time(stop) != calculator.unreachedTime();
     }
 
+    /**
+     * @return return true if stop is reached by transit.
+     */
+    public final boolean isStopReachedByTransit(int stop) {
+        return transitTime(stop) != calculator.unreachedTime();
+    }
+
     /**
      * Set the initial access time at the given stop, but only if the new access
      * is better than a stop arrival from previous rounds.
@@ -0,0 +1,55 @@
+package org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes;
+
+import org.opentripplanner.transit.raptor.api.view.StopArrivalTimes;
+import org.opentripplanner.transit.raptor.rangeraptor.WorkerLifeCycle;
+
+
+/**
+ * The responsibility of this class is to play the {@link StopArrivalTimes} role and to notify the
+ * listener with the best times at the end of each iteration.
+ */
+public final class StopArrivalTimesPublisher implements StopArrivalTimes {
+
+    private final BestTimes times;
+    private final StopArrivalTimes.Listener listener;
+    private int iterationDepartureTime;
+
+    public StopArrivalTimesPublisher(
+            BestTimes times,
+            StopArrivalTimes.Listener listener,
+            WorkerLifeCycle lifeCycle
+    ) {
+        this.times = times;
+        this.listener = listener;
+        lifeCycle.onSetupIteration(this::setupIteration);
+        lifeCycle.onIterationComplete(this::iterationComplete);
+    }
+
+    @Override
+    public boolean reached(int stop) {
+        return times.isStopReached(stop);
+    }
+
+    @Override
+    public int bestArrivalTime(int stop) {
+        return times.time(stop);
+    }
+
+    @Override
+    public boolean reachedByTransit(int stop) {
+        return times.isStopReachedByTransit(stop);
+    }
+
+    @Override
+    public int bestTransitArrivalTime(int stop) {
+        return times.transitTime(stop);
+    }
+
+    private void setupIteration(int iterationDepartureTime) {
+        this.iterationDepartureTime = iterationDepartureTime;
+    }
+
+    private void iterationComplete() {
+        listener.iterationComplete(iterationDepartureTime, this);
+    }
+}
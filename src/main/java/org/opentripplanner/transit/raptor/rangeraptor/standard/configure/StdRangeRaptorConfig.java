@@ -1,7 +1,9 @@
 package org.opentripplanner.transit.raptor.rangeraptor.standard.configure;
 
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
 import org.opentripplanner.transit.raptor.api.view.Heuristics;
+import org.opentripplanner.transit.raptor.api.view.StopArrivalTimes;
 import org.opentripplanner.transit.raptor.api.view.Worker;
 import org.opentripplanner.transit.raptor.rangeraptor.RoutingStrategy;
 import org.opentripplanner.transit.raptor.rangeraptor.WorkerState;
@@ -18,6 +20,7 @@ import org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes.BestTim
 import org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes.BestTimesOnlyStopArrivalsState;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes.SimpleArrivedAtDestinationCheck;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes.SimpleBestNumberOfTransfers;
+import org.opentripplanner.transit.raptor.rangeraptor.standard.besttimes.StopArrivalTimesPublisher;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.debug.DebugStopArrivalsState;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.heuristics.HeuristicSearch;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.heuristics.HeuristicsAdapter;
@@ -66,6 +69,24 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
         return new HeuristicSearch<>(createWorker.apply(state, createWorkerStrategy(state)), heuristics);
     }
 
+    /**
+     * Create a best time search, notifying the listener with the best arrival times at all stops
+     * after each iteration. Only the {@link RaptorProfile#BEST_TIME} profile is supported.
+     */
+    public Worker<T> createStopArrivalTimesSearch(
+            StopArrivalTimes.Listener listener,
+            BiFunction<WorkerState<T>, RoutingStrategy<T>, Worker<T>> createWorker
+    ) {
+        if (ctx.profile() != RaptorProfile.BEST_TIME) {
+            throw new IllegalArgumentException(
+                    "The stop arrival times search require the BEST_TIME profile, not: " + ctx.profile()
+            );
+        }
+        StdRangeRaptorWorkerState<T> state = createState();
+        new StopArrivalTimesPublisher(bestTimes(), listener, ctx.lifeCycle());
+        return createWorker.apply(state, createWorkerStrategy(state));
+    }
+
     public Worker<T> createSearch(
             BiFunction<WorkerState<T>, RoutingStrategy<T>, Worker<T>> createWorker
     ) {
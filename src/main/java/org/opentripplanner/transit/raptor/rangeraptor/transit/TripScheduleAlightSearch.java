@@ -26,6 +26,8 @@ public final class
 TripScheduleAlightSearch<T extends RaptorTripSchedule>
         implements TripScheduleSearch<T>, RaptorTripScheduleBoardOrAlightEvent<T>
 {
+    private static final int NOT_SET = -1;
+
     private final int nTripsBinarySearchThreshold;
     private final RaptorTimeTable<T> timeTable;
     private final int nTrips;
@@ -47,6 +49,10 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
     @Override
     public final T getTrip() {
+        // The trip is fetched lazily, the search itself only use the time-table times
+        if (candidateTrip == null && candidateTripIndex != NOT_SET) {
+            candidateTrip = timeTable.getTripSchedule(candidateTripIndex);
+        }
         return candidateTrip;
     }
 
@@ -57,7 +63,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
     @Override
     public final int getTime() {
-        return candidateTrip.arrival(stopPositionInPattern);
+        return timeTable.arrival(candidateTripIndex, stopPositionInPattern);
     }
 
     @Override
@@ -85,7 +91,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
         this.latestAlightTime = latestAlightTime;
         this.stopPositionInPattern = stopPositionInPattern;
         this.candidateTrip = null;
-        this.candidateTripIndex = -1;
+        this.candidateTripIndex = NOT_SET;
 
         // No previous trip is found
         if (tripIndexLowerBound == UNBOUNDED_TRIP_INDEX) {
@@ -110,7 +116,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
                 .addObj("latestAlightTime", latestAlightTime)
                 .addObj("stopPos", stopPositionInPattern)
                 .addObj("tripIndex", candidateTripIndex)
-                .addObj("trip", candidateTrip)
+                .addObj("trip", getTrip())
                 .toString();
     }
 
@@ -146,21 +152,18 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingSearchForwardInTime(int tripIndexLowerBound) {
         for (int i = tripIndexLowerBound; i < nTrips;  ++i) {
-            T trip = timeTable.getTripSchedule(i);
-
-            final int arrival = trip.arrival(stopPositionInPattern);
+            final int arrival = timeTable.arrival(i, stopPositionInPattern);
 
             if (arrival <= latestAlightTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
             } else {
                 // this trip arrives too early. We can break out of the loop since
                 // trips are sorted by departure time (trips in given schedule)
                 // Trips passing another trip is not accounted for if both are in service.
-                return candidateTrip == null ? null : this;
+                return candidateTripIndex == NOT_SET ? null : this;
             }
         }
-        return candidateTrip == null ? null : this;
+        return candidateTripIndex == NOT_SET ? null : this;
     }
 
     /**
@@ -174,12 +177,9 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
             final int tripIndexUpperBound
     ) {
         for (int i = tripIndexUpperBound-1; i >=0; --i) {
-            T trip = timeTable.getTripSchedule(i);
-
-            final int arrival = trip.arrival(stopPositionInPattern);
+            final int arrival = timeTable.arrival(i, stopPositionInPattern);
 
             if (arrival <= latestAlightTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
                 return this;
             }
@@ -204,9 +204,7 @@ TripScheduleAlightSearch<T extends RaptorTripSchedule>
         while (upper - lower > nTripsBinarySearchThreshold) {
             int m = (lower + upper) / 2;
 
-            RaptorTripSchedule trip = timeTable.getTripSchedule(m);
-
-            int arrival = trip.arrival(stopPositionInPattern);
+            int arrival = timeTable.arrival(m, stopPositionInPattern);
 
             if (arrival <= latestAlightTime) {
                 lower = m;
@@ -48,6 +48,10 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
     @Override
     public final T getTrip() {
+        // The trip is fetched lazily, the search itself only use the time-table times
+        if (candidateTrip == null && candidateTripIndex != NOT_SET) {
+            candidateTrip = timeTable.getTripSchedule(candidateTripIndex);
+        }
         return candidateTrip;
     }
 
@@ -58,7 +62,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
     @Override
     public final int getTime() {
-        return candidateTrip.departure(stopPositionInPattern);
+        return timeTable.departure(candidateTripIndex, stopPositionInPattern);
     }
 
     @Override
@@ -111,7 +115,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
                 .addObj("earliestBoardTime", earliestBoardTime)
                 .addObj("stopPos", stopPositionInPattern)
                 .addObj("tripIndex", candidateTripIndex)
-                .addObj("trip", candidateTrip)
+                .addObj("trip", getTrip())
                 .toString();
     }
 
@@ -150,20 +154,18 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingBySteppingBackwardsInTime(int tripIndexUpperBound) {
         for (int i = tripIndexUpperBound-1; i >= 0; --i) {
-            T trip = timeTable.getTripSchedule(i);
-            final int boardTime = trip.departure(stopPositionInPattern);
+            final int boardTime = timeTable.departure(i, stopPositionInPattern);
 
             if (boardTime >= earliestBoardTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
             } else {
                 // this trip arrives too early. We can break out of the loop since
                 // trips are sorted by departure time (trips in given schedule)
                 // Trips passing another trip is not accounted for if both are in service.
-                return candidateTrip == null ? null : this;
+                return candidateTripIndex == NOT_SET ? null : this;
             }
         }
-        return candidateTrip == null ? null : this;
+        return candidateTripIndex == NOT_SET ? null : this;
     }
 
     /**
@@ -175,11 +177,9 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     @Nullable
     private RaptorTripScheduleBoardOrAlightEvent<T> findBoardingBySteppingForwardInTime(final int tripIndexLowerBound) {
         for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-            T trip = timeTable.getTripSchedule(i);
-            final int boardTime = trip.departure(stopPositionInPattern);
+            final int boardTime = timeTable.departure(i, stopPositionInPattern);
 
             if (boardTime >= earliestBoardTime) {
-                candidateTrip = trip;
                 candidateTripIndex = i;
                 return this;
             }
@@ -202,9 +202,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
         while (upper - lower > nTripsBinarySearchThreshold) {
             int m = (lower + upper) / 2;
 
-            RaptorTripSchedule trip = timeTable.getTripSchedule(m);
-
-            int departure = trip.departure(stopPositionInPattern);
+            int departure = timeTable.departure(m, stopPositionInPattern);
 
             if (departure >= earliestBoardTime) {
                 upper = m;
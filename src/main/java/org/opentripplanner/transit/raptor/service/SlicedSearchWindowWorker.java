@@ -0,0 +1,159 @@
+package org.opentripplanner.transit.raptor.service;
+
+import static org.opentripplanner.transit.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.request.SearchParams;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.Worker;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
+import org.opentripplanner.util.OtpAppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run a multi-criteria Range Raptor search with a large search-window as a set of searches, each
+ * covering a slice of the search-window, in parallel. The result paths of the slices are merged
+ * into one pareto set.
+ * <p>
+ * Range Raptor iterates over the departure times in the search-window from the latest to the
+ * earliest, and re-uses the stop arrivals from the later iterations to prune the earlier ones.
+ * A slice search does not have the stop arrivals of the later slices, so it prunes less and may
+ * find paths that the full search would not find. These paths are always dominated by paths
+ * found in the later slices. The slices are merged from the latest to the earliest, the same order
+ * as the full search finds the paths, so the merged result is exactly the same as the result of
+ * the full search.
+ * <p>
+ * This does not hold if the cost at the destination is relaxed, then a dominated path may survive,
+ * so those searches are not sliced. Only forward searches are sliced, the reverse search is used
+ * for heuristics, which are single iteration searches.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public class SlicedSearchWindowWorker<T extends RaptorTripSchedule> implements Worker<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlicedSearchWindowWorker.class);
+
+    private final ExecutorService threadPool;
+
+    /** One worker for each slice, ordered from the latest to the earliest slice. */
+    private final List<Worker<T>> workers;
+
+    private final ParetoComparator<Path<T>> paretoComparator;
+
+    public SlicedSearchWindowWorker(
+            ExecutorService threadPool,
+            List<Worker<T>> workers,
+            ParetoComparator<Path<T>> paretoComparator
+    ) {
+        this.threadPool = threadPool;
+        this.workers = workers;
+        this.paretoComparator = paretoComparator;
+    }
+
+    /**
+     * Split the search-window of the given request into slices, each slice containing at least
+     * {@link RaptorTuningParameters#minSearchWindowSliceInSeconds()} of iterations. The Range
+     * Raptor iteration departure times of the slices are exactly the same as the departure times
+     * of the original request.
+     *
+     * @return a request for each slice, ordered from the latest to the earliest slice. The list is
+     * empty if the request can not be sliced, or is too small to be sliced.
+     */
+    public static <T extends RaptorTripSchedule> List<RaptorRequest<T>> slice(
+            RaptorRequest<T> request,
+            RaptorTuningParameters tuningParameters
+    ) {
+        SearchParams s = request.searchParams();
+        if (!request.profile().is(MULTI_CRITERIA)
+                || !request.searchDirection().isForward()
+                || !request.runInParallel()
+                || request.debug().isDebug()
+                || s.relaxCostAtDestination() > 0.0
+                || s.searchOneIterationOnly()
+                || !s.isEarliestDepartureTimeSet()
+                || !s.isSearchWindowSet()
+        ) {
+            return Collections.emptyList();
+        }
+
+        int step = tuningParameters.iterationDepartureStepInSeconds();
+        int minIterationsPerSlice = Math.max(
+                1, tuningParameters.minSearchWindowSliceInSeconds() / step
+        );
+        // The iterations run from (edt + searchWindow - step) down to edt, see
+        // ForwardTransitCalculator#rangeRaptorMinutes()
+        int nIterations = s.searchWindowInSeconds() / step;
+        int nSlices = Math.min(
+                tuningParameters.searchThreadPoolSize(),
+                nIterations / minIterationsPerSlice
+        );
+        if (nSlices < 2) {
+            return Collections.emptyList();
+        }
+
+        int latestIteration = s.earliestDepartureTime() + s.searchWindowInSeconds() - step;
+        List<RaptorRequest<T>> slices = new ArrayList<>(nSlices);
+        int first = 0;
+        for (int i = 0; i < nSlices; ++i) {
+            // Distribute the remainder on the first slices
+            int size = nIterations / nSlices + (i < nIterations % nSlices ? 1 : 0);
+            int earliestIteration = latestIteration - (first + size - 1) * step;
+            slices.add(
+                    request.mutate().searchParams()
+                            .earliestDepartureTime(earliestIteration)
+                            .searchWindowInSeconds(size * step)
+                            .build()
+            );
+            first += size;
+        }
+        return slices;
+    }
+
+    @Override
+    public Collection<Path<T>> route() {
+        List<Future<Collection<Path<T>>>> futures = new ArrayList<>(workers.size());
+        try {
+            for (Worker<T> worker : workers.subList(1, workers.size())) {
+                futures.add(threadPool.submit(worker::route));
+            }
+            // The latest slice is searched in this thread
+            ParetoSet<Path<T>> paths = new ParetoSet<>(paretoComparator);
+            paths.addAll(workers.get(0).route());
+
+            for (Future<Collection<Path<T>>> it : futures) {
+                paths.addAll(it.get());
+            }
+            LOG.debug("Route using RangeRaptor - {} search-window slices searched in parallel.",
+                    workers.size()
+            );
+            return paths;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OtpAppException("Interrupted while searching the search-window slices.");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OtpAppException(
+                    "Failed to search the search-window slices in parallel. Details: "
+                            + e.getMessage()
+            );
+        }
+        finally {
+            futures.forEach(it -> it.cancel(true));
+        }
+    }
+}
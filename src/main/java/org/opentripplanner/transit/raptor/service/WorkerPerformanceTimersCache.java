@@ -1,8 +1,8 @@
 package org.opentripplanner.transit.raptor.service;
 
+import io.micrometer.core.instrument.Metrics;
 import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.rangeraptor.debug.WorkerPerformanceTimers;
-import org.opentripplanner.transit.raptor.util.AvgTimer;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,6 +13,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * {@link RequestAlias#alias(RaptorRequest, boolean)} is used to categorize requests
  * and each category get its own timer.
  * <p>
+ * The {@link org.opentripplanner.transit.raptor.util.AvgTimer}s are NO-OP timers unless they are
+ * enabled, but the metrics are always reported to the global meter registry.
+ * <p>
  * The timer creation is lazy initialized, hence need to be thread-safe.
  */
 public class WorkerPerformanceTimersCache {
@@ -29,13 +32,9 @@ public class WorkerPerformanceTimersCache {
     }
 
     public WorkerPerformanceTimers get(RaptorRequest<?> request) {
-        if(AvgTimer.timersEnabled()) {
-            return timers.computeIfAbsent(RequestAlias.alias(request, multiThreaded),
-                WorkerPerformanceTimers::new
-            );
-        }
-        else {
-            return WorkerPerformanceTimers.NOOP;
-        }
+        return timers.computeIfAbsent(
+            RequestAlias.alias(request, multiThreaded),
+            alias -> new WorkerPerformanceTimers(alias, Metrics.globalRegistry)
+        );
     }
 }
@@ -2,6 +2,8 @@ package org.opentripplanner.updater;
 
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.opentripplanner.routing.graph.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -142,13 +145,18 @@ public class GraphUpdaterManager {
      * scheduled after each other, guaranteeing that only one of these runnables will be active at
      * any time. If a particular GraphUpdater calls this method on more than one GraphWriterRunnable, they should be
      * executed in the same order that GraphUpdater made the calls.
+     * <p>
+     * The time it takes to apply the runnable to the graph is reported to the global meter
+     * registry, tagged with the config reference of the updater.
      * 
+     * @param updater is the updater submitting the runnable
      * @param runnable is a graph writer runnable
      */
-    public void execute(GraphWriterRunnable runnable) {
+    public void execute(GraphUpdater updater, GraphWriterRunnable runnable) {
+        Timer applyTimer = applyTimer(updater);
         scheduler.submit(() -> {
             try {
-                runnable.run(graph);
+                applyTimer.record(() -> runnable.run(graph));
             } catch (Exception e) {
                 LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
             }
@@ -211,4 +219,16 @@ public class GraphUpdaterManager {
         }
         return waitingUpdaters;
     }
+
+    private static Timer applyTimer(GraphUpdater updater) {
+        String name = Objects.requireNonNullElse(
+                updater.getConfigRef(),
+                updater.getClass().getSimpleName()
+        );
+        return Timer.builder("graphUpdater.apply")
+                .description("Time to apply an update to the graph")
+                .tag("updater", name)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
 }
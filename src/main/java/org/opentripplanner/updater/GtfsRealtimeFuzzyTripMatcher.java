@@ -7,11 +7,19 @@ import org.opentripplanner.model.Trip;
 import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.model.calendar.ServiceDate;
 import org.opentripplanner.routing.RoutingService;
+import org.opentripplanner.routing.trippattern.FrequencyEntry;
 import org.opentripplanner.routing.trippattern.TripTimes;
 import org.opentripplanner.util.time.TimeUtils;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is used for matching TripDescriptors without trip_ids to scheduled GTFS data and to
@@ -19,12 +27,18 @@ import java.util.BitSet;
  *
  * The class should only be used if we know that the feed producer is unable to produce trip_ids
  * in the GTFS-RT feed.
+ * <p>
+ * The trips are looked up in an index by route, direction and start time, created the first time
+ * a route is matched for a given service date. The indexes are immutable, so the matcher can be
+ * used by many threads without locking. Only the indexes for the last few service dates are kept.
  */
 public class GtfsRealtimeFuzzyTripMatcher {
 
-    private RoutingService routingService;
-    private BitSet servicesRunningForDate;
-    private ServiceDate date;
+    /** Keep the service dates of today, yesterday (trips passing midnight) and a few more. */
+    private static final int MAX_NUMBER_OF_SERVICE_DATES = 4;
+
+    private final RoutingService routingService;
+    private final Map<ServiceDate, TripsForDate> tripsByServiceDate = new ConcurrentHashMap<>();
 
     public GtfsRealtimeFuzzyTripMatcher(RoutingService routingService) {
         this.routingService = routingService;
@@ -73,21 +87,111 @@ public class GtfsRealtimeFuzzyTripMatcher {
         return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
     }
 
-    public synchronized Trip getTrip (Route route, int direction, int startTime, ServiceDate date) {
-        if (!date.equals(this.date)) {
-            this.date = date;
-            // TODO: This is slow, we should either precalculate or cache these for all dates in graph
-            this.servicesRunningForDate = routingService.getServicesRunningForDate(date);
+    public Trip getTrip(Route route, int direction, int startTime, ServiceDate date) {
+        return tripsForDate(date).getTrip(route, direction, startTime);
+    }
+
+    /** The service dates indexed at the moment, used by tests. */
+    Set<ServiceDate> getIndexedServiceDates() {
+        return Set.copyOf(tripsByServiceDate.keySet());
+    }
+
+    private TripsForDate tripsForDate(ServiceDate date) {
+        TripsForDate trips = tripsByServiceDate.get(date);
+        if (trips != null) {
+            return trips;
+        }
+        trips = tripsByServiceDate.computeIfAbsent(
+                date,
+                it -> new TripsForDate(routingService.getServicesRunningForDate(it))
+        );
+        if (tripsByServiceDate.size() > MAX_NUMBER_OF_SERVICE_DATES) {
+            tripsByServiceDate.keySet().stream()
+                    .filter(it -> !it.equals(date))
+                    .min(Comparator.naturalOrder())
+                    .ifPresent(tripsByServiceDate::remove);
         }
-        for (TripPattern pattern : routingService.getPatternsForRoute().get(route)) {
-            if (pattern.getDirection().gtfsCode != direction) continue;
-            for (TripTimes times : pattern.scheduledTimetable.tripTimes) {
-                if (times.getScheduledDepartureTime(0) == startTime &&
-                        servicesRunningForDate.get(times.serviceCode)) {
-                    return times.trip;
+        return trips;
+    }
+
+    /**
+     * The trips running on a service date, indexed lazily route by route.
+     */
+    private class TripsForDate {
+        private final BitSet servicesRunning;
+        private final Map<Route, TripsForRoute> tripsByRoute = new ConcurrentHashMap<>();
+
+        private TripsForDate(BitSet servicesRunning) {
+            this.servicesRunning = servicesRunning;
+        }
+
+        Trip getTrip(Route route, int direction, int startTime) {
+            return tripsByRoute
+                    .computeIfAbsent(route, this::indexRoute)
+                    .getTrip(direction, startTime);
+        }
+
+        private TripsForRoute indexRoute(Route route) {
+            Map<Long, Trip> scheduledTrips = new HashMap<>();
+            List<FrequencyEntry> frequencyEntries = new ArrayList<>();
+
+            for (TripPattern pattern : routingService.getPatternsForRoute().get(route)) {
+                int direction = pattern.getDirection().gtfsCode;
+                for (TripTimes times : pattern.scheduledTimetable.tripTimes) {
+                    if (servicesRunning.get(times.serviceCode)) {
+                        // Keep the first trip, if more than one depart at the same time
+                        scheduledTrips.putIfAbsent(
+                                key(direction, times.getScheduledDepartureTime(0)),
+                                times.trip
+                        );
+                    }
+                }
+                for (FrequencyEntry freq : pattern.scheduledTimetable.frequencyEntries) {
+                    if (servicesRunning.get(freq.tripTimes.serviceCode)) {
+                        frequencyEntries.add(freq);
+                    }
                 }
             }
+            return new TripsForRoute(scheduledTrips, frequencyEntries);
         }
-        return null;
+    }
+
+    private static class TripsForRoute {
+        private final Map<Long, Trip> scheduledTrips;
+        private final List<FrequencyEntry> frequencyEntries;
+
+        private TripsForRoute(Map<Long, Trip> scheduledTrips, List<FrequencyEntry> frequencyEntries) {
+            this.scheduledTrips = scheduledTrips;
+            this.frequencyEntries = frequencyEntries;
+        }
+
+        Trip getTrip(int direction, int startTime) {
+            Trip trip = scheduledTrips.get(key(direction, startTime));
+            if (trip != null) {
+                return trip;
+            }
+            for (FrequencyEntry freq : frequencyEntries) {
+                if (freq.tripTimes.trip.getDirection().gtfsCode == direction
+                        && isDepartureOf(freq, startTime)) {
+                    return freq.tripTimes.trip;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * A frequency based trip departs at any time within the interval, or every headway if the
+         * times are exact.
+         */
+        private static boolean isDepartureOf(FrequencyEntry freq, int startTime) {
+            if (startTime < freq.startTime || startTime >= freq.endTime) {
+                return false;
+            }
+            return !freq.exactTimes || (startTime - freq.startTime) % freq.headway == 0;
+        }
+    }
+
+    private static long key(int direction, int startTime) {
+        return ((long) direction << 32) | (startTime & 0xFFFFFFFFL);
     }
 }
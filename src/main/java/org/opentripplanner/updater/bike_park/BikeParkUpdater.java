@@ -83,7 +83,7 @@ public class BikeParkUpdater extends PollingGraphUpdater {
 
         // Create graph writer runnable to apply these stations to the graph
         BikeParkGraphWriterRunnable graphWriterRunnable = new BikeParkGraphWriterRunnable(bikeParks);
-        updaterManager.execute(graphWriterRunnable);
+        updaterManager.execute(this, graphWriterRunnable);
     }
 
     @Override
@@ -24,11 +24,16 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
 /**
  * Dynamic bike-rental station updater which updates the Graph with bike rental stations from one BikeRentalDataSource.
+ * <p>
+ * Each poll is compared by station id with the stations applied by the previous graph writer task,
+ * and only the added, changed and removed stations are applied to the graph. New, moved and renamed
+ * stations are linked to the street network, for other changed stations only the availability is
+ * updated. The time it takes to apply each poll is reported by the {@link GraphUpdaterManager}.
  */
 public class BikeRentalUpdater extends PollingGraphUpdater {
 
@@ -40,6 +45,12 @@ public class BikeRentalUpdater extends PollingGraphUpdater {
 
     Map<BikeRentalStation, DisposableEdgeCollection> tempEdgesByStation = new HashMap<>();
 
+    /**
+     * The stations applied to the graph by the previous graph writer task, by station id. Only
+     * accessed from the graph writer thread.
+     */
+    private Map<String, BikeRentalStation> appliedStationsById = new HashMap<>();
+
     private final BikeRentalDataSource source;
 
     private VertexLinker linker;
@@ -49,12 +60,14 @@ public class BikeRentalUpdater extends PollingGraphUpdater {
     private final String network;
 
     public BikeRentalUpdater(BikeRentalUpdaterParameters parameters) throws IllegalArgumentException {
+        this(parameters, BikeRentalDataSourceFactory.create(parameters.sourceParameters()));
+    }
+
+    BikeRentalUpdater(BikeRentalUpdaterParameters parameters, BikeRentalDataSource source) {
         super(parameters);
         // Configure updater
         LOG.info("Setting up bike rental updater.");
 
-        BikeRentalDataSource source = BikeRentalDataSourceFactory.create(parameters.sourceParameters());
-
         this.source = source;
         this.network = parameters.getNetworks();
         if (pollingPeriodSeconds <= 0) {
@@ -86,9 +99,30 @@ public class BikeRentalUpdater extends PollingGraphUpdater {
         }
         List<BikeRentalStation> stations = source.getStations();
 
-        // Create graph writer runnable to apply these stations to the graph
+        // Create graph writer runnable to apply the changed stations to the graph
         BikeRentalGraphWriterRunnable graphWriterRunnable = new BikeRentalGraphWriterRunnable(stations);
-        updaterManager.execute(graphWriterRunnable);
+        updaterManager.execute(this, graphWriterRunnable);
+    }
+
+    /**
+     * Stations with a different position, name, network or vehicle type need a new vertex, linked
+     * to the street network again. The name is kept by the vertex, and is rarely changed.
+     */
+    private static boolean isSameVertex(BikeRentalStation a, BikeRentalStation b) {
+        return a.x == b.x
+            && a.y == b.y
+            && a.isCarStation == b.isCarStation
+            && Objects.equals(a.networks, b.networks)
+            && Objects.equals(a.name, b.name);
+    }
+
+    private static boolean isSameState(BikeRentalStation a, BikeRentalStation b) {
+        return a.bikesAvailable == b.bikesAvailable
+            && a.spacesAvailable == b.spacesAvailable
+            && a.allowDropoff == b.allowDropoff
+            && a.isFloatingBike == b.isFloatingBike
+            && a.isKeepingBicycleRentalAtDestinationAllowed == b.isKeepingBicycleRentalAtDestinationAllowed
+            && a.realTimeData == b.realTimeData;
     }
 
     @Override
@@ -103,58 +137,99 @@ public class BikeRentalUpdater extends PollingGraphUpdater {
             this.stations = stations;
         }
 
-		@Override
+        @Override
         public void run(Graph graph) {
-            // Apply stations to graph
-            Set<BikeRentalStation> stationSet = new HashSet<>();
+            // Compare with the stations applied by the previous task, only the changes are applied
             Set<String> defaultNetworks = new HashSet<>(Collections.singletonList(network));
+            Map<String, BikeRentalStation> stationsById = new HashMap<>();
+            List<BikeRentalStation> added = new ArrayList<>();
+            List<BikeRentalStation> updated = new ArrayList<>();
+            List<BikeRentalStation> removed = new ArrayList<>();
 
-            /* add any new stations and update bike counts for existing stations */
             for (BikeRentalStation station : stations) {
                 if (station.networks == null) {
                     /* API did not provide a network list, use default */
                     station.networks = defaultNetworks;
                 }
+                if (stationsById.containsKey(station.id)) {
+                    LOG.debug("Duplicate bike rental station id {}", station.id);
+                    continue;
+                }
+                BikeRentalStation previous = appliedStationsById.get(station.id);
+                if (previous == null) {
+                    added.add(station);
+                }
+                else if (!isSameVertex(previous, station)) {
+                    // Moved, renamed or changed network, the station needs to be linked again
+                    removed.add(previous);
+                    added.add(station);
+                }
+                else if (!isSameState(previous, station)) {
+                    updated.add(station);
+                }
+                else {
+                    // Keep the instance already in the graph
+                    station = previous;
+                }
+                stationsById.put(station.id, station);
+            }
+            for (BikeRentalStation previous : appliedStationsById.values()) {
+                if (!stationsById.containsKey(previous.id)) {
+                    removed.add(previous);
+                }
+            }
+
+            /* remove stations no longer present and stations that need a new vertex */
+            for (BikeRentalStation station : removed) {
+                removeStation(station);
+            }
+            /* add and link new stations */
+            for (BikeRentalStation station : added) {
+                // Remove the station if it was added by an earlier task that failed
+                removeStation(station);
+                service.addBikeRentalStation(station);
+                BikeRentalStationVertex bikeRentalVertex = new BikeRentalStationVertex(graph, station);
+                DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
+                    bikeRentalVertex,
+                    new TraverseModeSet(TraverseMode.WALK),
+                    LinkingDirection.BOTH_WAYS,
+                    (vertex, streetVertex) -> List.of(
+                        new StreetBikeRentalLink((BikeRentalStationVertex) vertex, streetVertex),
+                        new StreetBikeRentalLink(streetVertex, (BikeRentalStationVertex) vertex)
+                    )
+                );
+                if (bikeRentalVertex.getOutgoing().isEmpty()) {
+                    // the toString includes the text "Bike rental station"
+                    LOG.info("BikeRentalStation {} is unlinked", bikeRentalVertex);
+                }
+                tempEdges.addEdge(new BikeRentalEdge(bikeRentalVertex, station.networks));
+                verticesByStation.put(station, bikeRentalVertex);
+                tempEdgesByStation.put(station, tempEdges);
+            }
+            /* update the availability of existing stations, the linking is left untouched */
+            for (BikeRentalStation station : updated) {
                 service.addBikeRentalStation(station);
-                stationSet.add(station);
                 BikeRentalStationVertex bikeRentalVertex = verticesByStation.get(station);
-                if (bikeRentalVertex == null) {
-                    bikeRentalVertex = new BikeRentalStationVertex(graph, station);
-                    DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
-                        bikeRentalVertex,
-                        new TraverseModeSet(TraverseMode.WALK),
-                        LinkingDirection.BOTH_WAYS,
-                        (vertex, streetVertex) -> List.of(
-                            new StreetBikeRentalLink((BikeRentalStationVertex) vertex, streetVertex),
-                            new StreetBikeRentalLink(streetVertex, (BikeRentalStationVertex) vertex)
-                        )
-                    );
-                    if (bikeRentalVertex.getOutgoing().isEmpty()) {
-                        // the toString includes the text "Bike rental station"
-                        LOG.info("BikeRentalStation {} is unlinked", bikeRentalVertex);
-                    }
-                    tempEdges.addEdge(new BikeRentalEdge(bikeRentalVertex, station.networks));
-                    verticesByStation.put(station, bikeRentalVertex);
-                    tempEdgesByStation.put(station, tempEdges);
-                } else {
+                if (bikeRentalVertex != null) {
                     bikeRentalVertex.setBikesAvailable(station.bikesAvailable);
                     bikeRentalVertex.setSpacesAvailable(station.spacesAvailable);
                 }
             }
-            /* remove existing stations that were not present in the update */
-            List<BikeRentalStation> toRemove = new ArrayList<>();
-            for (Entry<BikeRentalStation, BikeRentalStationVertex> entry : verticesByStation.entrySet()) {
-                BikeRentalStation station = entry.getKey();
-                if (stationSet.contains(station))
-                    continue;
-                toRemove.add(station);
-                service.removeBikeRentalStation(station);
-            }
-            for (BikeRentalStation station : toRemove) {
-                // post-iteration removal to avoid concurrent modification
-                verticesByStation.remove(station);
-                tempEdgesByStation.get(station).disposeEdges();
-                tempEdgesByStation.remove(station);
+            // Only set when all changes are applied, if this task fails the next one applies them
+            appliedStationsById = stationsById;
+
+            LOG.debug(
+                "Applied bike rental stations from {}: {} added, {} updated, {} removed",
+                source, added.size(), updated.size(), removed.size()
+            );
+        }
+
+        private void removeStation(BikeRentalStation station) {
+            service.removeBikeRentalStation(station);
+            verticesByStation.remove(station);
+            DisposableEdgeCollection tempEdges = tempEdgesByStation.remove(station);
+            if (tempEdges != null) {
+                tempEdges.disposeEdges();
             }
         }
     }
@@ -90,16 +90,21 @@ class GbfsBikeRentalDataSource implements BikeRentalDataSource {
             statusLookup.put(station.id, station);
         }
 
-        // Iterate over all known stations, and if we have any status information add it to those station objects.
-        for (BikeRentalStation station : stationInformationSource.getStations()) {
-            if (!statusLookup.containsKey(station.id)) continue;
+        // Iterate over all known stations, and if we have any status information add it to copies
+        // of those station objects. The station information is kept between polls if it has not
+        // changed, and the stations already passed on to the updater must not be modified.
+        List<BikeRentalStation> stations = new LinkedList<>();
+        for (BikeRentalStation information : stationInformationSource.getStations()) {
+            BikeRentalStation station = information.clone();
             BikeRentalStation status = statusLookup.get(station.id);
-            station.bikesAvailable = status.bikesAvailable;
-            station.spacesAvailable = status.spacesAvailable;
+            if (status != null) {
+                station.bikesAvailable = status.bikesAvailable;
+                station.spacesAvailable = status.spacesAvailable;
+            }
+            stations.add(station);
         }
 
-        // Copy the full list of station objects (with status updates) into a List, appending the floating bike stations.
-        List<BikeRentalStation> stations = new LinkedList<>(stationInformationSource.getStations());
+        // Append the floating bike stations.
         if (OTPFeature.FloatingBike.isOn()) {
             stations.addAll(floatingBikeSource.getStations());
         }
@@ -169,7 +174,40 @@ class GbfsBikeRentalDataSource implements BikeRentalDataSource {
         }
     }
 
-    class GbfsStationDataSource extends GenericJsonBikeRentalDataSource<GbfsBikeRentalDataSourceParameters> {
+    /**
+     * A GBFS feed file. All GBFS files contain the time the data was last updated and the number
+     * of seconds before it is updated again (ttl). The file is not fetched again before the ttl
+     * has expired, and it is not parsed again if it has not been updated.
+     */
+    abstract static class GbfsFeedDataSource extends GenericJsonBikeRentalDataSource<GbfsBikeRentalDataSourceParameters> {
+
+        /** The last_updated time of the feed, in seconds since the epoch, or -1 if not known. */
+        private long lastUpdated = -1;
+
+        /** The time the feed data expires, in milliseconds since the epoch. */
+        private long validUntil = 0;
+
+        GbfsFeedDataSource(GbfsBikeRentalDataSourceParameters config, String jsonPath) {
+            super(config, jsonPath);
+        }
+
+        @Override
+        protected boolean isFresh() {
+            return System.currentTimeMillis() < validUntil;
+        }
+
+        @Override
+        protected boolean isNewVersion(JsonNode rootNode) {
+            long ttl = rootNode.path("ttl").asLong(0);
+            validUntil = ttl > 0 ? System.currentTimeMillis() + ttl * 1000 : 0;
+
+            long previous = lastUpdated;
+            lastUpdated = rootNode.path("last_updated").asLong(-1);
+            return lastUpdated == -1 || lastUpdated != previous;
+        }
+    }
+
+    class GbfsStationDataSource extends GbfsFeedDataSource {
 
         public GbfsStationDataSource (GbfsBikeRentalDataSourceParameters config) {
             super(config, "data/stations");
@@ -188,7 +226,7 @@ class GbfsBikeRentalDataSource implements BikeRentalDataSource {
         }
     }
 
-    class GbfsStationStatusDataSource extends GenericJsonBikeRentalDataSource<GbfsBikeRentalDataSourceParameters> {
+    class GbfsStationStatusDataSource extends GbfsFeedDataSource {
 
         public GbfsStationStatusDataSource (GbfsBikeRentalDataSourceParameters config) {
             super(config, "data/stations");
@@ -207,7 +245,7 @@ class GbfsBikeRentalDataSource implements BikeRentalDataSource {
     }
 
     // TODO This is not currently safe to use. See javadoc on GbfsBikeRentalDataSource class.
-    class GbfsFloatingBikeDataSource extends GenericJsonBikeRentalDataSource<GbfsBikeRentalDataSourceParameters> {
+    class GbfsFloatingBikeDataSource extends GbfsFeedDataSource {
 
         public GbfsFloatingBikeDataSource (GbfsBikeRentalDataSourceParameters config) {
             super(config, "data/bikes");
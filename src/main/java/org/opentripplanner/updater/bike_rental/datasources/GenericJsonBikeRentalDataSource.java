@@ -75,7 +75,7 @@ abstract class GenericJsonBikeRentalDataSource<T extends BikeRentalDataSourcePar
 
     @Override
     public boolean update() {
-        if (url == null) { return false; }
+        if (url == null || isFresh()) { return false; }
 
         try {
             InputStream data;
@@ -94,8 +94,9 @@ abstract class GenericJsonBikeRentalDataSource<T extends BikeRentalDataSourcePar
                 log.warn("Failed to get data from url " + url);
                 return false;
             }
-            parseJSON(data);
+            boolean updated = parseJSON(data);
             data.close();
+            if (!updated) { return false; }
         } catch (IllegalArgumentException e) {
             log.warn("Error parsing bike rental feed from " + url, e);
             return false;
@@ -109,7 +110,11 @@ abstract class GenericJsonBikeRentalDataSource<T extends BikeRentalDataSourcePar
         return true;
     }
 
-    private void parseJSON(InputStream dataStream) throws IllegalArgumentException, IOException {
+    /**
+     * @return true if the stations were replaced, false if the feed has not changed since the
+     *         last time it was parsed.
+     */
+    private boolean parseJSON(InputStream dataStream) throws IllegalArgumentException, IOException {
 
         ArrayList<BikeRentalStation> out = new ArrayList<>();
 
@@ -118,6 +123,10 @@ abstract class GenericJsonBikeRentalDataSource<T extends BikeRentalDataSourcePar
         ObjectMapper mapper = new ObjectMapper();
         JsonNode rootNode = mapper.readTree(rentalString);
 
+        if (!isNewVersion(rootNode)) {
+            return false;
+        }
+
         if (!jsonParsePath.equals("")) {
             String delimiter = "/";
             String[] parseElement = jsonParsePath.split(delimiter);
@@ -144,6 +153,22 @@ abstract class GenericJsonBikeRentalDataSource<T extends BikeRentalDataSourcePar
         synchronized(this) {
             stations = out;
         }
+        return true;
+    }
+
+    /**
+     * Override to skip fetching the feed while the previously fetched data is still valid.
+     */
+    protected boolean isFresh() {
+        return false;
+    }
+
+    /**
+     * Override to skip parsing a feed with the same version as the previously parsed one. This
+     * is called with the root of the document before the rental list is parsed.
+     */
+    protected boolean isNewVersion(JsonNode rootNode) {
+        return true;
     }
 
     private String convertStreamToString(java.io.InputStream is) {
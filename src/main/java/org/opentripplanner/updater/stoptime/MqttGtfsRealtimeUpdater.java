@@ -167,7 +167,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
 
             if (updates != null) {
                 // Handle trip updates via graph writer runnable
-                updaterManager.execute(new TripUpdateGraphWriterRunnable(
+                updaterManager.execute(MqttGtfsRealtimeUpdater.this, new TripUpdateGraphWriterRunnable(
                     fullDataset,
                     updates,
                     feedId
@@ -4,6 +4,8 @@ import com.google.common.base.Preconditions;
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.opentripplanner.model.Agency;
 import org.opentripplanner.model.FeedScopedId;
 import org.opentripplanner.model.Route;
@@ -44,6 +46,12 @@ import java.util.concurrent.locks.ReentrantLock;
 public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotSource.class);
 
+    private static final Timer COMMIT_TIMER = Timer.builder("timetableSnapshot.commit")
+            .description("Time to commit the timetable snapshot buffer, including the transit layer update")
+            .tag("source", "gtfs-rt")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
     /**
      * Number of milliseconds per second
      */
@@ -144,7 +152,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         if (force || now - lastSnapshotTime > maxSnapshotFrequency) {
             if (force || buffer.isDirty()) {
                 LOG.debug("Committing {}", buffer.toString());
-                snapshot = buffer.commit(transitLayerUpdater, force);
+                snapshot = COMMIT_TIMER.record(() -> buffer.commit(transitLayerUpdater, force));
             } else {
                 LOG.debug("Buffer was unchanged, keeping old snapshot.");
             }
@@ -174,7 +174,7 @@ public class WebsocketGtfsRealtimeUpdater implements GraphUpdater {
                 TripUpdateGraphWriterRunnable runnable = new TripUpdateGraphWriterRunnable(
                         fullDataset, updates, feedId
                 );
-                updaterManager.execute(runnable);
+                updaterManager.execute(WebsocketGtfsRealtimeUpdater.this, runnable);
             }
         }
     }
@@ -0,0 +1,97 @@
+package org.opentripplanner.common.pqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.Test;
+
+public class IntBinHeapTest {
+
+    @Test
+    public void extractInKeyOrder() {
+        IntBinHeap subject = new IntBinHeap(5);
+        subject.insertOrDecreaseKey(3, 30.0);
+        subject.insertOrDecreaseKey(1, 10.0);
+        subject.insertOrDecreaseKey(4, 40.0);
+        subject.insertOrDecreaseKey(0, 20.0);
+
+        assertEquals(4, subject.size());
+        assertEquals(10.0, subject.peekMinKey(), 0.0);
+        assertEquals(1, subject.extractMin());
+        assertEquals(0, subject.extractMin());
+        assertEquals(3, subject.extractMin());
+        assertEquals(4, subject.extractMin());
+        assertTrue(subject.empty());
+    }
+
+    @Test
+    public void decreaseKey() {
+        IntBinHeap subject = new IntBinHeap(3);
+        subject.insertOrDecreaseKey(0, 10.0);
+        subject.insertOrDecreaseKey(1, 20.0);
+        subject.insertOrDecreaseKey(2, 30.0);
+
+        // A higher key is ignored
+        assertFalse(subject.insertOrDecreaseKey(0, 15.0));
+        // A lower key moves the element up
+        assertTrue(subject.insertOrDecreaseKey(2, 5.0));
+
+        assertEquals(3, subject.size());
+        assertEquals(2, subject.extractMin());
+        assertEquals(0, subject.extractMin());
+        assertEquals(1, subject.extractMin());
+    }
+
+    @Test
+    public void resetAndReuse() {
+        IntBinHeap subject = new IntBinHeap(3);
+        subject.insertOrDecreaseKey(0, 1.0);
+        subject.insertOrDecreaseKey(1, 2.0);
+        subject.reset();
+
+        assertTrue(subject.empty());
+        assertFalse(subject.contains(0));
+        assertFalse(subject.contains(1));
+
+        subject.insertOrDecreaseKey(1, 3.0);
+        assertTrue(subject.contains(1));
+        assertEquals(1, subject.extractMin());
+    }
+
+    @Test
+    public void sameOrderAsPriorityQueue() {
+        final int n = 10_000;
+        Random random = new Random(42);
+        double[] keys = new double[n];
+        IntBinHeap subject = new IntBinHeap(n);
+        PriorityQueue<Integer> expectedQueue = new PriorityQueue<>(
+            (a, b) -> Double.compare(keys[a], keys[b])
+        );
+
+        for (int i = 0; i < n; ++i) {
+            keys[i] = random.nextDouble() * 1000;
+        }
+        // Decrease some of the keys after the elements are inserted
+        for (int i = 0; i < n; ++i) {
+            subject.insertOrDecreaseKey(i, keys[i] + 100);
+        }
+        for (int i = 0; i < n; ++i) {
+            subject.insertOrDecreaseKey(i, keys[i]);
+            expectedQueue.add(i);
+        }
+
+        List<Double> expected = new ArrayList<>();
+        List<Double> result = new ArrayList<>();
+        while (!expectedQueue.isEmpty()) {
+            expected.add(keys[expectedQueue.remove()]);
+            result.add(keys[subject.extractMin()]);
+        }
+        assertEquals(expected, result);
+        assertTrue(subject.empty());
+    }
+}
@@ -0,0 +1,90 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.graph_builder.DataImportIssueStore;
+import org.opentripplanner.model.SimpleTransfer;
+import org.opentripplanner.model.StopLocation;
+import org.opentripplanner.routing.graph.Graph;
+
+public class DirectTransferGeneratorTest {
+
+    /** Large enough to link most of the stops in the test feed to each other. */
+    private static final double RADIUS_METERS = 2_000;
+
+    @Test
+    public void parallelSearchesCreateTheSameTransfersAsASingleThread() {
+        Graph sequentialGraph = ConstantsForTests.buildGraph(ConstantsForTests.FAKE_GTFS);
+        Graph parallelGraph = ConstantsForTests.buildGraph(ConstantsForTests.FAKE_GTFS);
+
+        List<String> sequential = transfers(sequentialGraph, 1);
+        List<String> parallel = transfers(parallelGraph, 4);
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * With streets, each thread runs its own street searches. The transfers must follow the same
+     * streets as when the stops are searched from one thread.
+     */
+    @Test
+    public void parallelStreetSearchesCreateTheSameTransfersAsASingleThread() throws IOException {
+        Graph sequentialGraph = streetGraph();
+        Graph parallelGraph = streetGraph();
+
+        List<String> sequential = transfers(sequentialGraph, 1);
+        List<String> parallel = transfers(parallelGraph, 4);
+
+        assertTrue(sequentialGraph.hasStreets);
+        assertTrue(
+                "Expected transfers along the streets",
+                sequentialGraph.transfersByStop.values().stream()
+                        .anyMatch(t -> t.getEdges() != null && !t.getEdges().isEmpty())
+        );
+        assertEquals(sequential, parallel);
+    }
+
+    private static Graph streetGraph() throws IOException {
+        return ConstantsForTests.buildGtfsGraph(
+                ConstantsForTests.DEUFRINGEN_OSM,
+                ConstantsForTests.VVS_BUS_764_ONLY
+        );
+    }
+
+    /**
+     * Build the transfers of the graph, and list them ordered by the from stop. The values of each
+     * stop are kept in a hash set by the graph, so they are sorted too.
+     */
+    private static List<String> transfers(Graph graph, int nThreads) {
+        new DirectTransferGenerator(RADIUS_METERS, nThreads)
+                .buildGraph(graph, new HashMap<>(), new DataImportIssueStore(false));
+
+        return graph.transfersByStop.keySet().stream()
+                .sorted(Comparator.comparing((StopLocation it) -> it.getId().toString()))
+                .map(stop -> stop.getId() + ": " + graph.transfersByStop.get(stop).stream()
+                        .map(DirectTransferGeneratorTest::toString)
+                        .sorted()
+                        .collect(Collectors.joining(", "))
+                )
+                .collect(Collectors.toList());
+    }
+
+    /** Straight-line transfers have no edges, street transfers list the street distance. */
+    private static String toString(SimpleTransfer t) {
+        String text = t.from.getId() + "->" + t.to.getId() + " " + t.getEffectiveWalkDistance();
+        if (t.getEdges() != null) {
+            text += " " + t.getDistanceMeters() + " in " + t.getEdges().size() + " edges";
+        }
+        return text;
+    }
+}
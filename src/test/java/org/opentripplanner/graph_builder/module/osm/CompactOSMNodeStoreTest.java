@@ -0,0 +1,60 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+public class CompactOSMNodeStoreTest {
+
+    @Test
+    public void untaggedNodesAreStoredInIdOrder() {
+        CompactOSMNodeStore subject = new CompactOSMNodeStore();
+        // More nodes than the initial capacity
+        for (int i = 1; i <= 100_000; ++i) {
+            subject.put(node(2 * i, 59.0 + i * 1e-6, 10.0 + i * 1e-6));
+        }
+
+        assertEquals(100_000, subject.size());
+        assertTrue(subject.containsKey(2000));
+        assertFalse(subject.containsKey(2001));
+        assertNull(subject.get(2001));
+
+        OSMNode node = subject.get(2000);
+        assertEquals(2000, node.getId());
+        assertEquals(59.0 + 1000 * 1e-6, node.lat, 0.0);
+        assertEquals(10.0 + 1000 * 1e-6, node.lon, 0.0);
+        assertEquals(node, subject.get(2000));
+    }
+
+    @Test
+    public void taggedAndUnorderedNodesAreKept() {
+        CompactOSMNodeStore subject = new CompactOSMNodeStore();
+        subject.put(node(10, 59.0, 10.0));
+        OSMNode tagged = node(20, 59.1, 10.1);
+        tagged.addTag("highway", "traffic_signals");
+        subject.put(tagged);
+        subject.put(node(30, 59.2, 10.2));
+        // Virtual nodes have negative ids, and are added last
+        OSMNode virtual = node(-100000, 59.3, 10.3);
+        subject.put(virtual);
+
+        assertEquals(4, subject.size());
+        assertSame(tagged, subject.get(20));
+        assertTrue(subject.get(20).hasTrafficLight());
+        assertSame(virtual, subject.get(-100000));
+        assertEquals(59.2, subject.get(30).lat, 0.0);
+    }
+
+    private static OSMNode node(long id, double lat, double lon) {
+        OSMNode node = new OSMNode();
+        node.setId(id);
+        node.lat = lat;
+        node.lon = lon;
+        return node;
+    }
+}
@@ -0,0 +1,89 @@
+package org.opentripplanner.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.routing.trippattern.Deduplicator;
+import org.opentripplanner.routing.trippattern.TripTimes;
+
+public class TimetableDepartureIndexTest {
+
+    private static final Stop[] STOPS = {
+        Stop.stopForTest("A", 60.0, 10.0),
+        Stop.stopForTest("B", 60.1, 10.0),
+        Stop.stopForTest("C", 60.2, 10.0),
+        Stop.stopForTest("D", 60.3, 10.0)
+    };
+
+    private Timetable subject;
+
+    @Before
+    public void setUp() {
+        StopPattern stopPattern = new StopPattern(stopTimes(new Trip(id("S")), 0, 0, 0, 0));
+        TripPattern pattern = new TripPattern(id("P"), new Route(id("R")), stopPattern);
+        subject = pattern.scheduledTimetable;
+
+        // The express trip T3 overtakes T2 between B and C, but not T1
+        subject.addTripTimes(tripTimes("T2", 700, 800, 900, 1000));
+        subject.addTripTimes(tripTimes("T1", 600, 700, 800, 900));
+        subject.addTripTimes(tripTimes("T3", 750, 850, 870, 950));
+        subject.finish();
+    }
+
+    @Test
+    public void tripsAreSortedOnDepartureAtEachStop() {
+        assertArrayEquals(new int[] { 1, 0, 2 }, subject.getTripIndexesByDeparture(0));
+        assertArrayEquals(new int[] { 1, 0, 2 }, subject.getTripIndexesByDeparture(1));
+        assertArrayEquals(new int[] { 1, 2, 0 }, subject.getTripIndexesByDeparture(2));
+        assertArrayEquals(new int[] { 1, 2, 0 }, subject.getTripIndexesByDeparture(3));
+
+        // The order is shared between stops with the same order
+        assertSame(subject.getTripIndexesByDeparture(0), subject.getTripIndexesByDeparture(1));
+    }
+
+    @Test
+    public void findFirstDeparture() {
+        int[] tripIndexes = subject.getTripIndexesByDeparture(2);
+
+        assertEquals(0, subject.findFirstDeparture(2, tripIndexes, 0));
+        assertEquals(1, subject.findFirstDeparture(2, tripIndexes, 801));
+        assertEquals(1, subject.findFirstDeparture(2, tripIndexes, 870));
+        assertEquals(2, subject.findFirstDeparture(2, tripIndexes, 871));
+        assertEquals(3, subject.findFirstDeparture(2, tripIndexes, 901));
+    }
+
+    @Test
+    public void indexIsUpdatedWhenTripsAreAdded() {
+        subject.addTripTimes(tripTimes("T0", 100, 200, 300, 400));
+
+        assertArrayEquals(new int[] { 3, 1, 2, 0 }, subject.getTripIndexesByDeparture(3));
+    }
+
+    private static TripTimes tripTimes(String tripId, int... departures) {
+        Trip trip = new Trip(id(tripId));
+        return new TripTimes(trip, stopTimes(trip, departures), new Deduplicator());
+    }
+
+    private static List<StopTime> stopTimes(Trip trip, int... departures) {
+        List<StopTime> stopTimes = new ArrayList<>();
+        for (int i = 0; i < departures.length; ++i) {
+            StopTime stopTime = new StopTime();
+            stopTime.setTrip(trip);
+            stopTime.setStop(STOPS[i]);
+            stopTime.setArrivalTime(departures[i]);
+            stopTime.setDepartureTime(departures[i]);
+            stopTime.setStopSequence(i);
+            stopTimes.add(stopTime);
+        }
+        return stopTimes;
+    }
+
+    private static FeedScopedId id(String id) {
+        return new FeedScopedId("F", id);
+    }
+}
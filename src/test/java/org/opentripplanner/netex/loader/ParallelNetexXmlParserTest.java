@@ -0,0 +1,41 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.datastore.DataSource;
+import org.opentripplanner.datastore.FileType;
+import org.opentripplanner.datastore.file.ZipFileDataSource;
+
+public class ParallelNetexXmlParserTest {
+
+    @Test
+    public void documentsArePassedOnInTheOriginalOrder() throws Exception {
+        try (
+                ZipFileDataSource source = new ZipFileDataSource(
+                        new File(ConstantsForTests.NETEX_MINIMAL),
+                        FileType.NETEX
+                )
+        ) {
+            Collection<DataSource> entries = source.content();
+
+            assertEquals(parse(entries, 1), parse(entries, 3));
+            assertEquals(4, parse(entries, 3).size());
+        }
+    }
+
+    private static List<String> parse(Collection<DataSource> entries, int nThreads) {
+        List<String> result = new ArrayList<>();
+        try (ParallelNetexXmlParser parser = new ParallelNetexXmlParser(nThreads)) {
+            parser.parse(entries, (entry, doc) ->
+                    result.add(entry.name() + " " + doc.getPublicationTimestamp())
+            );
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package org.opentripplanner.openstreetmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import org.opentripplanner.ConstantsForTests;
+
+/**
+ * The blocks read with the {@link PbfBlockReader} must give the same entities, in the same order,
+ * as the single threaded osmosis {@link BlockInputStream}.
+ */
+public class PbfBlockReaderTest {
+
+    private static final File PBF_FILE = new File(ConstantsForTests.DEUFRINGEN_OSM);
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readAllGivesTheSameEntitiesInTheSameOrder() throws IOException {
+        List<String> expected = readWithBlockInputStream();
+        assertTrue(expected.size() > 0);
+
+        RecordingParser parser = new RecordingParser();
+        try (InputStream in = open()) {
+            new PbfBlockReader(executor, 3).readAll(in, parser, new PbfBlockReader.BlockIndex());
+        }
+        assertEquals(expected, parser.entities);
+    }
+
+    @Test
+    public void readIndexedGivesTheSameEntitiesOfEachTypeInTheSameOrder() throws IOException {
+        List<String> expected = readWithBlockInputStream();
+        PbfBlockReader reader = new PbfBlockReader(executor, 3);
+        PbfBlockReader.BlockIndex index = new PbfBlockReader.BlockIndex();
+
+        try (InputStream in = open()) {
+            reader.readAll(in, new RecordingParser(), index);
+        }
+
+        assertPhase(reader, index, OsmParserPhase.Relations, "r", expected);
+        assertPhase(reader, index, OsmParserPhase.Ways, "w", expected);
+        assertPhase(reader, index, OsmParserPhase.Nodes, "n", expected);
+    }
+
+    private void assertPhase(
+            PbfBlockReader reader,
+            PbfBlockReader.BlockIndex index,
+            OsmParserPhase phase,
+            String type,
+            List<String> all
+    ) throws IOException {
+        RecordingParser parser = new RecordingParser();
+        try (InputStream in = open()) {
+            reader.readIndexed(in, parser, index, phase);
+        }
+        List<String> expected = all.stream()
+                .filter(it -> it.startsWith(type))
+                .collect(Collectors.toList());
+        List<String> actual = parser.entities.stream()
+                .filter(it -> it.startsWith(type))
+                .collect(Collectors.toList());
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+    }
+
+    private static List<String> readWithBlockInputStream() throws IOException {
+        RecordingParser parser = new RecordingParser();
+        try (InputStream in = open()) {
+            new BlockInputStream(in, parser).process();
+        }
+        return parser.entities;
+    }
+
+    private static InputStream open() throws IOException {
+        return new BufferedInputStream(new FileInputStream(PBF_FILE));
+    }
+
+    /** Record the type and id of all entities, in all phases. */
+    private static class RecordingParser extends BinaryOpenStreetMapParser {
+        private final List<String> entities = new ArrayList<>();
+
+        RecordingParser() {
+            super(null);
+        }
+
+        @Override
+        protected void parseNodes(List<Osmformat.Node> nodes) {
+            nodes.forEach(it -> entities.add("n" + it.getId()));
+        }
+
+        @Override
+        protected void parseDense(Osmformat.DenseNodes nodes) {
+            long id = 0;
+            for (int i = 0; i < nodes.getIdCount(); i++) {
+                id += nodes.getId(i);
+                entities.add("n" + id);
+            }
+        }
+
+        @Override
+        protected void parseWays(List<Osmformat.Way> ways) {
+            ways.forEach(it -> entities.add("w" + it.getId()));
+        }
+
+        @Override
+        protected void parseRelations(List<Osmformat.Relation> rels) {
+            rels.forEach(it -> entities.add("r" + it.getId()));
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -103,6 +104,25 @@ public class AStarTest {
         assertEquals("leary_20th", states.get(6).getVertex().getLabel());
     }
 
+    @Test
+    public void testReuseAfterReleasingLastSearch() {
+        AStar aStar = new AStar();
+
+        for (int i = 0; i < 2; ++i) {
+            RoutingRequest options = new RoutingRequest();
+            options.walkSpeed = 1.0;
+            options.setRoutingContext(graph, graph.getVertex("56th_24th"), graph.getVertex("leary_20th"));
+            ShortestPathTree tree = aStar.getShortestPathTree(options);
+
+            GraphPath path = tree.getPath(graph.getVertex("leary_20th"), false);
+            assertEquals(7, path.states.size());
+            assertFalse(aStar.getPathsToTarget().isEmpty());
+
+            aStar.releaseLastSearch();
+            assertTrue(aStar.getPathsToTarget().isEmpty());
+        }
+    }
+
     @Test
     public void testBack() {
 
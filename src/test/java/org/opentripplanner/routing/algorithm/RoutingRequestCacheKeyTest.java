@@ -0,0 +1,147 @@
+package org.opentripplanner.routing.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.BannedStopSet;
+import org.opentripplanner.routing.api.request.RequestFunctions;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+
+public class RoutingRequestCacheKeyTest {
+
+    private static final int PRECISION = 4;
+    private static final int TIME_BUCKET = 60;
+
+    /** The request fields which are part of the key. */
+    private static final Set<String> KEY_FIELDS = Set.of(
+            "from", "to", "intermediatePlaces", "dateTime", "arriveBy", "searchWindow",
+            "timetableView", "additionalSearchDaysBeforeToday", "additionalSearchDaysAfterToday",
+            "startingTransitStopId", "startingTransitTripId", "oneToMany",
+            "modes", "streetSubRequestModes", "onlyTransitTrips", "walkingBike", "bikeRental",
+            "bikeParkAndRide", "parkAndRide", "carPickup",
+            "maxWalkDistance", "maxTransferWalkDistance", "maxPreTransitTime", "worstTime",
+            "maxWeight", "maxHours", "useRequestedDateTimeInMaxHours", "maxTransfers",
+            "numItineraries", "wheelchairAccessible", "maxWheelchairSlope",
+            "walkSpeed", "bikeSpeed", "carSpeed", "carDecelerationSpeed", "carAccelerationSpeed",
+            "optimize", "bikeTriangleTimeFactor", "bikeTriangleSlopeFactor",
+            "bikeTriangleSafetyFactor", "bikeWalkingOptions", "walkReluctance", "stairsReluctance",
+            "turnReluctance", "elevatorBoardTime", "elevatorBoardCost", "elevatorHopTime",
+            "elevatorHopCost", "bikeSwitchTime", "bikeSwitchCost", "bikeRentalPickupTime",
+            "bikeRentalPickupCost", "bikeRentalDropoffTime", "bikeRentalDropoffCost",
+            "bikeParkTime", "bikeParkCost", "carDropoffTime",
+            "useBikeRentalAvailabilityInformation", "allowKeepingRentedBicycleAtDestination",
+            "keepingRentedBicycleAtDestinationCost",
+            "waitReluctance", "waitAtBeginningFactor", "walkBoardCost", "bikeBoardCost",
+            "transferCost", "nonpreferredTransferCost", "transitReluctanceForMode",
+            "transferOptimization", "transferSlack", "boardSlack", "boardSlackForMode",
+            "alightSlack", "alightSlackForMode",
+            "bannedAgencies", "whiteListedAgencies", "preferredAgencies", "unpreferredAgencies",
+            "bannedRoutes", "whiteListedRoutes", "preferredRoutes", "unpreferredRoutes",
+            "otherThanPreferredRoutesPenalty", "useUnpreferredRoutesPenalty", "bannedTrips",
+            "ignoreRealtimeUpdates", "includePlannedCancellations", "disableAlertFiltering",
+            "disableRemainingWeightHeuristic", "dominanceFunction", "pathComparator",
+            "itineraryFilters", "showIntermediateStops", "geoidElevation", "locale"
+    );
+
+    /**
+     * The request fields which are not part of the key: the raw query parameters, which are not
+     * used for routing, and the state created while routing.
+     */
+    private static final Set<String> IGNORED_FIELDS = Set.of(
+            "parameters", "rctx", "fromEnvelope", "toEnvelope"
+    );
+
+    @Test
+    public void everyRequestFieldIsEitherPartOfTheKeyOrIgnored() {
+        Set<String> fields = Arrays.stream(RoutingRequest.class.getDeclaredFields())
+                .filter(it -> !Modifier.isStatic(it.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        Set<String> expected = new TreeSet<>(KEY_FIELDS);
+        expected.addAll(IGNORED_FIELDS);
+
+        assertEquals(
+                "Add new RoutingRequest fields to RoutingRequestCacheKey.of() or to IGNORED_FIELDS",
+                expected,
+                fields
+        );
+    }
+
+    @Test
+    public void requestsWithNearbyCoordinatesAndTimesHaveEqualKeys() {
+        RoutingRequest a = request(59.91231, 10.75004, 1_600_000_000);
+        RoutingRequest b = request(59.91229, 10.74996, 1_600_000_019);
+
+        assertEquals(key(a), key(b));
+        assertEquals(key(a).hashCode(), key(b).hashCode());
+    }
+
+    @Test
+    public void requestsWithDifferentParametersHaveDifferentKeys() {
+        RoutingRequest a = request(59.9123, 10.7501, 1_600_000_000);
+
+        assertNotEquals(key(a), key(request(59.9133, 10.7501, 1_600_000_000)));
+        assertNotEquals(key(a), key(request(59.9123, 10.7501, 1_600_000_060)));
+
+        RoutingRequest walkSpeed = request(59.9123, 10.7501, 1_600_000_000);
+        walkSpeed.walkSpeed = 2.0;
+        assertNotEquals(key(a), key(walkSpeed));
+
+        RoutingRequest banned = request(59.9123, 10.7501, 1_600_000_000);
+        banned.setBannedAgencies(Set.of(new FeedScopedId("F", "A")));
+        assertNotEquals(key(a), key(banned));
+
+        RoutingRequest bannedRoutes = request(59.9123, 10.7501, 1_600_000_000);
+        bannedRoutes.setBannedRoutesFromSting("F__R1");
+        assertNotEquals(key(a), key(bannedRoutes));
+
+        RoutingRequest filters = request(59.9123, 10.7501, 1_600_000_000);
+        filters.itineraryFilters.transitGeneralizedCostLimit =
+                RequestFunctions.createLinearFunction(1800, 2);
+        assertNotEquals(key(a), key(filters));
+    }
+
+    @Test
+    public void tripWithAllStopsBannedIsNotEqualToTripWithNoStopsBanned() {
+        FeedScopedId tripId = new FeedScopedId("F", "T");
+        RoutingRequest all = request(59.9123, 10.7501, 1_600_000_000);
+        all.bannedTrips.put(tripId, BannedStopSet.ALL);
+        RoutingRequest none = request(59.9123, 10.7501, 1_600_000_000);
+        none.bannedTrips.put(tripId, new BannedStopSet());
+
+        assertNotEquals(key(all), key(none));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFilterFunctionIsNotSilentlyIgnored() {
+        RoutingRequest request = request(59.9123, 10.7501, 1_600_000_000);
+        request.itineraryFilters.transitGeneralizedCostLimit = x -> 2 * x;
+
+        RoutingRequestCacheKey.of(request, PRECISION, TIME_BUCKET);
+    }
+
+    private static RoutingRequestCacheKey key(RoutingRequest request) {
+        RoutingRequestCacheKey key = RoutingRequestCacheKey.of(request, PRECISION, TIME_BUCKET);
+        assertNotNull(key);
+        return key;
+    }
+
+    private static RoutingRequest request(double lat, double lon, long dateTime) {
+        RoutingRequest request = new RoutingRequest();
+        request.from = new GenericLocation(lat, lon);
+        request.to = new GenericLocation(59.95, 10.80);
+        request.dateTime = dateTime;
+        return request;
+    }
+}
@@ -0,0 +1,150 @@
+package org.opentripplanner.routing.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.base.Ticker;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.graph.Graph;
+
+public class RoutingResponseCacheTest {
+
+    private static final int TTL_SECONDS = 60;
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    private Graph graph;
+    private TimetableSnapshot snapshot;
+    private RoutingResponseCache cache;
+
+    /** The number of requests routed, the others are served from the cache. */
+    private int nRouted;
+
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        snapshot = new TimetableSnapshot();
+        graph.<TimetableSnapshotProvider>getOrSetupTimetableSnapshotProvider(g -> () -> snapshot);
+        cache = new RoutingResponseCache(new TestParameters(), ticker);
+    }
+
+    @Test
+    public void identicalRequestIsServedFromTheCache() {
+        RoutingResponse first = route(request(10.75));
+        RoutingResponse second = route(request(10.75));
+
+        assertEquals(1, nRouted);
+        assertSame(first.getTripPlan(), second.getTripPlan());
+    }
+
+    @Test
+    public void differentRequestIsRouted() {
+        route(request(10.75));
+        route(request(10.76));
+
+        assertEquals(2, nRouted);
+    }
+
+    @Test
+    public void responseExpiresAfterTheTtl() {
+        route(request(10.75));
+
+        ticker.advance(TTL_SECONDS - 1);
+        route(request(10.75));
+        assertEquals(1, nRouted);
+
+        ticker.advance(1);
+        route(request(10.75));
+        assertEquals(2, nRouted);
+    }
+
+    @Test
+    public void responsesAreDroppedWhenANewTimetableSnapshotIsCommitted() {
+        route(request(10.75));
+
+        snapshot = new TimetableSnapshot();
+        route(request(10.75));
+
+        assertEquals(2, nRouted);
+    }
+
+    @Test
+    public void responsesAreDroppedWhenANewRealtimeTransitLayerIsPublished() {
+        route(request(10.75));
+
+        graph.setRealtimeTransitLayer(transitLayer());
+        route(request(10.75));
+        route(request(10.75));
+
+        assertEquals(2, nRouted);
+    }
+
+    @Test
+    public void responseRoutedWhileTheRealtimeDataChangesIsNotCached() {
+        cache.route(request(10.75), graph, () -> {
+            graph.setRealtimeTransitLayer(transitLayer());
+            return response();
+        });
+
+        route(request(10.75));
+
+        assertEquals(1, nRouted);
+        route(request(10.75));
+        assertEquals(1, nRouted);
+    }
+
+    private RoutingResponse route(RoutingRequest request) {
+        return cache.route(request, graph, () -> {
+            ++nRouted;
+            return response();
+        });
+    }
+
+    private static RoutingResponse response() {
+        return new RoutingResponse(new TripPlan(null, null, null, List.of()), null, List.of(), null);
+    }
+
+    private static RoutingRequest request(double toLon) {
+        RoutingRequest request = new RoutingRequest();
+        request.from = new GenericLocation(59.91, 10.75);
+        request.to = new GenericLocation(59.95, toLon);
+        request.dateTime = 1_600_000_000;
+        return request;
+    }
+
+    private static TransitLayer transitLayer() {
+        return new TransitLayer(Map.of(), List.of(), null, null, ZoneId.of("Europe/Oslo"));
+    }
+
+    private static class TestParameters implements RoutingResponseCache.Parameters {
+        @Override public int maxSize() { return 100; }
+        @Override public int ttlSeconds() { return TTL_SECONDS; }
+        @Override public int coordinatePrecision() { return 4; }
+        @Override public int timeBucketSeconds() { return 60; }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos = 0;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
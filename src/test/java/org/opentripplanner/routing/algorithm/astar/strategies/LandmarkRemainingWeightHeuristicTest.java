@@ -0,0 +1,136 @@
+package org.opentripplanner.routing.algorithm.astar.strategies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.graph_builder.module.StreetLandmarkModule;
+import org.opentripplanner.routing.algorithm.astar.AStar;
+import org.opentripplanner.routing.algorithm.astar.landmarks.StreetLandmarks;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.SimpleConcreteEdge;
+import org.opentripplanner.routing.graph.SimpleConcreteVertex;
+import org.opentripplanner.routing.graph.Vertex;
+
+public class LandmarkRemainingWeightHeuristicTest {
+
+    private static final int SIZE = 10;
+    private static final int WALL_ROW = 4;
+
+    private Graph graph;
+    private Vertex[][] grid;
+    private StreetLandmarks landmarks;
+
+    /**
+     * A grid of streets with a wall between row 4 and 5, the wall can only be passed in the
+     * last column.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        grid = new Vertex[SIZE][SIZE];
+
+        for (int row = 0; row < SIZE; ++row) {
+            for (int col = 0; col < SIZE; ++col) {
+                grid[row][col] = new SimpleConcreteVertex(
+                    graph, "V" + row + "_" + col, 59.9 + row * 0.001, 10.7 + col * 0.001
+                );
+                if (col > 0) {
+                    connect(grid[row][col - 1], grid[row][col]);
+                }
+                if (row > 0 && (row != WALL_ROW + 1 || col == SIZE - 1)) {
+                    connect(grid[row - 1][col], grid[row][col]);
+                }
+            }
+        }
+        new StreetLandmarkModule(4).buildGraph(graph, new HashMap<>());
+        landmarks = graph.getService(StreetLandmarks.class);
+    }
+
+    @Test
+    public void landmarksAreComputed() {
+        assertNotNull(landmarks);
+        assertEquals(4, landmarks.numberOfLandmarks());
+        assertEquals(SIZE * SIZE, landmarks.numberOfVertices());
+        assertEquals(0f, landmarks.distanceFromLandmark(0, landmarks.index(landmarks.landmark(0))), 0f);
+    }
+
+    @Test
+    public void estimateIsLowerBoundAndBetterThanEuclidean() {
+        Vertex target = grid[WALL_ROW + 1][0];
+
+        for (int row = 0; row < SIZE; ++row) {
+            for (int col = 0; col < SIZE; ++col) {
+                Vertex v = grid[row][col];
+                double actual = weight(v, target, false, new TrivialRemainingWeightHeuristic());
+                RoutingRequest request = request(v, target, false);
+
+                RemainingWeightHeuristic subject = new LandmarkRemainingWeightHeuristic(landmarks);
+                subject.initialize(request, Long.MAX_VALUE);
+                double estimate = subject.estimateRemainingWeight(new State(v, request));
+
+                assertTrue(v + ": " + estimate + " > " + actual, estimate <= actual + 1e-3);
+            }
+        }
+
+        // Across the wall the network distance is much longer than the straight line distance
+        Vertex acrossTheWall = grid[WALL_ROW][0];
+        RoutingRequest request = request(acrossTheWall, target, false);
+        RemainingWeightHeuristic euclidean = new EuclideanRemainingWeightHeuristic();
+        RemainingWeightHeuristic subject = new LandmarkRemainingWeightHeuristic(landmarks);
+        euclidean.initialize(request, Long.MAX_VALUE);
+        subject.initialize(request, Long.MAX_VALUE);
+        State s = new State(acrossTheWall, request);
+
+        assertTrue(
+            subject.estimateRemainingWeight(s) > 5 * euclidean.estimateRemainingWeight(s)
+        );
+    }
+
+    @Test
+    public void sameResultAsWithoutHeuristic() {
+        for (boolean arriveBy : new boolean[] { false, true }) {
+            for (int i = 0; i < SIZE; ++i) {
+                Vertex from = grid[i][(3 * i) % SIZE];
+                Vertex to = grid[SIZE - 1 - i][(7 * i + 2) % SIZE];
+
+                double expected = weight(from, to, arriveBy, new TrivialRemainingWeightHeuristic());
+                double actual = weight(
+                    from, to, arriveBy, new LandmarkRemainingWeightHeuristic(landmarks)
+                );
+                assertEquals(from + " -> " + to, expected, actual, 1e-6);
+            }
+        }
+    }
+
+    private double weight(
+        Vertex from,
+        Vertex to,
+        boolean arriveBy,
+        RemainingWeightHeuristic heuristic
+    ) {
+        RoutingRequest request = request(from, to, arriveBy);
+        request.rctx.remainingWeightHeuristic = heuristic;
+        State state = new AStar().getShortestPathTree(request).getState(arriveBy ? from : to);
+        return state.getWeight();
+    }
+
+    /** Walk speed 1 m/s, so the weight of the test edges and the estimate are both in meters. */
+    private RoutingRequest request(Vertex from, Vertex to, boolean arriveBy) {
+        RoutingRequest request = new RoutingRequest();
+        request.walkSpeed = 1.0;
+        request.setArriveBy(arriveBy);
+        request.setRoutingContext(graph, from, to);
+        return request;
+    }
+
+    private static void connect(Vertex a, Vertex b) {
+        new SimpleConcreteEdge(a, b);
+        new SimpleConcreteEdge(b, a);
+    }
+}
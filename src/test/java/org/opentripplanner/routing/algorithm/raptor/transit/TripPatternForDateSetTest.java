@@ -0,0 +1,135 @@
+package org.opentripplanner.routing.algorithm.raptor.transit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.Trip;
+import org.opentripplanner.routing.trippattern.Deduplicator;
+import org.opentripplanner.routing.trippattern.TripTimes;
+
+public class TripPatternForDateSetTest {
+
+  private static final LocalDate DATE = LocalDate.of(2021, 3, 1);
+
+  private static final List<TripTimes> TRIP_TIMES = List.of(createTripTimes());
+
+  @Test
+  public void createSet() {
+    List<TripPatternForDate> elements = create(1000);
+
+    var subject = TripPatternForDateSet.of(elements);
+
+    assertEquals(1000, subject.size());
+    assertEquals(identitySet(elements), identitySet(subject));
+    elements.forEach(it -> assertTrue(subject.contains(it)));
+    assertFalse(subject.contains(create(1).get(0)));
+  }
+
+  @Test
+  public void emptySet() {
+    var subject = TripPatternForDateSet.of(List.of());
+
+    assertEquals(0, subject.size());
+    assertFalse(subject.iterator().hasNext());
+    assertSame(subject, TripPatternForDateSet.empty());
+  }
+
+  @Test
+  public void withChangesDoesNotChangeTheOriginalSet() {
+    List<TripPatternForDate> elements = create(100);
+    List<TripPatternForDate> removed = elements.subList(0, 10);
+    List<TripPatternForDate> added = create(5);
+
+    var original = TripPatternForDateSet.of(elements);
+    var subject = original.withChanges(removed, added);
+
+    Set<TripPatternForDate> expected = identitySet(elements);
+    removed.forEach(expected::remove);
+    expected.addAll(added);
+
+    assertEquals(95, subject.size());
+    assertEquals(expected, identitySet(subject));
+
+    assertEquals(100, original.size());
+    assertEquals(identitySet(elements), identitySet(original));
+  }
+
+  @Test
+  public void withChangesIgnoresUnknownAndDuplicateElements() {
+    List<TripPatternForDate> elements = create(10);
+    var original = TripPatternForDateSet.of(elements);
+
+    var subject = original.withChanges(create(2), List.of(elements.get(0)));
+
+    assertEquals(10, subject.size());
+    assertEquals(identitySet(elements), identitySet(subject));
+  }
+
+  @Test
+  public void withNoChangesReturnSameInstance() {
+    var original = TripPatternForDateSet.of(create(10));
+    assertSame(original, original.withChanges(List.of(), List.of()));
+  }
+
+  @Test
+  public void updateCopiesLessThanTheWholeSet() {
+    var original = TripPatternForDateSet.of(create(10_000));
+    var subject = original.withChanges(List.of(), create(1));
+
+    assertEquals(10_001, subject.size());
+    assertTrue(subject.copiedReferences() < 1000);
+  }
+
+  @Test
+  public void setIsRebuiltWhenItGrows() {
+    var subject = TripPatternForDateSet.of(create(4));
+
+    for (int i = 0; i < 20; ++i) {
+      subject = subject.withChanges(List.of(), create(50));
+    }
+    assertEquals(1004, subject.size());
+    assertEquals(1004, new ArrayList<>(subject).size());
+  }
+
+  /** The test elements are all equal, so they must be compared by identity. */
+  private static Set<TripPatternForDate> identitySet(Collection<TripPatternForDate> elements) {
+    Set<TripPatternForDate> set = Collections.newSetFromMap(new IdentityHashMap<>());
+    set.addAll(elements);
+    return set;
+  }
+
+  private static List<TripPatternForDate> create(int n) {
+    List<TripPatternForDate> list = new ArrayList<>();
+    for (int i = 0; i < n; ++i) {
+      list.add(new TripPatternForDate(null, TRIP_TIMES, DATE));
+    }
+    return list;
+  }
+
+  private static TripTimes createTripTimes() {
+    StopTime stopTime1 = new StopTime();
+    StopTime stopTime2 = new StopTime();
+
+    stopTime1.setDepartureTime(0);
+    stopTime2.setArrivalTime(7200);
+
+    return new TripTimes(
+        new Trip(new FeedScopedId("Test", "Test")),
+        Arrays.asList(stopTime1, stopTime2),
+        new Deduplicator()
+    );
+  }
+}
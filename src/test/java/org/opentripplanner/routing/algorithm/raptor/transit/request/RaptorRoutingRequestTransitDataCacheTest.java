@@ -0,0 +1,111 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.TransitMode;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransitLayer;
+
+public class RaptorRoutingRequestTransitDataCacheTest {
+
+  private static final LocalDate DATE = LocalDate.of(2021, 6, 1);
+
+  private final TransitLayer transitLayer = createTransitLayer();
+
+  private int count = 0;
+
+  @Test
+  public void sameKeyReturnsCachedValue() {
+    var subject = new RaptorRoutingRequestTransitDataCache();
+
+    var first = subject.get(transitLayer, DATE, 1, filter(false), this::create);
+    var second = subject.get(transitLayer, DATE, 1, filter(false), this::create);
+
+    assertSame(first, second);
+    assertEquals(1, count);
+  }
+
+  @Test
+  public void differentKeysAreCachedSeparately() {
+    var subject = new RaptorRoutingRequestTransitDataCache();
+
+    subject.get(transitLayer, DATE, 1, filter(false), this::create);
+    subject.get(transitLayer, DATE.plusDays(1), 1, filter(false), this::create);
+    subject.get(transitLayer, DATE, 2, filter(false), this::create);
+    subject.get(transitLayer, DATE, 1, filter(true), this::create);
+    subject.get(createTransitLayer(), DATE, 1, filter(false), this::create);
+
+    assertEquals(5, count);
+    assertEquals(5, subject.size());
+  }
+
+  @Test
+  public void invalidateClearsCache() {
+    var subject = new RaptorRoutingRequestTransitDataCache();
+
+    var first = subject.get(transitLayer, DATE, 1, filter(false), this::create);
+    subject.invalidate();
+    var second = subject.get(transitLayer, DATE, 1, filter(false), this::create);
+
+    assertNotSame(first, second);
+    assertEquals(2, count);
+  }
+
+  @Test
+  public void valueCalculatedBeforeInvalidateIsNotCached() {
+    var subject = new RaptorRoutingRequestTransitDataCache();
+
+    subject.get(transitLayer, DATE, 1, filter(false), () -> {
+      subject.invalidate();
+      return create();
+    });
+
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() {
+    var subject = new RaptorRoutingRequestTransitDataCache(2);
+
+    subject.get(transitLayer, DATE, 0, filter(false), this::create);
+    subject.get(transitLayer, DATE, 1, filter(false), this::create);
+    // Touch the first entry, so the second is the least recently used
+    subject.get(transitLayer, DATE, 0, filter(false), this::create);
+    subject.get(transitLayer, DATE, 2, filter(false), this::create);
+    assertEquals(3, count);
+
+    subject.get(transitLayer, DATE, 0, filter(false), this::create);
+    assertEquals(3, count);
+
+    subject.get(transitLayer, DATE, 1, filter(false), this::create);
+    assertEquals(4, count);
+    assertEquals(2, subject.size());
+  }
+
+  private List<List<TripPatternForDates>> create() {
+    ++count;
+    return List.of();
+  }
+
+  private static TransitDataProviderFilter filter(boolean wheelchair) {
+    return new RoutingRequestTransitDataProviderFilter(
+        false,
+        wheelchair,
+        false,
+        Set.of(TransitMode.BUS),
+        Set.of(new FeedScopedId("F", "R1"))
+    );
+  }
+
+  private static TransitLayer createTransitLayer() {
+    return new TransitLayer(Map.of(), List.of(), null, null, ZoneId.of("Europe/Oslo"));
+  }
+}
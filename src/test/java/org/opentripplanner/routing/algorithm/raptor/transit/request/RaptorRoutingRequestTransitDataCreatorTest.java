@@ -95,6 +95,42 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     assertEquals(86400, ((TripScheduleWithOffset) r3.getTripSchedule(2)).getSecondsOffset());
   }
 
+  @Test
+  public void testTimesAreTheSameAsForTripSchedules() {
+    LocalDate first = LocalDate.of(2019, 3, 30);
+    LocalDate second = LocalDate.of(2019, 3, 31);
+
+    ZonedDateTime startOfTime = DateMapper.asStartOfService(second, ZoneId.of("Europe/London"));
+
+    TripPatternWithRaptorStopIndexes tripPattern = new TripPatternWithId(
+        TP_ID_1, new int[] { 0, 1 }, TP
+    );
+    List<TripTimes> tripTimes = List.of(createTripTimesForTest());
+
+    List<TripPatternForDates> combinedTripPatterns = RaptorRoutingRequestTransitDataCreator.merge(
+        startOfTime,
+        List.of(
+            new TripPatternForDate(tripPattern, tripTimes, first),
+            new TripPatternForDate(tripPattern, tripTimes, second)
+        )
+    );
+
+    var subject = findTripPatternForDate(TP_ID_1, combinedTripPatterns);
+
+    assertEquals(2, subject.numberOfTripSchedules());
+
+    for (int i = 0; i < subject.numberOfTripSchedules(); ++i) {
+      var trip = subject.getTripSchedule(i);
+      for (int stopPos = 0; stopPos < subject.numberOfStopsInPattern(); ++stopPos) {
+        assertEquals(trip.departure(stopPos), subject.departure(i, stopPos));
+        assertEquals(trip.arrival(stopPos), subject.arrival(i, stopPos));
+      }
+    }
+    // Verify the offset is applied, the first trip runs on the day before
+    assertEquals(-82800, subject.departure(0, 0));
+    assertEquals(7200, subject.arrival(1, 1));
+  }
+
   private static TripPatternForDates findTripPatternForDate(
       FeedScopedId patternId, List<TripPatternForDates> list
   ) {
@@ -0,0 +1,72 @@
+package org.opentripplanner.routing.algorithm.raptor.transit.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import org.junit.Test;
+import org.opentripplanner.routing.algorithm.raptor.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptor.transit.TransfersByStopIndex;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+public class TransferWithDurationCacheTest {
+
+  private static final Transfer T_0_1 = new Transfer(1, 100, 0, null);
+  private static final Transfer T_0_2 = new Transfer(2, 250, 30, null);
+  private static final Transfer T_2_0 = new Transfer(0, 250, 30, null);
+
+  private static final List<List<Transfer>> TRANSFERS = List.of(
+      List.of(T_0_1, T_0_2),
+      List.of(),
+      List.of(T_2_0)
+  );
+
+  private final TransfersByStopIndex index = new TransfersByStopIndex(TRANSFERS);
+
+  @Test
+  public void transfersByStopIndex() {
+    assertEquals(3, index.numberOfStops());
+    assertEquals(2, index.numberOfTransfers(0));
+    assertEquals(0, index.numberOfTransfers(1));
+    assertEquals(1, index.numberOfTransfers(2));
+
+    assertEquals(1, index.toStop(0, 0));
+    assertEquals(2, index.toStop(0, 1));
+    assertEquals(0, index.toStop(2, 0));
+
+    assertEquals(50, index.durationInSeconds(0, 0, 2.0));
+    assertEquals(155, index.durationInSeconds(0, 1, 2.0));
+  }
+
+  @Test
+  public void durationIsTheSameAsForTransferWithDuration() {
+    double walkSpeed = 1.33;
+    var subject = new TransferWithDurationCache(TRANSFERS, index);
+
+    List<List<RaptorTransfer>> result = subject.get(walkSpeed);
+
+    assertEquals(3, result.size());
+    assertEquals(2, result.get(0).size());
+    assertEquals(0, result.get(1).size());
+    assertEquals(1, result.get(2).size());
+
+    assertTransfer(new TransferWithDuration(T_0_1, walkSpeed), result.get(0).get(0));
+    assertTransfer(new TransferWithDuration(T_0_2, walkSpeed), result.get(0).get(1));
+    assertTransfer(new TransferWithDuration(T_2_0, walkSpeed), result.get(2).get(0));
+    assertSame(T_0_2, ((TransferWithDuration) result.get(0).get(1)).transfer());
+  }
+
+  @Test
+  public void transfersAreSharedForTheSameWalkSpeed() {
+    var subject = new TransferWithDurationCache(TRANSFERS, index);
+
+    assertSame(subject.get(1.33), subject.get(1.33));
+    assertNotSame(subject.get(1.33), subject.get(1.5));
+  }
+
+  private static void assertTransfer(RaptorTransfer expected, RaptorTransfer actual) {
+    assertEquals(expected.stop(), actual.stop());
+    assertEquals(expected.durationInSeconds(), actual.durationInSeconds());
+  }
+}
@@ -10,18 +10,28 @@ import org.opentripplanner.ConstantsForTests;
 import org.opentripplanner.common.geometry.HashGridSpatialIndex;
 import org.opentripplanner.datastore.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
+import org.opentripplanner.graph_builder.module.StreetLandmarkModule;
+import org.opentripplanner.routing.algorithm.astar.landmarks.StreetLandmarks;
 import org.opentripplanner.routing.trippattern.Deduplicator;
 import org.opentripplanner.standalone.config.BuildConfig;
+import org.opentripplanner.standalone.config.ConfigLoader;
 import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.util.OtpAppException;
 
 import java.io.File;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.jar.JarFile;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -109,6 +119,94 @@ public class GraphSerializationTest {
         assertNoDifferences(graph1, graph2);
     }
 
+    /**
+     * Tests that the street landmark distances are saved to the memory-mapped data file, and
+     * read back through the mapped file.
+     */
+    @Test
+    public void testRoundTripWithMemoryMappedData() throws Exception {
+        Graph graph = new Graph();
+        Vertex a = new SimpleConcreteVertex(graph, "A", 59.90, 10.70);
+        Vertex b = new SimpleConcreteVertex(graph, "B", 59.91, 10.70);
+        Vertex c = new SimpleConcreteVertex(graph, "C", 59.91, 10.71);
+        new SimpleConcreteEdge(a, b);
+        new SimpleConcreteEdge(b, c);
+        new SimpleConcreteEdge(c, a);
+        new StreetLandmarkModule(2).buildGraph(graph, new HashMap<>());
+        StreetLandmarks expected = graph.getService(StreetLandmarks.class);
+
+        File tempFile = saveWithMemoryMappedData(graph);
+        assertTrue(MappedGraphData.dataFileFor(tempFile).exists());
+
+        StreetLandmarks copy = SerializedGraphObject.load(tempFile).getService(StreetLandmarks.class);
+        assertEquals(expected.numberOfVertices(), copy.numberOfVertices());
+        for (int l = 0; l < expected.numberOfLandmarks(); ++l) {
+            for (int v = 0; v < expected.numberOfVertices(); ++v) {
+                assertEquals(
+                        expected.distanceFromLandmark(l, v),
+                        copy.distanceFromLandmark(l, v),
+                        0f
+                );
+                assertEquals(
+                        expected.distanceToLandmark(l, v),
+                        copy.distanceToLandmark(l, v),
+                        0f
+                );
+            }
+        }
+    }
+
+    /**
+     * Tests that a data file which does not belong to the graph is rejected before the graph is
+     * read, and that a missing data file is reported as such.
+     */
+    @Test
+    public void testMemoryMappedDataFileMustMatchTheGraph() throws Exception {
+        Graph graph = new Graph();
+        Vertex a = new SimpleConcreteVertex(graph, "A", 59.90, 10.70);
+        Vertex b = new SimpleConcreteVertex(graph, "B", 59.91, 10.70);
+        new SimpleConcreteEdge(a, b);
+        new StreetLandmarkModule(1).buildGraph(graph, new HashMap<>());
+
+        File graphFile = saveWithMemoryMappedData(graph);
+        File otherGraphFile = saveWithMemoryMappedData(graph);
+        File dataFile = MappedGraphData.dataFileFor(graphFile);
+
+        Files.copy(
+                MappedGraphData.dataFileFor(otherGraphFile).toPath(),
+                dataFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING
+        );
+        assertLoadFails(graphFile, "does not belong to the graph");
+
+        Files.delete(dataFile.toPath());
+        assertLoadFails(graphFile, "the data file is not found");
+    }
+
+    private static void assertLoadFails(File graphFile, String expectedMessage) {
+        try {
+            SerializedGraphObject.load(graphFile);
+            fail("Expected the graph load to fail with: " + expectedMessage);
+        }
+        catch (OtpAppException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+        }
+    }
+
+    private static File saveWithMemoryMappedData(Graph graph) throws Exception {
+        BuildConfig buildConfig = new BuildConfig(
+                ConfigLoader.nodeFromString("{\"memoryMappedGraphData\": true}", "Test"),
+                "Test",
+                false
+        );
+        File tempFile = TempFile.createTempFile("graph", "mmap");
+        MappedGraphData.dataFileFor(tempFile).deleteOnExit();
+
+        new SerializedGraphObject(graph, buildConfig, RouterConfig.DEFAULT)
+                .save(new FileDataSource(tempFile, FileType.GRAPH));
+        return tempFile;
+    }
+
     /**
      * Tests that saving a Graph to disk and reloading it results in a separate but semantically identical Graph.
      */
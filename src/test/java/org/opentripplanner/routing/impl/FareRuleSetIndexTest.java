@@ -0,0 +1,72 @@
+package org.opentripplanner.routing.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+import org.opentripplanner.model.FareAttribute;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.routing.core.FareRuleSet;
+
+public class FareRuleSetIndexTest {
+
+    private static final FeedScopedId ROUTE_1 = new FeedScopedId("F", "R1");
+    private static final FeedScopedId ROUTE_2 = new FeedScopedId("F", "R2");
+
+    private final FareRuleSet any = ruleSet("any");
+    private final FareRuleSet aToB = ruleSet("aToB");
+    private final FareRuleSet fromA = ruleSet("fromA");
+    private final FareRuleSet aToBOnRoute1 = ruleSet("aToBOnRoute1");
+    private final FareRuleSet onRoute2 = ruleSet("onRoute2");
+    private final FareRuleSet bToC = ruleSet("bToC");
+
+    private final FareRuleSetIndex subject;
+
+    public FareRuleSetIndexTest() {
+        aToB.addOriginDestination("A", "B");
+        fromA.addOriginDestination("A", null);
+        aToBOnRoute1.addOriginDestination("A", "B");
+        aToBOnRoute1.addRoute(ROUTE_1);
+        onRoute2.addRoute(ROUTE_2);
+        bToC.addOriginDestination("B", "C");
+
+        subject = new FareRuleSetIndex(List.of(any, aToB, fromA, aToBOnRoute1, onRoute2, bToC));
+    }
+
+    @Test
+    public void candidatesMatchingOriginDestinationAndRoute() {
+        assertEquals(Set.of(0, 1, 2, 3), candidates("A", "B", ROUTE_1));
+        assertEquals(Set.of(0, 1, 2, 4), candidates("A", "B", ROUTE_2));
+        assertEquals(Set.of(0, 2), candidates("A", "C", ROUTE_1));
+        assertEquals(Set.of(0, 5), candidates("B", "C", ROUTE_1));
+        assertEquals(Set.of(0), candidates(null, null, ROUTE_1));
+    }
+
+    @Test
+    public void isIndexOfTheGivenCollectionOnly() {
+        List<FareRuleSet> rules = List.of(any);
+        FareRuleSetIndex index = new FareRuleSetIndex(rules);
+
+        assertTrue(index.isIndexOf(rules));
+        assertFalse(index.isIndexOf(List.of(any)));
+        assertEquals(any, index.ruleSet(0));
+    }
+
+    private Set<Integer> candidates(String startZone, String endZone, FeedScopedId route) {
+        Set<Integer> result = new TreeSet<>();
+        for (int[] positions : subject.candidates(startZone, endZone, route)) {
+            for (int position : positions) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    private static FareRuleSet ruleSet(String id) {
+        return new FareRuleSet(new FareAttribute(new FeedScopedId("F", id)));
+    }
+}
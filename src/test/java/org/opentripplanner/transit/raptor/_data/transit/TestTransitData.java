@@ -75,6 +75,12 @@ public class TestTransitData implements RaptorTransitDataProvider<TestTripSchedu
     return this;
   }
 
+  public TestTransitData withTransfer(int fromStop, TestTransfer transfer) {
+    expandNumOfStops(Math.max(fromStop, transfer.stop()));
+    transfersByStop.get(fromStop).add(transfer);
+    return this;
+  }
+
   public TestTransitData withGuaranteedTransfers(
           TestTripSchedule fromTrip, int fromStopPos,
           TestTripSchedule toTrip, int toStopPos
@@ -0,0 +1,138 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.util.time.TimeUtils.hm2time;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.Optimization;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.service.SlicedSearchWindowWorker;
+
+/*
+ * FEATURE UNDER TEST
+ *
+ * Raptor should return the same paths when the search-window of a multi-criteria search is split
+ * into slices searched in parallel, as when the whole search-window is searched in one thread.
+ */
+public class G01_SearchWindowSlicesTest implements RaptorTestConstants {
+
+    private static final RaptorTuningParameters TUNING_PARAMETERS = new RaptorTuningParameters() {
+        @Override
+        public int searchThreadPoolSize() {
+            return 4;
+        }
+
+        @Override
+        public int minSearchWindowSliceInSeconds() {
+            return 600;
+        }
+    };
+
+    private final TestTransitData data = new TestTransitData();
+    private final RaptorRequestBuilder<TestTripSchedule> requestBuilder =
+            new RaptorRequestBuilder<>();
+    private final RaptorService<TestTripSchedule> singleThreadedService = new RaptorService<>(
+            RaptorConfig.defaultConfigForTest()
+    );
+    private final RaptorService<TestTripSchedule> slicedService = new RaptorService<>(
+            new RaptorConfig<>(TUNING_PARAMETERS)
+    );
+
+    @Before
+    public void setup() {
+        // A fast line with a transfer, and a slow direct line. The lines run with different
+        // frequencies, so which option is best varies over the search-window.
+        data.withRoutes(
+                route("R1", STOP_A, STOP_B).withTimetable(trips(0, 10, 5, 2)),
+                route("R2", STOP_B, STOP_D).withTimetable(trips(3, 15, 7, 2)),
+                route("R3", STOP_A, STOP_C, STOP_D).withTimetable(trips(6, 30, 12, 3))
+        );
+        requestBuilder.profile(RaptorProfile.MULTI_CRITERIA)
+                .enableOptimization(Optimization.PARALLEL)
+                .searchParams()
+                .addAccessPaths(walk(STOP_A, D1m))
+                .addEgressPaths(walk(STOP_D, D2m))
+                .earliestDepartureTime(T00_10)
+                .searchWindow(Duration.ofHours(2));
+    }
+
+    @Test
+    public void slicesCoverTheSameIterationsAsTheSearchWindow() {
+        RaptorRequest<TestTripSchedule> request = requestBuilder.build();
+        List<RaptorRequest<TestTripSchedule>> slices = SlicedSearchWindowWorker.slice(
+                request, TUNING_PARAMETERS
+        );
+
+        assertEquals(4, slices.size());
+
+        int expectedLatestIteration = T00_10 + 2 * 3600 - 60;
+        for (RaptorRequest<TestTripSchedule> it : slices) {
+            int latestIteration = it.searchParams().earliestDepartureTime()
+                    + it.searchParams().searchWindowInSeconds() - 60;
+            assertEquals(expectedLatestIteration, latestIteration);
+            assertTrue(it.searchParams().searchWindowInSeconds() >= 600);
+            expectedLatestIteration = it.searchParams().earliestDepartureTime() - 60;
+        }
+        assertEquals(T00_10 - 60, expectedLatestIteration);
+    }
+
+    @Test
+    public void smallSearchWindowIsNotSliced() {
+        requestBuilder.searchParams().searchWindow(Duration.ofMinutes(15));
+        assertTrue(SlicedSearchWindowWorker.slice(requestBuilder.build(), TUNING_PARAMETERS).isEmpty());
+    }
+
+    @Test
+    public void sameResultWithAndWithoutSlices() {
+        assertSameResult();
+    }
+
+    @Test
+    public void sameResultWithAndWithoutSlicesWithTimetable() {
+        requestBuilder.searchParams().timetableEnabled(true);
+        assertSameResult();
+    }
+
+    private void assertSameResult() {
+        RaptorRequest<TestTripSchedule> request = requestBuilder.build();
+        String expected = pathsToString(singleThreadedService.route(request, data));
+
+        assertTrue(expected, !expected.isEmpty());
+        assertEquals(expected, pathsToString(slicedService.route(request, data)));
+    }
+
+    /**
+     * Create trips every {@code frequency} minutes from {@code offset} to 3:00, each trip visit
+     * {@code nStops} stops and take {@code duration} minutes.
+     */
+    private static TestTripSchedule.Builder[] trips(
+            int offset, int frequency, int duration, int nStops
+    ) {
+        List<TestTripSchedule.Builder> trips = new ArrayList<>();
+        for (int t = offset; t < 180; t += frequency) {
+            int[] times = new int[nStops];
+            for (int i = 0; i < nStops; ++i) {
+                times[i] = hm2time(0, t + i * duration / (nStops - 1));
+            }
+            trips.add(schedule().times(times));
+        }
+        return trips.toArray(new TestTripSchedule.Builder[0]);
+    }
+}
@@ -0,0 +1,88 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.util.time.TimeUtils.hm2time;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.rangeraptor.configure.RaptorConfig;
+
+/*
+ * FEATURE UNDER TEST
+ *
+ * Raptor should notify the stop arrival times listener with the best arrival times at all stops
+ * after each iteration, the best arrival time for a traveler leaving the origin at the iteration
+ * departure time.
+ */
+public class H01_StopArrivalTimesTest implements RaptorTestConstants {
+
+    private final TestTransitData data = new TestTransitData();
+    private final RaptorRequestBuilder<TestTripSchedule> requestBuilder =
+            new RaptorRequestBuilder<>();
+    private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+            RaptorConfig.defaultConfigForTest()
+    );
+
+    @Before
+    public void setup() {
+        data.withRoute(
+                route("R1", STOP_A, STOP_B)
+                        .withTimetable(
+                                schedule("00:10 00:20"),
+                                schedule("00:20 00:30"),
+                                schedule("00:30 00:40")
+                        )
+        );
+        requestBuilder.profile(RaptorProfile.BEST_TIME)
+                .searchParams()
+                .addAccessPaths(walk(STOP_A, D1m))
+                .addEgressPaths(walk(STOP_B, D1m))
+                .earliestDepartureTime(T00_00)
+                .searchWindow(Duration.ofMinutes(30));
+    }
+
+    @Test
+    public void bestArrivalTimesForEachIteration() {
+        Map<Integer, Integer> arrivalTimeByDepartureTime = new TreeMap<>();
+
+        raptorService.routeStopArrivalTimes(
+                requestBuilder.build(),
+                data,
+                (departureTime, times) -> {
+                    assertFalse(times.reached(STOP_C));
+                    arrivalTimeByDepartureTime.put(
+                            departureTime,
+                            times.bestTransitArrivalTime(STOP_B)
+                    );
+                }
+        );
+
+        // One iteration for each minute in the search-window
+        assertEquals(30, arrivalTimeByDepartureTime.size());
+
+        // The access walk takes 1 minute, so a departure at 0:09 catch the 0:10 trip
+        assertEquals(hm2time(0, 20), (int) arrivalTimeByDepartureTime.get(T00_00));
+        assertEquals(hm2time(0, 20), (int) arrivalTimeByDepartureTime.get(hm2time(0, 9)));
+        assertEquals(hm2time(0, 30), (int) arrivalTimeByDepartureTime.get(T00_10));
+        assertEquals(hm2time(0, 40), (int) arrivalTimeByDepartureTime.get(hm2time(0, 29)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyTheBestTimeProfileIsSupported() {
+        requestBuilder.profile(RaptorProfile.STANDARD);
+        raptorService.routeStopArrivalTimes(requestBuilder.build(), data, (t, times) -> {});
+    }
+}
@@ -0,0 +1,84 @@
+package org.opentripplanner.updater;
+
+import java.util.Set;
+import org.opentripplanner.GtfsTest;
+import org.opentripplanner.model.Direction;
+import org.opentripplanner.model.FeedScopedId;
+import org.opentripplanner.model.Route;
+import org.opentripplanner.model.Trip;
+import org.opentripplanner.model.calendar.ServiceDate;
+import org.opentripplanner.routing.RoutingService;
+import org.opentripplanner.util.time.TimeUtils;
+
+/**
+ * The testagency feed has a frequency based trip with exact times on route 15, departing every
+ * hour from 06:00 to 10:00 and from 14:00 to 18:00. Its trips have no direction id.
+ */
+public class GtfsRealtimeFuzzyTripMatcherFrequencyTest extends GtfsTest {
+
+    private static final int DIRECTION = Direction.UNKNOWN.gtfsCode;
+
+    private static final ServiceDate DATE = new ServiceDate(2009, 9, 15);
+
+    public void testMatchFrequencyTripInsideHeadwayWindow() {
+        GtfsRealtimeFuzzyTripMatcher matcher = matcher();
+        Route route = route("15");
+
+        assertEquals("15.1", tripId(matcher.getTrip(route, DIRECTION, time("06:00"), DATE)));
+        assertEquals("15.1", tripId(matcher.getTrip(route, DIRECTION, time("09:00"), DATE)));
+        assertEquals("15.1", tripId(matcher.getTrip(route, DIRECTION, time("14:00"), DATE)));
+        assertEquals("15.1", tripId(matcher.getTrip(route, DIRECTION, time("18:00"), DATE)));
+    }
+
+    public void testNoMatchOutsideHeadwayWindow() {
+        GtfsRealtimeFuzzyTripMatcher matcher = matcher();
+        Route route = route("15");
+
+        assertNull(matcher.getTrip(route, DIRECTION, time("05:00"), DATE));
+        assertNull(matcher.getTrip(route, DIRECTION, time("11:00"), DATE));
+        assertNull(matcher.getTrip(route, DIRECTION, time("19:00"), DATE));
+        // Inside the window, but the times are exact and this is not a departure
+        assertNull(matcher.getTrip(route, DIRECTION, time("07:30"), DATE));
+    }
+
+    public void testOldestServiceDateIsDroppedAndRebuilt() {
+        GtfsRealtimeFuzzyTripMatcher matcher = matcher();
+        Route route = route("15");
+
+        for (int i = 0; i < 5; ++i) {
+            assertNotNull(matcher.getTrip(route, DIRECTION, time("07:00"), DATE.shift(i)));
+        }
+        assertEquals(
+                Set.of(DATE.shift(1), DATE.shift(2), DATE.shift(3), DATE.shift(4)),
+                matcher.getIndexedServiceDates()
+        );
+
+        assertEquals("15.1", tripId(matcher.getTrip(route, DIRECTION, time("07:00"), DATE)));
+        assertEquals(
+                Set.of(DATE, DATE.shift(2), DATE.shift(3), DATE.shift(4)),
+                matcher.getIndexedServiceDates()
+        );
+    }
+
+    private GtfsRealtimeFuzzyTripMatcher matcher() {
+        return new GtfsRealtimeFuzzyTripMatcher(new RoutingService(graph));
+    }
+
+    private Route route(String id) {
+        String feedId = graph.getFeedIds().iterator().next();
+        return new RoutingService(graph).getRouteForId(new FeedScopedId(feedId, id));
+    }
+
+    private static String tripId(Trip trip) {
+        return trip == null ? null : trip.getId().getId();
+    }
+
+    private static int time(String hhmm) {
+        return TimeUtils.time(hhmm + ":00");
+    }
+
+    @Override
+    public String getFeedName() {
+        return "testagency";
+    }
+}
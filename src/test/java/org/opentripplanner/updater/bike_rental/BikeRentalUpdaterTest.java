@@ -0,0 +1,191 @@
+package org.opentripplanner.updater.bike_rental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.routing.bike_rental.BikeRentalStation;
+import org.opentripplanner.routing.bike_rental.BikeRentalStationService;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.vertextype.BikeRentalStationVertex;
+import org.opentripplanner.updater.GraphUpdater;
+import org.opentripplanner.updater.GraphUpdaterManager;
+import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.util.NonLocalizedString;
+
+public class BikeRentalUpdaterTest {
+
+    private Graph graph;
+    private StubUpdaterManager updaterManager;
+    private StubDataSource source;
+    private BikeRentalUpdater updater;
+    private BikeRentalStationService service;
+
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        graph.index();
+        updaterManager = new StubUpdaterManager(graph);
+        source = new StubDataSource();
+        updater = new BikeRentalUpdater(
+                new BikeRentalUpdaterParameters("test", "network", 0, null),
+                source
+        );
+        updater.setGraphUpdaterManager(updaterManager);
+        updater.setup(graph);
+        service = graph.getService(BikeRentalStationService.class);
+    }
+
+    @After
+    public void tearDown() {
+        updaterManager.stop();
+    }
+
+    @Test
+    public void addedStationsAreLinked() {
+        BikeRentalStation a = station("A", 1);
+        BikeRentalStation b = station("B", 2);
+
+        poll(a, b);
+
+        assertEquals(Set.of(a, b), new HashSet<>(service.getBikeRentalStations()));
+        assertSame(a, vertex("A").getStation());
+        assertSame(b, vertex("B").getStation());
+        assertEquals(2, vertex("B").getBikesAvailable());
+    }
+
+    @Test
+    public void removedStationsAreUnlinked() {
+        poll(station("A", 1), station("B", 2));
+
+        poll(station("A", 1));
+
+        assertEquals(1, service.getBikeRentalStations().size());
+        assertTrue(updater.verticesByStation.containsKey(station("A", 1)));
+        assertNull(vertex("B"));
+        assertNull(updater.tempEdgesByStation.get(station("B", 2)));
+    }
+
+    @Test
+    public void changedAvailabilityIsUpdatedOnTheExistingVertex() {
+        poll(station("A", 1));
+        BikeRentalStationVertex vertex = vertex("A");
+
+        BikeRentalStation changed = station("A", 5);
+        poll(changed);
+
+        assertSame(vertex, vertex("A"));
+        assertEquals(5, vertex.getBikesAvailable());
+        assertSame(changed, service.getBikeRentalStations().iterator().next());
+    }
+
+    @Test
+    public void unchangedStationsAreNotTouched() {
+        BikeRentalStation a = station("A", 1);
+        poll(a);
+        BikeRentalStationVertex vertex = vertex("A");
+
+        poll(station("A", 1));
+
+        assertSame(vertex, vertex("A"));
+        assertSame(a, service.getBikeRentalStations().iterator().next());
+    }
+
+    @Test
+    public void renamedOrMovedStationsGetANewVertex() {
+        poll(station("A", 1));
+        BikeRentalStationVertex vertex = vertex("A");
+
+        BikeRentalStation renamed = station("A", 1);
+        renamed.name = new NonLocalizedString("New name");
+        poll(renamed);
+
+        assertNotSame(vertex, vertex("A"));
+        assertEquals("New name", vertex("A").getName());
+
+        BikeRentalStation moved = station("A", 1);
+        moved.name = renamed.name;
+        moved.x += 0.001;
+        poll(moved);
+
+        assertEquals(moved.x, vertex("A").getX(), 0.0);
+        assertEquals(1, service.getBikeRentalStations().size());
+    }
+
+    @Test
+    public void changesOfAFailedTaskAreAppliedByTheNextTask() {
+        poll(station("A", 1));
+
+        // The task for this poll is dropped, so the graph still has the state of the first poll
+        updaterManager.rejectTasks = true;
+        poll(station("B", 2));
+        updaterManager.rejectTasks = false;
+
+        poll(station("B", 2));
+
+        assertNull(vertex("A"));
+        assertEquals(2, vertex("B").getBikesAvailable());
+        assertEquals(1, service.getBikeRentalStations().size());
+    }
+
+    private void poll(BikeRentalStation... stations) {
+        source.stations = List.of(stations);
+        updater.runPolling();
+    }
+
+    private BikeRentalStationVertex vertex(String id) {
+        return updater.verticesByStation.get(station(id, 0));
+    }
+
+    private static BikeRentalStation station(String id, int bikesAvailable) {
+        BikeRentalStation station = new BikeRentalStation();
+        station.id = id;
+        station.name = new NonLocalizedString(id);
+        station.x = 10.0;
+        station.y = 60.0;
+        station.bikesAvailable = bikesAvailable;
+        station.spacesAvailable = 10 - bikesAvailable;
+        return station;
+    }
+
+    private static class StubDataSource implements BikeRentalDataSource {
+        private List<BikeRentalStation> stations = new ArrayList<>();
+
+        @Override
+        public boolean update() {
+            return true;
+        }
+
+        @Override
+        public List<BikeRentalStation> getStations() {
+            return stations;
+        }
+    }
+
+    /** Run the graph writer tasks at once, on the calling thread, or drop them. */
+    private static class StubUpdaterManager extends GraphUpdaterManager {
+        private final Graph graph;
+        private boolean rejectTasks = false;
+
+        StubUpdaterManager(Graph graph) {
+            super(graph);
+            this.graph = graph;
+        }
+
+        @Override
+        public void execute(GraphUpdater updater, GraphWriterRunnable runnable) {
+            if (!rejectTasks) {
+                runnable.run(graph);
+            }
+        }
+    }
+}
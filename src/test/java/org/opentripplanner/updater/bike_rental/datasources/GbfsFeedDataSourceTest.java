@@ -0,0 +1,91 @@
+package org.opentripplanner.updater.bike_rental.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentripplanner.routing.bike_rental.BikeRentalStation;
+import org.opentripplanner.updater.bike_rental.datasources.params.GbfsBikeRentalDataSourceParameters;
+
+public class GbfsFeedDataSourceTest {
+
+    private Path file;
+    private GbfsBikeRentalDataSource.GbfsFeedDataSource source;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("station_status", ".json");
+        source = new GbfsBikeRentalDataSource.GbfsFeedDataSource(
+                new GbfsBikeRentalDataSourceParameters(file.toUri().toString(), null, false, false),
+                "data/stations"
+        ) {
+            @Override
+            public BikeRentalStation makeStation(JsonNode node) {
+                BikeRentalStation station = new BikeRentalStation();
+                station.id = node.path("station_id").asText();
+                return station;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void feedIsParsedAgainOnlyWhenLastUpdatedChanges() throws IOException {
+        write(1000, 0, "A");
+        assertTrue(source.update());
+        assertEquals(List.of("A"), stationIds());
+
+        write(1000, 0, "B");
+        assertFalse(source.update());
+        assertEquals(List.of("A"), stationIds());
+
+        write(1001, 0, "B");
+        assertTrue(source.update());
+        assertEquals(List.of("B"), stationIds());
+    }
+
+    @Test
+    public void feedIsNotFetchedAgainBeforeTheTtlHasPassed() throws IOException {
+        write(1000, 3600, "A");
+        assertTrue(source.update());
+
+        write(1001, 3600, "B");
+        assertFalse(source.update());
+        assertEquals(List.of("A"), stationIds());
+    }
+
+    @Test
+    public void feedWithoutLastUpdatedIsAlwaysParsed() throws IOException {
+        write(-1, 0, "A");
+        assertTrue(source.update());
+
+        write(-1, 0, "B");
+        assertTrue(source.update());
+        assertEquals(List.of("B"), stationIds());
+    }
+
+    private List<String> stationIds() {
+        return source.getStations().stream().map(it -> it.id).collect(Collectors.toList());
+    }
+
+    private void write(long lastUpdated, int ttl, String stationId) throws IOException {
+        String lastUpdatedField = lastUpdated < 0 ? "" : "\"last_updated\": " + lastUpdated + ", ";
+        String json = "{" + lastUpdatedField + "\"ttl\": " + ttl + ", "
+                + "\"data\": {\"stations\": [{\"station_id\": \"" + stationId + "\"}]}}";
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+}